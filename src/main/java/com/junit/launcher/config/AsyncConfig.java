@@ -1,7 +1,11 @@
 package com.junit.launcher.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
@@ -9,11 +13,33 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 /**
  * Configuration for async support and SSE streaming.
+ * <p>
+ * Test bodies run on the bounded test execution pool. Orchestration runs on a separate
+ * executor, and MVC async handling (SSE streams, downloads and exports) on another, so
+ * executions waiting for their tests cannot hold up requests. Reports are generated on
+ * their own queue, so none of them takes execution slots away from running tests.
+ * <p>
+ * With virtual threads (Java 21 or later) orchestration and MVC async work get a thread
+ * per task; otherwise they run on pools that start threads up to their limit before
+ * queueing and let idle threads time out.
  */
 @Configuration
 @EnableAsync
 public class AsyncConfig implements WebMvcConfigurer {
 
+    private static final Logger logger = LoggerFactory.getLogger(AsyncConfig.class);
+    private static final String VIRTUAL_THREAD_MODE = "virtual";
+    static final int ORCHESTRATION_THREADS = 20;
+    static final int ORCHESTRATION_QUEUE_CAPACITY = 100;
+    static final int STREAMING_THREADS = 50;
+    static final int STREAMING_QUEUE_CAPACITY = 200;
+
+    private final ExecutionProperties executionProperties;
+
+    public AsyncConfig(ExecutionProperties executionProperties) {
+        this.executionProperties = executionProperties;
+    }
+
     @Bean(name = "testExecutionExecutor")
     public ThreadPoolTaskExecutor testExecutionExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
@@ -24,10 +50,70 @@ public class AsyncConfig implements WebMvcConfigurer {
         executor.initialize();
         return executor;
     }
-    
+
+    /**
+     * Small low-priority pool for Allure report generation, so reports queue up
+     * instead of competing with running tests for CPU and execution slots.
+     */
+    @Bean(name = "reportGenerationExecutor")
+    public ThreadPoolTaskExecutor reportGenerationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(50);
+        executor.setThreadPriority(Thread.MIN_PRIORITY);
+        executor.setThreadNamePrefix("report-gen-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs each execution's orchestration, which holds its thread while waiting for the tests.
+     */
+    @Bean(name = "orchestrationExecutor")
+    public AsyncTaskExecutor orchestrationExecutor() {
+        return threadModeExecutor("orchestration-", ORCHESTRATION_THREADS, ORCHESTRATION_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Runs MVC async work: SSE streams, report downloads and archive exports.
+     */
+    @Bean(name = "streamingExecutor")
+    public AsyncTaskExecutor streamingExecutor() {
+        return threadModeExecutor("streaming-", STREAMING_THREADS, STREAMING_QUEUE_CAPACITY);
+    }
+
     @Override
     public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
         configurer.setDefaultTimeout(1800000); // 30 minutes
-        configurer.setTaskExecutor(testExecutionExecutor());
+        configurer.setTaskExecutor(streamingExecutor());
+    }
+
+    private AsyncTaskExecutor threadModeExecutor(String threadNamePrefix, int threads, int queueCapacity) {
+        if (VIRTUAL_THREAD_MODE.equalsIgnoreCase(executionProperties.getThreadMode())) {
+            if (isVirtualThreadSupported()) {
+                SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+                executor.setVirtualThreads(true);
+                logger.info("Using virtual threads for {}", threadNamePrefix);
+                return executor;
+            }
+            logger.warn("Virtual threads require Java 21 or later (running {}); using platform threads for {}",
+                Runtime.version().feature(), threadNamePrefix);
+        }
+
+        // Core size equals the maximum so tasks get a new thread before they queue;
+        // idle threads time out, so the pool only stays large while it is busy
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.initialize();
+        return executor;
+    }
+
+    static boolean isVirtualThreadSupported() {
+        return Runtime.version().feature() >= 21;
     }
 }
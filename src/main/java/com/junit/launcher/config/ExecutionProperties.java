@@ -0,0 +1,27 @@
+package com.junit.launcher.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for execution threading.
+ */
+@Component
+@ConfigurationProperties(prefix = "execution")
+public class ExecutionProperties {
+
+    private String threadMode = "platform";
+
+    /**
+     * Threads used for orchestration and MVC async work: "platform" for bounded pools,
+     * or "virtual" for virtual threads (Java 21 or later; falls back to the platform
+     * pools on older runtimes). Test bodies always run on a bounded pool.
+     */
+    public String getThreadMode() {
+        return threadMode;
+    }
+
+    public void setThreadMode(String threadMode) {
+        this.threadMode = threadMode;
+    }
+}
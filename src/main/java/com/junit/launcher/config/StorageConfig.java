@@ -0,0 +1,21 @@
+package com.junit.launcher.config;
+
+import com.junit.launcher.service.ReportFileStore;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for report storage shared between services.
+ * <p>
+ * The report file store caches manifests and open archives, so every service reading
+ * report files must use the same instance; otherwise a report deleted or moved through
+ * one service stays cached, and its archive held open, in another.
+ */
+@Configuration
+public class StorageConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReportFileStore reportFileStore(StorageProperties storageProperties) {
+        return ReportFileStore.create(storageProperties);
+    }
+}
@@ -13,6 +13,20 @@ public class StorageProperties {
     private String reportsPath = "./allure-report";
     private String logsPath = "./storage/logs";
     private String allureResultsPath = "./allure-results";
+    private String logFormat = "plain";
+    private String resultsFormat = "files";
+    private String reportFormat = "directory";
+    private int reportCacheSizeMb = 32;
+    private boolean reportArchiveCache = false;
+    private int retentionMaxAgeDays = 0;
+    private int retentionMaxCount = 0;
+    private long retentionMaxSizeMb = 0;
+    private int retentionKeepLast = 10;
+    private int retentionIntervalMinutes = 60;
+    private int retentionBatchSize = 100;
+    private int coldAfterDays = 0;
+    private String coldPath = "";
+    private int coldRehydrateConcurrency = 2;
 
     public String getReportsPath() {
         return reportsPath;
@@ -37,4 +51,165 @@ public class StorageProperties {
     public void setAllureResultsPath(String allureResultsPath) {
         this.allureResultsPath = allureResultsPath;
     }
-}
\ No newline at end of file
+
+    /**
+     * Format of archived logs: "plain" text files, or "template" for template-mined
+     * compressed archives that share a dictionary in the logs directory.
+     */
+    public String getLogFormat() {
+        return logFormat;
+    }
+
+    public void setLogFormat(String logFormat) {
+        this.logFormat = logFormat;
+    }
+
+    /**
+     * Format of Allure results: "files" for one file per result, or "journal" for a
+     * single append-only journal per execution, turned into files only for reports.
+     */
+    public String getResultsFormat() {
+        return resultsFormat;
+    }
+
+    public void setResultsFormat(String resultsFormat) {
+        this.resultsFormat = resultsFormat;
+    }
+
+    /**
+     * Format of generated reports: "directory" for plain report directories, "blobs"
+     * to keep report files once in a content-addressed store shared by all reports, or
+     * "zip" to pack each report into a single archive served in place.
+     */
+    public String getReportFormat() {
+        return reportFormat;
+    }
+
+    public void setReportFormat(String reportFormat) {
+        this.reportFormat = reportFormat;
+    }
+
+    /**
+     * Memory in megabytes for caching served report files and their compressed variants.
+     */
+    public int getReportCacheSizeMb() {
+        return reportCacheSizeMb;
+    }
+
+    public void setReportCacheSizeMb(int reportCacheSizeMb) {
+        this.reportCacheSizeMb = reportCacheSizeMb;
+    }
+
+    /**
+     * Whether streamed report downloads also keep the finished archive, named by a hash
+     * of the report's content, so later downloads of the same report are plain copies.
+     */
+    public boolean isReportArchiveCache() {
+        return reportArchiveCache;
+    }
+
+    public void setReportArchiveCache(boolean reportArchiveCache) {
+        this.reportArchiveCache = reportArchiveCache;
+    }
+
+    /**
+     * Reports and logs older than this many days are deleted; 0 keeps them regardless of age.
+     */
+    public int getRetentionMaxAgeDays() {
+        return retentionMaxAgeDays;
+    }
+
+    public void setRetentionMaxAgeDays(int retentionMaxAgeDays) {
+        this.retentionMaxAgeDays = retentionMaxAgeDays;
+    }
+
+    /**
+     * Maximum number of reports, and separately of logs, to keep; 0 for no limit.
+     */
+    public int getRetentionMaxCount() {
+        return retentionMaxCount;
+    }
+
+    public void setRetentionMaxCount(int retentionMaxCount) {
+        this.retentionMaxCount = retentionMaxCount;
+    }
+
+    /**
+     * Megabytes that reports, their results and logs may take together before the
+     * oldest are deleted; 0 for no limit.
+     */
+    public long getRetentionMaxSizeMb() {
+        return retentionMaxSizeMb;
+    }
+
+    public void setRetentionMaxSizeMb(long retentionMaxSizeMb) {
+        this.retentionMaxSizeMb = retentionMaxSizeMb;
+    }
+
+    /**
+     * Number of newest reports, and separately of logs, never deleted by retention.
+     */
+    public int getRetentionKeepLast() {
+        return retentionKeepLast;
+    }
+
+    public void setRetentionKeepLast(int retentionKeepLast) {
+        this.retentionKeepLast = retentionKeepLast;
+    }
+
+    /**
+     * Minutes between background retention passes; 0 runs retention only on request.
+     */
+    public int getRetentionIntervalMinutes() {
+        return retentionIntervalMinutes;
+    }
+
+    public void setRetentionIntervalMinutes(int retentionIntervalMinutes) {
+        this.retentionIntervalMinutes = retentionIntervalMinutes;
+    }
+
+    /**
+     * Maximum number of reports and logs deleted in one retention pass.
+     */
+    public int getRetentionBatchSize() {
+        return retentionBatchSize;
+    }
+
+    public void setRetentionBatchSize(int retentionBatchSize) {
+        this.retentionBatchSize = retentionBatchSize;
+    }
+
+    /**
+     * Days a report may go unopened before it is packed, with its results, into a
+     * compressed cold archive; 0 keeps all reports as they are.
+     */
+    public int getColdAfterDays() {
+        return coldAfterDays;
+    }
+
+    public void setColdAfterDays(int coldAfterDays) {
+        this.coldAfterDays = coldAfterDays;
+    }
+
+    /**
+     * Directory for cold report archives; empty for a ".cold" directory under the reports path.
+     */
+    public String getColdPath() {
+        return coldPath;
+    }
+
+    public void setColdPath(String coldPath) {
+        this.coldPath = coldPath;
+    }
+
+    /**
+     * Maximum number of cold reports restored at the same time when they are opened.
+     */
+    public int getColdRehydrateConcurrency() {
+        return coldRehydrateConcurrency;
+    }
+
+    public void setColdRehydrateConcurrency(int coldRehydrateConcurrency) {
+        this.coldRehydrateConcurrency = coldRehydrateConcurrency;
+    }
+}
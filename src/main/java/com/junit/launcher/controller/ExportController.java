@@ -0,0 +1,66 @@
+package com.junit.launcher.controller;
+
+import com.junit.launcher.model.ExportRequest;
+import com.junit.launcher.service.ArchiveService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * REST controller for exporting many reports and logs at once.
+ */
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportController.class);
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+
+    private final ArchiveService archiveService;
+
+    public ExportController(ArchiveService archiveService) {
+        this.archiveService = archiveService;
+    }
+
+    /**
+     * Downloads reports, their Allure results and logs as one ZIP archive, streamed as
+     * it is built. Select with from and to (timestamp prefixes, e.g. "2024-01"),
+     * reportIds and logIds; includeResults and includeLogs default to true.
+     *
+     * @param request Selection bound from query parameters
+     * @return The streamed archive, or 400 if nothing is selected
+     */
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exportArchive(ExportRequest request) {
+        if (request.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = out -> {
+            try {
+                archiveService.exportArchive(request, out);
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                logger.error("Export failed", e);
+                throw new IOException("Export failed", e);
+            }
+        };
+
+        String fileName = "export-" + LocalDateTime.now().format(TIMESTAMP_FORMATTER) + ".zip";
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+}
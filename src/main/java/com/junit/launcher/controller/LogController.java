@@ -1,7 +1,9 @@
 package com.junit.launcher.controller;
 
 import com.junit.launcher.model.LogFileMetadata;
+import com.junit.launcher.model.LogSearchResult;
 import com.junit.launcher.service.ArchiveService;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
@@ -11,8 +13,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -46,6 +50,28 @@ public class LogController {
         }
     }
     
+    /**
+     * Searches archived logs for lines containing all tokens of the query.
+     * 
+     * @param query The search query, e.g. an exception class name
+     * @param limit Maximum number of logs to return
+     * @return Matching logs with line numbers, newest first
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<LogSearchResult>> searchLogs(@RequestParam("q") String query,
+                                                            @RequestParam(defaultValue = "50") int limit) {
+        if (query == null || query.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        try {
+            List<LogSearchResult> results = archiveService.searchLogs(query, limit);
+            return ResponseEntity.ok(results);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
     /**
      * Views a specific log file content.
      * 
@@ -93,12 +119,21 @@ public class LogController {
                 return ResponseEntity.notFound().build();
             }
             
-            Resource resource = new FileSystemResource(logPath);
+            String fileName = logPath.getFileName().toString();
+            Resource resource;
+            if (fileName.endsWith(".log")) {
+                resource = new FileSystemResource(logPath);
+            } else {
+                // Encoded archive formats are decoded back to plain text for download
+                String logContent = archiveService.getLogFile(logId);
+                resource = new ByteArrayResource(logContent.getBytes(StandardCharsets.UTF_8));
+                fileName = fileName.substring(0, fileName.lastIndexOf('.')) + ".log";
+            }
             
             return ResponseEntity.ok()
                     .contentType(MediaType.TEXT_PLAIN)
                     .header(HttpHeaders.CONTENT_DISPOSITION, 
-                           "attachment; filename=\"" + logPath.getFileName().toString() + "\"")
+                           "attachment; filename=\"" + fileName + "\"")
                     .body(resource);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -2,22 +2,29 @@ package com.junit.launcher.controller;
 
 import com.junit.launcher.config.StorageProperties;
 import com.junit.launcher.model.ExecutionResponse;
+import com.junit.launcher.model.ReportAsset;
 import com.junit.launcher.model.ReportMetadata;
+import com.junit.launcher.model.ReportPage;
+import com.junit.launcher.model.ReportQuery;
 import com.junit.launcher.service.ArchiveService;
 import com.junit.launcher.service.ReportService;
 import com.junit.launcher.service.TestExecutionService;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.nio.file.Files;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * REST controller for report operations.
@@ -26,6 +33,9 @@ import java.util.List;
 @RequestMapping("/api/reports")
 public class ReportController {
     
+    private static final CacheControl REPORT_CACHE_CONTROL =
+            CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+    
     private final ReportService reportService;
     private final ArchiveService archiveService;
     private final StorageProperties storageProperties;
@@ -42,15 +52,24 @@ public class ReportController {
     }
     
     /**
-     * Lists all available reports.
+     * Lists reports, newest first.
+     * Without query parameters all reports are returned as a list. With any of
+     * from, to, status (passed|failed), combinedOnly, limit or cursor a single
+     * {@link ReportPage} is returned; pass its nextCursor to fetch the next page.
      * 
-     * @return List of report metadata sorted by timestamp (newest first)
+     * @param query Optional paging and filter criteria bound from query parameters
+     * @return List of all report metadata, a page of report metadata, or 400 for invalid criteria
      */
     @GetMapping
-    public ResponseEntity<List<ReportMetadata>> listReports() {
+    public ResponseEntity<?> listReports(ReportQuery query) {
         try {
-            List<ReportMetadata> reports = reportService.listReports();
-            return ResponseEntity.ok(reports);
+            if (query.isEmpty()) {
+                List<ReportMetadata> reports = reportService.listReports();
+                return ResponseEntity.ok(reports);
+            }
+            return ResponseEntity.ok(reportService.queryReports(query));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -62,6 +81,11 @@ public class ReportController {
      * - /api/reports/{reportId}/index.html
      * - /api/reports/{reportId}/styles.css
      * - /api/reports/{reportId}/data/suites.json
+     * <p>
+     * Report files never change, so they are served with a strong ETag and immutable
+     * cache headers, gzip-compressed when the client accepts it. A request whose
+     * If-None-Match matches a cached file is answered 304 without reading the report.
+     * A report in cold storage is rehydrated by the first request for one of its files.
      * 
      * @param reportId The report identifier
      * @param request The HTTP request to extract the file path
@@ -71,11 +95,6 @@ public class ReportController {
     public ResponseEntity<Resource> getReportFile(@PathVariable String reportId,
                                                    jakarta.servlet.http.HttpServletRequest request) {
         try {
-            ReportMetadata metadata = reportService.getReportMetadata(reportId);
-            if (metadata == null) {
-                return ResponseEntity.notFound().build();
-            }
-            
             // Extract the file path after /{reportId}/
             String requestUrl = request.getRequestURI();
             String prefix = "/api/reports/" + reportId + "/";
@@ -86,54 +105,74 @@ public class ReportController {
                 filePath = "index.html";
             }
             
-            Path fullPath = Paths.get(metadata.getReportPath(), filePath);
-            
-            // Security check: ensure the resolved path is within the report directory
-            Path reportDir = Paths.get(metadata.getReportPath()).toAbsolutePath().normalize();
-            Path requestedPath = fullPath.toAbsolutePath().normalize();
-            
-            if (!requestedPath.startsWith(reportDir)) {
+            // Security check: ensure the path stays within the report directory
+            Path normalizedPath = Paths.get(filePath).normalize();
+            if (normalizedPath.isAbsolute() || normalizedPath.startsWith("..")) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
             
-            if (!Files.exists(fullPath) || Files.isDirectory(fullPath)) {
+            ReportAsset asset = reportService.getReportAsset(reportId, filePath);
+            if (asset == null) {
                 return ResponseEntity.notFound().build();
             }
             
-            Resource resource = new FileSystemResource(fullPath);
+            if (matchesEtag(request.getHeader(HttpHeaders.IF_NONE_MATCH), asset.getEtag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(asset.getEtag())
+                        .cacheControl(REPORT_CACHE_CONTROL)
+                        .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                        .build();
+            }
             
-            // Determine content type based on file extension
-            String contentType = determineContentType(filePath);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(determineContentType(filePath)))
+                    .eTag(asset.getEtag())
+                    .cacheControl(REPORT_CACHE_CONTROL)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING);
             
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .body(resource);
+            if (asset.getGzipContent() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+                return response
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .body(new ByteArrayResource(asset.getGzipContent()));
+            }
+            if (asset.getContent() != null) {
+                return response.body(new ByteArrayResource(asset.getContent()));
+            }
+            return response.body(new FileSystemResource(asset.getPath()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
     
     /**
-     * Downloads a report as a ZIP archive.
+     * Downloads a report as a ZIP archive. The archive is streamed as it is built,
+     * so the download starts right away.
      * 
      * @param reportId The report identifier
      * @return ZIP file containing the report
      */
     @GetMapping("/{reportId}/download")
-    public ResponseEntity<Resource> downloadReport(@PathVariable String reportId) {
+    public ResponseEntity<StreamingResponseBody> downloadReport(@PathVariable String reportId) {
         try {
-            Path archivePath = archiveService.createReportArchive(reportId);
-            if (archivePath == null || !Files.exists(archivePath)) {
+            if (reportService.getReportMetadata(reportId) == null) {
                 return ResponseEntity.notFound().build();
             }
             
-            Resource resource = new FileSystemResource(archivePath);
+            StreamingResponseBody body = out -> {
+                try {
+                    archiveService.writeReportArchive(reportId, out);
+                } catch (IOException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IOException("Failed to stream archive of report: " + reportId, e);
+                }
+            };
             
             return ResponseEntity.ok()
                     .contentType(MediaType.APPLICATION_OCTET_STREAM)
                     .header(HttpHeaders.CONTENT_DISPOSITION, 
-                           "attachment; filename=\"" + archivePath.getFileName().toString() + "\"")
-                    .body(resource);
+                           "attachment; filename=\"" + reportId + ".zip\"")
+                    .body(body);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -172,6 +211,42 @@ public class ReportController {
     }
     
     
+    /**
+     * Checks an If-None-Match header against an entity tag; weak tags compare by value.
+     */
+    private boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Checks whether an Accept-Encoding header allows gzip.
+     */
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String candidate : acceptEncoding.split(",")) {
+            String[] parts = candidate.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                String quality = parts.length > 1 ? parts[1].replace(" ", "") : "";
+                return !quality.startsWith("q=0") || quality.matches("q=0\\.\\d*[1-9]\\d*");
+            }
+        }
+        return false;
+    }
+    
     /**
      * Determines the content type based on file extension.
      */
@@ -0,0 +1,52 @@
+package com.junit.launcher.controller;
+
+import com.junit.launcher.model.RetentionResult;
+import com.junit.launcher.service.RetentionService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for storage retention.
+ */
+@RestController
+@RequestMapping("/api/retention")
+public class RetentionController {
+    
+    private final RetentionService retentionService;
+    
+    public RetentionController(RetentionService retentionService) {
+        this.retentionService = retentionService;
+    }
+    
+    /**
+     * Gets what the most recent retention pass deleted and reclaimed.
+     * 
+     * @return The last result, or 204 if no pass has run yet
+     */
+    @GetMapping
+    public ResponseEntity<RetentionResult> getLastResult() {
+        RetentionResult result = retentionService.getLastResult();
+        if (result == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(result);
+    }
+    
+    /**
+     * Runs a retention pass now.
+     * 
+     * @return What the pass deleted and reclaimed
+     */
+    @PostMapping("/run")
+    public ResponseEntity<RetentionResult> runRetention() {
+        try {
+            return ResponseEntity.ok(retentionService.runRetention());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.junit.launcher.controller;
 import com.junit.launcher.model.ExecutionRequest;
 import com.junit.launcher.model.ExecutionResponse;
 import com.junit.launcher.model.ExecutionStatus;
+import com.junit.launcher.model.LogStreamFilter;
 import com.junit.launcher.service.LogStreamingService;
 import com.junit.launcher.service.TestExecutionService;
 import org.springframework.http.HttpStatus;
@@ -13,6 +14,8 @@ import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashSet;
+import java.util.List;
 
 /**
  * REST controller for test execution operations.
@@ -62,13 +65,42 @@ public class TestExecutionController {
     
     /**
      * Streams logs for a test execution via Server-Sent Events.
+     * Optional query parameters (level, logger, regex, testEventsOnly) restrict the
+     * stream to matching lines; filtering happens on the server.
      * 
      * @param executionId The execution ID to stream logs for
-     * @return SseEmitter for streaming log messages
+     * @param filter Optional filter criteria bound from query parameters
+     * @return SseEmitter for streaming log messages, or 400 for an invalid filter
      */
     @GetMapping(value = "/stream/{executionId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public SseEmitter streamLogs(@PathVariable String executionId) {
-        return logStreamingService.streamLogs(executionId);
+    public ResponseEntity<SseEmitter> streamLogs(@PathVariable String executionId, LogStreamFilter filter) {
+        try {
+            return ResponseEntity.ok(logStreamingService.streamLogs(executionId, filter));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Streams several executions over a single Server-Sent Events connection.
+     * Each event carries a JSON frame tagged with its execution ID. Without the
+     * executionIds parameter the stream follows every execution, including ones
+     * started later; with it the stream completes once all listed executions have.
+     * Unknown execution IDs are completed as soon as the client connects.
+     * 
+     * @param executionIds Optional comma-separated execution IDs to follow
+     * @param filter Optional log filter criteria bound from query parameters
+     * @return SseEmitter for streaming frames, or 400 for an invalid filter
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamExecutions(@RequestParam(required = false) List<String> executionIds,
+                                                       LogStreamFilter filter) {
+        try {
+            return ResponseEntity.ok(logStreamingService.streamExecutions(
+                executionIds != null ? new LinkedHashSet<>(executionIds) : null, filter));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     /**
@@ -0,0 +1,78 @@
+package com.junit.launcher.logging;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of fixed-size direct byte buffers used as segments of off-heap log buffers.
+ * <p>
+ * Released segments are kept for reuse up to a bounded count; beyond that they are left
+ * to the garbage collector, which frees their native memory.
+ */
+public class DirectBufferPool {
+
+    private final int segmentSize;
+    private final int maxPooledSegments;
+    private final Queue<ByteBuffer> pool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledSegments = new AtomicInteger();
+    private final AtomicInteger allocatedSegments = new AtomicInteger();
+
+    public DirectBufferPool(int segmentSize, int maxPooledSegments) {
+        if (segmentSize < 4) {
+            throw new IllegalArgumentException("Segment size must hold at least one UTF-8 character");
+        }
+        this.segmentSize = segmentSize;
+        this.maxPooledSegments = maxPooledSegments;
+    }
+
+    /**
+     * Takes an empty segment from the pool, allocating a new one if the pool is empty.
+     *
+     * @return A cleared direct buffer of the pool's segment size
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer segment = pool.poll();
+        if (segment != null) {
+            pooledSegments.decrementAndGet();
+            segment.clear();
+            return segment;
+        }
+        allocatedSegments.incrementAndGet();
+        return ByteBuffer.allocateDirect(segmentSize);
+    }
+
+    /**
+     * Returns a segment to the pool.
+     *
+     * @param segment A segment previously obtained from {@link #acquire()}
+     */
+    public void release(ByteBuffer segment) {
+        if (pooledSegments.incrementAndGet() <= maxPooledSegments) {
+            segment.clear();
+            pool.offer(segment);
+        } else {
+            pooledSegments.decrementAndGet();
+            allocatedSegments.decrementAndGet();
+        }
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Gets the number of idle segments waiting in the pool.
+     */
+    public int getPooledSegments() {
+        return pooledSegments.get();
+    }
+
+    /**
+     * Gets the number of segments currently allocated, in use or pooled.
+     */
+    public int getAllocatedSegments() {
+        return allocatedSegments.get();
+    }
+}
@@ -0,0 +1,150 @@
+package com.junit.launcher.logging;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Append-only UTF-8 log buffer stored in pooled direct memory segments.
+ * <p>
+ * Text is encoded straight into the current segment. The encoder only stops at character
+ * boundaries, so every segment holds complete characters and can be decoded on its own.
+ * Readers work on a snapshot of the segments; releasing the buffer while a read is in
+ * progress defers returning the segments to the pool until the read finishes.
+ */
+public class OffHeapLogBuffer {
+
+    private final DirectBufferPool pool;
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    private long size;
+    private int activeReaders;
+    private boolean released;
+
+    public OffHeapLogBuffer(DirectBufferPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Appends text to the buffer. Ignored once the buffer has been released.
+     *
+     * @param text The text to append
+     */
+    public synchronized void append(String text) {
+        if (released || text.isEmpty()) {
+            return;
+        }
+
+        CharBuffer in = CharBuffer.wrap(text);
+        encoder.reset();
+
+        ByteBuffer segment = currentSegment();
+        int startPosition = segment.position();
+        while (true) {
+            CoderResult result = encoder.encode(in, segment, true);
+            if (result.isOverflow()) {
+                size += segment.position() - startPosition;
+                segment = newSegment();
+                startPosition = 0;
+            } else {
+                break;
+            }
+        }
+        while (encoder.flush(segment).isOverflow()) {
+            size += segment.position() - startPosition;
+            segment = newSegment();
+            startPosition = 0;
+        }
+        size += segment.position() - startPosition;
+    }
+
+    /**
+     * Decodes the buffer segment by segment without holding the buffer lock.
+     *
+     * @param consumer Receives the text of each segment in order
+     */
+    public void forEachChunk(Consumer<String> consumer) {
+        List<ByteBuffer> snapshot = new ArrayList<>();
+        synchronized (this) {
+            if (released) {
+                return;
+            }
+            activeReaders++;
+            for (ByteBuffer segment : segments) {
+                ByteBuffer view = segment.duplicate();
+                view.flip();
+                snapshot.add(view);
+            }
+        }
+
+        try {
+            for (ByteBuffer view : snapshot) {
+                consumer.accept(StandardCharsets.UTF_8.decode(view).toString());
+            }
+        } finally {
+            synchronized (this) {
+                activeReaders--;
+                if (released && activeReaders == 0) {
+                    returnSegments();
+                }
+            }
+        }
+    }
+
+    /**
+     * Decodes the whole buffer into a string.
+     */
+    public String readAll() {
+        StringBuilder text = new StringBuilder((int) Math.min(Integer.MAX_VALUE, size()));
+        forEachChunk(text::append);
+        return text.toString();
+    }
+
+    /**
+     * Gets the number of encoded bytes in the buffer.
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Returns all segments to the pool. The buffer is empty afterwards.
+     */
+    public synchronized void release() {
+        if (released) {
+            return;
+        }
+        released = true;
+        if (activeReaders == 0) {
+            returnSegments();
+        }
+    }
+
+    private void returnSegments() {
+        segments.forEach(pool::release);
+        segments.clear();
+        size = 0;
+    }
+
+    private ByteBuffer currentSegment() {
+        if (segments.isEmpty()) {
+            return newSegment();
+        }
+        return segments.get(segments.size() - 1);
+    }
+
+    private ByteBuffer newSegment() {
+        ByteBuffer segment = pool.acquire();
+        segments.add(segment);
+        return segment;
+    }
+}
@@ -3,6 +3,7 @@ package com.junit.launcher.logging;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.AppenderBase;
 import com.junit.launcher.service.LogStreamingService;
+import org.slf4j.event.Level;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.stereotype.Component;
@@ -30,7 +31,8 @@ public class SseLogAppender extends AppenderBase<ILoggingEvent> implements Appli
         if (logStreamingService != null) {
             String executionId = event.getMDCPropertyMap().get("executionId");
             if (executionId != null) {
-                logStreamingService.publishLog(executionId, event.getFormattedMessage() + "\n");
+                logStreamingService.publishLog(executionId, event.getFormattedMessage() + "\n",
+                    Level.valueOf(event.getLevel().levelStr), event.getLoggerName());
             }
         }
     }
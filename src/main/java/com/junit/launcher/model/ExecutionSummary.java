@@ -0,0 +1,145 @@
+package com.junit.launcher.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Outcome of a test run, accumulated from listener events while the tests execute.
+ */
+public class ExecutionSummary {
+    
+    private String executionId;
+    private int passedTests;
+    private int failedTests;
+    private int brokenTests;
+    private int skippedTests;
+    private long durationMillis;
+    private List<String> failedTestIds;
+    private List<String> brokenTestIds;
+    
+    public ExecutionSummary() {
+        this.failedTestIds = new ArrayList<>();
+        this.brokenTestIds = new ArrayList<>();
+    }
+    
+    public ExecutionSummary(String executionId) {
+        this();
+        this.executionId = executionId;
+    }
+    
+    public String getExecutionId() {
+        return executionId;
+    }
+    
+    public void setExecutionId(String executionId) {
+        this.executionId = executionId;
+    }
+    
+    /**
+     * Number of tests that reported a result, broken tests included.
+     */
+    public int getTotalTests() {
+        return passedTests + failedTests + brokenTests + skippedTests;
+    }
+    
+    public int getPassedTests() {
+        return passedTests;
+    }
+    
+    public void setPassedTests(int passedTests) {
+        this.passedTests = passedTests;
+    }
+    
+    public int getFailedTests() {
+        return failedTests;
+    }
+    
+    public void setFailedTests(int failedTests) {
+        this.failedTests = failedTests;
+    }
+    
+    /**
+     * Number of aborted tests, reported to Allure as broken.
+     */
+    public int getBrokenTests() {
+        return brokenTests;
+    }
+    
+    public void setBrokenTests(int brokenTests) {
+        this.brokenTests = brokenTests;
+    }
+    
+    public int getSkippedTests() {
+        return skippedTests;
+    }
+    
+    public void setSkippedTests(int skippedTests) {
+        this.skippedTests = skippedTests;
+    }
+    
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+    
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+    
+    /**
+     * JUnit unique IDs of failed tests.
+     */
+    public List<String> getFailedTestIds() {
+        return failedTestIds;
+    }
+    
+    public void setFailedTestIds(List<String> failedTestIds) {
+        this.failedTestIds = failedTestIds != null ? new ArrayList<>(failedTestIds) : new ArrayList<>();
+    }
+    
+    /**
+     * JUnit unique IDs of aborted tests.
+     */
+    public List<String> getBrokenTestIds() {
+        return brokenTestIds;
+    }
+    
+    public void setBrokenTestIds(List<String> brokenTestIds) {
+        this.brokenTestIds = brokenTestIds != null ? new ArrayList<>(brokenTestIds) : new ArrayList<>();
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ExecutionSummary that = (ExecutionSummary) o;
+        return passedTests == that.passedTests &&
+               failedTests == that.failedTests &&
+               brokenTests == that.brokenTests &&
+               skippedTests == that.skippedTests &&
+               durationMillis == that.durationMillis &&
+               Objects.equals(executionId, that.executionId) &&
+               Objects.equals(failedTestIds, that.failedTestIds) &&
+               Objects.equals(brokenTestIds, that.brokenTestIds);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(executionId, passedTests, failedTests, brokenTests, skippedTests,
+                          durationMillis, failedTestIds, brokenTestIds);
+    }
+    
+    @Override
+    public String toString() {
+        return "ExecutionSummary{" +
+               "executionId='" + executionId + '\'' +
+               ", passedTests=" + passedTests +
+               ", failedTests=" + failedTests +
+               ", brokenTests=" + brokenTests +
+               ", skippedTests=" + skippedTests +
+               ", durationMillis=" + durationMillis +
+               ", failedTestIds=" + failedTestIds +
+               ", brokenTestIds=" + brokenTestIds +
+               '}';
+    }
+}
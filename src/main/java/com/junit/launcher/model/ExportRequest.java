@@ -0,0 +1,108 @@
+package com.junit.launcher.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Selection of reports and logs to export as one archive. Reports and logs are
+ * selected by ID, by time range, or both. Time bounds are compared against report
+ * and log timestamps (yyyy-MM-dd_HH-mm-ss) and may be any prefix of that format,
+ * e.g. "2024-01" or "2024-01-15".
+ */
+public class ExportRequest {
+
+    private String from;
+    private String to;
+    private List<String> reportIds = new ArrayList<>();
+    private List<String> logIds = new ArrayList<>();
+    private boolean includeResults = true;
+    private boolean includeLogs = true;
+
+    public ExportRequest() {
+    }
+
+    /**
+     * Inclusive lower time bound.
+     */
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    /**
+     * Exclusive upper time bound.
+     */
+    public String getTo() {
+        return to;
+    }
+
+    public void setTo(String to) {
+        this.to = to;
+    }
+
+    /**
+     * Reports to export in addition to those in the time range.
+     */
+    public List<String> getReportIds() {
+        return reportIds;
+    }
+
+    public void setReportIds(List<String> reportIds) {
+        this.reportIds = reportIds != null ? reportIds : new ArrayList<>();
+    }
+
+    /**
+     * Logs to export in addition to those in the time range.
+     */
+    public List<String> getLogIds() {
+        return logIds;
+    }
+
+    public void setLogIds(List<String> logIds) {
+        this.logIds = logIds != null ? logIds : new ArrayList<>();
+    }
+
+    /**
+     * Whether the Allure results of exported reports are included.
+     */
+    public boolean isIncludeResults() {
+        return includeResults;
+    }
+
+    public void setIncludeResults(boolean includeResults) {
+        this.includeResults = includeResults;
+    }
+
+    /**
+     * Whether logs in the time range are included.
+     */
+    public boolean isIncludeLogs() {
+        return includeLogs;
+    }
+
+    public void setIncludeLogs(boolean includeLogs) {
+        this.includeLogs = includeLogs;
+    }
+
+    /**
+     * Whether the request selects nothing, neither by ID nor by time.
+     */
+    public boolean isEmpty() {
+        return from == null && to == null && reportIds.isEmpty() && logIds.isEmpty();
+    }
+
+    /**
+     * Checks whether a timestamp falls within the time range. Without bounds no
+     * timestamp matches, so that selecting by ID alone does not export everything.
+     */
+    public boolean isInRange(String timestamp) {
+        if (timestamp == null || (from == null && to == null)) {
+            return false;
+        }
+        return (from == null || timestamp.compareTo(from) >= 0)
+            && (to == null || timestamp.compareTo(to) < 0);
+    }
+}
@@ -0,0 +1,85 @@
+package com.junit.launcher.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A single archived log that matched a log search query.
+ */
+public class LogSearchResult {
+
+    private String logId;
+    private String executionId;
+    private String timestamp;
+    private List<Integer> lineNumbers;
+
+    public LogSearchResult() {
+        this.lineNumbers = new ArrayList<>();
+    }
+
+    public LogSearchResult(String logId, String executionId, String timestamp, List<Integer> lineNumbers) {
+        this.logId = logId;
+        this.executionId = executionId;
+        this.timestamp = timestamp;
+        this.lineNumbers = lineNumbers != null ? new ArrayList<>(lineNumbers) : new ArrayList<>();
+    }
+
+    public String getLogId() {
+        return logId;
+    }
+
+    public void setLogId(String logId) {
+        this.logId = logId;
+    }
+
+    public String getExecutionId() {
+        return executionId;
+    }
+
+    public void setExecutionId(String executionId) {
+        this.executionId = executionId;
+    }
+
+    public String getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(String timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public List<Integer> getLineNumbers() {
+        return lineNumbers;
+    }
+
+    public void setLineNumbers(List<Integer> lineNumbers) {
+        this.lineNumbers = lineNumbers != null ? new ArrayList<>(lineNumbers) : new ArrayList<>();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LogSearchResult that = (LogSearchResult) o;
+        return Objects.equals(logId, that.logId) &&
+               Objects.equals(executionId, that.executionId) &&
+               Objects.equals(timestamp, that.timestamp) &&
+               Objects.equals(lineNumbers, that.lineNumbers);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(logId, executionId, timestamp, lineNumbers);
+    }
+
+    @Override
+    public String toString() {
+        return "LogSearchResult{" +
+               "logId='" + logId + '\'' +
+               ", executionId='" + executionId + '\'' +
+               ", timestamp='" + timestamp + '\'' +
+               ", lineNumbers=" + lineNumbers +
+               '}';
+    }
+}
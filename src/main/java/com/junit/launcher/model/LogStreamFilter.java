@@ -0,0 +1,106 @@
+package com.junit.launcher.model;
+
+import java.util.Objects;
+
+/**
+ * Criteria a log stream subscriber uses to receive only matching log lines.
+ * All criteria are optional; an empty filter receives every line.
+ */
+public class LogStreamFilter {
+    
+    private String level;
+    private String logger;
+    private String regex;
+    private boolean testEventsOnly;
+    
+    public LogStreamFilter() {
+    }
+    
+    public LogStreamFilter(String level, String logger, String regex, boolean testEventsOnly) {
+        this.level = level;
+        this.logger = logger;
+        this.regex = regex;
+        this.testEventsOnly = testEventsOnly;
+    }
+    
+    /**
+     * Minimum log level, e.g. "WARN". Lines published by the launcher itself count as INFO.
+     */
+    public String getLevel() {
+        return level;
+    }
+    
+    public void setLevel(String level) {
+        this.level = level;
+    }
+    
+    /**
+     * Logger name prefix, e.g. "com.example". Lines without a logger never match it.
+     */
+    public String getLogger() {
+        return logger;
+    }
+    
+    public void setLogger(String logger) {
+        this.logger = logger;
+    }
+    
+    /**
+     * Regular expression that must be found in the line.
+     */
+    public String getRegex() {
+        return regex;
+    }
+    
+    public void setRegex(String regex) {
+        this.regex = regex;
+    }
+    
+    /**
+     * Whether only test lifecycle lines ("[TEST STARTED]", "[TEST FINISHED]", ...) are sent.
+     */
+    public boolean isTestEventsOnly() {
+        return testEventsOnly;
+    }
+    
+    public void setTestEventsOnly(boolean testEventsOnly) {
+        this.testEventsOnly = testEventsOnly;
+    }
+    
+    /**
+     * Checks whether the filter has no criteria.
+     */
+    public boolean isEmpty() {
+        return isBlank(level) && isBlank(logger) && isBlank(regex) && !testEventsOnly;
+    }
+    
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LogStreamFilter that = (LogStreamFilter) o;
+        return testEventsOnly == that.testEventsOnly &&
+               Objects.equals(level, that.level) &&
+               Objects.equals(logger, that.logger) &&
+               Objects.equals(regex, that.regex);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(level, logger, regex, testEventsOnly);
+    }
+    
+    @Override
+    public String toString() {
+        return "LogStreamFilter{" +
+               "level='" + level + '\'' +
+               ", logger='" + logger + '\'' +
+               ", regex='" + regex + '\'' +
+               ", testEventsOnly=" + testEventsOnly +
+               '}';
+    }
+}
@@ -0,0 +1,246 @@
+package com.junit.launcher.model;
+
+import java.util.Objects;
+
+/**
+ * Structured progress update for a test execution, streamed to clients as a
+ * "progress" Server-Sent Event alongside the plain log lines.
+ */
+public class ProgressEvent {
+    
+    /**
+     * Kind of progress update.
+     */
+    public enum Type {
+        EXECUTION_STARTED,
+        TEST_STARTED,
+        TEST_FINISHED,
+        TEST_SKIPPED,
+        EXECUTION_FINISHED,
+        REPORT_READY,
+        REPORT_FAILED
+    }
+    
+    private Type type;
+    private String executionId;
+    private String testId;
+    private String testName;
+    private String status;
+    private String executionStatus;
+    private String reportId;
+    private boolean reportPending;
+    private int totalTests;
+    private int startedTests;
+    private int passedTests;
+    private int failedTests;
+    private int abortedTests;
+    private int skippedTests;
+    private long elapsedMillis;
+    private Long etaMillis;
+    
+    public ProgressEvent() {
+    }
+    
+    public ProgressEvent(Type type, String executionId) {
+        this.type = type;
+        this.executionId = executionId;
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    public void setType(Type type) {
+        this.type = type;
+    }
+    
+    public String getExecutionId() {
+        return executionId;
+    }
+    
+    public void setExecutionId(String executionId) {
+        this.executionId = executionId;
+    }
+    
+    /**
+     * Unique ID of the test, for test events.
+     */
+    public String getTestId() {
+        return testId;
+    }
+    
+    public void setTestId(String testId) {
+        this.testId = testId;
+    }
+    
+    /**
+     * Display name of the test, for test events.
+     */
+    public String getTestName() {
+        return testName;
+    }
+    
+    public void setTestName(String testName) {
+        this.testName = testName;
+    }
+    
+    /**
+     * Test outcome (PASSED, FAILED, ABORTED or SKIPPED), for finished and skipped tests.
+     */
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    /**
+     * Overall execution status, see {@link ExecutionStatus}.
+     */
+    public String getExecutionStatus() {
+        return executionStatus;
+    }
+    
+    public void setExecutionStatus(String executionStatus) {
+        this.executionStatus = executionStatus;
+    }
+    
+    public String getReportId() {
+        return reportId;
+    }
+    
+    public void setReportId(String reportId) {
+        this.reportId = reportId;
+    }
+    
+    /**
+     * Whether a report is still being generated; a REPORT_READY or REPORT_FAILED event follows.
+     */
+    public boolean isReportPending() {
+        return reportPending;
+    }
+    
+    public void setReportPending(boolean reportPending) {
+        this.reportPending = reportPending;
+    }
+    
+    public int getTotalTests() {
+        return totalTests;
+    }
+    
+    public void setTotalTests(int totalTests) {
+        this.totalTests = totalTests;
+    }
+    
+    public int getStartedTests() {
+        return startedTests;
+    }
+    
+    public void setStartedTests(int startedTests) {
+        this.startedTests = startedTests;
+    }
+    
+    public int getPassedTests() {
+        return passedTests;
+    }
+    
+    public void setPassedTests(int passedTests) {
+        this.passedTests = passedTests;
+    }
+    
+    public int getFailedTests() {
+        return failedTests;
+    }
+    
+    public void setFailedTests(int failedTests) {
+        this.failedTests = failedTests;
+    }
+    
+    public int getAbortedTests() {
+        return abortedTests;
+    }
+    
+    public void setAbortedTests(int abortedTests) {
+        this.abortedTests = abortedTests;
+    }
+    
+    public int getSkippedTests() {
+        return skippedTests;
+    }
+    
+    public void setSkippedTests(int skippedTests) {
+        this.skippedTests = skippedTests;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    /**
+     * Estimated time until all tests have finished, or null before any test finished.
+     */
+    public Long getEtaMillis() {
+        return etaMillis;
+    }
+    
+    public void setEtaMillis(Long etaMillis) {
+        this.etaMillis = etaMillis;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ProgressEvent that = (ProgressEvent) o;
+        return reportPending == that.reportPending &&
+               totalTests == that.totalTests &&
+               startedTests == that.startedTests &&
+               passedTests == that.passedTests &&
+               failedTests == that.failedTests &&
+               abortedTests == that.abortedTests &&
+               skippedTests == that.skippedTests &&
+               elapsedMillis == that.elapsedMillis &&
+               type == that.type &&
+               Objects.equals(executionId, that.executionId) &&
+               Objects.equals(testId, that.testId) &&
+               Objects.equals(testName, that.testName) &&
+               Objects.equals(status, that.status) &&
+               Objects.equals(executionStatus, that.executionStatus) &&
+               Objects.equals(reportId, that.reportId) &&
+               Objects.equals(etaMillis, that.etaMillis);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, executionId, testId, testName, status, executionStatus, reportId,
+                          reportPending, totalTests, startedTests, passedTests, failedTests, abortedTests,
+                          skippedTests, elapsedMillis, etaMillis);
+    }
+    
+    @Override
+    public String toString() {
+        return "ProgressEvent{" +
+               "type=" + type +
+               ", executionId='" + executionId + '\'' +
+               ", testId='" + testId + '\'' +
+               ", testName='" + testName + '\'' +
+               ", status='" + status + '\'' +
+               ", executionStatus='" + executionStatus + '\'' +
+               ", reportId='" + reportId + '\'' +
+               ", reportPending=" + reportPending +
+               ", totalTests=" + totalTests +
+               ", startedTests=" + startedTests +
+               ", passedTests=" + passedTests +
+               ", failedTests=" + failedTests +
+               ", abortedTests=" + abortedTests +
+               ", skippedTests=" + skippedTests +
+               ", elapsedMillis=" + elapsedMillis +
+               ", etaMillis=" + etaMillis +
+               '}';
+    }
+}
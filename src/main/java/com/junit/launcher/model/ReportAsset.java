@@ -0,0 +1,64 @@
+package com.junit.launcher.model;
+
+import java.nio.file.Path;
+
+/**
+ * A file of a report ready to be served, with its entity tag and, for files small
+ * enough to be kept in memory, its content and a precompressed gzip variant.
+ */
+public class ReportAsset {
+
+    private final Path path;
+    private final String etag;
+    private final long length;
+    private final byte[] content;
+    private final byte[] gzipContent;
+
+    public ReportAsset(Path path, String etag, long length, byte[] content, byte[] gzipContent) {
+        this.path = path;
+        this.etag = etag;
+        this.length = length;
+        this.content = content;
+        this.gzipContent = gzipContent;
+    }
+
+    /**
+     * Where the file's content is stored on disk, or null for a cached entry that keeps
+     * only the tag of a large file.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Strong entity tag derived from the file's content, quoted as sent in headers.
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * The file's content, or null if it is too large to be kept in memory.
+     */
+    public byte[] getContent() {
+        return content;
+    }
+
+    /**
+     * The gzip-compressed content, or null if the file is not worth compressing.
+     */
+    public byte[] getGzipContent() {
+        return gzipContent;
+    }
+
+    /**
+     * Bytes of memory held by this asset.
+     */
+    public long getCachedBytes() {
+        return (content != null ? content.length : 0) + (gzipContent != null ? gzipContent.length : 0);
+    }
+}
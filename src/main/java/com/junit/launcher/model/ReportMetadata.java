@@ -15,6 +15,7 @@ public class ReportMetadata {
     private int passedTests;
     private int failedTests;
     private int skippedTests;
+    private long durationMillis;
     private String reportPath;
     private boolean isCombined;
     private List<String> combinedReportIds;
@@ -94,6 +95,17 @@ public class ReportMetadata {
         this.skippedTests = skippedTests;
     }
 
+    /**
+     * Wall-clock duration of the test run, or 0 if it was not recorded.
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
     public String getReportPath() {
         return reportPath;
     }
@@ -127,6 +139,7 @@ public class ReportMetadata {
                passedTests == that.passedTests &&
                failedTests == that.failedTests &&
                skippedTests == that.skippedTests &&
+               durationMillis == that.durationMillis &&
                isCombined == that.isCombined &&
                Objects.equals(reportId, that.reportId) &&
                Objects.equals(executionId, that.executionId) &&
@@ -138,7 +151,7 @@ public class ReportMetadata {
     @Override
     public int hashCode() {
         return Objects.hash(reportId, executionId, timestamp, totalTests, passedTests, 
-                          failedTests, skippedTests, reportPath, isCombined, combinedReportIds);
+                          failedTests, skippedTests, durationMillis, reportPath, isCombined, combinedReportIds);
     }
 
     @Override
@@ -151,6 +164,7 @@ public class ReportMetadata {
                ", passedTests=" + passedTests +
                ", failedTests=" + failedTests +
                ", skippedTests=" + skippedTests +
+               ", durationMillis=" + durationMillis +
                ", reportPath='" + reportPath + '\'' +
                ", isCombined=" + isCombined +
                ", combinedReportIds=" + combinedReportIds +
@@ -0,0 +1,64 @@
+package com.junit.launcher.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A page of reports, newest first, with the cursor for the next page.
+ */
+public class ReportPage {
+    
+    private List<ReportMetadata> reports;
+    private String nextCursor;
+    
+    public ReportPage() {
+        this.reports = new ArrayList<>();
+    }
+    
+    public ReportPage(List<ReportMetadata> reports, String nextCursor) {
+        this.reports = reports != null ? new ArrayList<>(reports) : new ArrayList<>();
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<ReportMetadata> getReports() {
+        return reports;
+    }
+    
+    public void setReports(List<ReportMetadata> reports) {
+        this.reports = reports != null ? new ArrayList<>(reports) : new ArrayList<>();
+    }
+    
+    /**
+     * Cursor for the next page, or null if this is the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReportPage that = (ReportPage) o;
+        return Objects.equals(reports, that.reports) &&
+               Objects.equals(nextCursor, that.nextCursor);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(reports, nextCursor);
+    }
+    
+    @Override
+    public String toString() {
+        return "ReportPage{" +
+               "reports=" + reports +
+               ", nextCursor='" + nextCursor + '\'' +
+               '}';
+    }
+}
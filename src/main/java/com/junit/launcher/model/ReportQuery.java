@@ -0,0 +1,121 @@
+package com.junit.launcher.model;
+
+import java.util.Objects;
+
+/**
+ * Paging and filter criteria for listing reports. Reports are returned newest first.
+ * Time bounds are compared against report timestamps (yyyy-MM-dd_HH-mm-ss) and may be
+ * any prefix of that format, e.g. "2024-01" or "2024-01-15".
+ */
+public class ReportQuery {
+    
+    private String from;
+    private String to;
+    private String status;
+    private boolean combinedOnly;
+    private Integer limit;
+    private String cursor;
+    
+    public ReportQuery() {
+    }
+    
+    /**
+     * Inclusive lower time bound.
+     */
+    public String getFrom() {
+        return from;
+    }
+    
+    public void setFrom(String from) {
+        this.from = from;
+    }
+    
+    /**
+     * Exclusive upper time bound.
+     */
+    public String getTo() {
+        return to;
+    }
+    
+    public void setTo(String to) {
+        this.to = to;
+    }
+    
+    /**
+     * "passed" for reports without failures, or "failed" for reports with failures.
+     */
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public boolean isCombinedOnly() {
+        return combinedOnly;
+    }
+    
+    public void setCombinedOnly(boolean combinedOnly) {
+        this.combinedOnly = combinedOnly;
+    }
+    
+    /**
+     * Maximum number of reports in the page.
+     */
+    public Integer getLimit() {
+        return limit;
+    }
+    
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+    
+    /**
+     * Opaque cursor from a previous page's nextCursor.
+     */
+    public String getCursor() {
+        return cursor;
+    }
+    
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+    
+    /**
+     * Checks whether no paging or filter criteria are set.
+     */
+    public boolean isEmpty() {
+        return from == null && to == null && status == null && !combinedOnly && limit == null && cursor == null;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReportQuery that = (ReportQuery) o;
+        return combinedOnly == that.combinedOnly &&
+               Objects.equals(from, that.from) &&
+               Objects.equals(to, that.to) &&
+               Objects.equals(status, that.status) &&
+               Objects.equals(limit, that.limit) &&
+               Objects.equals(cursor, that.cursor);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(from, to, status, combinedOnly, limit, cursor);
+    }
+    
+    @Override
+    public String toString() {
+        return "ReportQuery{" +
+               "from='" + from + '\'' +
+               ", to='" + to + '\'' +
+               ", status='" + status + '\'' +
+               ", combinedOnly=" + combinedOnly +
+               ", limit=" + limit +
+               ", cursor='" + cursor + '\'' +
+               '}';
+    }
+}
@@ -0,0 +1,149 @@
+package com.junit.launcher.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a retention pass: what was deleted and how much space it freed.
+ */
+public class RetentionResult {
+
+    private String timestamp;
+    private List<String> deletedReportIds = new ArrayList<>();
+    private List<String> deletedLogIds = new ArrayList<>();
+    private List<String> demotedReportIds = new ArrayList<>();
+    private long reportBytesReclaimed;
+    private long logBytesReclaimed;
+    private long archiveBytesReclaimed;
+    private long blobBytesReclaimed;
+    private long coldBytesReclaimed;
+    private long totalBytesReclaimed;
+    private boolean pending;
+
+    public RetentionResult() {
+    }
+
+    public RetentionResult(String timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * When the pass started (yyyy-MM-dd_HH-mm-ss).
+     */
+    public String getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(String timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public List<String> getDeletedReportIds() {
+        return deletedReportIds;
+    }
+
+    public void setDeletedReportIds(List<String> deletedReportIds) {
+        this.deletedReportIds = deletedReportIds;
+    }
+
+    public List<String> getDeletedLogIds() {
+        return deletedLogIds;
+    }
+
+    public void setDeletedLogIds(List<String> deletedLogIds) {
+        this.deletedLogIds = deletedLogIds;
+    }
+
+    /**
+     * Reports moved to cold storage.
+     */
+    public List<String> getDemotedReportIds() {
+        return demotedReportIds;
+    }
+
+    public void setDemotedReportIds(List<String> demotedReportIds) {
+        this.demotedReportIds = demotedReportIds;
+    }
+
+    /**
+     * Bytes freed by deleting reports and their Allure results.
+     */
+    public long getReportBytesReclaimed() {
+        return reportBytesReclaimed;
+    }
+
+    public void setReportBytesReclaimed(long reportBytesReclaimed) {
+        this.reportBytesReclaimed = reportBytesReclaimed;
+    }
+
+    public long getLogBytesReclaimed() {
+        return logBytesReclaimed;
+    }
+
+    public void setLogBytesReclaimed(long logBytesReclaimed) {
+        this.logBytesReclaimed = logBytesReclaimed;
+    }
+
+    /**
+     * Bytes freed by deleting downloadable report archives.
+     */
+    public long getArchiveBytesReclaimed() {
+        return archiveBytesReclaimed;
+    }
+
+    public void setArchiveBytesReclaimed(long archiveBytesReclaimed) {
+        this.archiveBytesReclaimed = archiveBytesReclaimed;
+    }
+
+    /**
+     * Bytes freed by deleting stored report files and Allure results no report uses any more.
+     */
+    public long getBlobBytesReclaimed() {
+        return blobBytesReclaimed;
+    }
+
+    public void setBlobBytesReclaimed(long blobBytesReclaimed) {
+        this.blobBytesReclaimed = blobBytesReclaimed;
+    }
+
+    /**
+     * Bytes freed by moving reports to cold storage, less the size of their archives.
+     */
+    public long getColdBytesReclaimed() {
+        return coldBytesReclaimed;
+    }
+
+    public void setColdBytesReclaimed(long coldBytesReclaimed) {
+        this.coldBytesReclaimed = coldBytesReclaimed;
+    }
+
+    /**
+     * Bytes freed in this pass.
+     */
+    public long getBytesReclaimed() {
+        return reportBytesReclaimed + logBytesReclaimed + archiveBytesReclaimed + blobBytesReclaimed
+            + coldBytesReclaimed;
+    }
+
+    /**
+     * Bytes freed by all passes since the application started.
+     */
+    public long getTotalBytesReclaimed() {
+        return totalBytesReclaimed;
+    }
+
+    public void setTotalBytesReclaimed(long totalBytesReclaimed) {
+        this.totalBytesReclaimed = totalBytesReclaimed;
+    }
+
+    /**
+     * Whether more was due for deletion than one pass deletes; the next pass continues.
+     */
+    public boolean isPending() {
+        return pending;
+    }
+
+    public void setPending(boolean pending) {
+        this.pending = pending;
+    }
+}
@@ -0,0 +1,72 @@
+package com.junit.launcher.model;
+
+import java.util.Objects;
+
+/**
+ * A single event on the multiplexed stream, tagged with the execution it belongs to.
+ * Log frames carry a message, progress frames carry a progress event and completion
+ * frames carry neither.
+ */
+public class StreamFrame {
+
+    private String executionId;
+    private String message;
+    private ProgressEvent progress;
+
+    public StreamFrame() {
+    }
+
+    public StreamFrame(String executionId, String message, ProgressEvent progress) {
+        this.executionId = executionId;
+        this.message = message;
+        this.progress = progress;
+    }
+
+    public String getExecutionId() {
+        return executionId;
+    }
+
+    public void setExecutionId(String executionId) {
+        this.executionId = executionId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public ProgressEvent getProgress() {
+        return progress;
+    }
+
+    public void setProgress(ProgressEvent progress) {
+        this.progress = progress;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        StreamFrame that = (StreamFrame) o;
+        return Objects.equals(executionId, that.executionId) &&
+               Objects.equals(message, that.message) &&
+               Objects.equals(progress, that.progress);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(executionId, message, progress);
+    }
+
+    @Override
+    public String toString() {
+        return "StreamFrame{" +
+               "executionId='" + executionId + '\'' +
+               ", message='" + message + '\'' +
+               ", progress=" + progress +
+               '}';
+    }
+}
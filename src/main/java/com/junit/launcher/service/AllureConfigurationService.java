@@ -2,6 +2,7 @@ package com.junit.launcher.service;
 
 import com.junit.launcher.config.StorageProperties;
 import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.AllureResultsWriter;
 import io.qameta.allure.FileSystemResultsWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,6 +12,8 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service for configuring Allure lifecycle for test executions.
@@ -19,15 +22,21 @@ import java.nio.file.Paths;
 public class AllureConfigurationService {
     
     private static final Logger logger = LoggerFactory.getLogger(AllureConfigurationService.class);
+    private static final String JOURNAL_FORMAT = "journal";
     
     private final StorageProperties storageProperties;
     
+    // Map of execution IDs to the writers of their running lifecycles
+    private final Map<String, AsyncResultsWriter> writers = new ConcurrentHashMap<>();
+    
     public AllureConfigurationService(StorageProperties storageProperties) {
         this.storageProperties = storageProperties;
     }
     
     /**
      * Creates a thread-safe Allure lifecycle for a specific test execution.
+     * Results are written in the background; call {@link #completeExecution(String)}
+     * once the tests have finished to make sure they are all on disk.
      *
      * @param executionId The unique execution identifier
      * @return AllureLifecycle instance for this execution
@@ -39,10 +48,35 @@ public class AllureConfigurationService {
 
         logger.info("Created Allure results directory for execution {}: {}", executionId, resultsDir);
 
-        FileSystemResultsWriter writer = new FileSystemResultsWriter(resultsDir);
+        AllureResultsWriter target = JOURNAL_FORMAT.equalsIgnoreCase(storageProperties.getResultsFormat())
+            ? new JournalResultsWriter(resultsDir)
+            : new FileSystemResultsWriter(resultsDir);
+        AsyncResultsWriter writer = new AsyncResultsWriter(target, "allure-writer-" + executionId);
+        AsyncResultsWriter previous = writers.put(executionId, writer);
+        if (previous != null) {
+            closeWriter(executionId, previous);
+        }
         return new AllureLifecycle(writer);
     }
     
+    /**
+     * Waits for an execution's pending results to be written and releases its writer.
+     * Does nothing if the execution has no open lifecycle.
+     *
+     * @param executionId The execution identifier
+     */
+    public void completeExecution(String executionId) {
+        AsyncResultsWriter writer = writers.remove(executionId);
+        if (writer != null) {
+            closeWriter(executionId, writer);
+        }
+    }
+    
+    private void closeWriter(String executionId, AsyncResultsWriter writer) {
+        writer.close();
+        logger.debug("Flushed Allure results for execution {}", executionId);
+    }
+    
     /**
      * Gets the results directory path for a specific execution.
      * 
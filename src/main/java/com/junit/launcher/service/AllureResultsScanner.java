@@ -0,0 +1,229 @@
+package com.junit.launcher.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.junit.launcher.model.ExecutionSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Scans Allure result files for the few fields reports need.
+ * <p>
+ * Each file is read with a streaming parser that keeps only the top-level identity,
+ * {@code status}, {@code testCaseId}, {@code start} and {@code stop} fields and
+ * skips everything else (steps, attachments, parameters) without building a tree.
+ * Files are parsed in parallel on a dedicated pool so large scans do not occupy
+ * the common pool. Results kept in a {@link ResultsJournal} are read from the
+ * journal directly.
+ */
+public class AllureResultsScanner {
+
+    private static final Logger logger = LoggerFactory.getLogger(AllureResultsScanner.class);
+    private static final String RESULT_FILE_SUFFIX = "-result.json";
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final ForkJoinPool pool;
+
+    public AllureResultsScanner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public AllureResultsScanner(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Shuts down the scanning pool. Scans started afterwards are rejected.
+     */
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Summarizes the results in a directory. Broken and unknown results count towards
+     * the total as broken; only broken ones are listed for reruns.
+     *
+     * @param executionId The execution the results belong to
+     * @param resultsDir The Allure results directory
+     * @return Summary of the results; empty if the directory does not exist
+     * @throws IOException if the directory cannot be listed
+     */
+    public ExecutionSummary scan(String executionId, Path resultsDir) throws IOException {
+        ExecutionSummary summary = new ExecutionSummary(executionId);
+        if (!Files.exists(resultsDir)) {
+            return summary;
+        }
+
+        List<ResultRecord> records = new ArrayList<>();
+        if (ResultsJournal.exists(resultsDir)) {
+            records.addAll(parseJournal(ResultsJournal.journalFile(resultsDir)));
+        }
+        records.addAll(parseAll(listResultFiles(resultsDir)));
+
+        long minStart = Long.MAX_VALUE;
+        long maxStop = Long.MIN_VALUE;
+        for (ResultRecord record : records) {
+            if ("passed".equals(record.status)) {
+                summary.setPassedTests(summary.getPassedTests() + 1);
+            } else if ("failed".equals(record.status)) {
+                summary.setFailedTests(summary.getFailedTests() + 1);
+                if (record.testCaseId != null) {
+                    summary.getFailedTestIds().add(record.testCaseId);
+                }
+            } else if ("skipped".equals(record.status)) {
+                summary.setSkippedTests(summary.getSkippedTests() + 1);
+            } else {
+                summary.setBrokenTests(summary.getBrokenTests() + 1);
+                if ("broken".equals(record.status) && record.testCaseId != null) {
+                    summary.getBrokenTestIds().add(record.testCaseId);
+                }
+            }
+
+            if (record.start > 0 && record.stop >= record.start) {
+                minStart = Math.min(minStart, record.start);
+                maxStop = Math.max(maxStop, record.stop);
+            }
+        }
+
+        if (maxStop >= minStart) {
+            summary.setDurationMillis(maxStop - minStart);
+        }
+        return summary;
+    }
+
+    /**
+     * Parses result files in parallel, keeping their order. Unreadable files are skipped.
+     */
+    List<ResultRecord> parseAll(List<Path> resultFiles) throws IOException {
+        return inParallel(resultFiles, resultFile -> {
+            try (JsonParser parser = jsonFactory.createParser(resultFile.toFile())) {
+                ResultRecord record = parse(parser, resultFile.toString());
+                record.file = resultFile;
+                return record;
+            }
+        });
+    }
+
+    /**
+     * Parses the test results recorded in a journal, in journal order.
+     */
+    List<ResultRecord> parseJournal(Path journal) throws IOException {
+        List<byte[]> results = new ArrayList<>();
+        ResultsJournal.forEachRecord(journal, (type, name, content) -> {
+            if (type == ResultsJournal.RESULT) {
+                results.add(content);
+            }
+        });
+        return inParallel(results, content -> {
+            try (JsonParser parser = jsonFactory.createParser(content)) {
+                return parse(parser, journal.toString());
+            }
+        });
+    }
+
+    private <T> List<ResultRecord> inParallel(List<T> sources, ResultParser<T> resultParser) throws IOException {
+        try {
+            return pool.submit(() -> sources.parallelStream()
+                .map(source -> parseQuietly(source, resultParser))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while scanning results", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to scan results", e.getCause());
+        }
+    }
+
+    /**
+     * Reads the fields of one result.
+     */
+    private ResultRecord parse(JsonParser parser, String source) throws IOException {
+        ResultRecord record = new ResultRecord();
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Result is not a JSON object: " + source);
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "uuid":
+                    record.uuid = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                    break;
+                case "historyId":
+                    record.historyId = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                    break;
+                case "status":
+                    record.status = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                    break;
+                case "testCaseId":
+                    record.testCaseId = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                    break;
+                case "start":
+                    record.start = value == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : 0;
+                    break;
+                case "stop":
+                    record.stop = value == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : 0;
+                    break;
+                default:
+                    // Steps, attachments and the like may nest their own status fields
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        return record;
+    }
+
+    private <T> ResultRecord parseQuietly(T source, ResultParser<T> resultParser) {
+        try {
+            return resultParser.parse(source);
+        } catch (IOException e) {
+            logger.warn("Failed to parse result: {}", source, e);
+            return null;
+        }
+    }
+
+    static boolean isResultFile(Path file) {
+        return file.getFileName().toString().endsWith(RESULT_FILE_SUFFIX);
+    }
+
+    private List<Path> listResultFiles(Path resultsDir) throws IOException {
+        try (Stream<Path> files = Files.list(resultsDir)) {
+            return files
+                .filter(AllureResultsScanner::isResultFile)
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    @FunctionalInterface
+    private interface ResultParser<T> {
+        ResultRecord parse(T source) throws IOException;
+    }
+
+    /**
+     * Fields of a single result.
+     */
+    static class ResultRecord {
+        Path file;
+        String uuid;
+        String historyId;
+        String status;
+        String testCaseId;
+        long start;
+        long stop;
+    }
+}
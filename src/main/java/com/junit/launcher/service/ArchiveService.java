@@ -1,8 +1,11 @@
 package com.junit.launcher.service;
 
+import com.junit.launcher.model.ExportRequest;
 import com.junit.launcher.model.LogFileMetadata;
+import com.junit.launcher.model.LogSearchResult;
 import com.junit.launcher.model.ReportMetadata;
 
+import java.io.OutputStream;
 import java.nio.file.Path;
 import java.util.List;
 
@@ -36,6 +39,17 @@ public interface ArchiveService {
      */
     String getLogFile(String logFileId) throws Exception;
     
+    /**
+     * Searches archived logs for lines containing all tokens of the query. Logs archived
+     * before the index existed are indexed in the background after startup and show up
+     * in results as they are indexed.
+     * 
+     * @param query The search query
+     * @param limit Maximum number of logs to return
+     * @return Matching logs with line numbers, newest first
+     */
+    List<LogSearchResult> searchLogs(String query, int limit);
+    
     /**
      * Lists all available reports.
      * 
@@ -51,4 +65,46 @@ public interface ArchiveService {
      * @throws Exception if archiving fails
      */
     Path createReportArchive(String reportId) throws Exception;
+    
+    /**
+     * Writes a report as a ZIP archive to a stream while the archive is being built,
+     * without waiting for the whole archive.
+     * 
+     * @param reportId The report to archive
+     * @param out Stream to write the archive to; it is left open
+     * @throws IllegalArgumentException if the report does not exist
+     * @throws Exception if archiving or writing fails
+     */
+    void writeReportArchive(String reportId, OutputStream out) throws Exception;
+    
+    /**
+     * Writes the selected reports, their Allure results and logs as one ZIP archive
+     * to a stream while it is being built. Reports are under {@code reports/}, results
+     * under {@code results/} and logs under {@code logs/}. Unknown IDs are skipped.
+     * 
+     * @param request Selection of reports and logs by ID or time range
+     * @param out Stream to write the archive to; it is left open
+     * @throws IllegalArgumentException if the request selects nothing
+     * @throws Exception if archiving or writing fails
+     */
+    void exportArchive(ExportRequest request, OutputStream out) throws Exception;
+    
+    /**
+     * Deletes an archived log and removes it from the search index.
+     * 
+     * @param logFileId The log file to delete
+     * @return Bytes reclaimed, or 0 if there is no such log
+     * @throws Exception if the log cannot be deleted
+     */
+    long deleteLogFile(String logFileId) throws Exception;
+    
+    /**
+     * Deletes downloadable report archives that are no longer useful: archives of
+     * deleted reports, archives superseded by a newer one of the same report, and
+     * archives left in the reports directory by earlier versions.
+     * 
+     * @return Bytes reclaimed
+     * @throws Exception if the archives cannot be read
+     */
+    long pruneReportArchives() throws Exception;
 }
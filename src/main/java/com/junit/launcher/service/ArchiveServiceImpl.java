@@ -1,28 +1,46 @@
 package com.junit.launcher.service;
 
 import com.junit.launcher.config.StorageProperties;
+import com.junit.launcher.model.ExportRequest;
 import com.junit.launcher.model.LogFileMetadata;
+import com.junit.launcher.model.LogSearchResult;
 import com.junit.launcher.model.ReportMetadata;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.io.BufferedOutputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
+import java.util.zip.ZipFile;
 
 /**
  * Implementation of ArchiveService for managing logs and reports.
@@ -33,14 +51,65 @@ public class ArchiveServiceImpl implements ArchiveService {
     private static final Logger logger = LoggerFactory.getLogger(ArchiveServiceImpl.class);
     private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
     private static final String LOG_FILE_PREFIX = "execution-";
+    private static final int LOG_TIMESTAMP_LENGTH = "yyyy-MM-dd_HH-mm-ss".length();
+    private static final Pattern FILE_SAFE_EXECUTION_ID = Pattern.compile("[A-Za-z0-9-]+");
     private static final String LOG_FILE_EXTENSION = ".log";
+    private static final String TEMPLATE_LOG_FILE_EXTENSION = ".logt";
+    private static final String TEMPLATE_DICTIONARY_FILE = "templates.dict";
+    private static final String LOG_FORMAT_TEMPLATE = "template";
+    private static final String ARCHIVE_CACHE_DIR = ".archives";
+    private static final int ZIP_BUFFER_SIZE = 256 * 1024;
+    private static final String EXPORT_REPORTS_DIR = "reports/";
+    private static final String EXPORT_RESULTS_DIR = "results/";
+    private static final String EXPORT_LOGS_DIR = "logs/";
     
     private final StorageProperties storageProperties;
     private final ReportService reportService;
+    private final LogIndexService logIndexService;
+    private final LogTemplateCodec logTemplateCodec;
+    private final ReportFileStore reportFileStore;
+    private final ForkJoinPool archivePool;
+    private final ExecutorService backfillExecutor;
 
-    public ArchiveServiceImpl(StorageProperties storageProperties, ReportService reportService) {
+    public ArchiveServiceImpl(StorageProperties storageProperties,
+                              ReportService reportService,
+                              LogIndexService logIndexService,
+                              ReportFileStore reportFileStore) {
         this.storageProperties = storageProperties;
         this.reportService = reportService;
+        this.logIndexService = logIndexService;
+        this.logTemplateCodec = new LogTemplateCodec(
+            Paths.get(storageProperties.getLogsPath(), TEMPLATE_DICTIONARY_FILE));
+        this.reportFileStore = reportFileStore;
+        this.archivePool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        
+        // Logs archived before the index existed are indexed once, off the request path
+        this.backfillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "log-index-backfill");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        backfillExecutor.submit(this::backfillLogIndex);
+        backfillExecutor.shutdown();
+    }
+
+    /**
+     * Shuts down the pool archives are compressed on and stops a running index backfill.
+     */
+    @PreDestroy
+    public void close() {
+        archivePool.shutdown();
+        backfillExecutor.shutdownNow();
+    }
+    
+    /**
+     * Waits for the log index backfill started with the service to finish.
+     * 
+     * @return true if the backfill finished within the timeout
+     */
+    boolean awaitLogIndexBackfill(long timeout, TimeUnit unit) throws InterruptedException {
+        return backfillExecutor.awaitTermination(timeout, unit);
     }
 
     @Override
@@ -54,7 +123,7 @@ public class ArchiveServiceImpl implements ArchiveService {
         try (Stream<Path> paths = Files.list(logsPath)) {
             return paths
                 .filter(Files::isRegularFile)
-                .filter(p -> p.getFileName().toString().endsWith(LOG_FILE_EXTENSION))
+                .filter(p -> stripLogExtension(p.getFileName().toString()) != null)
                 .map(this::createLogFileMetadata)
                 .filter(metadata -> metadata != null)
                 .sorted(Comparator.comparing(LogFileMetadata::getTimestamp).reversed())
@@ -73,14 +142,30 @@ public class ArchiveServiceImpl implements ArchiveService {
         Path logsDir = Paths.get(storageProperties.getLogsPath());
         Files.createDirectories(logsDir);
 
-        // Create log file with timestamp-based naming (add UUID suffix to ensure uniqueness)
+        // Create log file with timestamp-based naming (add UUID suffix to ensure uniqueness),
+        // recording the execution ID so the log can be re-indexed under it
         String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMATTER);
         String uniqueSuffix = UUID.randomUUID().toString().substring(0, 8);
-        String logFileName = LOG_FILE_PREFIX + timestamp + "_" + uniqueSuffix + LOG_FILE_EXTENSION;
+        boolean templateFormat = LOG_FORMAT_TEMPLATE.equalsIgnoreCase(storageProperties.getLogFormat());
+        String extension = templateFormat ? TEMPLATE_LOG_FILE_EXTENSION : LOG_FILE_EXTENSION;
+        String executionSuffix = executionId != null && FILE_SAFE_EXECUTION_ID.matcher(executionId).matches()
+            ? "_" + executionId : "";
+        String logFileName = LOG_FILE_PREFIX + timestamp + "_" + uniqueSuffix + executionSuffix + extension;
         Path logFile = logsDir.resolve(logFileName);
 
         // Write logs to file
-        Files.writeString(logFile, logs);
+        if (templateFormat) {
+            Files.write(logFile, logTemplateCodec.encode(logs));
+        } else {
+            Files.writeString(logFile, logs);
+        }
+
+        // Add to the search index; a failure here must not lose the archived log
+        try {
+            logIndexService.indexLog(logFileName, executionId, logs);
+        } catch (IOException e) {
+            logger.warn("Failed to index archived log: {}", logFileName, e);
+        }
 
         logger.info("Logs archived successfully: {}", logFileName);
     }
@@ -94,9 +179,20 @@ public class ArchiveServiceImpl implements ArchiveService {
             return null;
         }
 
+        if (logFileId.endsWith(TEMPLATE_LOG_FILE_EXTENSION)) {
+            return logTemplateCodec.decode(Files.readAllBytes(logFile));
+        }
         return Files.readString(logFile);
     }
 
+    @Override
+    public List<LogSearchResult> searchLogs(String query, int limit) {
+        // While the backfill runs, searches cover the logs indexed so far
+        List<LogSearchResult> results = logIndexService.search(query, limit);
+        results.forEach(result -> result.setTimestamp(extractTimestampFromLogFileName(result.getLogId())));
+        return results;
+    }
+
     @Override
     public List<ReportMetadata> listReports() {
         // Delegate to ReportService which already implements this
@@ -107,28 +203,363 @@ public class ArchiveServiceImpl implements ArchiveService {
     public Path createReportArchive(String reportId) throws Exception {
         logger.info("Creating archive for report: {}", reportId);
         
-        // Get report directory
-        Path reportDir = Paths.get(storageProperties.getReportsPath(), reportId);
+        Path reportDir = getReportDirectory(reportId);
         
-        if (!Files.exists(reportDir)) {
-            throw new IllegalArgumentException("Report not found: " + reportId);
+        // A report packed into an archive is downloaded as it is
+        Path reportArchive = reportFileStore.getArchive(reportDir);
+        if (reportArchive != null) {
+            logger.info("Report is stored as an archive, serving it as is: {}", reportId);
+            return reportArchive;
         }
         
-        // Create ZIP file in the same directory
-        Path zipFile = Paths.get(storageProperties.getReportsPath(), reportId + ".zip");
+        Path zipFile = getCachedArchive(reportId, reportDir);
+        if (Files.exists(zipFile)) {
+            logger.info("Report archive unchanged, reusing: {}", zipFile.getFileName());
+            return zipFile;
+        }
         
-        // Create ZIP archive
-        try (ZipOutputStream zos = new ZipOutputStream(
-                new BufferedOutputStream(new FileOutputStream(zipFile.toFile())))) {
-            
-            // Add all files from report directory to ZIP
-            zipDirectory(reportDir, reportDir, zos);
+        // Build under a temporary name so concurrent requests never see a partial archive
+        Files.createDirectories(zipFile.getParent());
+        Path tempFile = Files.createTempFile(zipFile.getParent(), reportId, ".tmp");
+        try {
+            try (OutputStream fileOut = new BufferedOutputStream(Files.newOutputStream(tempFile), ZIP_BUFFER_SIZE)) {
+                zipReport(reportDir, fileOut);
+            }
+            StorageFiles.atomicMove(tempFile, zipFile);
+        } finally {
+            Files.deleteIfExists(tempFile);
         }
         
         logger.info("Report archive created successfully: {}", zipFile.getFileName());
         return zipFile;
     }
     
+    @Override
+    public void writeReportArchive(String reportId, OutputStream out) throws Exception {
+        Path reportDir = getReportDirectory(reportId);
+        
+        Path reportArchive = reportFileStore.getArchive(reportDir);
+        if (reportArchive != null) {
+            Files.copy(reportArchive, out);
+            return;
+        }
+        
+        if (!storageProperties.isReportArchiveCache()) {
+            zipReport(reportDir, new BufferedOutputStream(out, ZIP_BUFFER_SIZE));
+            return;
+        }
+        
+        Path zipFile = getCachedArchive(reportId, reportDir);
+        if (Files.exists(zipFile)) {
+            logger.debug("Streaming cached archive of report: {}", reportId);
+            Files.copy(zipFile, out);
+            return;
+        }
+        
+        // Stream to the client while keeping a copy for the next download
+        Files.createDirectories(zipFile.getParent());
+        Path tempFile = Files.createTempFile(zipFile.getParent(), reportId, ".tmp");
+        try {
+            try (OutputStream cacheOut = Files.newOutputStream(tempFile)) {
+                zipReport(reportDir, new BufferedOutputStream(new TeeOutputStream(out, cacheOut), ZIP_BUFFER_SIZE));
+            }
+            StorageFiles.atomicMove(tempFile, zipFile);
+            logger.info("Cached archive of report: {}", zipFile.getFileName());
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+    
+    @Override
+    public void exportArchive(ExportRequest request, OutputStream out) throws Exception {
+        if (request.isEmpty()) {
+            throw new IllegalArgumentException("Export selects no reports or logs");
+        }
+        
+        // Resolve the selection up front so every source is read exactly once
+        Map<String, ReportMetadata> reports = new LinkedHashMap<>();
+        for (ReportMetadata metadata : reportService.listReports()) {
+            if (request.isInRange(metadata.getTimestamp())) {
+                reports.put(metadata.getReportId(), metadata);
+            }
+        }
+        for (String reportId : request.getReportIds()) {
+            ReportMetadata metadata = reportService.getReportMetadata(reportId);
+            if (metadata == null) {
+                logger.warn("Skipping unknown report in export: {}", reportId);
+            } else {
+                reports.putIfAbsent(reportId, metadata);
+            }
+        }
+        
+        Path logsDir = Paths.get(storageProperties.getLogsPath());
+        Set<String> logIds = new LinkedHashSet<>();
+        if (request.isIncludeLogs()) {
+            for (LogFileMetadata logFile : listLogFiles()) {
+                if (request.isInRange(logFile.getTimestamp())) {
+                    logIds.add(logFile.getLogId());
+                }
+            }
+        }
+        for (String logId : request.getLogIds()) {
+            Path logFile = logsDir.resolve(logId).normalize();
+            if (stripLogExtension(logId) == null || !logsDir.normalize().equals(logFile.getParent())
+                    || !Files.isRegularFile(logFile)) {
+                logger.warn("Skipping unknown log in export: {}", logId);
+            } else {
+                logIds.add(logId);
+            }
+        }
+        
+        logger.info("Exporting {} reports and {} logs", reports.size(), logIds.size());
+        
+        OutputStream bufferedOut = new BufferedOutputStream(out, ZIP_BUFFER_SIZE);
+        try (ParallelZipWriter zip = new ParallelZipWriter(bufferedOut, archivePool)) {
+            Set<String> exportedExecutions = new HashSet<>();
+            for (ReportMetadata metadata : reports.values()) {
+                String reportPrefix = EXPORT_REPORTS_DIR + metadata.getReportId() + "/";
+                String resultsPrefix = EXPORT_RESULTS_DIR + metadata.getExecutionId() + "/";
+                boolean includeResults = request.isIncludeResults() && exportedExecutions.add(metadata.getExecutionId());
+                
+                // Files a cold report keeps in its directory, or all files of a hot one
+                Path reportDir = Paths.get(metadata.getReportPath());
+                for (String entryName : reportFileStore.list(reportDir)) {
+                    Path path = reportFileStore.resolve(reportDir, entryName);
+                    if (path != null) {
+                        zip.add(reportPrefix + entryName, path);
+                    }
+                }
+                
+                // A cold report is copied from its archive rather than rehydrated onto the hot tier
+                try (ZipFile coldArchive = reportService.openColdArchive(metadata.getReportId())) {
+                    if (coldArchive != null) {
+                        addColdArchive(zip, coldArchive, reportPrefix, includeResults ? resultsPrefix : null);
+                        zip.flush();
+                    } else if (includeResults) {
+                        Path resultsDir = Paths.get(storageProperties.getAllureResultsPath(), metadata.getExecutionId());
+                        addDirectory(zip, resultsDir, resultsPrefix);
+                    }
+                }
+            }
+            
+            // Template-encoded logs can only be decoded with the dictionary versions they were written with
+            Set<Path> dictionaries = new LinkedHashSet<>();
+            for (String logId : logIds) {
+                Path logFile = logsDir.resolve(logId);
+                zip.add(EXPORT_LOGS_DIR + logId, logFile);
+                if (logId.endsWith(TEMPLATE_LOG_FILE_EXTENSION)) {
+                    dictionaries.add(logTemplateCodec.getDictionaryFile(logFile));
+                }
+            }
+            for (Path dictionary : dictionaries) {
+                if (Files.exists(dictionary)) {
+                    zip.add(EXPORT_LOGS_DIR + dictionary.getFileName(), dictionary);
+                }
+            }
+            
+            zip.finish();
+        }
+        
+        logger.info("Export completed: {} reports, {} logs", reports.size(), logIds.size());
+    }
+    
+    @Override
+    public long deleteLogFile(String logFileId) throws Exception {
+        Path logsDir = Paths.get(storageProperties.getLogsPath()).normalize();
+        Path logFile = logsDir.resolve(logFileId).normalize();
+        if (stripLogExtension(logFileId) == null || !logsDir.equals(logFile.getParent()) || !Files.exists(logFile)) {
+            logger.warn("Log file not found: {}", logFileId);
+            return 0;
+        }
+        
+        long size = Files.size(logFile);
+        Files.delete(logFile);
+        logIndexService.removeLog(logFileId);
+        
+        logger.info("Deleted log file: {}", logFileId);
+        return size;
+    }
+    
+    @Override
+    public long pruneReportArchives() throws Exception {
+        long reclaimed = 0;
+        
+        // Archives written next to the reports by earlier versions were never reused
+        Path reportsDir = Paths.get(storageProperties.getReportsPath());
+        if (Files.isDirectory(reportsDir)) {
+            List<Path> legacyArchives;
+            try (Stream<Path> files = Files.list(reportsDir)) {
+                legacyArchives = files
+                    .filter(Files::isRegularFile)
+                    .filter(path -> path.getFileName().toString().endsWith(".zip"))
+                    .collect(Collectors.toList());
+            }
+            for (Path archive : legacyArchives) {
+                reclaimed += deleteFile(archive);
+            }
+        }
+        
+        Path cacheDir = reportsDir.resolve(ARCHIVE_CACHE_DIR);
+        if (Files.isDirectory(cacheDir)) {
+            List<Path> cachedArchives;
+            try (Stream<Path> files = Files.list(cacheDir)) {
+                cachedArchives = files
+                    .filter(Files::isRegularFile)
+                    .sorted(Comparator.comparing(this::lastModified).reversed())
+                    .collect(Collectors.toList());
+            }
+            Set<String> seenReports = new HashSet<>();
+            for (Path archive : cachedArchives) {
+                String reportId = cachedArchiveReportId(archive.getFileName().toString());
+                // Keep the newest archive of each existing report; temporary files are left to their writers
+                if (reportId == null) {
+                    continue;
+                }
+                if (!Files.isDirectory(reportsDir.resolve(reportId)) || !seenReports.add(reportId)) {
+                    reclaimed += deleteFile(archive);
+                }
+            }
+        }
+        
+        if (reclaimed > 0) {
+            logger.info("Pruned report archives ({} bytes)", reclaimed);
+        }
+        return reclaimed;
+    }
+    
+    /**
+     * Gets the report a cached archive belongs to from its name, {reportId}-{hash}.zip.
+     * 
+     * @return The report ID, or null if the file is not a finished archive
+     */
+    private String cachedArchiveReportId(String fileName) {
+        int hashStart = fileName.lastIndexOf('-');
+        if (!fileName.endsWith(".zip") || hashStart <= 0) {
+            return null;
+        }
+        return fileName.substring(0, hashStart);
+    }
+    
+    private long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+    
+    private long deleteFile(Path file) throws IOException {
+        long size = Files.size(file);
+        return Files.deleteIfExists(file) ? size : 0;
+    }
+    
+    /**
+     * Adds all files of a directory to an archive under a prefix.
+     */
+    private void addDirectory(ParallelZipWriter zip, Path dir, String prefix) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(dir)) {
+            files = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            zip.add(prefix + StorageFiles.toEntryName(dir.relativize(file)), file);
+        }
+    }
+    
+    private Path getReportDirectory(String reportId) throws Exception {
+        Path reportDir = Paths.get(storageProperties.getReportsPath(), reportId);
+        if (!Files.exists(reportDir)) {
+            throw new IllegalArgumentException("Report not found: " + reportId);
+        }
+        // A cold report is restored before it is archived
+        if (reportService.getReportMetadata(reportId) != null) {
+            reportService.rehydrateReport(reportId);
+        }
+        return reportDir;
+    }
+    
+    /**
+     * Gets where the archive of a report's current content is cached. The name carries
+     * a hash of the report's file names and contents, so a report whose files change
+     * gets a new archive. Blob-stored files contribute their content hash; other files
+     * their size and modification time.
+     */
+    private Path getCachedArchive(String reportId, Path reportDir) throws IOException {
+        MessageDigest digest = StorageFiles.newSha256();
+        for (String entryName : reportFileStore.list(reportDir)) {
+            Path path = reportFileStore.resolve(reportDir, entryName);
+            if (path == null) {
+                continue;
+            }
+            digest.update(entryName.getBytes(StandardCharsets.UTF_8));
+            String contentHash = reportFileStore.getContentHash(reportDir, entryName);
+            if (contentHash != null) {
+                digest.update(contentHash.getBytes(StandardCharsets.UTF_8));
+            } else {
+                digest.update(ByteBuffer.allocate(2 * Long.BYTES)
+                    .putLong(Files.size(path))
+                    .putLong(Files.getLastModifiedTime(path).toMillis())
+                    .array());
+            }
+        }
+        String hash = HexFormat.of().formatHex(digest.digest()).substring(0, 16);
+        return Paths.get(storageProperties.getReportsPath(), ARCHIVE_CACHE_DIR, reportId + "-" + hash + ".zip");
+    }
+    
+    /**
+     * Adds the report files and, if a results prefix is given, the Allure results of a
+     * cold report archive.
+     */
+    private void addColdArchive(ParallelZipWriter zip, ZipFile coldArchive, String reportPrefix,
+                                String resultsPrefix) throws IOException {
+        List<? extends ZipEntry> entries = Collections.list(coldArchive.entries());
+        for (ZipEntry entry : entries) {
+            String reportFile = ColdReportStore.reportFileName(entry);
+            if (reportFile != null) {
+                zip.add(reportPrefix + reportFile, coldArchive, entry);
+            }
+        }
+        if (resultsPrefix != null) {
+            for (ZipEntry entry : entries) {
+                String resultFile = ColdReportStore.resultFileName(entry);
+                if (resultFile != null) {
+                    zip.add(resultsPrefix + resultFile, coldArchive, entry);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Indexes logs that were archived before the index existed. Runs once per process
+     * on the backfill thread and stops early when the service is closed.
+     */
+    private void backfillLogIndex() {
+        int indexed = 0;
+        for (LogFileMetadata logFile : listLogFiles()) {
+            if (Thread.currentThread().isInterrupted()) {
+                logger.info("Log index backfill stopped after {} logs", indexed);
+                return;
+            }
+            if (!logIndexService.isIndexed(logFile.getLogId())) {
+                try {
+                    String content = getLogFile(logFile.getLogId());
+                    if (content != null) {
+                        logIndexService.indexLog(logFile.getLogId(), logFile.getExecutionId(), content);
+                        indexed++;
+                    }
+                } catch (Exception e) {
+                    logger.warn("Failed to index log file: {}", logFile.getLogId(), e);
+                }
+            }
+        }
+        if (indexed > 0) {
+            logger.info("Log index backfill indexed {} logs", indexed);
+        }
+    }
+    
     /**
      * Creates LogFileMetadata from a log file path.
      */
@@ -140,9 +571,8 @@ public class ArchiveServiceImpl implements ArchiveService {
             // Extract timestamp from filename (execution-YYYY-MM-DD_HH-MM-SS.log)
             String timestamp = extractTimestampFromLogFileName(fileName);
             
-            // Extract execution ID (use filename without extension as logId)
-            String logId = fileName.replace(LOG_FILE_EXTENSION, "");
-            String executionId = logId; // For now, use same as logId
+            // Logs archived before the name carried it have no execution ID
+            String executionId = extractExecutionIdFromLogFileName(fileName);
             
             return new LogFileMetadata(
                 fileName,
@@ -161,11 +591,14 @@ public class ArchiveServiceImpl implements ArchiveService {
      * Extracts timestamp from log file name.
      */
     private String extractTimestampFromLogFileName(String fileName) {
-        // Expected format: execution-YYYY-MM-DD_HH-MM-SS_UUID.log
-        if (fileName.startsWith(LOG_FILE_PREFIX) && fileName.endsWith(LOG_FILE_EXTENSION)) {
-            int startIndex = LOG_FILE_PREFIX.length();
-            int endIndex = fileName.length() - LOG_FILE_EXTENSION.length();
-            String timestampWithUuid = fileName.substring(startIndex, endIndex);
+        // Expected format: execution-YYYY-MM-DD_HH-MM-SS_UUID[_EXECUTIONID].log (or .logt)
+        String baseName = stripLogExtension(fileName);
+        if (fileName.startsWith(LOG_FILE_PREFIX) && baseName != null) {
+            String timestampWithUuid = baseName.substring(LOG_FILE_PREFIX.length());
+            if (timestampWithUuid.length() > LOG_TIMESTAMP_LENGTH
+                && timestampWithUuid.charAt(LOG_TIMESTAMP_LENGTH) == '_') {
+                return timestampWithUuid.substring(0, LOG_TIMESTAMP_LENGTH);
+            }
             
             // Remove UUID suffix (last underscore and 8 characters)
             int lastUnderscore = timestampWithUuid.lastIndexOf('_');
@@ -178,27 +611,87 @@ public class ArchiveServiceImpl implements ArchiveService {
     }
     
     /**
-     * Recursively adds directory contents to ZIP archive.
+     * Extracts the execution ID from a log file name.
+     * 
+     * @return The execution ID, or null if the name does not carry one
      */
-    private void zipDirectory(Path sourceDir, Path basePath, ZipOutputStream zos) throws IOException {
-        try (Stream<Path> paths = Files.walk(sourceDir)) {
-            List<Path> files = paths.filter(path -> !Files.isDirectory(path)).collect(Collectors.toList());
-            for (Path path : files) {
-                try {
-                    // Get relative path for ZIP entry
-                    Path relativePath = basePath.relativize(path);
-                    String zipEntryName = relativePath.toString().replace("\\", "/");
-                    
-                    ZipEntry zipEntry = new ZipEntry(zipEntryName);
-                    zos.putNextEntry(zipEntry);
-                    
-                    Files.copy(path, zos);
-                    zos.closeEntry();
-                } catch (IOException e) {
-                    logger.error("Failed to add file to ZIP: {}", path, e);
-                    throw e; // Fail fast if a file cannot be added
+    private String extractExecutionIdFromLogFileName(String fileName) {
+        String baseName = stripLogExtension(fileName);
+        if (!fileName.startsWith(LOG_FILE_PREFIX) || baseName == null) {
+            return null;
+        }
+        String timestampWithUuid = baseName.substring(LOG_FILE_PREFIX.length());
+        if (timestampWithUuid.length() <= LOG_TIMESTAMP_LENGTH
+            || timestampWithUuid.charAt(LOG_TIMESTAMP_LENGTH) != '_') {
+            return null;
+        }
+        int executionIdStart = timestampWithUuid.indexOf('_', LOG_TIMESTAMP_LENGTH + 1);
+        return executionIdStart > 0 ? timestampWithUuid.substring(executionIdStart + 1) : null;
+    }
+    
+    /**
+     * Removes the archived log extension from a file name.
+     * 
+     * @return The base name, or null if the file is not an archived log
+     */
+    private String stripLogExtension(String fileName) {
+        if (fileName.endsWith(LOG_FILE_EXTENSION)) {
+            return fileName.substring(0, fileName.length() - LOG_FILE_EXTENSION.length());
+        }
+        if (fileName.endsWith(TEMPLATE_LOG_FILE_EXTENSION)) {
+            return fileName.substring(0, fileName.length() - TEMPLATE_LOG_FILE_EXTENSION.length());
+        }
+        return null;
+    }
+    
+    /**
+     * Writes all files of a report as a ZIP archive, wherever the report store keeps
+     * them, compressing files in parallel. The stream is flushed and left open.
+     */
+    private void zipReport(Path reportDir, OutputStream out) throws IOException {
+        try (ParallelZipWriter zip = new ParallelZipWriter(out, archivePool)) {
+            for (String entryName : reportFileStore.list(reportDir)) {
+                Path path = reportFileStore.resolve(reportDir, entryName);
+                if (path != null) {
+                    zip.add(entryName, path);
                 }
             }
+            zip.finish();
+        } catch (IOException e) {
+            logger.error("Failed to write archive of report: {}", reportDir.getFileName(), e);
+            throw e; // Fail fast if a file cannot be added
+        }
+    }
+    
+    /**
+     * Writes everything written to it to two streams.
+     */
+    private static class TeeOutputStream extends OutputStream {
+        
+        private final OutputStream first;
+        private final OutputStream second;
+        
+        TeeOutputStream(OutputStream first, OutputStream second) {
+            this.first = first;
+            this.second = second;
+        }
+        
+        @Override
+        public void write(int b) throws IOException {
+            first.write(b);
+            second.write(b);
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            first.write(b, off, len);
+            second.write(b, off, len);
+        }
+        
+        @Override
+        public void flush() throws IOException {
+            first.flush();
+            second.flush();
         }
     }
 }
@@ -0,0 +1,172 @@
+package com.junit.launcher.service;
+
+import io.qameta.allure.AllureResultsWriter;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.model.TestResultContainer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Allure results writer that serializes and writes results on a background thread.
+ * <p>
+ * Test threads only enqueue finished results; the writer thread drains the queue in
+ * batches and passes them to the delegate. {@link #close()} waits for everything
+ * queued so far to be written, so results are complete before a report is generated.
+ */
+public class AsyncResultsWriter implements AllureResultsWriter, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncResultsWriter.class);
+    private static final int MAX_BATCH_SIZE = 256;
+    private static final Runnable STOP = () -> { };
+
+    private final AllureResultsWriter delegate;
+    private final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
+    private final Thread writerThread;
+    // Held shared while queueing and exclusively while closing, so nothing is queued behind the stop marker
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private boolean closed;
+
+    public AsyncResultsWriter(AllureResultsWriter delegate, String name) {
+        this.delegate = delegate;
+        this.writerThread = new Thread(this::drain, name);
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    @Override
+    public void write(TestResult testResult) {
+        enqueue(() -> delegate.write(testResult));
+    }
+
+    @Override
+    public void write(TestResultContainer testResultContainer) {
+        enqueue(() -> delegate.write(testResultContainer));
+    }
+
+    @Override
+    public void write(String source, InputStream attachment) {
+        // The caller may close the stream once this returns, so take the content now
+        byte[] content;
+        try {
+            content = attachment.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read attachment: " + source, e);
+        }
+        enqueue(() -> delegate.write(source, new ByteArrayInputStream(content)));
+    }
+
+    /**
+     * Waits until every result queued so far has been written.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void flush() throws InterruptedException {
+        CountDownLatch flushed = new CountDownLatch(1);
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                // Closing already waited for every queued result
+                return;
+            }
+            queue.add(flushed::countDown);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        flushed.await();
+    }
+
+    /**
+     * Writes the remaining results, stops the writer thread and closes the delegate if it
+     * holds resources. Results written after closing are written on the calling thread.
+     * If the calling thread is interrupted, closing still waits for the remaining results
+     * and returns with the interrupt flag set.
+     */
+    @Override
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(STOP);
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        
+        boolean interrupted = false;
+        while (writerThread.isAlive()) {
+            try {
+                writerThread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        
+        if (delegate instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) delegate).close();
+            } catch (Exception e) {
+                logger.warn("Failed to close Allure results writer", e);
+            }
+        }
+    }
+
+    private void enqueue(Runnable write) {
+        closeLock.readLock().lock();
+        try {
+            if (!closed) {
+                queue.add(write);
+                return;
+            }
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        runWrite(write);
+    }
+
+    private void drain() {
+        List<Runnable> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        boolean stopped = false;
+        while (!stopped) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                logger.warn("Allure results writer interrupted, {} results left unwritten", queue.size());
+                return;
+            }
+            queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+            for (Runnable write : batch) {
+                if (write == STOP) {
+                    stopped = true;
+                } else {
+                    runWrite(write);
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private void runWrite(Runnable write) {
+        try {
+            write.run();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to write Allure result", e);
+        }
+    }
+}
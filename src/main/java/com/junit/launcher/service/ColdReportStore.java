@@ -0,0 +1,422 @@
+package com.junit.launcher.service;
+
+import com.junit.launcher.config.StorageProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Storage tier for reports nobody opens any more.
+ * <p>
+ * Demoting a report packs its files and the Allure results it was generated from into
+ * one compressed archive in the cold directory, and deletes both from the hot tier.
+ * The report keeps its metadata, rerun index and history, so it is still listed and
+ * can still seed trends. Rehydrating unpacks the archive back into the report and
+ * results directories as regular files, which every report format can read. Only a
+ * limited number of reports are rehydrated at the same time; concurrent requests for
+ * the same report wait for one rehydration.
+ */
+public class ColdReportStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColdReportStore.class);
+
+    static final String COLD_DIR = ".cold";
+    private static final String ARCHIVE_EXTENSION = ".zip";
+    private static final String REPORT_PREFIX = "report/";
+    private static final String RESULTS_PREFIX = "results/";
+    // Files that stay in the report directory of a cold report
+    private static final Set<String> KEPT_FILES = Set.of("metadata.json", "failed-tests.json");
+    private static final String KEPT_DIR = "history/";
+    // Accesses within this interval do not touch the report directory again
+    private static final long ACCESS_RECORD_INTERVAL_MILLIS = 60 * 1000L;
+
+    private final Path coldDir;
+    private final ReportFileStore reportFileStore;
+    private final Semaphore rehydrations;
+
+    private final Set<String> coldReports = ConcurrentHashMap.newKeySet();
+    // Kept for the life of the store, so every caller for a report shares one lock
+    private final Map<String, ReportLock> locks = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastAccess = new ConcurrentHashMap<>();
+
+    /**
+     * @param coldDir Directory holding the archives of cold reports
+     * @param reportFileStore Store the report files are read from when demoting
+     * @param maxConcurrentRehydrations Number of reports that may be rehydrated at the same time
+     */
+    public ColdReportStore(Path coldDir, ReportFileStore reportFileStore, int maxConcurrentRehydrations) {
+        this.coldDir = coldDir;
+        this.reportFileStore = reportFileStore;
+        this.rehydrations = new Semaphore(Math.max(1, maxConcurrentRehydrations), true);
+        loadColdReports();
+    }
+
+    /**
+     * Creates the store for the configured cold path.
+     */
+    public static ColdReportStore create(StorageProperties storageProperties, ReportFileStore reportFileStore) {
+        return new ColdReportStore(resolveColdDirectory(storageProperties), reportFileStore,
+            storageProperties.getColdRehydrateConcurrency());
+    }
+
+    /**
+     * Resolves the configured cold path, defaulting to a directory under the reports path.
+     */
+    static Path resolveColdDirectory(StorageProperties storageProperties) {
+        String coldPath = storageProperties.getColdPath();
+        return coldPath == null || coldPath.isBlank()
+            ? Paths.get(storageProperties.getReportsPath(), COLD_DIR)
+            : Paths.get(coldPath);
+    }
+
+    /**
+     * Gets the archive a cold report is packed into.
+     *
+     * @param coldDir Directory holding the archives of cold reports
+     * @param reportId The report identifier
+     * @return Path of the archive, whether or not the report is cold
+     */
+    static Path archivePath(Path coldDir, String reportId) {
+        return coldDir.resolve(reportId + ARCHIVE_EXTENSION);
+    }
+
+    public boolean isCold(String reportId) {
+        return coldReports.contains(reportId);
+    }
+
+    /**
+     * Records that a report was opened. The time is kept on the report directory, at
+     * most once a minute, so that it survives restarts.
+     *
+     * @param reportId The report identifier
+     * @param reportDir The report directory
+     */
+    public void recordAccess(String reportId, Path reportDir) {
+        long now = System.currentTimeMillis();
+        Long previous = lastAccess.put(reportId, now);
+        if (previous != null && now - previous < ACCESS_RECORD_INTERVAL_MILLIS) {
+            return;
+        }
+        try {
+            Files.setLastModifiedTime(reportDir, FileTime.fromMillis(now));
+        } catch (IOException e) {
+            logger.debug("Failed to record access to report {}", reportId, e);
+        }
+    }
+
+    /**
+     * Checks whether a report has been neither generated nor opened for a while.
+     *
+     * @param reportId The report identifier
+     * @param reportDir The report directory
+     * @param idleMillis How long the report must have gone unused
+     * @return true if the report is hot and idle
+     */
+    public boolean isIdle(String reportId, Path reportDir, long idleMillis) {
+        if (isCold(reportId) || !Files.isDirectory(reportDir)) {
+            return false;
+        }
+        try {
+            long lastUsed = Math.max(lastAccess.getOrDefault(reportId, 0L),
+                Files.getLastModifiedTime(reportDir).toMillis());
+            return lastUsed < System.currentTimeMillis() - idleMillis;
+        } catch (IOException e) {
+            logger.warn("Failed to read last access of report {}", reportId, e);
+            return false;
+        }
+    }
+
+    /**
+     * Packs a report and its results into a cold archive and deletes them from the hot tier.
+     * The report is left as it is if it is opened while it is being packed.
+     *
+     * @param reportId The report identifier
+     * @param reportDir The report directory
+     * @param resultsDir The results directory the report was generated from
+     * @return Bytes reclaimed, less the size of the archive, or 0 if the report was not demoted
+     * @throws IOException if the report cannot be packed
+     */
+    public long demote(String reportId, Path reportDir, Path resultsDir) throws IOException {
+        if (isCold(reportId)) {
+            return 0;
+        }
+        long started = System.currentTimeMillis();
+        Files.createDirectories(coldDir);
+
+        // Pack outside the lock, so requests for the report are served meanwhile
+        Path tempArchive = Files.createTempFile(coldDir, reportId, ".tmp");
+        try {
+            int entries = 0;
+            try (ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(tempArchive)))) {
+                zos.setLevel(Deflater.BEST_COMPRESSION);
+                for (String entryName : reportFileStore.list(reportDir)) {
+                    Path file = reportFileStore.resolve(reportDir, entryName);
+                    if (file != null && !isKept(entryName)) {
+                        addEntry(zos, REPORT_PREFIX + entryName, file);
+                        entries++;
+                    }
+                }
+                for (Path file : regularFiles(resultsDir)) {
+                    addEntry(zos, RESULTS_PREFIX + StorageFiles.toEntryName(resultsDir.relativize(file)), file);
+                    entries++;
+                }
+            }
+
+            ReportLock lock = lockFor(reportId);
+            synchronized (lock) {
+                if (lock.deleted) {
+                    logger.info("Report {} was deleted while it was being packed", reportId);
+                    return 0;
+                }
+                if (lastAccess.getOrDefault(reportId, 0L) >= started) {
+                    logger.info("Report {} was opened while it was being packed, leaving it hot", reportId);
+                    return 0;
+                }
+                long archiveSize = Files.size(tempArchive);
+                StorageFiles.atomicMove(tempArchive, archivePath(coldDir, reportId));
+                coldReports.add(reportId);
+
+                reportFileStore.evict(reportDir);
+                long reclaimed = deleteHotFiles(reportDir) + deleteDirectory(resultsDir);
+                logger.info("Demoted report {} to cold storage ({} files, {} bytes packed into {} bytes)",
+                    reportId, entries, reclaimed, archiveSize);
+                return reclaimed - archiveSize;
+            }
+        } finally {
+            Files.deleteIfExists(tempArchive);
+        }
+    }
+
+    /**
+     * Unpacks a cold report back into its report and results directories. Blocks while
+     * the maximum number of rehydrations is running.
+     *
+     * @param reportId The report identifier
+     * @param reportDir The report directory
+     * @param resultsDir The results directory the report was generated from
+     * @return true if the report was cold, false if there was nothing to do
+     * @throws IOException if the archive cannot be unpacked
+     */
+    public boolean rehydrate(String reportId, Path reportDir, Path resultsDir) throws IOException {
+        if (!isCold(reportId)) {
+            return false;
+        }
+        ReportLock lock = lockFor(reportId);
+        synchronized (lock) {
+            if (lock.deleted) {
+                return false;
+            }
+            // Rehydrated by a concurrent request while this one waited
+            if (!isCold(reportId)) {
+                return true;
+            }
+            try {
+                rehydrations.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting to rehydrate report " + reportId);
+            }
+            try {
+                Path archive = archivePath(coldDir, reportId);
+                int entries = unpack(archive, reportDir, resultsDir);
+                reportFileStore.evict(reportDir);
+                coldReports.remove(reportId);
+                Files.delete(archive);
+                lastAccess.put(reportId, System.currentTimeMillis());
+                logger.info("Rehydrated report {} from cold storage ({} files)", reportId, entries);
+                return true;
+            } finally {
+                rehydrations.release();
+            }
+        }
+    }
+
+    /**
+     * Opens the archive of a cold report to read its files in place, without rehydrating
+     * it. The open archive stays readable if the report is rehydrated meanwhile.
+     *
+     * @param reportId The report identifier
+     * @return The archive, to be closed by the caller, or null if the report is not cold
+     * @throws IOException if the archive cannot be opened
+     */
+    public ZipFile openArchive(String reportId) throws IOException {
+        if (!isCold(reportId)) {
+            return null;
+        }
+        synchronized (lockFor(reportId)) {
+            return isCold(reportId) ? new ZipFile(archivePath(coldDir, reportId).toFile()) : null;
+        }
+    }
+
+    /**
+     * Gets the name of a report file within the report directory.
+     *
+     * @param entry An entry of a cold archive
+     * @return The file name, or null if the entry is not a report file
+     */
+    public static String reportFileName(ZipEntry entry) {
+        return fileName(entry, REPORT_PREFIX);
+    }
+
+    /**
+     * Gets the name of an Allure result file within the results directory.
+     *
+     * @param entry An entry of a cold archive
+     * @return The file name, or null if the entry is not a result file
+     */
+    public static String resultFileName(ZipEntry entry) {
+        return fileName(entry, RESULTS_PREFIX);
+    }
+
+    private static String fileName(ZipEntry entry, String prefix) {
+        String name = entry.getName();
+        return !entry.isDirectory() && name.startsWith(prefix) && name.length() > prefix.length()
+            ? name.substring(prefix.length())
+            : null;
+    }
+
+    /**
+     * Deletes the cold archive of a report that is being deleted.
+     *
+     * @param reportId The report identifier
+     * @return Bytes reclaimed
+     * @throws IOException if the archive cannot be deleted
+     */
+    public long delete(String reportId) throws IOException {
+        ReportLock lock = lockFor(reportId);
+        synchronized (lock) {
+            // Demotions and rehydrations waiting for the lock must not bring the report back
+            lock.deleted = true;
+            coldReports.remove(reportId);
+            lastAccess.remove(reportId);
+            Path archive = archivePath(coldDir, reportId);
+            long size = Files.exists(archive) ? Files.size(archive) : 0;
+            Files.deleteIfExists(archive);
+            return size;
+        }
+    }
+
+    private int unpack(Path archive, Path reportDir, Path resultsDir) throws IOException {
+        Path reportRoot = reportDir.toAbsolutePath().normalize();
+        Path resultsRoot = resultsDir.toAbsolutePath().normalize();
+        int entries = 0;
+        try (ZipInputStream zis = new ZipInputStream(Files.newInputStream(archive))) {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                String name = entry.getName();
+                Path target;
+                if (name.startsWith(REPORT_PREFIX)) {
+                    target = reportRoot.resolve(name.substring(REPORT_PREFIX.length())).normalize();
+                } else if (name.startsWith(RESULTS_PREFIX)) {
+                    target = resultsRoot.resolve(name.substring(RESULTS_PREFIX.length())).normalize();
+                } else {
+                    continue;
+                }
+                if (entry.isDirectory() || !(target.startsWith(reportRoot) || target.startsWith(resultsRoot))) {
+                    continue;
+                }
+                Files.createDirectories(target.getParent());
+                Files.copy(zis, target, StandardCopyOption.REPLACE_EXISTING);
+                entries++;
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Deletes everything of a report but the files a cold report keeps, whatever format it is stored in.
+     */
+    private long deleteHotFiles(Path reportDir) throws IOException {
+        long deleted = 0;
+        for (Path file : regularFiles(reportDir)) {
+            if (!isKept(StorageFiles.toEntryName(reportDir.relativize(file)))) {
+                long size = Files.size(file);
+                Files.delete(file);
+                deleted += size;
+            }
+        }
+        StorageFiles.deleteEmptyDirectories(reportDir);
+        return deleted;
+    }
+
+    private long deleteDirectory(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        long deleted = 0;
+        for (Path file : regularFiles(directory)) {
+            long size = Files.size(file);
+            Files.delete(file);
+            deleted += size;
+        }
+        StorageFiles.deleteEmptyDirectories(directory);
+        Files.deleteIfExists(directory);
+        return deleted;
+    }
+
+    private void loadColdReports() {
+        if (!Files.isDirectory(coldDir)) {
+            return;
+        }
+        try (Stream<Path> archives = Files.list(coldDir)) {
+            archives.map(path -> path.getFileName().toString())
+                .filter(name -> name.endsWith(ARCHIVE_EXTENSION))
+                .map(name -> name.substring(0, name.length() - ARCHIVE_EXTENSION.length()))
+                .forEach(coldReports::add);
+        } catch (IOException e) {
+            logger.warn("Failed to list cold reports in {}", coldDir, e);
+        }
+        logger.info("Found {} cold reports in {}", coldReports.size(), coldDir);
+    }
+
+    private ReportLock lockFor(String reportId) {
+        return locks.computeIfAbsent(reportId, id -> new ReportLock());
+    }
+
+    private static boolean isKept(String entryName) {
+        return KEPT_FILES.contains(entryName) || entryName.startsWith(KEPT_DIR);
+    }
+
+    private static void addEntry(ZipOutputStream zos, String name, Path file) throws IOException {
+        zos.putNextEntry(new ZipEntry(name));
+        Files.copy(file, zos);
+        zos.closeEntry();
+    }
+
+    private static List<Path> regularFiles(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Serialises demotion, rehydration and deletion of one report.
+     */
+    private static final class ReportLock {
+        // Guarded by the lock itself
+        boolean deleted;
+    }
+}
@@ -0,0 +1,96 @@
+package com.junit.launcher.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Canonical Allure history shared by consecutive reports.
+ * <p>
+ * The store is laid out like a results directory holding only a {@code history}
+ * folder, so it can be handed to the report generator as an extra results directory
+ * instead of copying history into each run's results. After a report is generated,
+ * the history files it produced replace the stored ones; readers always see either
+ * the old or the new version of each file.
+ */
+public class HistoryStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoryStore.class);
+    private static final String HISTORY_DIR = "history";
+
+    private final Supplier<Path> storeRoot;
+
+    public HistoryStore(Supplier<Path> storeRoot) {
+        this.storeRoot = storeRoot;
+    }
+
+    /**
+     * Gets the directory to pass to the report generator along with the results.
+     */
+    public Path getDirectory() {
+        return storeRoot.get();
+    }
+
+    /**
+     * Checks whether the store holds any history.
+     */
+    public boolean isEmpty() {
+        Path historyDir = historyDir();
+        if (!Files.isDirectory(historyDir)) {
+            return true;
+        }
+        try (Stream<Path> files = Files.list(historyDir)) {
+            return files.findAny().isEmpty();
+        } catch (IOException e) {
+            logger.warn("Failed to read history store: {}", historyDir, e);
+            return true;
+        }
+    }
+
+    /**
+     * Replaces the stored history with the history written into a generated report.
+     *
+     * @param reportHistoryDir The {@code history} folder of a generated report
+     * @throws IOException if the history cannot be stored
+     */
+    public synchronized void update(Path reportHistoryDir) throws IOException {
+        if (!Files.isDirectory(reportHistoryDir)) {
+            logger.debug("No history in {}, keeping stored history", reportHistoryDir);
+            return;
+        }
+
+        Path historyDir = historyDir();
+        Files.createDirectories(historyDir);
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(reportHistoryDir)) {
+            files = listing.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        for (Path source : files) {
+            replace(source, historyDir.resolve(source.getFileName()));
+        }
+        logger.debug("Updated {} history files from {}", files.size(), reportHistoryDir);
+    }
+
+    private void replace(Path source, Path target) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            Files.copy(source, temp, StandardCopyOption.REPLACE_EXISTING);
+            StorageFiles.atomicMove(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path historyDir() {
+        return storeRoot.get().resolve(HISTORY_DIR);
+    }
+}
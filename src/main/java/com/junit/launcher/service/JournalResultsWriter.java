@@ -0,0 +1,76 @@
+package com.junit.launcher.service;
+
+import io.qameta.allure.AllureResultsWriter;
+import io.qameta.allure.internal.Allure2ModelJackson;
+import io.qameta.allure.internal.shadowed.jackson.databind.ObjectMapper;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.model.TestResultContainer;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Allure results writer that appends results to the execution's {@link ResultsJournal}
+ * instead of creating a file per result.
+ * <p>
+ * Results are serialized with the mapper {@code FileSystemResultsWriter} uses, so
+ * materialized files match what it would have written.
+ */
+public class JournalResultsWriter implements AllureResultsWriter, AutoCloseable {
+
+    private final ObjectMapper mapper = Allure2ModelJackson.createMapper();
+    private final DataOutputStream out;
+
+    public JournalResultsWriter(Path resultsDir) throws IOException {
+        Files.createDirectories(resultsDir);
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(
+            ResultsJournal.journalFile(resultsDir), StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+    }
+
+    @Override
+    public void write(TestResult testResult) {
+        String name = testResult.getUuid() + "-result.json";
+        try {
+            append(ResultsJournal.RESULT, name, mapper.writeValueAsBytes(testResult));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to journal test result: " + name, e);
+        }
+    }
+
+    @Override
+    public void write(TestResultContainer testResultContainer) {
+        String name = testResultContainer.getUuid() + "-container.json";
+        try {
+            append(ResultsJournal.CONTAINER, name, mapper.writeValueAsBytes(testResultContainer));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to journal test result container: " + name, e);
+        }
+    }
+
+    @Override
+    public void write(String source, InputStream attachment) {
+        try {
+            append(ResultsJournal.ATTACHMENT, source, attachment.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to journal attachment: " + source, e);
+        }
+    }
+
+    /**
+     * Writes buffered records and closes the journal.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+
+    private synchronized void append(byte type, String name, byte[] content) throws IOException {
+        ResultsJournal.writeRecord(out, type, name, content);
+    }
+}
@@ -0,0 +1,483 @@
+package com.junit.launcher.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable file of log index postings for one or more logs.
+ * <p>
+ * A segment starts with its log table, followed by the postings of every term in term
+ * order and a term directory pointing at them. Only the log table and every
+ * {@value #SPARSE_INTERVAL}th directory entry are held in memory; a term is looked up
+ * by scanning at most one directory block and reading its postings from disk.
+ * <pre>
+ * header:    magic, version, log count, (log ID, execution ID) per log
+ * postings:  per term: term, log count, (ordinal delta, line count, line deltas) per log
+ * directory: per term: term, postings offset
+ * footer:    postings offset, directory offset, term count
+ * </pre>
+ */
+final class LogIndexSegment {
+
+    static final String EXTENSION = ".seg";
+    static final int SPARSE_INTERVAL = 64;
+
+    private static final int MAGIC = 0x4C494458; // "LIDX"
+    private static final int VERSION = 2;
+    private static final int FOOTER_BYTES = 2 * Long.BYTES + Integer.BYTES;
+    private static final int DIRECTORY_BUFFER_SIZE = 4096;
+    private static final int POSTINGS_BUFFER_SIZE = 8192;
+
+    private final Path file;
+    private final long generation;
+    private final String[] logIds;
+    private final String[] executionIds;
+    private final Map<String, Integer> ordinals;
+    private final long postingsOffset;
+    private final int termCount;
+    private final String[] sparseTerms;
+    private final long[] sparsePositions;
+
+    private LogIndexSegment(Path file, long generation, String[] logIds, String[] executionIds,
+                            long postingsOffset, int termCount, String[] sparseTerms, long[] sparsePositions) {
+        this.file = file;
+        this.generation = generation;
+        this.logIds = logIds;
+        this.executionIds = executionIds;
+        this.postingsOffset = postingsOffset;
+        this.termCount = termCount;
+        this.sparseTerms = sparseTerms;
+        this.sparsePositions = sparsePositions;
+        this.ordinals = new HashMap<>(logIds.length * 2);
+        for (int i = 0; i < logIds.length; i++) {
+            ordinals.put(logIds[i], i);
+        }
+    }
+
+    /**
+     * Opens a segment file, reading its log table and sparse term directory.
+     *
+     * @throws IOException if the file cannot be read or is not a segment of this format
+     */
+    static LogIndexSegment open(Path file, long generation) throws IOException {
+        long size = Files.size(file);
+        long postingsOffset;
+        long directoryOffset;
+        int termCount;
+        try (SeekableByteChannel channel = Files.newByteChannel(file)) {
+            ByteBuffer footer = ByteBuffer.allocate(FOOTER_BYTES);
+            channel.position(Math.max(0, size - FOOTER_BYTES));
+            while (footer.hasRemaining() && channel.read(footer) > 0) {
+                // Read the whole footer
+            }
+            footer.flip();
+            if (footer.remaining() < FOOTER_BYTES) {
+                throw new IOException("Truncated segment");
+            }
+            postingsOffset = footer.getLong();
+            directoryOffset = footer.getLong();
+            termCount = footer.getInt();
+        }
+
+        String[] logIds;
+        String[] executionIds;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unsupported segment format");
+            }
+            int logCount = in.readInt();
+            logIds = new String[logCount];
+            executionIds = new String[logCount];
+            for (int i = 0; i < logCount; i++) {
+                logIds[i] = in.readUTF();
+                executionIds[i] = in.readUTF();
+            }
+        }
+        if (postingsOffset > directoryOffset || directoryOffset > size - FOOTER_BYTES || termCount < 0) {
+            throw new IOException("Corrupt segment footer");
+        }
+
+        int sparseCount = (termCount + SPARSE_INTERVAL - 1) / SPARSE_INTERVAL;
+        String[] sparseTerms = new String[sparseCount];
+        long[] sparsePositions = new long[sparseCount];
+        try (DataInputStream in = openAt(file, directoryOffset, POSTINGS_BUFFER_SIZE)) {
+            long position = directoryOffset;
+            for (int t = 0; t < termCount; t++) {
+                byte[] term = readTermBytes(in);
+                if (t % SPARSE_INTERVAL == 0) {
+                    sparseTerms[t / SPARSE_INTERVAL] = new String(term, StandardCharsets.UTF_8);
+                    sparsePositions[t / SPARSE_INTERVAL] = position;
+                }
+                in.readLong();
+                position += varIntSize(term.length) + term.length + Long.BYTES;
+            }
+        }
+
+        return new LogIndexSegment(file, generation, logIds, executionIds,
+            postingsOffset, termCount, sparseTerms, sparsePositions);
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    long getGeneration() {
+        return generation;
+    }
+
+    int getLogCount() {
+        return logIds.length;
+    }
+
+    String getLogId(int ordinal) {
+        return logIds[ordinal];
+    }
+
+    String getExecutionId(int ordinal) {
+        return executionIds[ordinal];
+    }
+
+    /**
+     * Gets the ordinal of a log in this segment.
+     *
+     * @return The ordinal, or -1 if the segment does not hold the log
+     */
+    int ordinalOf(String logId) {
+        Integer ordinal = ordinals.get(logId);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    /**
+     * Reads the postings of a term.
+     *
+     * @return The postings, or null if no log of this segment contains the term
+     */
+    Postings lookup(String term) throws IOException {
+        int block = Arrays.binarySearch(sparseTerms, term);
+        if (block < 0) {
+            block = -block - 2;
+            if (block < 0) {
+                return null;
+            }
+        }
+
+        long postingsPosition = -1;
+        int blockTerms = Math.min(SPARSE_INTERVAL, termCount - block * SPARSE_INTERVAL);
+        try (DataInputStream in = openAt(file, sparsePositions[block], DIRECTORY_BUFFER_SIZE)) {
+            for (int i = 0; i < blockTerms; i++) {
+                String candidate = new String(readTermBytes(in), StandardCharsets.UTF_8);
+                long offset = in.readLong();
+                int comparison = candidate.compareTo(term);
+                if (comparison == 0) {
+                    postingsPosition = offset;
+                    break;
+                }
+                if (comparison > 0) {
+                    return null;
+                }
+            }
+        }
+        if (postingsPosition < 0) {
+            return null;
+        }
+
+        try (DataInputStream in = openAt(file, postingsPosition, POSTINGS_BUFFER_SIZE)) {
+            Postings postings = readPostings(in);
+            if (!postings.term.equals(term)) {
+                throw new IOException("Segment directory does not match its postings: " + file);
+            }
+            return postings;
+        }
+    }
+
+    /**
+     * Opens a cursor over all postings of this segment, in term order.
+     */
+    Cursor cursor() throws IOException {
+        return new Cursor(openAt(file, postingsOffset, POSTINGS_BUFFER_SIZE), termCount);
+    }
+
+    /**
+     * The logs containing a term, by ascending ordinal, with their 1-based line numbers.
+     */
+    static final class Postings {
+        final String term;
+        final int[] ordinals;
+        final int[][] lines;
+
+        Postings(String term, int[] ordinals, int[][] lines) {
+            this.term = term;
+            this.ordinals = ordinals;
+            this.lines = lines;
+        }
+
+        /**
+         * Gets the lines of a log.
+         *
+         * @return The line numbers, or null if the log does not contain the term
+         */
+        int[] linesOf(int ordinal) {
+            int index = Arrays.binarySearch(ordinals, ordinal);
+            return index >= 0 ? lines[index] : null;
+        }
+    }
+
+    /**
+     * Reads the postings of a segment term by term, for merging.
+     */
+    static final class Cursor implements Closeable {
+        private final DataInputStream in;
+        private int remaining;
+        private Postings current;
+
+        private Cursor(DataInputStream in, int termCount) {
+            this.in = in;
+            this.remaining = termCount;
+        }
+
+        /**
+         * Moves to the next term.
+         *
+         * @return false once all terms have been read
+         */
+        boolean next() throws IOException {
+            if (remaining <= 0) {
+                current = null;
+                return false;
+            }
+            current = readPostings(in);
+            remaining--;
+            return true;
+        }
+
+        Postings current() {
+            return current;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * Writes a segment file. Logs are added first, then terms in ascending order.
+     */
+    static final class Writer implements Closeable {
+        private final Path file;
+        private final Path directoryFile;
+        private final CountingOutputStream counter;
+        private final DataOutputStream out;
+        private final DataOutputStream directory;
+        private final List<String> logIds = new ArrayList<>();
+        private final List<String> executionIds = new ArrayList<>();
+        private boolean headerWritten;
+        private long postingsOffset;
+        private String lastTerm;
+        private int termCount;
+
+        Writer(Path file) throws IOException {
+            this.file = file;
+            this.directoryFile = file.resolveSibling(file.getFileName() + ".dir");
+            this.counter = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+            this.out = new DataOutputStream(counter);
+            this.directory = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(directoryFile)));
+        }
+
+        /**
+         * Adds a log and gets its ordinal.
+         */
+        int addLog(String logId, String executionId) {
+            if (headerWritten) {
+                throw new IllegalStateException("Logs must be added before terms");
+            }
+            logIds.add(logId);
+            executionIds.add(executionId != null ? executionId : "");
+            return logIds.size() - 1;
+        }
+
+        /**
+         * Adds the postings of a term. Ordinals are ascending and line numbers ascending per log.
+         */
+        void addTerm(String term, int[] ordinals, int[][] lines, int count) throws IOException {
+            if (lastTerm != null && lastTerm.compareTo(term) >= 0) {
+                throw new IllegalArgumentException("Terms must be added in ascending order: " + term);
+            }
+            writeHeader();
+            lastTerm = term;
+            termCount++;
+
+            writeTermBytes(directory, term.getBytes(StandardCharsets.UTF_8));
+            directory.writeLong(counter.count);
+
+            writeTermBytes(out, term.getBytes(StandardCharsets.UTF_8));
+            writeVarInt(out, count);
+            int previousOrdinal = 0;
+            for (int i = 0; i < count; i++) {
+                writeVarInt(out, ordinals[i] - previousOrdinal);
+                previousOrdinal = ordinals[i];
+                writeVarInt(out, lines[i].length);
+                int previousLine = 0;
+                for (int line : lines[i]) {
+                    writeVarInt(out, line - previousLine);
+                    previousLine = line;
+                }
+            }
+        }
+
+        /**
+         * Completes the file with its directory and footer.
+         */
+        void finish() throws IOException {
+            writeHeader();
+            directory.close();
+            long directoryOffset = counter.count;
+            Files.copy(directoryFile, out);
+            out.writeLong(postingsOffset);
+            out.writeLong(directoryOffset);
+            out.writeInt(termCount);
+            out.close();
+            Files.deleteIfExists(directoryFile);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                out.close();
+                directory.close();
+            } finally {
+                Files.deleteIfExists(directoryFile);
+            }
+        }
+
+        private void writeHeader() throws IOException {
+            if (headerWritten) {
+                return;
+            }
+            headerWritten = true;
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(logIds.size());
+            for (int i = 0; i < logIds.size(); i++) {
+                out.writeUTF(logIds.get(i));
+                out.writeUTF(executionIds.get(i));
+            }
+            postingsOffset = counter.count;
+        }
+
+        Path getFile() {
+            return file;
+        }
+    }
+
+    private static Postings readPostings(DataInputStream in) throws IOException {
+        String term = new String(readTermBytes(in), StandardCharsets.UTF_8);
+        int count = readVarInt(in);
+        int[] ordinals = new int[count];
+        int[][] lines = new int[count][];
+        int ordinal = 0;
+        for (int i = 0; i < count; i++) {
+            ordinal += readVarInt(in);
+            ordinals[i] = ordinal;
+            int[] logLines = new int[readVarInt(in)];
+            int line = 0;
+            for (int j = 0; j < logLines.length; j++) {
+                line += readVarInt(in);
+                logLines[j] = line;
+            }
+            lines[i] = logLines;
+        }
+        return new Postings(term, ordinals, lines);
+    }
+
+    private static DataInputStream openAt(Path file, long position, int bufferSize) throws IOException {
+        SeekableByteChannel channel = Files.newByteChannel(file);
+        try {
+            channel.position(position);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), bufferSize));
+    }
+
+    private static byte[] readTermBytes(DataInputStream in) throws IOException {
+        byte[] term = new byte[readVarInt(in)];
+        in.readFully(term);
+        return term;
+    }
+
+    private static void writeTermBytes(DataOutputStream out, byte[] term) throws IOException {
+        writeVarInt(out, term.length);
+        out.write(term);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * Counts the bytes written through it, beyond what DataOutputStream.size() can hold.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.junit.launcher.service;
+
+import com.junit.launcher.model.LogSearchResult;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Service for maintaining a full-text index over archived execution logs.
+ */
+public interface LogIndexService {
+
+    /**
+     * Adds an archived log to the index, replacing what was indexed for it before.
+     *
+     * @param logId The log file identifier
+     * @param executionId The execution the log belongs to
+     * @param content The log content
+     * @throws IOException if the index segment cannot be written
+     */
+    void indexLog(String logId, String executionId, String content) throws IOException;
+
+    /**
+     * Checks whether a log has already been indexed.
+     *
+     * @param logId The log file identifier
+     * @return true if the log is present in the index
+     */
+    boolean isIndexed(String logId);
+
+    /**
+     * Removes a log from the index, for when the log is deleted.
+     *
+     * @param logId The log file identifier
+     * @throws IOException if the index segment cannot be deleted
+     */
+    void removeLog(String logId) throws IOException;
+
+    /**
+     * Finds logs containing all tokens of the query on the same line.
+     *
+     * @param query The search query
+     * @param limit Maximum number of logs to return
+     * @return Matching logs sorted by log ID (newest first); timestamps are not populated
+     */
+    List<LogSearchResult> search(String query, int limit);
+}
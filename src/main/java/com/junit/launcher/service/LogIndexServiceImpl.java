@@ -0,0 +1,619 @@
+package com.junit.launcher.service;
+
+import com.junit.launcher.config.StorageProperties;
+import com.junit.launcher.model.LogSearchResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of LogIndexService backed by immutable segment files.
+ * <p>
+ * Each archived log is written as a small segment of its own, and segments are merged in
+ * tiers of {@value #MERGE_FACTOR} so a search looks a term up in a handful of files. Postings
+ * stay on disk; memory holds only the log tables and a sparse term directory per segment.
+ * <p>
+ * Segments are named by an increasing generation. When a log is indexed again the copy in
+ * the newest segment wins; a removed log is recorded in a tombstone file as dead in every
+ * segment up to the generation it was removed from, until merges have dropped those copies.
+ * Searches read a snapshot of the segment list and never wait for indexing or merging.
+ */
+@Service
+public class LogIndexServiceImpl implements LogIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogIndexServiceImpl.class);
+    private static final String INDEX_DIRECTORY = ".index";
+    private static final String TOMBSTONE_FILE = "deleted";
+    private static final String TEMP_EXTENSION = ".tmp";
+    private static final int MAX_TOKEN_LENGTH = 64;
+    private static final int MERGE_FACTOR = 10;
+    private static final int SEARCH_ATTEMPTS = 3;
+
+    private final StorageProperties storageProperties;
+
+    // Segments with the ordinals of their live logs; replaced as a whole on every change
+    private volatile List<LiveSegment> segments = List.of();
+
+    // Map of log ID to the generation of the segment holding its live copy
+    private final Map<String, Long> liveLogs = new ConcurrentHashMap<>();
+
+    // Map of removed log ID to the highest generation its copies are dead up to
+    private final Map<String, Long> tombstones = new HashMap<>();
+
+    private final AtomicLong nextGeneration = new AtomicLong(1);
+
+    private volatile boolean loaded;
+
+    public LogIndexServiceImpl(StorageProperties storageProperties) {
+        this.storageProperties = storageProperties;
+    }
+
+    @Override
+    public void indexLog(String logId, String executionId, String content) throws IOException {
+        ensureLoaded();
+
+        Map<String, int[]> logPostings = buildPostings(content);
+        Path indexDir = getIndexDirectory();
+        Files.createDirectories(indexDir);
+
+        // The segment is written outside the lock and only named and published under it,
+        // so generations follow publication order
+        Path tempSegment = Files.createTempFile(indexDir, "log-", LogIndexSegment.EXTENSION + TEMP_EXTENSION);
+        try {
+            try (LogIndexSegment.Writer writer = new LogIndexSegment.Writer(tempSegment)) {
+                writer.addLog(logId, executionId);
+                int[] ordinals = {0};
+                for (Map.Entry<String, int[]> entry : logPostings.entrySet()) {
+                    writer.addTerm(entry.getKey(), ordinals, new int[][] {entry.getValue()}, 1);
+                }
+                writer.finish();
+            }
+
+            synchronized (this) {
+                long generation = nextGeneration.getAndIncrement();
+                Path segmentFile = segmentFile(generation);
+                StorageFiles.atomicMove(tempSegment, segmentFile);
+                LogIndexSegment segment = LogIndexSegment.open(segmentFile, generation);
+                BitSet live = new BitSet();
+                live.set(0);
+
+                // Re-indexing replaces the log's postings, so terms no longer in it stop matching
+                List<LiveSegment> updated = withoutLiveCopy(segments, logId);
+                updated.add(new LiveSegment(segment, live));
+                segments = List.copyOf(updated);
+                liveLogs.put(logId, generation);
+                deleteDeadSegments();
+
+                mergeTiers();
+            }
+        } finally {
+            Files.deleteIfExists(tempSegment);
+        }
+
+        logger.debug("Indexed log {} with {} distinct terms", logId, logPostings.size());
+    }
+
+    @Override
+    public boolean isIndexed(String logId) {
+        ensureLoaded();
+        return liveLogs.containsKey(logId);
+    }
+
+    @Override
+    public void removeLog(String logId) throws IOException {
+        ensureLoaded();
+
+        synchronized (this) {
+            Long generation = liveLogs.get(logId);
+            if (generation == null) {
+                return;
+            }
+
+            // The tombstone goes first, so a crash cannot bring the log back
+            appendTombstone(logId, generation);
+            segments = List.copyOf(withoutLiveCopy(segments, logId));
+            liveLogs.remove(logId);
+            deleteDeadSegments();
+            logger.debug("Removed log {} from index", logId);
+        }
+    }
+
+    @Override
+    public List<LogSearchResult> search(String query, int limit) {
+        ensureLoaded();
+
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return search(segments, terms, limit);
+            } catch (NoSuchFileException e) {
+                // A merge replaced a segment of the snapshot; search the current one
+                if (attempt == SEARCH_ATTEMPTS) {
+                    logger.warn("Log index segments kept changing during search for '{}'", query);
+                    return new ArrayList<>();
+                }
+            } catch (IOException e) {
+                logger.warn("Error searching log index for '{}'", query, e);
+                return new ArrayList<>();
+            }
+        }
+    }
+
+    private List<LogSearchResult> search(List<LiveSegment> snapshot, Set<String> terms, int limit) throws IOException {
+        List<LogSearchResult> results = new ArrayList<>();
+        for (LiveSegment liveSegment : snapshot) {
+            LogIndexSegment segment = liveSegment.segment;
+
+            List<LogIndexSegment.Postings> termPostings = new ArrayList<>();
+            for (String term : terms) {
+                LogIndexSegment.Postings postings = segment.lookup(term);
+                if (postings == null) {
+                    break;
+                }
+                termPostings.add(postings);
+            }
+            if (termPostings.size() < terms.size()) {
+                continue;
+            }
+
+            // Drive the intersection from the rarest term
+            termPostings.sort(Comparator.comparingInt(postings -> postings.ordinals.length));
+
+            LogIndexSegment.Postings rarest = termPostings.get(0);
+            for (int i = 0; i < rarest.ordinals.length; i++) {
+                int ordinal = rarest.ordinals[i];
+                if (!liveSegment.live.get(ordinal)) {
+                    continue;
+                }
+                int[] lines = rarest.lines[i];
+                for (int j = 1; j < termPostings.size() && lines.length > 0; j++) {
+                    int[] other = termPostings.get(j).linesOf(ordinal);
+                    lines = other != null ? intersect(lines, other) : new int[0];
+                }
+                if (lines.length > 0) {
+                    List<Integer> lineNumbers = Arrays.stream(lines).boxed().collect(Collectors.toList());
+                    results.add(new LogSearchResult(segment.getLogId(ordinal), segment.getExecutionId(ordinal),
+                        null, lineNumbers));
+                }
+            }
+        }
+
+        return results.stream()
+            .sorted(Comparator.comparing(LogSearchResult::getLogId).reversed())
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Splits text into lower-case alphanumeric tokens.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean tokenChar = i < text.length() && isTokenChar(text.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                if (i - start <= MAX_TOKEN_LENGTH) {
+                    tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isTokenChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    /**
+     * Builds the postings of a single log in term order, with 1-based line numbers.
+     */
+    private Map<String, int[]> buildPostings(String content) {
+        Map<String, List<Integer>> lineLists = new TreeMap<>();
+        String[] lines = content.split("\n", -1);
+        for (int i = 0; i < lines.length; i++) {
+            int lineNumber = i + 1;
+            for (String token : tokenize(lines[i])) {
+                List<Integer> list = lineLists.computeIfAbsent(token, k -> new ArrayList<>());
+                if (list.isEmpty() || list.get(list.size() - 1) != lineNumber) {
+                    list.add(lineNumber);
+                }
+            }
+        }
+
+        Map<String, int[]> result = new TreeMap<>();
+        lineLists.forEach((term, list) -> result.put(term, list.stream().mapToInt(Integer::intValue).toArray()));
+        return result;
+    }
+
+    /**
+     * Copies the segment list with the live copy of a log marked dead.
+     */
+    private List<LiveSegment> withoutLiveCopy(List<LiveSegment> current, String logId) {
+        Long generation = liveLogs.get(logId);
+        List<LiveSegment> updated = new ArrayList<>(current.size() + 1);
+        for (LiveSegment liveSegment : current) {
+            if (generation != null && liveSegment.segment.getGeneration() == generation) {
+                BitSet live = (BitSet) liveSegment.live.clone();
+                live.clear(liveSegment.segment.ordinalOf(logId));
+                updated.add(new LiveSegment(liveSegment.segment, live));
+            } else {
+                updated.add(liveSegment);
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Deletes segments without live logs. Must be called holding the lock.
+     */
+    private void deleteDeadSegments() {
+        List<LiveSegment> dead = segments.stream()
+            .filter(liveSegment -> liveSegment.live.isEmpty())
+            .collect(Collectors.toList());
+        if (dead.isEmpty()) {
+            return;
+        }
+
+        segments = segments.stream()
+            .filter(liveSegment -> !liveSegment.live.isEmpty())
+            .collect(Collectors.toUnmodifiableList());
+        deleteSegmentFiles(dead);
+    }
+
+    /**
+     * Merges segments while any tier holds {@value #MERGE_FACTOR} of them. A segment's tier
+     * is the order of magnitude of its live log count. Must be called holding the lock.
+     */
+    private void mergeTiers() throws IOException {
+        while (true) {
+            Map<Integer, List<LiveSegment>> tiers = new TreeMap<>();
+            for (LiveSegment liveSegment : segments) {
+                tiers.computeIfAbsent(tier(liveSegment.live.cardinality()), k -> new ArrayList<>()).add(liveSegment);
+            }
+
+            List<LiveSegment> inputs = tiers.values().stream()
+                .filter(tier -> tier.size() >= MERGE_FACTOR)
+                .findFirst()
+                .orElse(null);
+            if (inputs == null) {
+                return;
+            }
+
+            inputs.sort(Comparator.comparingLong(liveSegment -> liveSegment.segment.getGeneration()));
+            merge(inputs.subList(0, MERGE_FACTOR));
+        }
+    }
+
+    private static int tier(int logCount) {
+        int tier = 0;
+        for (int count = logCount; count >= MERGE_FACTOR; count /= MERGE_FACTOR) {
+            tier++;
+        }
+        return tier;
+    }
+
+    /**
+     * Merges segments into one with a new generation, dropping dead logs.
+     */
+    private void merge(List<LiveSegment> inputs) throws IOException {
+        long generation = nextGeneration.getAndIncrement();
+        Path segmentFile = segmentFile(generation);
+        Path tempSegment = segmentFile.resolveSibling(segmentFile.getFileName() + TEMP_EXTENSION);
+
+        int[][] ordinalMaps = new int[inputs.size()][];
+        int mergedCount = 0;
+        try (LogIndexSegment.Writer writer = new LogIndexSegment.Writer(tempSegment)) {
+            for (int s = 0; s < inputs.size(); s++) {
+                LiveSegment input = inputs.get(s);
+                ordinalMaps[s] = new int[input.segment.getLogCount()];
+                Arrays.fill(ordinalMaps[s], -1);
+                for (int ordinal = input.live.nextSetBit(0); ordinal >= 0; ordinal = input.live.nextSetBit(ordinal + 1)) {
+                    ordinalMaps[s][ordinal] = writer.addLog(input.segment.getLogId(ordinal),
+                        input.segment.getExecutionId(ordinal));
+                    mergedCount++;
+                }
+            }
+            mergePostings(inputs, ordinalMaps, mergedCount, writer);
+            writer.finish();
+            StorageFiles.atomicMove(tempSegment, segmentFile);
+        } finally {
+            Files.deleteIfExists(tempSegment);
+        }
+
+        LogIndexSegment merged = LogIndexSegment.open(segmentFile, generation);
+        BitSet live = new BitSet(mergedCount);
+        live.set(0, mergedCount);
+
+        List<LiveSegment> updated = new ArrayList<>(segments);
+        updated.removeAll(inputs);
+        updated.add(new LiveSegment(merged, live));
+        segments = List.copyOf(updated);
+        for (int ordinal = 0; ordinal < mergedCount; ordinal++) {
+            liveLogs.put(merged.getLogId(ordinal), generation);
+        }
+
+        deleteSegmentFiles(inputs);
+        logger.debug("Merged {} log index segments into segment {} with {} logs", inputs.size(), generation, mergedCount);
+    }
+
+    /**
+     * Writes the union of the inputs' postings, term by term, renumbering live logs and
+     * skipping dead ones. Inputs are read in order, so renumbered ordinals stay ascending.
+     */
+    private static void mergePostings(List<LiveSegment> inputs, int[][] ordinalMaps, int mergedCount,
+                                      LogIndexSegment.Writer writer) throws IOException {
+        List<LogIndexSegment.Cursor> cursors = new ArrayList<>();
+        try {
+            PriorityQueue<Integer> queue = new PriorityQueue<>(
+                Comparator.<Integer, String>comparing(s -> cursors.get(s).current().term).thenComparing(s -> s));
+            for (int s = 0; s < inputs.size(); s++) {
+                cursors.add(inputs.get(s).segment.cursor());
+                if (cursors.get(s).next()) {
+                    queue.add(s);
+                }
+            }
+
+            int[] ordinals = new int[mergedCount];
+            int[][] lines = new int[mergedCount][];
+            while (!queue.isEmpty()) {
+                String term = cursors.get(queue.peek()).current().term;
+                int count = 0;
+                while (!queue.isEmpty() && cursors.get(queue.peek()).current().term.equals(term)) {
+                    int s = queue.poll();
+                    LogIndexSegment.Postings postings = cursors.get(s).current();
+                    for (int i = 0; i < postings.ordinals.length; i++) {
+                        int mapped = ordinalMaps[s][postings.ordinals[i]];
+                        if (mapped >= 0) {
+                            ordinals[count] = mapped;
+                            lines[count] = postings.lines[i];
+                            count++;
+                        }
+                    }
+                    if (cursors.get(s).next()) {
+                        queue.add(s);
+                    }
+                }
+                if (count > 0) {
+                    writer.addTerm(term, ordinals, lines, count);
+                }
+            }
+        } finally {
+            for (LogIndexSegment.Cursor cursor : cursors) {
+                cursor.close();
+            }
+        }
+    }
+
+    /**
+     * Deletes replaced segment files, then the tombstones no remaining segment needs.
+     * Must be called holding the lock.
+     */
+    private void deleteSegmentFiles(List<LiveSegment> replaced) {
+        boolean allDeleted = true;
+        for (LiveSegment liveSegment : replaced) {
+            try {
+                Files.deleteIfExists(liveSegment.segment.getFile());
+            } catch (IOException e) {
+                logger.warn("Error deleting log index segment: {}", liveSegment.segment.getFile(), e);
+                allDeleted = false;
+            }
+        }
+        // A segment left on disk may still hold copies that only the tombstones keep dead
+        if (allDeleted) {
+            compactTombstones();
+        }
+    }
+
+    private void appendTombstone(String logId, long generation) throws IOException {
+        Files.createDirectories(getIndexDirectory());
+        Files.writeString(getIndexDirectory().resolve(TOMBSTONE_FILE), generation + "\t" + logId + "\n",
+            StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        tombstones.merge(logId, generation, Math::max);
+    }
+
+    /**
+     * Drops tombstones of logs no segment up to their generation holds a copy of anymore.
+     */
+    private void compactTombstones() {
+        boolean removed = tombstones.entrySet().removeIf(tombstone -> segments.stream()
+            .noneMatch(liveSegment -> liveSegment.segment.getGeneration() <= tombstone.getValue()
+                && liveSegment.segment.ordinalOf(tombstone.getKey()) >= 0));
+        if (!removed) {
+            return;
+        }
+
+        Path tombstoneFile = getIndexDirectory().resolve(TOMBSTONE_FILE);
+        Path tempFile = getIndexDirectory().resolve(TOMBSTONE_FILE + TEMP_EXTENSION);
+        try {
+            StringBuilder content = new StringBuilder();
+            tombstones.forEach((logId, generation) -> content.append(generation).append('\t').append(logId).append('\n'));
+            Files.writeString(tempFile, content, StandardCharsets.UTF_8);
+            StorageFiles.atomicMove(tempFile, tombstoneFile);
+        } catch (IOException e) {
+            // The old file only holds more tombstones than needed
+            logger.warn("Error compacting log index tombstones", e);
+        }
+    }
+
+    /**
+     * Opens all segment files on first use, keeping the newest copy of each log that has
+     * not been removed.
+     */
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+
+            Path indexDir = getIndexDirectory();
+            if (Files.exists(indexDir)) {
+                try {
+                    load(indexDir);
+                } catch (IOException e) {
+                    logger.error("Error loading log index", e);
+                }
+            }
+
+            logger.info("Loaded log index with {} logs in {} segments", liveLogs.size(), segments.size());
+            loaded = true;
+        }
+    }
+
+    private void load(Path indexDir) throws IOException {
+        Path tombstoneFile = indexDir.resolve(TOMBSTONE_FILE);
+        if (Files.exists(tombstoneFile)) {
+            for (String line : Files.readAllLines(tombstoneFile, StandardCharsets.UTF_8)) {
+                int tab = line.indexOf('\t');
+                if (tab > 0) {
+                    try {
+                        tombstones.merge(line.substring(tab + 1), Long.parseLong(line.substring(0, tab)), Math::max);
+                    } catch (NumberFormatException e) {
+                        logger.warn("Ignoring malformed log index tombstone: {}", line);
+                    }
+                }
+            }
+        }
+
+        TreeMap<Long, Path> segmentFiles = new TreeMap<>();
+        try (Stream<Path> files = Files.list(indexDir)) {
+            for (Path file : files.collect(Collectors.toList())) {
+                String name = file.getFileName().toString();
+                Long generation = parseGeneration(name);
+                if (generation != null) {
+                    segmentFiles.put(generation, file);
+                } else if (!name.equals(TOMBSTONE_FILE)) {
+                    // Leftovers of interrupted writes, and segments of the old one-file-per-log
+                    // format, whose logs the archive backfill indexes again
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+
+        List<LiveSegment> loadedSegments = new ArrayList<>();
+        Map<String, LiveSegment> liveCopies = new HashMap<>();
+        for (Map.Entry<Long, Path> entry : segmentFiles.entrySet()) {
+            long generation = entry.getKey();
+            nextGeneration.set(generation + 1);
+
+            LogIndexSegment segment;
+            try {
+                segment = LogIndexSegment.open(entry.getValue(), generation);
+            } catch (IOException e) {
+                // A damaged segment is dropped so its logs get re-indexed on the next backfill
+                logger.warn("Discarding unreadable log index segment: {}", entry.getValue(), e);
+                Files.deleteIfExists(entry.getValue());
+                continue;
+            }
+
+            LiveSegment liveSegment = new LiveSegment(segment, new BitSet(segment.getLogCount()));
+            for (int ordinal = 0; ordinal < segment.getLogCount(); ordinal++) {
+                String logId = segment.getLogId(ordinal);
+                if (tombstones.getOrDefault(logId, 0L) >= generation) {
+                    continue;
+                }
+                // Segments are read oldest first, so a newer copy replaces an older one
+                LiveSegment older = liveCopies.put(logId, liveSegment);
+                if (older != null) {
+                    older.live.clear(older.segment.ordinalOf(logId));
+                }
+                liveSegment.live.set(ordinal);
+            }
+            loadedSegments.add(liveSegment);
+        }
+
+        segments = List.copyOf(loadedSegments);
+        liveCopies.forEach((logId, liveSegment) -> liveLogs.put(logId, liveSegment.segment.getGeneration()));
+        deleteDeadSegments();
+    }
+
+    private static Long parseGeneration(String fileName) {
+        if (!fileName.endsWith(LogIndexSegment.EXTENSION)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(fileName.substring(0, fileName.length() - LogIndexSegment.EXTENSION.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Path segmentFile(long generation) {
+        return getIndexDirectory().resolve(generation + LogIndexSegment.EXTENSION);
+    }
+
+    private Path getIndexDirectory() {
+        return Paths.get(storageProperties.getLogsPath(), INDEX_DIRECTORY);
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    /**
+     * A segment with the ordinals of its logs that are still live. Never modified once
+     * published; a change replaces it.
+     */
+    private static final class LiveSegment {
+        final LogIndexSegment segment;
+        final BitSet live;
+
+        LiveSegment(LogIndexSegment segment, BitSet live) {
+            this.segment = segment;
+            this.live = live;
+        }
+    }
+}
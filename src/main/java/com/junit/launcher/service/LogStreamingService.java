@@ -1,7 +1,12 @@
 package com.junit.launcher.service;
 
+import com.junit.launcher.model.LogStreamFilter;
+import com.junit.launcher.model.ProgressEvent;
+import org.slf4j.event.Level;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.Set;
+
 /**
  * Service for streaming test execution logs to clients via Server-Sent Events.
  */
@@ -15,6 +20,44 @@ public interface LogStreamingService {
      */
     SseEmitter streamLogs(String executionId);
     
+    /**
+     * Registers a client for log streaming that only receives lines matching a filter.
+     * Lines captured before the client connected are replayed through the text criteria
+     * (regex, test events only); level and logger criteria apply to live lines.
+     * 
+     * @param executionId The execution to stream logs for
+     * @param filter The filter criteria, or null to receive every line
+     * @return SseEmitter for streaming
+     * @throws IllegalArgumentException if the level or regular expression is invalid
+     */
+    SseEmitter streamLogs(String executionId, LogStreamFilter filter);
+    
+    /**
+     * Registers a client for a single stream carrying several executions. Every event is
+     * sent as a JSON {@link com.junit.launcher.model.StreamFrame} tagged with its execution
+     * ID, under the event names "log", "progress" and "complete".
+     * <p>
+     * Without execution IDs the client follows every execution, including ones that start
+     * after it connected, and receives the latest progress of known executions on connect.
+     * With execution IDs the captured logs of those executions are replayed and the stream
+     * completes once all of them have completed. IDs of executions that were never started,
+     * or whose logs are no longer kept, are completed right away.
+     * 
+     * @param executionIds The executions to follow, or null or empty for all executions
+     * @param filter The filter criteria for log frames, or null to receive every line
+     * @return SseEmitter for streaming
+     * @throws IllegalArgumentException if the level or regular expression is invalid
+     */
+    SseEmitter streamExecutions(Set<String> executionIds, LogStreamFilter filter);
+    
+    /**
+     * Registers an execution that is about to start, so clients subscribing before its
+     * first log are kept waiting for it. Only logs of registered executions are captured.
+     * 
+     * @param executionId The execution that is starting
+     */
+    void startStreaming(String executionId);
+    
     /**
      * Publishes a log message to all registered clients.
      * 
@@ -23,6 +66,26 @@ public interface LogStreamingService {
      */
     void publishLog(String executionId, String message);
     
+    /**
+     * Publishes a log message emitted by a logger to all registered clients.
+     * 
+     * @param executionId The execution this log belongs to
+     * @param message The log message
+     * @param level The level of the logging event, or null for launcher messages
+     * @param loggerName The name of the emitting logger, or null for launcher messages
+     */
+    void publishLog(String executionId, String message, Level level, String loggerName);
+    
+    /**
+     * Publishes a structured progress event to all registered clients as a "progress"
+     * event, independent of log filters. The latest event is also sent to clients that
+     * connect later.
+     * 
+     * @param executionId The execution this event belongs to
+     * @param event The progress event
+     */
+    void publishProgress(String executionId, ProgressEvent event);
+    
     /**
      * Completes streaming for an execution.
      * 
@@ -37,4 +100,12 @@ public interface LogStreamingService {
      * @return The captured log content
      */
     String getCapturedLogs(String executionId);
+    
+    /**
+     * Gets the most recent progress event published for an execution.
+     * 
+     * @param executionId The execution ID
+     * @return The latest progress event, or null if none was published
+     */
+    ProgressEvent getLatestProgress(String executionId);
 }
@@ -1,15 +1,35 @@
 package com.junit.launcher.service;
 
+import com.junit.launcher.logging.DirectBufferPool;
+import com.junit.launcher.logging.OffHeapLogBuffer;
+import com.junit.launcher.model.LogStreamFilter;
+import com.junit.launcher.model.ProgressEvent;
+import com.junit.launcher.model.StreamFrame;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
 
 /**
  * Implementation of LogStreamingService for streaming test execution logs via SSE.
@@ -19,37 +39,70 @@ public class LogStreamingServiceImpl implements LogStreamingService {
     
     private static final Logger logger = LoggerFactory.getLogger(LogStreamingServiceImpl.class);
     private static final long SSE_TIMEOUT = 30 * 60 * 1000L; // 30 minutes
+    private static final int LOG_SEGMENT_SIZE = 64 * 1024;
+    private static final int MAX_POOLED_LOG_SEGMENTS = 256;
+    private static final int MAX_RETAINED_COMPLETED_EXECUTIONS = 20;
+    private static final int MAX_CACHED_FILTERS = 256;
+    private static final int MAX_REGEX_STEPS = 1_000_000;
+    private static final String TEST_EVENT_PREFIX = "[TEST ";
     
-    // Map of execution IDs to list of SSE emitters
-    private final Map<String, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    // Map of execution IDs to list of SSE subscriptions
+    private final Map<String, List<Subscription>> emitters = new ConcurrentHashMap<>();
     
-    // Map of execution IDs to captured log content
-    private final Map<String, StringBuilder> capturedLogs = new ConcurrentHashMap<>();
+    // Subscriptions following several executions over one connection
+    private final List<MultiplexSubscription> multiplexSubscriptions = new CopyOnWriteArrayList<>();
+    
+    // Compiled filters shared by all subscribers using the same criteria, least recently used evicted first
+    private final Map<LogStreamFilter, CompiledFilter> filterCache = Collections.synchronizedMap(
+        new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<LogStreamFilter, CompiledFilter> eldest) {
+                return size() > MAX_CACHED_FILTERS;
+            }
+        });
+    
+    // Map of execution IDs to captured log content, held off-heap as UTF-8
+    private final Map<String, OffHeapLogBuffer> capturedLogs = new ConcurrentHashMap<>();
+    
+    // Map of execution IDs to the latest progress event
+    private final Map<String, ProgressEvent> latestProgress = new ConcurrentHashMap<>();
+    
+    // Completed executions whose captured logs are kept for late subscribers, oldest first
+    private final Deque<String> completedExecutions = new ArrayDeque<>();
+    
+    private final DirectBufferPool logBufferPool = new DirectBufferPool(LOG_SEGMENT_SIZE, MAX_POOLED_LOG_SEGMENTS);
     
     @Override
     public SseEmitter streamLogs(String executionId) {
+        return streamLogs(executionId, null);
+    }
+    
+    @Override
+    public SseEmitter streamLogs(String executionId, LogStreamFilter filter) {
+        CompiledFilter compiledFilter = compileFilter(filter);
         SseEmitter emitter = new SseEmitter(SSE_TIMEOUT);
+        Subscription subscription = new Subscription(emitter, compiledFilter);
         
         // Add emitter to the list for this execution
-        emitters.computeIfAbsent(executionId, k -> new CopyOnWriteArrayList<>()).add(emitter);
+        emitters.computeIfAbsent(executionId, k -> new CopyOnWriteArrayList<>()).add(subscription);
         
         logger.debug("SSE client registered for execution: {}", executionId);
         
         // Handle emitter completion
         emitter.onCompletion(() -> {
-            removeEmitter(executionId, emitter);
+            removeEmitter(executionId, subscription);
             logger.debug("SSE client completed for execution: {}", executionId);
         });
         
         // Handle emitter timeout
         emitter.onTimeout(() -> {
-            removeEmitter(executionId, emitter);
+            removeEmitter(executionId, subscription);
             logger.debug("SSE client timed out for execution: {}", executionId);
         });
         
         // Handle emitter error
         emitter.onError((ex) -> {
-            removeEmitter(executionId, emitter);
+            removeEmitter(executionId, subscription);
             logger.debug("SSE client error for execution: {}", executionId, ex);
         });
         
@@ -60,73 +113,559 @@ public class LogStreamingServiceImpl implements LogStreamingService {
                 .data("Connected to log stream for execution: " + executionId));
             
             // Send any previously captured logs
-            StringBuilder existingLogs = capturedLogs.get(executionId);
-            if (existingLogs != null && existingLogs.length() > 0) {
+            OffHeapLogBuffer existingLogs = capturedLogs.get(executionId);
+            if (existingLogs != null && existingLogs.size() > 0) {
+                replayCapturedLogs(existingLogs, compiledFilter, text -> sendReplayEvent(emitter, text));
+            }
+            
+            // Bring the client's progress view up to date
+            ProgressEvent progress = latestProgress.get(executionId);
+            if (progress != null) {
                 emitter.send(SseEmitter.event()
-                    .name("log")
-                    .data(existingLogs.toString()));
+                    .name("progress")
+                    .data(progress, MediaType.APPLICATION_JSON));
             }
-        } catch (IOException e) {
+        } catch (IOException | UncheckedIOException e) {
             logger.debug("Failed to send initial event for execution: {}", executionId, e);
-            removeEmitter(executionId, emitter);
+            removeEmitter(executionId, subscription);
+        }
+        
+        return emitter;
+    }
+    
+    @Override
+    public SseEmitter streamExecutions(Set<String> executionIds, LogStreamFilter filter) {
+        CompiledFilter compiledFilter = compileFilter(filter);
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT);
+        MultiplexSubscription subscription = new MultiplexSubscription(emitter, compiledFilter, normalizeIds(executionIds));
+        
+        multiplexSubscriptions.add(subscription);
+        
+        logger.debug("Multiplexed SSE client registered for executions: {}",
+            subscription.executionIds != null ? subscription.executionIds : "all");
+        
+        emitter.onCompletion(() -> multiplexSubscriptions.remove(subscription));
+        emitter.onTimeout(() -> multiplexSubscriptions.remove(subscription));
+        emitter.onError((ex) -> {
+            multiplexSubscriptions.remove(subscription);
+            logger.debug("Multiplexed SSE client error", ex);
+        });
+        
+        try {
+            emitter.send(SseEmitter.event()
+                .name("connected")
+                .data("Connected to multiplexed stream"));
+            
+            if (subscription.executionIds == null) {
+                // Bring the dashboard up to date without replaying every log
+                for (ProgressEvent progress : latestProgress.values()) {
+                    emitter.send(frameEvent("progress", new StreamFrame(progress.getExecutionId(), null, progress)));
+                }
+            } else {
+                for (String executionId : subscription.executionIds) {
+                    OffHeapLogBuffer existingLogs = capturedLogs.get(executionId);
+                    if (existingLogs != null && existingLogs.size() > 0) {
+                        replayCapturedLogs(existingLogs, compiledFilter,
+                            text -> sendReplayFrame(emitter, executionId, text));
+                    }
+                    
+                    ProgressEvent progress = latestProgress.get(executionId);
+                    if (progress != null) {
+                        emitter.send(frameEvent("progress", new StreamFrame(executionId, null, progress)));
+                    }
+                    
+                    // Executions never started, or evicted since, would otherwise never complete
+                    if (isCompleted(executionId) || existingLogs == null) {
+                        emitter.send(frameEvent("complete", new StreamFrame(executionId, null, null)));
+                        subscription.pendingExecutionIds.remove(executionId);
+                    }
+                }
+                if (subscription.pendingExecutionIds.isEmpty()) {
+                    finishMultiplex(subscription);
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            logger.debug("Failed to send initial events to multiplexed SSE client", e);
+            multiplexSubscriptions.remove(subscription);
         }
         
         return emitter;
     }
     
+    @Override
+    public void startStreaming(String executionId) {
+        capturedLogs.computeIfAbsent(executionId, k -> new OffHeapLogBuffer(logBufferPool));
+    }
+    
     @Override
     public void publishLog(String executionId, String message) {
-        // Capture the log message
-        capturedLogs.computeIfAbsent(executionId, k -> new StringBuilder()).append(message);
+        publishLog(executionId, message, null, null);
+    }
+    
+    @Override
+    public void publishLog(String executionId, String message, Level level, String loggerName) {
+        // Capture the log message. Only executions registered by startStreaming have a buffer;
+        // a message arriving after the execution's logs were released must not allocate a new one
+        OffHeapLogBuffer logs = capturedLogs.get(executionId);
+        if (logs != null) {
+            logs.append(message);
+        } else {
+            logger.debug("Not capturing log of execution that is not streaming: {}", executionId);
+        }
+        
+        // Each distinct filter is evaluated once and each event is encoded once per message
+        Map<CompiledFilter, Boolean> decisions = new IdentityHashMap<>();
         
         // Send to all registered emitters for this execution
-        List<SseEmitter> executionEmitters = emitters.get(executionId);
-        if (executionEmitters != null) {
-            for (SseEmitter emitter : executionEmitters) {
-                try {
-                    emitter.send(SseEmitter.event()
+        List<Subscription> subscriptions = emitters.get(executionId);
+        if (subscriptions != null) {
+            Set<DataWithMediaType> event = null;
+            for (Subscription subscription : subscriptions) {
+                CompiledFilter filter = subscription.filter;
+                if (filter != null && !decisions.computeIfAbsent(filter, f -> f.matches(message, level, loggerName))) {
+                    continue;
+                }
+                if (event == null) {
+                    event = SseEmitter.event()
                         .name("log")
-                        .data(message));
+                        .data(message)
+                        .build();
+                }
+                try {
+                    subscription.emitter.send(event);
                 } catch (IOException e) {
                     logger.debug("Failed to send log to SSE client for execution: {}", executionId, e);
-                    removeEmitter(executionId, emitter);
+                    removeEmitter(executionId, subscription);
                 }
             }
         }
+        
+        // Multiplexed subscribers get the same message tagged with its execution
+        Set<DataWithMediaType> frame = null;
+        for (MultiplexSubscription subscription : multiplexSubscriptions) {
+            if (!subscription.includes(executionId)) {
+                continue;
+            }
+            CompiledFilter filter = subscription.filter;
+            if (filter != null && !decisions.computeIfAbsent(filter, f -> f.matches(message, level, loggerName))) {
+                continue;
+            }
+            if (frame == null) {
+                frame = frameEvent("log", new StreamFrame(executionId, message, null));
+            }
+            sendFrame(subscription, frame);
+        }
+    }
+    
+    @Override
+    public void publishProgress(String executionId, ProgressEvent event) {
+        latestProgress.put(executionId, event);
+        
+        List<Subscription> subscriptions = emitters.get(executionId);
+        if (subscriptions != null) {
+            Set<DataWithMediaType> sseEvent = SseEmitter.event()
+                .name("progress")
+                .data(event, MediaType.APPLICATION_JSON)
+                .build();
+            for (Subscription subscription : subscriptions) {
+                try {
+                    subscription.emitter.send(sseEvent);
+                } catch (IOException e) {
+                    logger.debug("Failed to send progress to SSE client for execution: {}", executionId, e);
+                    removeEmitter(executionId, subscription);
+                }
+            }
+        }
+        
+        Set<DataWithMediaType> frame = null;
+        for (MultiplexSubscription subscription : multiplexSubscriptions) {
+            if (subscription.includes(executionId)) {
+                if (frame == null) {
+                    frame = frameEvent("progress", new StreamFrame(executionId, null, event));
+                }
+                sendFrame(subscription, frame);
+            }
+        }
     }
     
     @Override
     public void completeStreaming(String executionId) {
-        List<SseEmitter> executionEmitters = emitters.get(executionId);
-        if (executionEmitters != null) {
-            for (SseEmitter emitter : executionEmitters) {
+        List<Subscription> subscriptions = emitters.get(executionId);
+        if (subscriptions != null) {
+            for (Subscription subscription : subscriptions) {
                 try {
-                    emitter.complete();
+                    subscription.emitter.complete();
                 } catch (Exception e) {
                     logger.debug("Error completing SSE emitter for execution: {}", executionId, e);
                 }
             }
             emitters.remove(executionId);
         }
+        
+        // Explicit multiplexed subscriptions end once their last execution completes
+        Set<DataWithMediaType> frame = null;
+        for (MultiplexSubscription subscription : multiplexSubscriptions) {
+            if (!subscription.includes(executionId)) {
+                continue;
+            }
+            if (frame == null) {
+                frame = frameEvent("complete", new StreamFrame(executionId, null, null));
+            }
+            if (sendFrame(subscription, frame) && subscription.executionIds != null) {
+                subscription.pendingExecutionIds.remove(executionId);
+                if (subscription.pendingExecutionIds.isEmpty()) {
+                    finishMultiplex(subscription);
+                }
+            }
+        }
+        
+        retainCompletedLogs(executionId);
         logger.debug("Streaming completed for execution: {}", executionId);
     }
     
     @Override
     public String getCapturedLogs(String executionId) {
-        StringBuilder logs = capturedLogs.get(executionId);
-        return logs != null ? logs.toString() : "";
+        OffHeapLogBuffer logs = capturedLogs.get(executionId);
+        return logs != null ? logs.readAll() : "";
+    }
+    
+    @Override
+    public ProgressEvent getLatestProgress(String executionId) {
+        return latestProgress.get(executionId);
+    }
+    
+    /**
+     * Gets the number of open multiplexed subscriptions.
+     */
+    int getMultiplexSubscriptionCount() {
+        return multiplexSubscriptions.size();
+    }
+    
+    /**
+     * Gets the number of executions whose logs are currently captured.
+     */
+    int getCapturedExecutionCount() {
+        return capturedLogs.size();
+    }
+    
+    /**
+     * Gets the number of compiled filters kept for reuse.
+     */
+    int getCachedFilterCount() {
+        return filterCache.size();
+    }
+    
+    /**
+     * Compiles filter criteria, reusing the compiled form for identical criteria.
+     * 
+     * @return The compiled filter, or null if the filter has no criteria
+     * @throws IllegalArgumentException if the level or regular expression is invalid
+     */
+    private CompiledFilter compileFilter(LogStreamFilter filter) {
+        if (filter == null || filter.isEmpty()) {
+            return null;
+        }
+        
+        // Copy the key so later changes to the caller's instance cannot corrupt the cache
+        LogStreamFilter key = new LogStreamFilter(filter.getLevel(), filter.getLogger(),
+            filter.getRegex(), filter.isTestEventsOnly());
+        CompiledFilter cached = filterCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        
+        CompiledFilter compiled = new CompiledFilter(key);
+        CompiledFilter existing = filterCache.putIfAbsent(key, compiled);
+        return existing != null ? existing : compiled;
+    }
+    
+    /**
+     * Sends captured logs to a new subscriber one segment at a time, cut at line boundaries
+     * so the client never sees a line split across events.
+     */
+    private void replayCapturedLogs(OffHeapLogBuffer logs, CompiledFilter filter, Consumer<String> sink) {
+        StringBuilder pending = new StringBuilder();
+        logs.forEachChunk(chunk -> {
+            pending.append(chunk);
+            int lineEnd = pending.lastIndexOf("\n");
+            if (lineEnd >= 0) {
+                String text = filterReplayedLines(pending.substring(0, lineEnd + 1), filter);
+                if (!text.isEmpty()) {
+                    sink.accept(text);
+                }
+                pending.delete(0, lineEnd + 1);
+            }
+        });
+        if (pending.length() > 0) {
+            String text = filterReplayedLines(pending.toString(), filter);
+            if (!text.isEmpty()) {
+                sink.accept(text);
+            }
+        }
+    }
+    
+    /**
+     * Applies a filter to replayed lines. Captured logs keep no level or logger, so only
+     * the text criteria can be evaluated for lines published before the subscription.
+     */
+    private String filterReplayedLines(String text, CompiledFilter filter) {
+        if (filter == null) {
+            return text;
+        }
+        StringBuilder matching = new StringBuilder();
+        for (String line : text.split("(?<=\n)")) {
+            if (filter.matchesText(line)) {
+                matching.append(line);
+            }
+        }
+        return matching.toString();
+    }
+    
+    private void sendReplayEvent(SseEmitter emitter, String text) {
+        try {
+            emitter.send(SseEmitter.event()
+                .name("log")
+                .data(text));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private void sendReplayFrame(SseEmitter emitter, String executionId, String text) {
+        try {
+            emitter.send(frameEvent("log", new StreamFrame(executionId, text, null)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static Set<DataWithMediaType> frameEvent(String name, StreamFrame frame) {
+        return SseEmitter.event()
+            .name(name)
+            .data(frame, MediaType.APPLICATION_JSON)
+            .build();
+    }
+    
+    /**
+     * Sends a frame to a multiplexed subscriber, dropping the subscriber if it is gone.
+     * 
+     * @return true if the frame was sent
+     */
+    private boolean sendFrame(MultiplexSubscription subscription, Set<DataWithMediaType> frame) {
+        try {
+            subscription.emitter.send(frame);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Failed to send frame to multiplexed SSE client", e);
+            multiplexSubscriptions.remove(subscription);
+            return false;
+        }
+    }
+    
+    private void finishMultiplex(MultiplexSubscription subscription) {
+        if (subscription.finished.compareAndSet(false, true)) {
+            multiplexSubscriptions.remove(subscription);
+            try {
+                subscription.emitter.complete();
+            } catch (Exception e) {
+                logger.debug("Error completing multiplexed SSE emitter", e);
+            }
+        }
+    }
+    
+    private boolean isCompleted(String executionId) {
+        synchronized (completedExecutions) {
+            return completedExecutions.contains(executionId);
+        }
+    }
+    
+    /**
+     * Drops blank IDs; no IDs at all means every execution.
+     */
+    private static Set<String> normalizeIds(Set<String> executionIds) {
+        if (executionIds == null) {
+            return null;
+        }
+        Set<String> ids = new LinkedHashSet<>();
+        for (String executionId : executionIds) {
+            if (executionId != null && !executionId.isBlank()) {
+                ids.add(executionId.trim());
+            }
+        }
+        return ids.isEmpty() ? null : Collections.unmodifiableSet(ids);
+    }
+    
+    /**
+     * Keeps the logs of recently completed executions and returns the buffers of older ones
+     * to the pool, so off-heap usage stays bounded however many executions run.
+     */
+    private void retainCompletedLogs(String executionId) {
+        synchronized (completedExecutions) {
+            if (completedExecutions.contains(executionId)) {
+                return;
+            }
+            completedExecutions.addLast(executionId);
+            while (completedExecutions.size() > MAX_RETAINED_COMPLETED_EXECUTIONS) {
+                String evictedExecutionId = completedExecutions.removeFirst();
+                latestProgress.remove(evictedExecutionId);
+                OffHeapLogBuffer evicted = capturedLogs.remove(evictedExecutionId);
+                if (evicted != null) {
+                    evicted.release();
+                }
+            }
+        }
     }
     
     /**
      * Removes an emitter from the list.
      */
-    private void removeEmitter(String executionId, SseEmitter emitter) {
-        List<SseEmitter> executionEmitters = emitters.get(executionId);
-        if (executionEmitters != null) {
-            executionEmitters.remove(emitter);
-            if (executionEmitters.isEmpty()) {
+    private void removeEmitter(String executionId, Subscription subscription) {
+        List<Subscription> subscriptions = emitters.get(executionId);
+        if (subscriptions != null) {
+            subscriptions.remove(subscription);
+            if (subscriptions.isEmpty()) {
                 emitters.remove(executionId);
             }
         }
     }
+    
+    /**
+     * An SSE client together with its optional filter.
+     */
+    private static class Subscription {
+        private final SseEmitter emitter;
+        private final CompiledFilter filter;
+        
+        Subscription(SseEmitter emitter, CompiledFilter filter) {
+            this.emitter = emitter;
+            this.filter = filter;
+        }
+    }
+    
+    /**
+     * An SSE client following several executions, or all of them when no IDs are given.
+     */
+    private static class MultiplexSubscription {
+        private final SseEmitter emitter;
+        private final CompiledFilter filter;
+        private final Set<String> executionIds;
+        private final Set<String> pendingExecutionIds = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean finished = new AtomicBoolean();
+        
+        MultiplexSubscription(SseEmitter emitter, CompiledFilter filter, Set<String> executionIds) {
+            this.emitter = emitter;
+            this.filter = filter;
+            this.executionIds = executionIds;
+            if (executionIds != null) {
+                pendingExecutionIds.addAll(executionIds);
+            }
+        }
+        
+        boolean includes(String executionId) {
+            return executionIds == null || executionIds.contains(executionId);
+        }
+    }
+    
+    /**
+     * Text that a regular expression may read a limited number of characters of, so
+     * matching always ends however much the expression backtracks. Subsequences draw on
+     * the same budget.
+     */
+    static class BoundedCharSequence implements CharSequence {
+        private final CharSequence text;
+        private final int[] stepsLeft;
+        
+        BoundedCharSequence(CharSequence text, int maxSteps) {
+            this(text, new int[] {maxSteps});
+        }
+        
+        private BoundedCharSequence(CharSequence text, int[] stepsLeft) {
+            this.text = text;
+            this.stepsLeft = stepsLeft;
+        }
+        
+        @Override
+        public char charAt(int index) {
+            if (--stepsLeft[0] < 0) {
+                throw new RegexBudgetExceededException();
+            }
+            return text.charAt(index);
+        }
+        
+        @Override
+        public int length() {
+            return text.length();
+        }
+        
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new BoundedCharSequence(text.subSequence(start, end), stepsLeft);
+        }
+        
+        @Override
+        public String toString() {
+            return text.toString();
+        }
+    }
+    
+    /**
+     * Thrown when a regular expression reads past its budget.
+     */
+    static class RegexBudgetExceededException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        
+        RegexBudgetExceededException() {
+            super(null, null, false, false);
+        }
+    }
+    
+    /**
+     * Filter criteria with the level parsed and the regular expression compiled.
+     */
+    private static class CompiledFilter {
+        private final Level minLevel;
+        private final String loggerPrefix;
+        private final Pattern pattern;
+        private final boolean testEventsOnly;
+        
+        CompiledFilter(LogStreamFilter filter) {
+            this.minLevel = isBlank(filter.getLevel()) ? null
+                : Level.valueOf(filter.getLevel().trim().toUpperCase(Locale.ROOT));
+            this.loggerPrefix = isBlank(filter.getLogger()) ? null : filter.getLogger().trim();
+            this.pattern = isBlank(filter.getRegex()) ? null : Pattern.compile(filter.getRegex());
+            this.testEventsOnly = filter.isTestEventsOnly();
+        }
+        
+        boolean matches(String message, Level level, String loggerName) {
+            // Lines published by the launcher itself carry no level and count as INFO
+            Level effectiveLevel = level != null ? level : Level.INFO;
+            if (minLevel != null && effectiveLevel.toInt() < minLevel.toInt()) {
+                return false;
+            }
+            if (loggerPrefix != null && (loggerName == null || !loggerName.startsWith(loggerPrefix))) {
+                return false;
+            }
+            return matchesText(message);
+        }
+        
+        boolean matchesText(String message) {
+            if (testEventsOnly && !message.startsWith(TEST_EVENT_PREFIX)) {
+                return false;
+            }
+            if (pattern == null) {
+                return true;
+            }
+            // Client regexes run on the publishing thread; one that backtracks too long does not match
+            try {
+                return pattern.matcher(new BoundedCharSequence(message, MAX_REGEX_STEPS)).find();
+            } catch (RegexBudgetExceededException e) {
+                logger.debug("Log filter regex gave up on a line after {} steps: {}", MAX_REGEX_STEPS, pattern);
+                return false;
+            }
+        }
+        
+        private static boolean isBlank(String value) {
+            return value == null || value.isBlank();
+        }
+    }
 }
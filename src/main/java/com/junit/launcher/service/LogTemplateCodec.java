@@ -0,0 +1,582 @@
+package com.junit.launcher.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Encodes logs as sequences of line templates plus variable fields.
+ * <p>
+ * Templates are mined Drain-style: lines are grouped by token count and first token, and a
+ * line joins the most similar template of its group, generalising differing positions into
+ * wildcards. Templates are immutable once written to the shared dictionary file, so a
+ * generalisation creates a new template and older archives keep decoding exactly.
+ * Tokens are split on single spaces, which makes reconstruction byte-for-byte exact.
+ * <p>
+ * Dictionaries are versioned. Once the current dictionary holds its maximum number of
+ * templates, a new version is started with only the templates still open for matching,
+ * leaving superseded ones behind. Each encoded log records the version it was written
+ * with; older versions are only read when such a log is decoded, and only a few are kept
+ * in memory. Encoding is serialised, while decoding reads immutable snapshots of the
+ * dictionaries and never waits for it.
+ */
+public class LogTemplateCodec {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogTemplateCodec.class);
+    private static final int FILE_MAGIC = 0x4C545046; // "LTPF"
+    private static final int DICTIONARY_MAGIC = 0x4C544443; // "LTDC"
+    // Logs of format 1 were all written with the unversioned dictionary
+    private static final int UNVERSIONED_FORMAT = 1;
+    private static final int FORMAT_VERSION = 2;
+    private static final int DICTIONARY_FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 3 * Integer.BYTES;
+    private static final double SIMILARITY_THRESHOLD = 0.5;
+    private static final int MAX_TEMPLATES_PER_GROUP = 100;
+    private static final int DEFAULT_MAX_TEMPLATES_PER_DICTIONARY = 4096;
+    private static final int MAX_CACHED_DICTIONARIES = 4;
+    private static final String WILDCARD_GROUP_TOKEN = "<*>";
+
+    private final Path dictionaryFile;
+    private final int maxTemplatesPerDictionary;
+    private final Pattern versionedFileName;
+
+    // The dictionary logs are encoded with; replaced whenever templates are appended
+    private volatile Dictionary current;
+
+    // Older dictionary versions read for decoding
+    private final Map<Integer, Dictionary> previous = new ConcurrentHashMap<>();
+
+    // Group key (token count and first token) to IDs of templates still open for matching;
+    // only used while encoding
+    private final Map<String, List<Integer>> groups = new HashMap<>();
+
+    private final Object encodeLock = new Object();
+
+    /**
+     * @param dictionaryFile The first dictionary file; later versions are kept next to it
+     */
+    public LogTemplateCodec(Path dictionaryFile) {
+        this(dictionaryFile, DEFAULT_MAX_TEMPLATES_PER_DICTIONARY);
+    }
+
+    LogTemplateCodec(Path dictionaryFile, int maxTemplatesPerDictionary) {
+        this.dictionaryFile = dictionaryFile;
+        this.maxTemplatesPerDictionary = maxTemplatesPerDictionary;
+        String[] name = splitExtension(dictionaryFile.getFileName().toString());
+        this.versionedFileName = Pattern.compile(Pattern.quote(name[0]) + "-(\\d+)" + Pattern.quote(name[1]));
+    }
+
+    /**
+     * Encodes log content, appending any newly mined templates to the dictionary.
+     *
+     * @param content The log content
+     * @return The encoded log
+     * @throws IOException if the dictionary cannot be read or written
+     */
+    public byte[] encode(String content) throws IOException {
+        synchronized (encodeLock) {
+            Dictionary dictionary = currentDictionary();
+            if (dictionary.size() >= maxTemplatesPerDictionary) {
+                dictionary = startNextVersion(dictionary);
+            }
+
+            String[] lines = content.split("\n", -1);
+            List<String[]> mined = new ArrayList<>();
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream header = new DataOutputStream(bytes);
+            header.writeInt(FILE_MAGIC);
+            header.writeInt(FORMAT_VERSION);
+            header.writeInt(dictionary.version);
+            header.flush();
+
+            try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+                writeVarInt(out, lines.length);
+                for (String line : lines) {
+                    String[] tokens = line.split(" ", -1);
+                    int templateId = matchTemplate(dictionary, mined, tokens);
+                    writeVarInt(out, templateId);
+
+                    String[] template = template(dictionary, mined, templateId);
+                    for (int i = 0; i < template.length; i++) {
+                        if (template[i] == null) {
+                            writeString(out, tokens[i]);
+                        }
+                    }
+                }
+            }
+
+            // Templates must be durable before any archive references them
+            if (!mined.isEmpty()) {
+                appendToDictionary(dictionaryFile(dictionary.version), mined);
+                current = dictionary.append(mined);
+            }
+
+            return bytes.toByteArray();
+        }
+    }
+
+    /**
+     * Decodes a log previously produced by {@link #encode(String)}.
+     *
+     * @param data The encoded log
+     * @return The exact original content
+     * @throws IOException if the data or dictionary is invalid
+     */
+    public String decode(byte[] data) throws IOException {
+        ByteArrayInputStream bytes = new ByteArrayInputStream(data);
+        Dictionary dictionary = dictionary(readDictionaryVersion(new DataInputStream(bytes)));
+
+        StringBuilder content = new StringBuilder(data.length * 4);
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(bytes))) {
+            int lineCount = readVarInt(in);
+            for (int l = 0; l < lineCount; l++) {
+                if (l > 0) {
+                    content.append('\n');
+                }
+
+                int templateId = readVarInt(in);
+                if (templateId >= dictionary.size()) {
+                    throw new IOException("Unknown log template: " + templateId);
+                }
+
+                String[] template = dictionary.templates[templateId];
+                for (int i = 0; i < template.length; i++) {
+                    if (i > 0) {
+                        content.append(' ');
+                    }
+                    content.append(template[i] != null ? template[i] : readString(in));
+                }
+            }
+        }
+        return content.toString();
+    }
+
+    /**
+     * Gets the dictionary file an encoded log has to be decoded with.
+     *
+     * @param encodedLog A log file produced by {@link #encode(String)}
+     * @return The dictionary file
+     * @throws IOException if the log cannot be read or is not an encoded log
+     */
+    public Path getDictionaryFile(Path encodedLog) throws IOException {
+        try (InputStream in = Files.newInputStream(encodedLog)) {
+            byte[] header = in.readNBytes(HEADER_BYTES);
+            return dictionaryFile(readDictionaryVersion(new DataInputStream(new ByteArrayInputStream(header))));
+        }
+    }
+
+    /**
+     * Gets the number of templates in the current dictionary.
+     */
+    public int getTemplateCount() throws IOException {
+        return currentDictionary().size();
+    }
+
+    /**
+     * Gets the version of the current dictionary.
+     */
+    int getDictionaryVersion() throws IOException {
+        return currentDictionary().version;
+    }
+
+    /**
+     * Finds the template for a line, mining a new one when no existing template fits.
+     */
+    private int matchTemplate(Dictionary dictionary, List<String[]> mined, String[] tokens) {
+        List<Integer> candidates = groups.computeIfAbsent(groupKey(tokens), k -> new ArrayList<>());
+
+        int bestId = -1;
+        int bestMatches = -1;
+        for (int id : candidates) {
+            String[] template = template(dictionary, mined, id);
+            int matches = 0;
+            boolean exact = true;
+            for (int i = 0; i < tokens.length; i++) {
+                if (template[i] == null) {
+                    continue;
+                }
+                if (template[i].equals(tokens[i])) {
+                    matches++;
+                } else {
+                    exact = false;
+                }
+            }
+            if (exact) {
+                return id;
+            }
+            if (matches > bestMatches) {
+                bestMatches = matches;
+                bestId = id;
+            }
+        }
+
+        String[] template;
+        if (bestId >= 0 && (double) bestMatches / tokens.length >= SIMILARITY_THRESHOLD) {
+            // Generalise the closest template; it stays in the dictionary for older archives
+            String[] previousTemplate = template(dictionary, mined, bestId);
+            template = new String[tokens.length];
+            for (int i = 0; i < tokens.length; i++) {
+                template[i] = previousTemplate[i] != null && previousTemplate[i].equals(tokens[i])
+                    ? previousTemplate[i] : null;
+            }
+            candidates.remove(Integer.valueOf(bestId));
+        } else {
+            template = new String[tokens.length];
+            for (int i = 0; i < tokens.length; i++) {
+                template[i] = isVariable(tokens[i]) ? null : tokens[i];
+            }
+            if (candidates.size() >= MAX_TEMPLATES_PER_GROUP) {
+                candidates.remove(0);
+            }
+        }
+
+        mined.add(template);
+        int id = dictionary.size() + mined.size() - 1;
+        candidates.add(id);
+        return id;
+    }
+
+    private static String[] template(Dictionary dictionary, List<String[]> mined, int id) {
+        return id < dictionary.size() ? dictionary.templates[id] : mined.get(id - dictionary.size());
+    }
+
+    private static String groupKey(String[] tokens) {
+        String first = tokens.length > 0 && tokens[0] != null ? tokens[0] : WILDCARD_GROUP_TOKEN;
+        return tokens.length + "|" + (isVariable(first) ? WILDCARD_GROUP_TOKEN : first);
+    }
+
+    /**
+     * Treats tokens containing digits (IDs, timestamps, counters) as parameters up front.
+     */
+    private static boolean isVariable(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            if (Character.isDigit(token.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Starts a new dictionary version holding the templates still open for matching,
+     * newest first up to half the maximum, so compression carries over. Must be called
+     * holding the encode lock.
+     */
+    private Dictionary startNextVersion(Dictionary full) throws IOException {
+        TreeSet<Integer> open = new TreeSet<>();
+        groups.values().forEach(open::addAll);
+        List<String[]> carried = new ArrayList<>();
+        for (int id : open.descendingSet()) {
+            if (carried.size() >= maxTemplatesPerDictionary / 2) {
+                break;
+            }
+            carried.add(full.templates[id]);
+        }
+        // Oldest first, matching the order the templates were mined in
+        Collections.reverse(carried);
+
+        Dictionary next = new Dictionary(full.version + 1, new String[0][]);
+        Path file = dictionaryFile(next.version);
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.deleteIfExists(tempFile);
+        appendToDictionary(tempFile, carried);
+        StorageFiles.atomicMove(tempFile, file);
+        next = next.append(carried);
+
+        cacheDictionary(full);
+        current = next;
+        rebuildGroups(next);
+        logger.info("Started log template dictionary version {} with {} of {} templates",
+            next.version, carried.size(), full.size());
+        return next;
+    }
+
+    /**
+     * Gets the current dictionary, reading the newest version from disk on first use.
+     */
+    private Dictionary currentDictionary() throws IOException {
+        Dictionary dictionary = current;
+        if (dictionary != null) {
+            return dictionary;
+        }
+        synchronized (this) {
+            if (current == null) {
+                int version = latestVersion();
+                Dictionary loaded = readDictionary(version, true);
+                // Encoders reach the groups only after seeing the published dictionary
+                rebuildGroups(loaded);
+                current = loaded;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Gets a dictionary by version for decoding.
+     */
+    private Dictionary dictionary(int version) throws IOException {
+        Dictionary dictionary = currentDictionary();
+        if (dictionary.version == version) {
+            return dictionary;
+        }
+        Dictionary cached = previous.get(version);
+        if (cached != null) {
+            return cached;
+        }
+        if (!Files.exists(dictionaryFile(version))) {
+            throw new IOException("Missing log template dictionary version " + version);
+        }
+        // Versions are immutable once superseded, so concurrent readers may each read one;
+        // a newer version written by another instance may still grow and is not cached
+        Dictionary loaded = readDictionary(version, false);
+        if (version < dictionary.version) {
+            cacheDictionary(loaded);
+        }
+        return loaded;
+    }
+
+    private void cacheDictionary(Dictionary dictionary) {
+        previous.put(dictionary.version, dictionary);
+        while (previous.size() > MAX_CACHED_DICTIONARIES) {
+            previous.keySet().stream().min(Integer::compare).ifPresent(previous::remove);
+        }
+    }
+
+    private int latestVersion() throws IOException {
+        Path directory = dictionaryFile.toAbsolutePath().getParent();
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        int latest = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Matcher matcher = versionedFileName.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    latest = Math.max(latest, Integer.parseInt(matcher.group(1)));
+                }
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Gets the file of a dictionary version; version 0 is the unversioned file.
+     */
+    private Path dictionaryFile(int version) {
+        if (version == 0) {
+            return dictionaryFile;
+        }
+        String[] name = splitExtension(dictionaryFile.getFileName().toString());
+        return dictionaryFile.resolveSibling(name[0] + "-" + version + name[1]);
+    }
+
+    private static String[] splitExtension(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0
+            ? new String[] {fileName.substring(0, dot), fileName.substring(dot)}
+            : new String[] {fileName, ""};
+    }
+
+    private static int readDictionaryVersion(DataInputStream header) throws IOException {
+        if (header.readInt() != FILE_MAGIC) {
+            throw new IOException("Unsupported template log format");
+        }
+        int format = header.readInt();
+        if (format == UNVERSIONED_FORMAT) {
+            return 0;
+        }
+        if (format != FORMAT_VERSION) {
+            throw new IOException("Unsupported template log format");
+        }
+        return header.readInt();
+    }
+
+    /**
+     * Reads a dictionary version. A torn record at the end of the file, left by a crash
+     * while appending, is dropped; for the current version it is also cut off the file so
+     * later appends stay aligned.
+     */
+    private Dictionary readDictionary(int version, boolean truncateTornRecord) throws IOException {
+        Path file = dictionaryFile(version);
+        List<String[]> templates = new ArrayList<>();
+        if (!Files.exists(file)) {
+            return new Dictionary(version, new String[0][]);
+        }
+
+        byte[] data = Files.readAllBytes(file);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        if (data.length < 8 || in.readInt() != DICTIONARY_MAGIC || in.readInt() != DICTIONARY_FORMAT_VERSION) {
+            throw new IOException("Unsupported template dictionary format: " + file);
+        }
+
+        long validLength = 8;
+        try {
+            while (in.available() > 0) {
+                int tokenCount = readVarInt(in);
+                String[] template = new String[tokenCount];
+                for (int i = 0; i < tokenCount; i++) {
+                    template[i] = in.readBoolean() ? null : readString(in);
+                }
+                templates.add(template);
+                validLength = data.length - in.available();
+            }
+        } catch (EOFException e) {
+            logger.warn("Ignoring incomplete record at end of template dictionary: {}", file);
+            if (truncateTornRecord) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.truncate(validLength);
+                }
+            }
+        }
+
+        logger.debug("Loaded {} log templates from {}", templates.size(), file);
+        return new Dictionary(version, templates.toArray(new String[0][]));
+    }
+
+    /**
+     * Makes the latest template of each shape take part in matching. Must be called
+     * holding the encode lock, or before the dictionary is published.
+     */
+    private void rebuildGroups(Dictionary dictionary) {
+        groups.clear();
+        for (int id = 0; id < dictionary.size(); id++) {
+            String[] template = dictionary.templates[id];
+            List<Integer> candidates = groups.computeIfAbsent(groupKey(template), k -> new ArrayList<>());
+            candidates.removeIf(existing -> generalises(template, dictionary.templates[existing]));
+            candidates.add(id);
+        }
+    }
+
+    /**
+     * Checks whether a template was derived from another by turning tokens into wildcards.
+     */
+    private static boolean generalises(String[] general, String[] specific) {
+        if (general.length != specific.length) {
+            return false;
+        }
+        for (int i = 0; i < general.length; i++) {
+            if (general[i] != null && !general[i].equals(specific[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void appendToDictionary(Path file, List<String[]> templates) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        if (!Files.exists(file) || Files.size(file) == 0) {
+            out.writeInt(DICTIONARY_MAGIC);
+            out.writeInt(DICTIONARY_FORMAT_VERSION);
+        }
+        for (String[] template : templates) {
+            writeVarInt(out, template.length);
+            for (String token : template) {
+                out.writeBoolean(token == null);
+                if (token != null) {
+                    writeString(out, token);
+                }
+            }
+        }
+        out.flush();
+
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    private static void writeString(OutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readVarInt(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarInt(OutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarInt(InputStream in) throws IOException {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * An immutable snapshot of a dictionary version; appending templates creates a new one.
+     */
+    private static final class Dictionary {
+        final int version;
+        final String[][] templates;
+
+        Dictionary(int version, String[][] templates) {
+            this.version = version;
+            this.templates = templates;
+        }
+
+        int size() {
+            return templates.length;
+        }
+
+        Dictionary append(List<String[]> added) {
+            String[][] appended = Arrays.copyOf(templates, templates.length + added.size());
+            for (int i = 0; i < added.size(); i++) {
+                appended[templates.length + i] = added.get(i);
+            }
+            return new Dictionary(version, appended);
+        }
+    }
+}
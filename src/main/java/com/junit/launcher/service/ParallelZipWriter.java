@@ -0,0 +1,508 @@
+package com.junit.launcher.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Writes a ZIP archive whose entries are compressed in parallel.
+ * <p>
+ * Each added file is read, checksummed and deflated on a pool thread while earlier
+ * entries are still being written; the calling thread writes finished entries to the
+ * stream in the order they were added, so the output is one ordinary ZIP stream. At
+ * most a few entries per pool thread are in flight, and files over 1 MB are deflated
+ * into temporary files rather than memory, which bounds memory. Files that are already
+ * compressed (images, fonts, archives) or that do not shrink are stored instead of
+ * deflated. Zip64 records are written when sizes, offsets or the number
+ * of entries need them.
+ */
+public class ParallelZipWriter implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelZipWriter.class);
+
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(
+        "png", "jpg", "jpeg", "gif", "webp", "ico", "woff", "woff2",
+        "zip", "gz", "tgz", "bz2", "xz", "7z", "jar", "mp4", "webm", "mp3", "pdf");
+    // Files up to this size are read whole so they can be stored without reading them again
+    private static final int IN_MEMORY_LIMIT = 1024 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_EXTRA_ID = 0x0001;
+    private static final int UTF8_FLAG = 0x0800;
+    private static final int VERSION = 20;
+    private static final int ZIP64_VERSION = 45;
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+    private static final int ZIP64_MAGIC_COUNT = 0xFFFF;
+
+    private final CountingOutputStream out;
+    private final ForkJoinPool pool;
+    private final int window;
+    private final Deque<Future<Entry>> pending = new ArrayDeque<>();
+    private final List<Entry> written = new ArrayList<>();
+    // Temporary files holding deflated entries not yet written
+    private final Set<Path> spills = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+    private boolean finished;
+
+    /**
+     * @param out Stream to write the archive to; it is flushed but not closed
+     * @param pool Pool to compress entries on
+     */
+    public ParallelZipWriter(OutputStream out, ForkJoinPool pool) {
+        this.out = new CountingOutputStream(out);
+        this.pool = pool;
+        this.window = Math.max(2, pool.getParallelism() * 2);
+    }
+
+    /**
+     * Adds a file. It is compressed in the background and written once all entries
+     * added before it have been written.
+     *
+     * @param name Entry name, using '/' separators
+     * @param file The file to add
+     * @throws IOException if writing an earlier entry fails
+     */
+    public void add(String name, Path file) throws IOException {
+        enqueue(pool.submit(() -> compress(name, Files.size(file), Files.getLastModifiedTime(file).toMillis(),
+            () -> Files.newInputStream(file))));
+    }
+
+    /**
+     * Adds an entry of another ZIP archive without extracting it. The archive must stay
+     * open until the entry has been written, by {@link #flush()} or {@link #finish()}.
+     *
+     * @param name Entry name, using '/' separators
+     * @param archive The archive to read the entry from
+     * @param source The entry to add
+     * @throws IOException if writing an earlier entry fails
+     */
+    public void add(String name, ZipFile archive, ZipEntry source) throws IOException {
+        enqueue(pool.submit(() -> compress(name, source.getSize(), source.getTime(),
+            () -> archive.getInputStream(source))));
+    }
+
+    /**
+     * Adds an entry with the given content.
+     *
+     * @param name Entry name, using '/' separators
+     * @param content The entry's content
+     * @throws IOException if writing an earlier entry fails
+     */
+    public void add(String name, byte[] content) throws IOException {
+        long time = System.currentTimeMillis();
+        enqueue(pool.submit(() -> compress(name, null, content, time, !isCompressed(name))));
+    }
+
+    /**
+     * Writes all entries added so far, so the files and archives they are read from may
+     * be closed.
+     *
+     * @throws IOException if an entry cannot be read or written
+     */
+    public void flush() throws IOException {
+        while (!pending.isEmpty()) {
+            writeNext();
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes the remaining entries and the central directory. The underlying stream is
+     * flushed and left open.
+     *
+     * @throws IOException if an entry cannot be read or written
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        while (!pending.isEmpty()) {
+            writeNext();
+        }
+        writeCentralDirectory();
+        out.flush();
+        finished = true;
+    }
+
+    /**
+     * Cancels entries still being compressed if the archive was not finished, so a
+     * failed archive does not keep the pool busy, and deletes their temporary files.
+     * The underlying stream is left open.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        pending.forEach(future -> future.cancel(true));
+        pending.clear();
+        spills.forEach(this::deleteSpill);
+    }
+
+    private void enqueue(Future<Entry> future) throws IOException {
+        if (finished) {
+            throw new IllegalStateException("Archive already finished");
+        }
+        pending.addLast(future);
+        while (pending.size() > window) {
+            writeNext();
+        }
+    }
+
+    private void writeNext() throws IOException {
+        Entry entry;
+        try {
+            entry = pending.peekFirst().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while compressing archive entries", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Failed to compress archive entry", cause);
+        }
+        pending.removeFirst();
+        writeEntry(entry);
+    }
+
+    private Entry compress(String name, long size, long time, Source source) throws IOException {
+        boolean deflate = !isCompressed(name);
+        if (size >= 0 && size <= IN_MEMORY_LIMIT) {
+            try (InputStream in = source.open()) {
+                return compress(name, source, in.readAllBytes(), time, deflate);
+            }
+        }
+
+        // Larger files are deflated to a temporary file; stored ones are read again when they are written
+        CRC32 crc = new CRC32();
+        long read = 0;
+        Path spill = deflate ? createSpill() : null;
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            try (InputStream in = source.open();
+                 OutputStream sink = deflate
+                     ? new DeflaterOutputStream(Files.newOutputStream(spill), deflater, BUFFER_SIZE)
+                     : OutputStream.nullOutputStream()) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int count;
+                while ((count = in.read(buffer)) != -1) {
+                    crc.update(buffer, 0, count);
+                    sink.write(buffer, 0, count);
+                    read += count;
+                }
+            }
+            if (deflate) {
+                long compressedSize = Files.size(spill);
+                if (compressedSize < read) {
+                    return new Entry(name, time, crc.getValue(), read, spill, compressedSize);
+                }
+                deleteSpill(spill);
+            }
+        } catch (IOException e) {
+            if (spill != null) {
+                deleteSpill(spill);
+            }
+            throw e;
+        } finally {
+            deflater.end();
+        }
+        return new Entry(name, time, crc.getValue(), read, null, source, false);
+    }
+
+    /**
+     * Creates a temporary file for a deflated entry, tracked so closing the writer deletes it.
+     */
+    private Path createSpill() throws IOException {
+        Path spill = Files.createTempFile("zip-entry", ".tmp");
+        spills.add(spill);
+        if (closed) {
+            deleteSpill(spill);
+            throw new IOException("Archive closed");
+        }
+        return spill;
+    }
+
+    private void deleteSpill(Path spill) {
+        spills.remove(spill);
+        try {
+            Files.deleteIfExists(spill);
+        } catch (IOException e) {
+            logger.debug("Failed to delete temporary archive entry: {}", spill, e);
+        }
+    }
+
+    private Entry compress(String name, Source source, byte[] content, long time, boolean deflate) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        if (deflate) {
+            byte[] compressed = deflate(content);
+            if (compressed.length < content.length) {
+                return new Entry(name, time, crc.getValue(), content.length, compressed, source, true);
+            }
+        }
+        return new Entry(name, time, crc.getValue(), content.length, content, source, false);
+    }
+
+    private static byte[] deflate(byte[] content) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, content.length / 2));
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try (DeflaterOutputStream deflating = new DeflaterOutputStream(compressed, deflater, BUFFER_SIZE)) {
+            deflating.write(content);
+        } finally {
+            deflater.end();
+        }
+        return compressed.toByteArray();
+    }
+
+    private void writeEntry(Entry entry) throws IOException {
+        entry.offset = out.getCount();
+        boolean zip64 = entry.size >= ZIP64_MAGIC || entry.compressedSize() >= ZIP64_MAGIC;
+
+        writeInt(LOCAL_HEADER_SIGNATURE);
+        writeShort(zip64 ? ZIP64_VERSION : VERSION);
+        writeShort(UTF8_FLAG);
+        writeShort(entry.deflated ? Deflater.DEFLATED : 0);
+        writeInt(entry.dosTime);
+        writeInt((int) entry.crc);
+        writeInt(zip64 ? ZIP64_MAGIC : entry.compressedSize());
+        writeInt(zip64 ? ZIP64_MAGIC : entry.size);
+        writeShort(entry.nameBytes.length);
+        writeShort(zip64 ? 20 : 0);
+        out.write(entry.nameBytes);
+        if (zip64) {
+            writeShort(ZIP64_EXTRA_ID);
+            writeShort(16);
+            writeLong(entry.size);
+            writeLong(entry.compressedSize());
+        }
+
+        if (entry.data != null) {
+            out.write(entry.data);
+        } else if (entry.spill != null) {
+            try {
+                Files.copy(entry.spill, out);
+            } finally {
+                deleteSpill(entry.spill);
+            }
+        } else {
+            // Stored files too large to keep in memory are read again
+            try (InputStream in = entry.source.open()) {
+                in.transferTo(out);
+            }
+        }
+        written.add(entry);
+        entry.data = null;
+    }
+
+    private void writeCentralDirectory() throws IOException {
+        long centralStart = out.getCount();
+        for (Entry entry : written) {
+            boolean sizeZip64 = entry.size >= ZIP64_MAGIC || entry.compressedSize() >= ZIP64_MAGIC;
+            boolean offsetZip64 = entry.offset >= ZIP64_MAGIC;
+            int extraLength = (sizeZip64 ? 16 : 0) + (offsetZip64 ? 8 : 0);
+
+            writeInt(CENTRAL_HEADER_SIGNATURE);
+            writeShort(extraLength > 0 ? ZIP64_VERSION : VERSION);
+            writeShort(extraLength > 0 ? ZIP64_VERSION : VERSION);
+            writeShort(UTF8_FLAG);
+            writeShort(entry.deflated ? Deflater.DEFLATED : 0);
+            writeInt(entry.dosTime);
+            writeInt((int) entry.crc);
+            writeInt(sizeZip64 ? ZIP64_MAGIC : entry.compressedSize());
+            writeInt(sizeZip64 ? ZIP64_MAGIC : entry.size);
+            writeShort(entry.nameBytes.length);
+            writeShort(extraLength > 0 ? extraLength + 4 : 0);
+            writeShort(0);
+            writeShort(0);
+            writeShort(0);
+            writeInt(0);
+            writeInt(offsetZip64 ? ZIP64_MAGIC : entry.offset);
+            out.write(entry.nameBytes);
+            if (extraLength > 0) {
+                writeShort(ZIP64_EXTRA_ID);
+                writeShort(extraLength);
+                if (sizeZip64) {
+                    writeLong(entry.size);
+                    writeLong(entry.compressedSize());
+                }
+                if (offsetZip64) {
+                    writeLong(entry.offset);
+                }
+            }
+        }
+        long centralEnd = out.getCount();
+        long centralSize = centralEnd - centralStart;
+
+        boolean zip64 = written.size() >= ZIP64_MAGIC_COUNT || centralStart >= ZIP64_MAGIC || centralSize >= ZIP64_MAGIC;
+        if (zip64) {
+            writeInt(ZIP64_END_SIGNATURE);
+            writeLong(44);
+            writeShort(ZIP64_VERSION);
+            writeShort(ZIP64_VERSION);
+            writeInt(0);
+            writeInt(0);
+            writeLong(written.size());
+            writeLong(written.size());
+            writeLong(centralSize);
+            writeLong(centralStart);
+
+            writeInt(ZIP64_LOCATOR_SIGNATURE);
+            writeInt(0);
+            writeLong(centralEnd);
+            writeInt(1);
+        }
+
+        writeInt(END_SIGNATURE);
+        writeShort(0);
+        writeShort(0);
+        writeShort(zip64 ? ZIP64_MAGIC_COUNT : written.size());
+        writeShort(zip64 ? ZIP64_MAGIC_COUNT : written.size());
+        writeInt(zip64 ? ZIP64_MAGIC : centralSize);
+        writeInt(zip64 ? ZIP64_MAGIC : centralStart);
+        writeShort(0);
+
+        logger.debug("Wrote ZIP archive with {} entries, {} bytes", written.size(), out.getCount());
+    }
+
+    private static boolean isCompressed(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 && COMPRESSED_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private void writeShort(int value) throws IOException {
+        out.write(value & 0xFF);
+        out.write((value >>> 8) & 0xFF);
+    }
+
+    private void writeInt(long value) throws IOException {
+        writeShort((int) (value & 0xFFFF));
+        writeShort((int) ((value >>> 16) & 0xFFFF));
+    }
+
+    private void writeLong(long value) throws IOException {
+        writeInt(value & 0xFFFFFFFFL);
+        writeInt(value >>> 32);
+    }
+
+    /**
+     * Opens the content of an entry; called again when a large stored entry is written.
+     */
+    private interface Source {
+        InputStream open() throws IOException;
+    }
+
+    /**
+     * A compressed entry waiting to be written, and afterwards its central directory record.
+     */
+    private static class Entry {
+        final byte[] nameBytes;
+        final int dosTime;
+        final long crc;
+        final long size;
+        final Source source;
+        final Path spill;
+        final boolean deflated;
+        final long compressedSize;
+        byte[] data;
+        long offset;
+
+        Entry(String name, long time, long crc, long size, byte[] data, Source source, boolean deflated) {
+            this.nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            this.dosTime = toDosTime(time);
+            this.crc = crc;
+            this.size = size;
+            this.data = data;
+            this.source = source;
+            this.spill = null;
+            this.deflated = deflated;
+            this.compressedSize = data != null ? data.length : size;
+        }
+
+        Entry(String name, long time, long crc, long size, Path spill, long compressedSize) {
+            this.nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            this.dosTime = toDosTime(time);
+            this.crc = crc;
+            this.size = size;
+            this.source = null;
+            this.spill = spill;
+            this.deflated = true;
+            this.compressedSize = compressedSize;
+        }
+
+        long compressedSize() {
+            return compressedSize;
+        }
+
+        private static int toDosTime(long time) {
+            LocalDateTime dateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneId.systemDefault());
+            if (dateTime.getYear() < 1980) {
+                return (1 << 21) | (1 << 16);
+            }
+            return (dateTime.getYear() - 1980) << 25
+                | dateTime.getMonthValue() << 21
+                | dateTime.getDayOfMonth() << 16
+                | dateTime.getHour() << 11
+                | dateTime.getMinute() << 5
+                | dateTime.getSecond() >> 1;
+        }
+    }
+
+    /**
+     * Tracks how many bytes were written, for entry offsets.
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
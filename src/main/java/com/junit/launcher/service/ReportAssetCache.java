@@ -0,0 +1,193 @@
+package com.junit.launcher.service;
+
+import com.junit.launcher.model.ReportAsset;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Size-bounded cache of the files served from reports.
+ * <p>
+ * A report's files never change once it has been generated, so both the location of
+ * each report and the files requested from it can be kept for as long as there is
+ * room. Files up to a fraction of the cache size are held in memory together with a
+ * precompressed gzip variant; larger files are served from disk and only their entity
+ * tag is kept, their location being resolved again on every request, since an archive
+ * it points into may have been closed meanwhile. Least recently used files are evicted first.
+ */
+public class ReportAssetCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportAssetCache.class);
+
+    private static final int MAX_REPORT_ROOTS = 256;
+    private static final int MIN_COMPRESSIBLE_SIZE = 256;
+    // Fixed cost of an entry on top of its content, so that tag-only entries count too
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private final Function<String, Path> reportRoots;
+    private final ReportFileStore reportFileStore;
+    private final long maxBytes;
+    private final long maxFileBytes;
+
+    private final Map<String, Path> roots = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Path> eldest) {
+            return size() > MAX_REPORT_ROOTS;
+        }
+    };
+    private final LinkedHashMap<String, ReportAsset> assets = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+
+    /**
+     * @param reportRoots Resolves a report ID to its directory, or null if there is no such report
+     * @param reportFileStore Store the report files are read from
+     * @param maxBytes Memory the cache may hold
+     */
+    public ReportAssetCache(Function<String, Path> reportRoots, ReportFileStore reportFileStore, long maxBytes) {
+        this.reportRoots = reportRoots;
+        this.reportFileStore = reportFileStore;
+        this.maxBytes = maxBytes;
+        this.maxFileBytes = maxBytes / 16;
+    }
+
+    /**
+     * Gets a file of a report, loading it on first use.
+     *
+     * @param reportId The report identifier
+     * @param filePath Path of the file within the report, using '/' separators
+     * @return The file, or null if the report or file does not exist or the path points outside the report
+     * @throws IOException if the file cannot be read
+     */
+    public ReportAsset get(String reportId, String filePath) throws IOException {
+        String key = reportId + "/" + filePath;
+        ReportAsset cached;
+        synchronized (this) {
+            cached = assets.get(key);
+        }
+        if (cached != null && cached.getContent() != null) {
+            return cached;
+        }
+
+        Path reportDir = root(reportId);
+        if (reportDir == null) {
+            return null;
+        }
+        Path path = reportFileStore.resolve(reportDir, filePath);
+        if (path == null) {
+            return null;
+        }
+        if (cached != null) {
+            return new ReportAsset(path, cached.getEtag(), cached.getLength(), null, null);
+        }
+
+        ReportAsset asset = load(path, filePath);
+        put(key, asset.getContent() != null ? asset
+            : new ReportAsset(null, asset.getEtag(), asset.getLength(), null, null));
+        return asset;
+    }
+
+    /**
+     * Drops everything cached for a report, for when it is deleted or moved.
+     *
+     * @param reportId The report identifier
+     */
+    public synchronized void evict(String reportId) {
+        Path root = roots.remove(reportId);
+        if (root != null) {
+            reportFileStore.evict(root);
+        }
+        String prefix = reportId + "/";
+        Iterator<Map.Entry<String, ReportAsset>> entries = assets.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, ReportAsset> entry = entries.next();
+            if (entry.getKey().startsWith(prefix)) {
+                cachedBytes -= weight(entry.getValue());
+                entries.remove();
+            }
+        }
+    }
+
+    synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    private Path root(String reportId) {
+        synchronized (this) {
+            Path cached = roots.get(reportId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Path root = reportRoots.apply(reportId);
+        if (root != null) {
+            synchronized (this) {
+                roots.put(reportId, root);
+            }
+        }
+        return root;
+    }
+
+    private synchronized void put(String key, ReportAsset asset) {
+        ReportAsset previous = assets.put(key, asset);
+        if (previous != null) {
+            cachedBytes -= weight(previous);
+        }
+        cachedBytes += weight(asset);
+
+        Iterator<ReportAsset> eldest = assets.values().iterator();
+        while (cachedBytes > maxBytes && eldest.hasNext()) {
+            cachedBytes -= weight(eldest.next());
+            eldest.remove();
+        }
+    }
+
+    private ReportAsset load(Path path, String filePath) throws IOException {
+        long length = Files.size(path);
+        if (length > maxFileBytes) {
+            logger.debug("Report file too large to cache, keeping its tag only: {}", filePath);
+            return new ReportAsset(path, etag(StorageFiles.sha256(path)), length, null, null);
+        }
+
+        byte[] content = Files.readAllBytes(path);
+        byte[] gzipContent = isCompressible(filePath) ? gzip(content) : null;
+        return new ReportAsset(path, etag(StorageFiles.sha256(content)), content.length, content, gzipContent);
+    }
+
+    /**
+     * Compresses text content, keeping the result only if it is smaller.
+     */
+    private static byte[] gzip(byte[] content) throws IOException {
+        if (content.length < MIN_COMPRESSIBLE_SIZE) {
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(content);
+        }
+        return out.size() < content.length ? out.toByteArray() : null;
+    }
+
+    private static boolean isCompressible(String filePath) {
+        String lowerPath = filePath.toLowerCase(Locale.ROOT);
+        return lowerPath.endsWith(".html") || lowerPath.endsWith(".js") || lowerPath.endsWith(".css")
+            || lowerPath.endsWith(".json") || lowerPath.endsWith(".svg") || lowerPath.endsWith(".txt");
+    }
+
+    private static long weight(ReportAsset asset) {
+        return asset.getCachedBytes() + ENTRY_OVERHEAD;
+    }
+
+    private static String etag(String hash) {
+        return "\"" + hash + "\"";
+    }
+}
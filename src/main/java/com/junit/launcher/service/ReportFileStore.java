@@ -0,0 +1,505 @@
+package com.junit.launcher.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.junit.launcher.config.StorageProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Storage of generated report files.
+ * <p>
+ * In the "blobs" report format, files of a generated report are moved into a
+ * content-addressed store shared by all reports, keyed by their SHA-256 hash, and the
+ * report directory keeps a manifest mapping each path to its blob. Allure's static
+ * assets are identical across reports and so are stored once. In the "zip" format
+ * they are packed into a single archive in the report directory, whose entries are
+ * read in place through a zip file system that keeps the archive's index in memory.
+ * Either way the report's own metadata and its {@code history} folder stay regular files.
+ * <p>
+ * Reading works the same for every report: paths are looked up in the archive or
+ * manifest when there is one, and in the report directory otherwise, so reports
+ * generated in the "directory" format or before the store existed keep working.
+ */
+public class ReportFileStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportFileStore.class);
+
+    public static final String MANIFEST_FILE = "manifest.json";
+    public static final String ARCHIVE_FILE = "report.zip";
+    static final String BLOBS_DIR = ".blobs";
+    static final String BLOBS_FORMAT = "blobs";
+    static final String ZIP_FORMAT = "zip";
+    private static final String HISTORY_DIR = "history";
+    private static final int MANIFEST_CACHE_SIZE = 64;
+    private static final int ARCHIVE_CACHE_SIZE = 64;
+    // How long an archive pushed out of the cache stays open for reads that resolved a path in it
+    private static final long ARCHIVE_CLOSE_DELAY_MILLIS = 10 * 60 * 1000L;
+
+    private final Path blobsDir;
+    private final String format;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Recently read manifests; a report's files never change once it is stored
+    private final Map<Path, Map<String, String>> manifests = Collections.synchronizedMap(
+        new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, Map<String, String>> eldest) {
+                return size() > MANIFEST_CACHE_SIZE;
+            }
+        });
+
+    // Open archives of recently read reports; each holds a file handle and the archive's index.
+    // Paths resolved in an archive are only readable while it is open, so archives pushed out
+    // of the cache are retired and closed once nothing has resolved a path in them for a while.
+    private final Map<Path, OpenArchive> archives = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, OpenArchive> eldest) {
+            if (size() > ARCHIVE_CACHE_SIZE) {
+                retiredArchives.put(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+    private final Map<Path, OpenArchive> retiredArchives = new HashMap<>();
+
+    public ReportFileStore(Path blobsDir, String format) {
+        this.blobsDir = blobsDir;
+        this.format = format != null ? format.toLowerCase(Locale.ROOT) : "";
+    }
+
+    /**
+     * Creates the store for the configured report format.
+     */
+    public static ReportFileStore create(StorageProperties storageProperties) {
+        return new ReportFileStore(Paths.get(storageProperties.getReportsPath(), BLOBS_DIR),
+            storageProperties.getReportFormat());
+    }
+
+    /**
+     * Takes in a freshly generated report. In the "blobs" format its files move into
+     * the blob store behind a manifest, in the "zip" format into a single archive;
+     * otherwise they stay where they are.
+     *
+     * @param reportDir The generated report directory
+     * @throws IOException if the files cannot be stored
+     */
+    public void store(Path reportDir) throws IOException {
+        if (BLOBS_FORMAT.equals(format)) {
+            storeBlobs(reportDir, reportFiles(reportDir));
+        } else if (ZIP_FORMAT.equals(format)) {
+            storeArchive(reportDir, reportFiles(reportDir));
+        }
+    }
+
+    private void storeBlobs(Path reportDir, List<Path> files) throws IOException {
+        // Link every file into the blob store before the manifest makes the report use them
+        Map<String, String> manifest = new TreeMap<>();
+        int added = 0;
+        for (Path file : files) {
+            String hash = StorageFiles.sha256(file);
+            if (addBlob(file, hash)) {
+                added++;
+            }
+            manifest.put(StorageFiles.toEntryName(reportDir.relativize(file)), hash);
+        }
+
+        Path manifestFile = reportDir.resolve(MANIFEST_FILE);
+        Path tempManifest = Files.createTempFile(reportDir, MANIFEST_FILE, ".tmp");
+        objectMapper.writeValue(tempManifest.toFile(), manifest);
+        StorageFiles.atomicMove(tempManifest, manifestFile);
+
+        for (Path file : files) {
+            Files.delete(file);
+        }
+        StorageFiles.deleteEmptyDirectories(reportDir);
+
+        logger.info("Stored {} report files from {} ({} new blobs)", files.size(), reportDir.getFileName(), added);
+    }
+
+    private void storeArchive(Path reportDir, List<Path> files) throws IOException {
+        Path tempArchive = Files.createTempFile(reportDir, ARCHIVE_FILE, ".tmp");
+        try {
+            try (ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(tempArchive)))) {
+                for (Path file : files) {
+                    zos.putNextEntry(new ZipEntry(StorageFiles.toEntryName(reportDir.relativize(file))));
+                    Files.copy(file, zos);
+                    zos.closeEntry();
+                }
+            }
+            StorageFiles.atomicMove(tempArchive, reportDir.resolve(ARCHIVE_FILE));
+        } finally {
+            Files.deleteIfExists(tempArchive);
+        }
+
+        for (Path file : files) {
+            Files.delete(file);
+        }
+        StorageFiles.deleteEmptyDirectories(reportDir);
+
+        logger.info("Packed {} report files of {} into {}", files.size(), reportDir.getFileName(), ARCHIVE_FILE);
+    }
+
+    /**
+     * Gets the archive a report is packed into.
+     *
+     * @param reportDir The report directory
+     * @return The archive, or null if the report is not packed
+     */
+    public Path getArchive(Path reportDir) {
+        Path archive = reportDir.resolve(ARCHIVE_FILE);
+        return Files.isRegularFile(archive) ? archive : null;
+    }
+
+    /**
+     * Releases what is held open or cached for a report, before it is deleted or moved.
+     *
+     * @param reportDir The report directory
+     */
+    public void evict(Path reportDir) {
+        Path key = reportDir.toAbsolutePath().normalize();
+        manifests.remove(key);
+        List<OpenArchive> closing = new ArrayList<>();
+        synchronized (archives) {
+            closing.add(archives.remove(key));
+            closing.add(retiredArchives.remove(key));
+        }
+        closing.stream().filter(Objects::nonNull).forEach(archive -> closeQuietly(archive.fileSystem));
+    }
+
+    /**
+     * Closes every archive held open, when the application shuts down.
+     */
+    public void close() {
+        List<OpenArchive> open;
+        synchronized (archives) {
+            open = new ArrayList<>(archives.values());
+            open.addAll(retiredArchives.values());
+            archives.clear();
+            retiredArchives.clear();
+        }
+        open.forEach(archive -> closeQuietly(archive.fileSystem));
+        manifests.clear();
+    }
+
+    /**
+     * Resolves a file of a report to where its content is stored.
+     *
+     * @param reportDir The report directory
+     * @param filePath Path of the file within the report, using '/' separators
+     * @return Path to the file's content, or null if the report has no such file
+     * @throws IOException if the report's manifest cannot be read
+     */
+    public Path resolve(Path reportDir, String filePath) throws IOException {
+        Path root = reportDir.toAbsolutePath().normalize();
+        Path requested = root.resolve(filePath).normalize();
+        if (!requested.startsWith(root) || requested.equals(root)) {
+            return null;
+        }
+
+        String entryName = StorageFiles.toEntryName(root.relativize(requested));
+        FileSystem archive = openArchive(reportDir);
+        if (archive != null) {
+            Path entry = archive.getPath("/" + entryName);
+            if (Files.isRegularFile(entry)) {
+                return entry;
+            }
+        }
+
+        Map<String, String> manifest = readManifest(reportDir);
+        if (manifest != null) {
+            String hash = manifest.get(entryName);
+            if (hash != null) {
+                return blobPath(hash);
+            }
+        }
+
+        if (!Files.isRegularFile(requested) || isStoreFile(entryName)) {
+            return null;
+        }
+        return requested;
+    }
+
+    /**
+     * Gets the hash of a file's content when the file is stored as a blob. The hash
+     * identifies the content, unlike the blob's modification time, which changes
+     * whenever another report stores the same content.
+     *
+     * @param reportDir The report directory
+     * @param entryName Path of the file within the report, using '/' separators
+     * @return The content hash, or null if the file is not stored as a blob
+     * @throws IOException if the report's manifest cannot be read
+     */
+    public String getContentHash(Path reportDir, String entryName) throws IOException {
+        Map<String, String> manifest = readManifest(reportDir);
+        return manifest != null ? manifest.get(entryName) : null;
+    }
+
+    /**
+     * Lists the files of a report, whether stored as blobs or in its directory.
+     *
+     * @param reportDir The report directory
+     * @return Paths of the report's files relative to the report, using '/' separators
+     * @throws IOException if the report cannot be read
+     */
+    public List<String> list(Path reportDir) throws IOException {
+        List<String> entries = new ArrayList<>();
+        FileSystem archive = openArchive(reportDir);
+        if (archive != null) {
+            Path archiveRoot = archive.getPath("/");
+            try (Stream<Path> paths = Files.walk(archiveRoot)) {
+                paths.filter(Files::isRegularFile)
+                    .map(path -> StorageFiles.toEntryName(archiveRoot.relativize(path)))
+                    .forEach(entries::add);
+            }
+        }
+        Map<String, String> manifest = readManifest(reportDir);
+        if (manifest != null) {
+            entries.addAll(manifest.keySet());
+        }
+        try (Stream<Path> paths = Files.walk(reportDir)) {
+            paths.filter(Files::isRegularFile)
+                .map(path -> StorageFiles.toEntryName(reportDir.relativize(path)))
+                .filter(entry -> !isStoreFile(entry))
+                .forEach(entries::add);
+        }
+        Collections.sort(entries);
+        return entries;
+    }
+
+    /**
+     * Measures the disk space a report takes: the files in its directory, including a
+     * packed archive, plus the blobs its manifest refers to. Blobs shared with other
+     * reports are counted in full for each of them.
+     *
+     * @param reportDir The report directory
+     * @return Size in bytes, or 0 if the report does not exist
+     * @throws IOException if the report cannot be read
+     */
+    public long size(Path reportDir) throws IOException {
+        if (!Files.isDirectory(reportDir)) {
+            return 0;
+        }
+        long size = 0;
+        try (Stream<Path> paths = Files.walk(reportDir)) {
+            for (Path path : paths.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                size += Files.size(path);
+            }
+        }
+        Map<String, String> manifest = readManifest(reportDir);
+        if (manifest != null) {
+            for (String hash : new HashSet<>(manifest.values())) {
+                Path blob = blobPath(hash);
+                if (Files.isRegularFile(blob)) {
+                    size += Files.size(blob);
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Deletes blobs that no report's manifest refers to any more. Blobs younger than
+     * a grace period are kept, since a report being stored adds its blobs before it
+     * writes its manifest.
+     *
+     * @param reportsDir Directory holding all report directories
+     * @param gracePeriodMillis Minimum age of a blob before it may be deleted
+     * @return Bytes reclaimed
+     * @throws IOException if the reports or blobs cannot be read
+     */
+    public long collectGarbage(Path reportsDir, long gracePeriodMillis) throws IOException {
+        if (!Files.isDirectory(blobsDir)) {
+            return 0;
+        }
+
+        Set<String> referenced = new HashSet<>();
+        try (Stream<Path> reportDirs = Files.list(reportsDir)) {
+            for (Path reportDir : reportDirs.filter(Files::isDirectory).collect(Collectors.toList())) {
+                if (Files.exists(reportDir.resolve(MANIFEST_FILE))) {
+                    referenced.addAll(readManifest(reportDir).values());
+                }
+            }
+        }
+
+        long cutoff = System.currentTimeMillis() - gracePeriodMillis;
+        long reclaimed = 0;
+        int deleted = 0;
+        List<Path> blobs;
+        try (Stream<Path> paths = Files.walk(blobsDir)) {
+            blobs = paths.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        for (Path blob : blobs) {
+            String name = blob.getFileName().toString();
+            // Leftover staging files are named after their blob with a suffix
+            String hash = name.contains(".") ? name.substring(0, name.indexOf('.')) : name;
+            if ((name.equals(hash) && referenced.contains(hash))
+                    || Files.getLastModifiedTime(blob).toMillis() > cutoff) {
+                continue;
+            }
+            long size = Files.size(blob);
+            if (Files.deleteIfExists(blob)) {
+                reclaimed += size;
+                deleted++;
+            }
+        }
+
+        logger.info("Collected {} unused blobs ({} bytes)", deleted, reclaimed);
+        return reclaimed;
+    }
+
+    private FileSystem openArchive(Path reportDir) throws IOException {
+        Path key = reportDir.toAbsolutePath().normalize();
+        long now = System.currentTimeMillis();
+        List<OpenArchive> expired = new ArrayList<>();
+        try {
+            synchronized (archives) {
+                Iterator<OpenArchive> retired = retiredArchives.values().iterator();
+                while (retired.hasNext()) {
+                    OpenArchive archive = retired.next();
+                    if (archive.lastUsed < now - ARCHIVE_CLOSE_DELAY_MILLIS) {
+                        expired.add(archive);
+                        retired.remove();
+                    }
+                }
+
+                OpenArchive cached = archives.get(key);
+                if (cached == null) {
+                    cached = retiredArchives.remove(key);
+                    if (cached != null) {
+                        archives.put(key, cached);
+                    }
+                }
+                if (cached != null && cached.fileSystem.isOpen()) {
+                    cached.lastUsed = now;
+                    return cached.fileSystem;
+                }
+                Path archive = getArchive(key);
+                if (archive == null) {
+                    return null;
+                }
+                OpenArchive opened = new OpenArchive(FileSystems.newFileSystem(archive), now);
+                archives.put(key, opened);
+                return opened.fileSystem;
+            }
+        } finally {
+            expired.forEach(archive -> closeQuietly(archive.fileSystem));
+        }
+    }
+
+    private Map<String, String> readManifest(Path reportDir) throws IOException {
+        Path key = reportDir.toAbsolutePath().normalize();
+        Map<String, String> cached = manifests.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Path manifestFile = reportDir.resolve(MANIFEST_FILE);
+        if (!Files.exists(manifestFile)) {
+            return null;
+        }
+        Map<String, String> manifest = objectMapper.readValue(manifestFile.toFile(),
+            new TypeReference<TreeMap<String, String>>() {});
+        manifests.put(key, manifest);
+        return manifest;
+    }
+
+    /**
+     * Adds a file's content to the blob store unless an equal blob exists.
+     *
+     * @return true if a new blob was added
+     */
+    private boolean addBlob(Path file, String hash) throws IOException {
+        Path blob = blobPath(hash);
+        if (Files.exists(blob)) {
+            // Reused blobs count as new, so garbage collection leaves them alone until the manifest is written
+            Files.setLastModifiedTime(blob, FileTime.fromMillis(System.currentTimeMillis()));
+            return false;
+        }
+        Files.createDirectories(blob.getParent());
+
+        // Stage next to the blob, then publish atomically so readers never see a partial blob
+        Path staged = blob.resolveSibling(hash + "." + Thread.currentThread().getId() + ".tmp");
+        try {
+            try {
+                Files.createLink(staged, file);
+            } catch (IOException | UnsupportedOperationException e) {
+                Files.copy(file, staged, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(staged, blob, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            // Stored concurrently by another report
+            return false;
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+    }
+
+    private Path blobPath(String hash) {
+        return blobsDir.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static List<Path> reportFiles(Path reportDir) throws IOException {
+        try (Stream<Path> paths = Files.walk(reportDir)) {
+            return paths
+                .filter(Files::isRegularFile)
+                .filter(path -> !reportDir.relativize(path).startsWith(HISTORY_DIR))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    private static boolean isStoreFile(String entryName) {
+        return entryName.equals(MANIFEST_FILE) || entryName.equals(ARCHIVE_FILE);
+    }
+
+    private static void closeQuietly(FileSystem archive) {
+        try {
+            archive.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close report archive", e);
+        }
+    }
+
+    /**
+     * An archive held open, with when a path was last resolved in it.
+     */
+    private static class OpenArchive {
+        final FileSystem fileSystem;
+        volatile long lastUsed;
+
+        OpenArchive(FileSystem fileSystem, long lastUsed) {
+            this.fileSystem = fileSystem;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
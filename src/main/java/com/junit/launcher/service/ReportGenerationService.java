@@ -0,0 +1,41 @@
+package com.junit.launcher.service;
+
+import com.junit.launcher.model.ExecutionSummary;
+import com.junit.launcher.model.ReportMetadata;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service for generating reports in the background, off the test execution threads.
+ */
+public interface ReportGenerationService {
+
+    /**
+     * Queues report generation for an execution. A request for an execution whose report
+     * is already queued or being generated joins that generation instead of starting another.
+     *
+     * @param executionId The execution to generate a report for
+     * @return Future completing with the report metadata, or exceptionally if generation
+     *         failed or the queue is full
+     */
+    CompletableFuture<ReportMetadata> requestReport(String executionId);
+
+    /**
+     * Queues report generation for an execution whose outcome was accumulated during the run,
+     * so the report metadata is built without re-parsing the results.
+     *
+     * @param executionId The execution to generate a report for
+     * @param summary Outcome of the run, or null to parse the results directory
+     * @return Future completing with the report metadata, or exceptionally if generation
+     *         failed or the queue is full
+     */
+    CompletableFuture<ReportMetadata> requestReport(String executionId, ExecutionSummary summary);
+
+    /**
+     * Checks whether a report for an execution is queued or being generated.
+     *
+     * @param executionId The execution ID
+     * @return true if generation is in progress
+     */
+    boolean isGenerating(String executionId);
+}
@@ -0,0 +1,89 @@
+package com.junit.launcher.service;
+
+import com.junit.launcher.model.ExecutionSummary;
+import com.junit.launcher.model.ReportMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementation of ReportGenerationService on a dedicated bounded executor.
+ */
+@Service
+public class ReportGenerationServiceImpl implements ReportGenerationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportGenerationServiceImpl.class);
+
+    private final ReportService reportService;
+    private final TaskExecutor reportGenerationExecutor;
+
+    // Map of execution IDs to the generation queued or running for them
+    private final Map<String, CompletableFuture<ReportMetadata>> inFlight = new ConcurrentHashMap<>();
+
+    public ReportGenerationServiceImpl(ReportService reportService,
+                                       @Qualifier("reportGenerationExecutor") TaskExecutor reportGenerationExecutor) {
+        this.reportService = reportService;
+        this.reportGenerationExecutor = reportGenerationExecutor;
+    }
+
+    @Override
+    public CompletableFuture<ReportMetadata> requestReport(String executionId) {
+        return requestReport(executionId, null);
+    }
+
+    @Override
+    public CompletableFuture<ReportMetadata> requestReport(String executionId, ExecutionSummary summary) {
+        CompletableFuture<ReportMetadata> generation = new CompletableFuture<>();
+        CompletableFuture<ReportMetadata> existing = inFlight.putIfAbsent(executionId, generation);
+        if (existing != null) {
+            logger.debug("Report generation already in progress for execution: {}", executionId);
+            return existing;
+        }
+
+        try {
+            reportGenerationExecutor.execute(() -> generate(executionId, summary, generation));
+        } catch (TaskRejectedException e) {
+            logger.warn("Report generation queue is full, rejecting execution: {}", executionId);
+            inFlight.remove(executionId, generation);
+            generation.completeExceptionally(e);
+        }
+        return generation;
+    }
+
+    @Override
+    public boolean isGenerating(String executionId) {
+        return inFlight.containsKey(executionId);
+    }
+
+    private void generate(String executionId, ExecutionSummary summary, CompletableFuture<ReportMetadata> generation) {
+        // Keep report logs, including those of callbacks run on completion, on the execution's stream
+        MDC.put("executionId", executionId);
+        try {
+            ReportMetadata metadata = null;
+            Exception failure = null;
+            try {
+                metadata = reportService.generateReport(executionId, summary);
+            } catch (Exception e) {
+                failure = e;
+            }
+
+            // Leave the in-flight map first so callers woken by the result see it as finished
+            inFlight.remove(executionId, generation);
+            if (failure == null) {
+                generation.complete(metadata);
+            } else {
+                generation.completeExceptionally(failure);
+            }
+        } finally {
+            MDC.remove("executionId");
+        }
+    }
+}
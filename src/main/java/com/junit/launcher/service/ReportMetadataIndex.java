@@ -0,0 +1,451 @@
+package com.junit.launcher.service;
+
+import com.junit.launcher.model.ReportMetadata;
+import com.junit.launcher.model.ReportPage;
+import com.junit.launcher.model.ReportQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of report metadata, sorted newest first.
+ * <p>
+ * The reports directory is scanned once on first use. After that the index is kept
+ * current by writes through {@link #put(ReportMetadata)} and by a watch on the reports
+ * directory, which picks up report directories added or removed by other processes.
+ * Lookups that miss the index fall back to disk. Deleted reports are remembered so a
+ * lookup racing with the deletion of their files cannot index them again.
+ */
+public class ReportMetadataIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportMetadataIndex.class);
+    private static final String REPORT_DIRECTORY_PREFIX = "allure-report-";
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final Supplier<Path> reportsDirectory;
+    private final Function<String, ReportMetadata> loader;
+
+    // Reports ordered newest first; the first entry is the latest report
+    private final ConcurrentSkipListMap<SortKey, ReportMetadata> byTimestamp = new ConcurrentSkipListMap<>();
+
+    // Report ID to its current sort key
+    private final Map<String, SortKey> keys = new ConcurrentHashMap<>();
+
+    // IDs of reports deleted through this index; report IDs are timestamps and not reused
+    private final Set<String> deleted = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean loaded;
+    private WatchService watchService;
+
+    /**
+     * @param reportsDirectory Supplies the reports directory, resolved on first use
+     * @param loader Reads the metadata of a report from disk, returning null if it has none
+     */
+    public ReportMetadataIndex(Supplier<Path> reportsDirectory, Function<String, ReportMetadata> loader) {
+        this.reportsDirectory = reportsDirectory;
+        this.loader = loader;
+    }
+
+    /**
+     * Gets all reports, newest first.
+     */
+    public List<ReportMetadata> list() {
+        ensureLoaded();
+        return new ArrayList<>(byTimestamp.values());
+    }
+
+    /**
+     * Gets one page of reports matching a query. The walk starts at the cursor or the
+     * upper time bound and stops at the lower time bound, so its cost depends on the
+     * page size and the reports skipped by the filters, not on the total number of reports.
+     *
+     * @throws IllegalArgumentException if the cursor, status or limit is invalid
+     */
+    public ReportPage query(ReportQuery query) {
+        int limit = query.getLimit() != null ? query.getLimit() : DEFAULT_PAGE_SIZE;
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        String status = query.getStatus() != null ? query.getStatus().toLowerCase(Locale.ROOT) : null;
+        if (status != null && !status.equals("passed") && !status.equals("failed")) {
+            throw new IllegalArgumentException("Status must be passed or failed: " + query.getStatus());
+        }
+
+        ensureLoaded();
+
+        // Newest first, so the upper time bound is where the walk starts
+        Map<SortKey, ReportMetadata> candidates = byTimestamp;
+        if (query.getCursor() != null) {
+            candidates = byTimestamp.tailMap(decodeCursor(query.getCursor()), false);
+        }
+        if (query.getTo() != null) {
+            SortKey upperBound = new SortKey(query.getTo(), "");
+            if (query.getCursor() == null || upperBound.compareTo(decodeCursor(query.getCursor())) > 0) {
+                candidates = byTimestamp.tailMap(upperBound, true);
+            }
+        }
+
+        List<ReportMetadata> page = new ArrayList<>();
+        String nextCursor = null;
+        for (Map.Entry<SortKey, ReportMetadata> entry : candidates.entrySet()) {
+            if (query.getFrom() != null && entry.getKey().getTimestamp().compareTo(query.getFrom()) < 0) {
+                break;
+            }
+            if (!matches(entry.getValue(), status, query.isCombinedOnly())) {
+                continue;
+            }
+            if (page.size() == limit) {
+                nextCursor = encodeCursor(new SortKey(page.get(limit - 1).getTimestamp(), page.get(limit - 1).getReportId()));
+                break;
+            }
+            page.add(entry.getValue());
+        }
+        return new ReportPage(page, nextCursor);
+    }
+
+    private static boolean matches(ReportMetadata metadata, String status, boolean combinedOnly) {
+        if (combinedOnly && !metadata.isCombined()) {
+            return false;
+        }
+        if ("failed".equals(status)) {
+            return metadata.getFailedTests() > 0;
+        }
+        if ("passed".equals(status)) {
+            return metadata.getFailedTests() == 0;
+        }
+        return true;
+    }
+
+    private static String encodeCursor(SortKey key) {
+        String value = key.getTimestamp() + "|" + key.getReportId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static SortKey decodeCursor(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return new SortKey(value.substring(0, separator), value.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    /**
+     * Gets the most recent report, or null if there is none.
+     */
+    public ReportMetadata latest() {
+        ensureLoaded();
+        Map.Entry<SortKey, ReportMetadata> first = byTimestamp.firstEntry();
+        return first != null ? first.getValue() : null;
+    }
+
+    /**
+     * Gets a report by ID, reading it from disk if the index does not know it yet.
+     */
+    public ReportMetadata get(String reportId) {
+        ensureLoaded();
+        SortKey key = keys.get(reportId);
+        ReportMetadata metadata = key != null ? byTimestamp.get(key) : null;
+        if (metadata != null) {
+            return metadata;
+        }
+        if (deleted.contains(reportId)) {
+            return null;
+        }
+
+        metadata = loader.apply(reportId);
+        if (isIndexable(reportId, metadata) && !indexLoaded(metadata)) {
+            return null;
+        }
+        return metadata;
+    }
+
+    /**
+     * Adds or replaces a report after its metadata was written.
+     */
+    public synchronized void put(ReportMetadata metadata) {
+        ensureLoaded();
+        deleted.remove(metadata.getReportId());
+        index(metadata);
+    }
+
+    /**
+     * Indexes metadata read from disk unless the report was deleted meanwhile.
+     *
+     * @return false if the report was deleted
+     */
+    private synchronized boolean indexLoaded(ReportMetadata metadata) {
+        if (deleted.contains(metadata.getReportId())) {
+            return false;
+        }
+        index(metadata);
+        return true;
+    }
+
+    private synchronized void index(ReportMetadata metadata) {
+        SortKey key = new SortKey(metadata.getTimestamp(), metadata.getReportId());
+        SortKey previous = keys.put(metadata.getReportId(), key);
+        if (previous != null && !previous.equals(key)) {
+            byTimestamp.remove(previous);
+        }
+        byTimestamp.put(key, metadata);
+    }
+
+    /**
+     * Removes a report whose files are about to be deleted, and keeps it out of the index
+     * until it is written again through {@link #put(ReportMetadata)}.
+     */
+    public synchronized void delete(String reportId) {
+        deleted.add(reportId);
+        remove(reportId);
+    }
+
+    /**
+     * Removes a report from the index.
+     */
+    public synchronized void remove(String reportId) {
+        SortKey key = keys.remove(reportId);
+        if (key != null) {
+            byTimestamp.remove(key);
+        }
+    }
+
+    /**
+     * Stops watching the reports directory.
+     */
+    public synchronized void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                logger.debug("Error closing report directory watch", e);
+            }
+            watchService = null;
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+
+            Path reportsDir = reportsDirectory.get();
+            try {
+                Files.createDirectories(reportsDir);
+                // Watch before scanning so no change between the two is missed
+                startWatching(reportsDir);
+            } catch (IOException e) {
+                logger.warn("Cannot watch reports directory, external changes will not be indexed: {}", reportsDir, e);
+            }
+            rescan(reportsDir);
+
+            logger.info("Indexed {} reports from {}", keys.size(), reportsDir);
+            loaded = true;
+        }
+    }
+
+    /**
+     * Brings the index in line with the report directories on disk.
+     */
+    private synchronized void rescan(Path reportsDir) {
+        Set<String> found = new HashSet<>();
+        if (Files.exists(reportsDir)) {
+            try (Stream<Path> paths = Files.list(reportsDir)) {
+                paths
+                    .filter(Files::isDirectory)
+                    .map(path -> path.getFileName().toString())
+                    .filter(ReportMetadataIndex::isReportDirectory)
+                    .forEach(reportId -> {
+                        ReportMetadata metadata = loader.apply(reportId);
+                        if (isIndexable(reportId, metadata) && indexLoaded(metadata)) {
+                            found.add(reportId);
+                        }
+                    });
+            } catch (IOException e) {
+                logger.error("Error scanning reports directory: {}", reportsDir, e);
+                return;
+            }
+        }
+        new ArrayList<>(keys.keySet()).stream()
+            .filter(reportId -> !found.contains(reportId))
+            .forEach(this::remove);
+    }
+
+    private void startWatching(Path reportsDir) throws IOException {
+        watchService = reportsDir.getFileSystem().newWatchService();
+        reportsDir.register(watchService,
+            StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_DELETE,
+            StandardWatchEventKinds.ENTRY_MODIFY);
+
+        WatchService service = watchService;
+        Thread watcher = new Thread(() -> watch(reportsDir, service), "report-index-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private void watch(Path reportsDir, WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                Path watched = (Path) key.watchable();
+                if (!watched.equals(reportsDir)) {
+                    // A report directory that had no metadata yet; check once per batch of events
+                    key.pollEvents();
+                    if (refresh(reportsDir, watched.getFileName().toString(), service)) {
+                        key.cancel();
+                    } else {
+                        key.reset();
+                    }
+                    continue;
+                }
+
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        logger.debug("Report directory events overflowed, rescanning {}", reportsDir);
+                        rescan(reportsDir);
+                        continue;
+                    }
+
+                    String reportId = event.context().toString();
+                    if (!isReportDirectory(reportId)) {
+                        continue;
+                    }
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                        remove(reportId);
+                    } else {
+                        refresh(reportsDir, reportId, service);
+                    }
+                }
+                if (!key.reset()) {
+                    logger.warn("Reports directory is no longer watched: {}", reportsDir);
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Index closed
+        }
+    }
+
+    /**
+     * Re-reads a report after a change. A directory without metadata yet is watched
+     * itself until its metadata appears.
+     *
+     * @return true if the report no longer needs watching
+     */
+    private boolean refresh(Path reportsDir, String reportId, WatchService service) {
+        ReportMetadata metadata = loader.apply(reportId);
+        if (isIndexable(reportId, metadata)) {
+            indexLoaded(metadata);
+            return true;
+        }
+
+        Path reportDir = reportsDir.resolve(reportId);
+        if (!Files.isDirectory(reportDir)) {
+            remove(reportId);
+            return true;
+        }
+
+        WatchKey key;
+        try {
+            key = reportDir.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            logger.debug("Cannot watch report directory: {}", reportDir, e);
+            return true;
+        }
+
+        // The metadata may have been written before the watch was registered
+        metadata = loader.apply(reportId);
+        if (isIndexable(reportId, metadata)) {
+            indexLoaded(metadata);
+            key.cancel();
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isReportDirectory(String name) {
+        return name.startsWith(REPORT_DIRECTORY_PREFIX);
+    }
+
+    /**
+     * Only report directories whose metadata names them are indexed, so directory
+     * events always map back to the right entry.
+     */
+    private static boolean isIndexable(String reportId, ReportMetadata metadata) {
+        return metadata != null && isReportDirectory(reportId) && reportId.equals(metadata.getReportId());
+    }
+
+    /**
+     * Orders reports by timestamp, newest first, with the report ID as tie-breaker.
+     */
+    public static final class SortKey implements Comparable<SortKey> {
+        private final String timestamp;
+        private final String reportId;
+
+        public SortKey(String timestamp, String reportId) {
+            this.timestamp = timestamp != null ? timestamp : "";
+            this.reportId = reportId;
+        }
+
+        public String getTimestamp() {
+            return timestamp;
+        }
+
+        public String getReportId() {
+            return reportId;
+        }
+
+        @Override
+        public int compareTo(SortKey other) {
+            int result = other.timestamp.compareTo(timestamp);
+            return result != 0 ? result : other.reportId.compareTo(reportId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            SortKey that = (SortKey) o;
+            return timestamp.equals(that.timestamp) && reportId.equals(that.reportId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(timestamp, reportId);
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.junit.launcher.service;
 
+import com.junit.launcher.model.ExecutionSummary;
+import com.junit.launcher.model.ReportAsset;
 import com.junit.launcher.model.ReportMetadata;
+import com.junit.launcher.model.ReportPage;
+import com.junit.launcher.model.ReportQuery;
 
 import java.util.List;
+import java.util.zip.ZipFile;
 
 /**
  * Service for generating and managing Allure test reports.
@@ -18,6 +23,17 @@ public interface ReportService {
      */
     ReportMetadata generateReport(String executionId) throws Exception;
     
+    /**
+     * Generates an Allure report, taking the metadata counts from a summary accumulated
+     * during the run instead of re-parsing the result files.
+     * 
+     * @param executionId The execution to generate report for
+     * @param summary Outcome of the run, or null to parse the results directory
+     * @return Report metadata including path and timestamp
+     * @throws Exception if report generation fails
+     */
+    ReportMetadata generateReport(String executionId, ExecutionSummary summary) throws Exception;
+    
     /**
      * Lists all available reports.
      * 
@@ -25,6 +41,15 @@ public interface ReportService {
      */
     List<ReportMetadata> listReports();
     
+    /**
+     * Lists one page of reports matching the query.
+     * 
+     * @param query Paging and filter criteria
+     * @return Page of report metadata sorted by timestamp (newest first)
+     * @throws IllegalArgumentException if the cursor, status or limit is invalid
+     */
+    ReportPage queryReports(ReportQuery query);
+    
     /**
      * Combines multiple reports into one.
      * 
@@ -42,6 +67,18 @@ public interface ReportService {
      */
     ReportMetadata getReportMetadata(String reportId);
     
+    /**
+     * Gets a file of a report for serving. Files are cached, so repeated requests
+     * for the same file do not read the report from disk.
+     * 
+     * @param reportId The report identifier
+     * @param filePath Path of the file within the report, using '/' separators
+     * @return The file with its entity tag, or null if the report or file does not exist
+     *         or the path points outside the report
+     * @throws Exception if the report's files cannot be read
+     */
+    ReportAsset getReportAsset(String reportId, String filePath) throws Exception;
+    
     /**
      * Extracts unique IDs of failed tests from a report.
      * 
@@ -50,4 +87,67 @@ public interface ReportService {
      * @throws Exception if report not found or parsing fails
      */
     List<String> getFailedTests(String reportId) throws Exception;
+    
+    /**
+     * Deletes a report together with the Allure results it was generated from.
+     * 
+     * @param reportId The report identifier
+     * @return Bytes reclaimed
+     * @throws IllegalArgumentException if the report does not exist
+     * @throws Exception if the report cannot be deleted
+     */
+    long deleteReport(String reportId) throws Exception;
+    
+    /**
+     * Lists reports that have been neither generated nor opened for the configured
+     * cold-after period and are not cold yet.
+     * 
+     * @return IDs of idle reports, oldest first; empty if cold storage is off
+     */
+    List<String> listIdleReports();
+    
+    /**
+     * Moves a report to cold storage: packs its files and its Allure results into one
+     * compressed archive and deletes them from the report and results directories. The
+     * report stays listed and is rehydrated when it is next read.
+     * 
+     * @param reportId The report identifier
+     * @return Bytes reclaimed, less the size of the archive
+     * @throws IllegalArgumentException if the report does not exist
+     * @throws Exception if the report cannot be packed
+     */
+    long demoteReport(String reportId) throws Exception;
+    
+    /**
+     * Restores a cold report and its Allure results from their archive. Only a limited
+     * number of reports are rehydrated at the same time; callers wait for their turn.
+     * 
+     * @param reportId The report identifier
+     * @return true if the report was cold, false if it was already available
+     * @throws IllegalArgumentException if the report does not exist
+     * @throws Exception if the archive cannot be unpacked
+     */
+    boolean rehydrateReport(String reportId) throws Exception;
+    
+    /**
+     * Opens the archive of a cold report, so its files and Allure results can be read
+     * without rehydrating it. Entries are named by {@link ColdReportStore#reportFileName}
+     * and {@link ColdReportStore#resultFileName}.
+     * 
+     * @param reportId The report identifier
+     * @return The archive, to be closed by the caller, or null if the report is not cold
+     * @throws IllegalArgumentException if the report does not exist
+     * @throws Exception if the archive cannot be opened
+     */
+    ZipFile openColdArchive(String reportId) throws Exception;
+    
+    /**
+     * Deletes stored report files that no report uses any more, such as blobs left
+     * behind by deleted reports, and Allure results of executions that have gone a
+     * day without a report being generated from them.
+     * 
+     * @return Bytes reclaimed
+     * @throws Exception if the stored files cannot be read
+     */
+    long collectGarbage() throws Exception;
 }
@@ -1,13 +1,18 @@
 package com.junit.launcher.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.junit.launcher.config.AllureProperties;
 import com.junit.launcher.config.StorageProperties;
+import com.junit.launcher.model.ExecutionSummary;
+import com.junit.launcher.model.ReportAsset;
 import com.junit.launcher.model.ReportMetadata;
+import com.junit.launcher.model.ReportPage;
+import com.junit.launcher.model.ReportQuery;
 import io.qameta.allure.ConfigurationBuilder;
 import io.qameta.allure.ReportGenerator;
 import io.qameta.allure.core.Configuration;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -20,10 +25,14 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.zip.ZipFile;
 
 /**
  * Implementation of ReportService for generating Allure reports.
@@ -34,23 +43,62 @@ public class ReportServiceImpl implements ReportService {
     private static final Logger logger = LoggerFactory.getLogger(ReportServiceImpl.class);
     private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
     private static final String METADATA_FILE = "metadata.json";
+    private static final String FAILED_TESTS_FILE = "failed-tests.json";
+    private static final String HISTORY_STORE_DIR = ".history";
+    private static final long BLOB_GRACE_PERIOD_MILLIS = 60 * 60 * 1000L;
+    private static final long ORPHAN_RESULTS_GRACE_PERIOD_MILLIS = 24 * 60 * 60 * 1000L;
     
     private final AllureProperties allureProperties;
     private final StorageProperties storageProperties;
     private final AllureConfigurationService allureConfigurationService;
     private final ObjectMapper objectMapper;
+    private final ReportMetadataIndex metadataIndex;
+    private final AllureResultsScanner resultsScanner;
+    private final ResultsCombiner resultsCombiner;
+    private final HistoryStore historyStore;
+    private final ReportFileStore reportFileStore;
+    private final ReportAssetCache assetCache;
+    private final ColdReportStore coldReportStore;
     
     public ReportServiceImpl(AllureProperties allureProperties,
                             StorageProperties storageProperties,
-                            AllureConfigurationService allureConfigurationService) {
+                            AllureConfigurationService allureConfigurationService,
+                            ReportFileStore reportFileStore) {
         this.allureProperties = allureProperties;
         this.storageProperties = storageProperties;
         this.allureConfigurationService = allureConfigurationService;
         this.objectMapper = new ObjectMapper();
+        this.metadataIndex = new ReportMetadataIndex(
+            () -> Paths.get(storageProperties.getReportsPath()),
+            this::loadIndexableMetadata);
+        this.resultsScanner = new AllureResultsScanner();
+        this.resultsCombiner = new ResultsCombiner(resultsScanner);
+        this.historyStore = new HistoryStore(
+            () -> Paths.get(storageProperties.getReportsPath(), HISTORY_STORE_DIR));
+        this.reportFileStore = reportFileStore;
+        this.assetCache = new ReportAssetCache(this::reportDirectory, reportFileStore,
+            storageProperties.getReportCacheSizeMb() * 1024L * 1024L);
+        this.coldReportStore = ColdReportStore.create(storageProperties, reportFileStore);
+    }
+    
+    /**
+     * Stops watching the reports directory and shuts down the results scanning and
+     * combining pools.
+     */
+    @PreDestroy
+    public void close() {
+        metadataIndex.close();
+        resultsCombiner.close();
+        resultsScanner.close();
     }
     
     @Override
     public ReportMetadata generateReport(String executionId) throws Exception {
+        return generateReport(executionId, null);
+    }
+    
+    @Override
+    public ReportMetadata generateReport(String executionId, ExecutionSummary summary) throws Exception {
         logger.info("Generating Allure report for execution: {}", executionId);
         
         // Get results directory
@@ -59,22 +107,26 @@ public class ReportServiceImpl implements ReportService {
             throw new IllegalArgumentException("Results directory not found for execution: " + executionId);
         }
         
-        // Copy history from previous report to current results directory
-        copyHistoryFromPreviousReport(resultsDir);
-        
         // Create report directory with timestamp
         String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMATTER);
         String reportId = "allure-report-" + timestamp;
         Path reportDir = Paths.get(storageProperties.getReportsPath(), reportId);
         Files.createDirectories(reportDir);
         
-        // Execute Allure report generation using Java API
-        executeAllureGenerate(resultsDir, reportDir);
+        // Generate with the rolling history for trend charts, then roll it forward
+        seedHistoryStore();
+        generateFromResults(resultsDir, reportDir, historyStore.getDirectory(), inputDir -> { });
+        updateHistoryStore(reportDir);
+        reportFileStore.store(reportDir);
         
-        // Parse test results to create metadata
-        ReportMetadata metadata = createReportMetadata(reportId, executionId, timestamp, resultsDir);
+        // Take the outcome accumulated during the run, or parse the results when none was kept
+        if (summary == null) {
+            summary = summarizeResults(executionId, resultsDir);
+        }
+        ReportMetadata metadata = createReportMetadata(reportId, executionId, timestamp, summary);
         
-        // Save metadata to JSON file
+        // Save the rerun index, then metadata, which makes the report visible
+        saveFailedTests(reportDir, summary);
         saveMetadata(reportDir, metadata);
         
         logger.info("Report generated successfully: {}", reportId);
@@ -83,29 +135,12 @@ public class ReportServiceImpl implements ReportService {
     
     @Override
     public List<ReportMetadata> listReports() {
-        Path reportsPath = Paths.get(storageProperties.getReportsPath());
-
-        if (!Files.exists(reportsPath)) {
-            return new ArrayList<>();
-        }
-
-        try (Stream<Path> paths = Files.list(reportsPath)) {
-            return paths
-                .filter(Files::isDirectory)
-                .filter(path -> {
-                    // Only process directories that look like report directories
-                    // (e.g., allure-report-2026-01-18_15-03-24)
-                    String dirName = path.getFileName().toString();
-                    return dirName.startsWith("allure-report-") && !dirName.contains("/");
-                })
-                .map(this::loadMetadata)
-                .filter(metadata -> metadata != null)
-                .sorted(Comparator.comparing(ReportMetadata::getTimestamp).reversed())
-                .collect(Collectors.toList());
-        } catch (IOException e) {
-            logger.error("Error listing reports", e);
-            return new ArrayList<>();
-        }
+        return metadataIndex.list();
+    }
+    
+    @Override
+    public ReportPage queryReports(ReportQuery query) {
+        return metadataIndex.query(query);
     }
     
     @Override
@@ -122,35 +157,35 @@ public class ReportServiceImpl implements ReportService {
         Path combinedResultsDir = Paths.get(storageProperties.getAllureResultsPath(), combinedExecutionId);
         Files.createDirectories(combinedResultsDir);
         
-        // Copy all allure-results from selected reports
+        // Link all allure-results from selected reports into the combined directory
+        List<Path> sourceResultsDirs = new ArrayList<>();
         for (String reportId : reportIds) {
             ReportMetadata metadata = getReportMetadata(reportId);
             if (metadata == null) {
                 throw new IllegalArgumentException("Report not found: " + reportId);
             }
-            
-            Path sourceResultsDir = allureConfigurationService.getResultsDirectory(metadata.getExecutionId());
-            if (Files.exists(sourceResultsDir)) {
-                copyAllureResults(sourceResultsDir, combinedResultsDir);
-            }
+            rehydrate(metadata);
+            sourceResultsDirs.add(allureConfigurationService.getResultsDirectory(metadata.getExecutionId()));
         }
+        resultsCombiner.combine(sourceResultsDirs, combinedResultsDir);
         
-        // Copy history from the most recent report among the selected reports
-        copyHistoryFromSelectedReports(reportIds, combinedResultsDir);
-        
-        // Generate combined report
+        // Generate combined report with history from the most recent selected report
         String combinedReportId = "allure-report-combined-" + timestamp;
         Path combinedReportDir = Paths.get(storageProperties.getReportsPath(), combinedReportId);
         Files.createDirectories(combinedReportDir);
         
-        executeAllureGenerate(combinedResultsDir, combinedReportDir);
+        generateFromResults(combinedResultsDir, combinedReportDir, null,
+            inputDir -> copyHistoryFromSelectedReports(reportIds, inputDir));
+        reportFileStore.store(combinedReportDir);
         
         // Create metadata for combined report
-        ReportMetadata metadata = createReportMetadata(combinedReportId, combinedExecutionId, timestamp, combinedResultsDir);
+        ExecutionSummary summary = summarizeResults(combinedExecutionId, combinedResultsDir);
+        ReportMetadata metadata = createReportMetadata(combinedReportId, combinedExecutionId, timestamp, summary);
         metadata.setCombined(true);
         metadata.setCombinedReportIds(reportIds);
         
-        // Save metadata
+        // Save rerun index and metadata
+        saveFailedTests(combinedReportDir, summary);
         saveMetadata(combinedReportDir, metadata);
         
         logger.info("Combined report generated successfully: {}", combinedReportId);
@@ -159,8 +194,145 @@ public class ReportServiceImpl implements ReportService {
     
     @Override
     public ReportMetadata getReportMetadata(String reportId) {
-        Path reportDir = Paths.get(storageProperties.getReportsPath(), reportId);
-        return loadMetadata(reportDir);
+        return metadataIndex.get(reportId);
+    }
+    
+    @Override
+    public ReportAsset getReportAsset(String reportId, String filePath) throws Exception {
+        ReportMetadata metadata = getReportMetadata(reportId);
+        if (metadata != null) {
+            rehydrate(metadata);
+            coldReportStore.recordAccess(reportId, Paths.get(metadata.getReportPath()));
+        }
+        return assetCache.get(reportId, filePath);
+    }
+    
+    @Override
+    public long deleteReport(String reportId) throws Exception {
+        ReportMetadata metadata = getReportMetadata(reportId);
+        if (metadata == null) {
+            throw new IllegalArgumentException("Report not found: " + reportId);
+        }
+        
+        // Stop listing and serving the report before its files go
+        Path reportDir = Paths.get(metadata.getReportPath());
+        metadataIndex.delete(reportId);
+        assetCache.evict(reportId);
+        reportFileStore.evict(reportDir);
+        
+        long reclaimed = coldReportStore.delete(reportId) + deleteRecursively(reportDir);
+        Path resultsDir = allureConfigurationService.getResultsDirectory(metadata.getExecutionId());
+        if (Files.exists(resultsDir)) {
+            reclaimed += deleteRecursively(resultsDir);
+        }
+        
+        logger.info("Deleted report {} and its results ({} bytes)", reportId, reclaimed);
+        return reclaimed;
+    }
+    
+    @Override
+    public List<String> listIdleReports() {
+        int coldAfterDays = storageProperties.getColdAfterDays();
+        if (coldAfterDays <= 0) {
+            return List.of();
+        }
+        
+        long idleMillis = coldAfterDays * 24L * 60 * 60 * 1000;
+        List<String> idleReportIds = new ArrayList<>();
+        List<ReportMetadata> reports = metadataIndex.list();
+        for (int i = reports.size() - 1; i >= 0; i--) {
+            ReportMetadata metadata = reports.get(i);
+            if (coldReportStore.isIdle(metadata.getReportId(), Paths.get(metadata.getReportPath()), idleMillis)) {
+                idleReportIds.add(metadata.getReportId());
+            }
+        }
+        return idleReportIds;
+    }
+    
+    @Override
+    public long demoteReport(String reportId) throws Exception {
+        ReportMetadata metadata = getReportMetadata(reportId);
+        if (metadata == null) {
+            throw new IllegalArgumentException("Report not found: " + reportId);
+        }
+        
+        // Stop serving cached files the archive is about to replace
+        assetCache.evict(reportId);
+        return coldReportStore.demote(reportId, Paths.get(metadata.getReportPath()),
+            allureConfigurationService.getResultsDirectory(metadata.getExecutionId()));
+    }
+    
+    @Override
+    public boolean rehydrateReport(String reportId) throws Exception {
+        ReportMetadata metadata = getReportMetadata(reportId);
+        if (metadata == null) {
+            throw new IllegalArgumentException("Report not found: " + reportId);
+        }
+        return rehydrate(metadata);
+    }
+    
+    @Override
+    public ZipFile openColdArchive(String reportId) throws Exception {
+        if (getReportMetadata(reportId) == null) {
+            throw new IllegalArgumentException("Report not found: " + reportId);
+        }
+        return coldReportStore.openArchive(reportId);
+    }
+    
+    @Override
+    public long collectGarbage() throws Exception {
+        return reportFileStore.collectGarbage(Paths.get(storageProperties.getReportsPath()), BLOB_GRACE_PERIOD_MILLIS)
+            + deleteOrphanResults();
+    }
+    
+    /**
+     * Deletes Allure results directories no report was generated from, such as those of
+     * failed or cancelled executions. Directories written to within the grace period are
+     * kept, since their execution may still be running or waiting for its report.
+     */
+    private long deleteOrphanResults() throws IOException {
+        Path resultsRoot = Paths.get(storageProperties.getAllureResultsPath());
+        if (!Files.isDirectory(resultsRoot)) {
+            return 0;
+        }
+        
+        Set<String> referenced = new HashSet<>();
+        for (ReportMetadata metadata : metadataIndex.list()) {
+            referenced.add(metadata.getExecutionId());
+        }
+        
+        long cutoff = System.currentTimeMillis() - ORPHAN_RESULTS_GRACE_PERIOD_MILLIS;
+        List<Path> orphans = new ArrayList<>();
+        try (Stream<Path> dirs = Files.list(resultsRoot)) {
+            for (Path dir : dirs.filter(Files::isDirectory).collect(Collectors.toList())) {
+                if (!referenced.contains(dir.getFileName().toString()) && lastWritten(dir) < cutoff) {
+                    orphans.add(dir);
+                }
+            }
+        }
+        
+        long reclaimed = 0;
+        for (Path orphan : orphans) {
+            reclaimed += deleteRecursively(orphan);
+        }
+        if (!orphans.isEmpty()) {
+            logger.info("Deleted {} Allure results directories without a report ({} bytes)", orphans.size(), reclaimed);
+        }
+        return reclaimed;
+    }
+    
+    /**
+     * Gets when a results directory was last written to. Journaled results only change
+     * the journal file, so the files directly inside count as well as the directory.
+     */
+    private static long lastWritten(Path dir) throws IOException {
+        long lastWritten = Files.getLastModifiedTime(dir).toMillis();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.collect(Collectors.toList())) {
+                lastWritten = Math.max(lastWritten, Files.getLastModifiedTime(file).toMillis());
+            }
+        }
+        return lastWritten;
     }
     
     @Override
@@ -172,51 +344,67 @@ public class ReportServiceImpl implements ReportService {
             throw new IllegalArgumentException("Report not found: " + reportId);
         }
         
-        // Get the results directory for this execution
+        // Reports carry an index of failed and broken tests written at generation time
+        Path failedTestsFile = Paths.get(storageProperties.getReportsPath(), reportId, FAILED_TESTS_FILE);
+        if (Files.exists(failedTestsFile)) {
+            try {
+                List<String> failedTestIds = objectMapper.readValue(failedTestsFile.toFile(), new TypeReference<List<String>>() {});
+                logger.info("Found {} failed tests in index of report: {}", failedTestIds.size(), reportId);
+                return failedTestIds;
+            } catch (IOException e) {
+                logger.warn("Failed to read failed test index: {}, scanning results instead", failedTestsFile, e);
+            }
+        }
+        
+        // Reports generated before the index existed fall back to scanning the results
+        rehydrate(metadata);
         Path resultsDir = allureConfigurationService.getResultsDirectory(metadata.getExecutionId());
         if (!Files.exists(resultsDir)) {
             throw new IllegalArgumentException("Results directory not found for execution: " + metadata.getExecutionId());
         }
         
-        List<String> failedTestIds = new ArrayList<>();
-        
-        // Parse all result files to find failed tests
-        try (Stream<Path> files = Files.list(resultsDir)) {
-            List<Path> resultFiles = files
-                .filter(p -> p.getFileName().toString().endsWith("-result.json"))
-                .collect(Collectors.toList());
-            
-            for (Path resultFile : resultFiles) {
-                try {
-                    String content = Files.readString(resultFile);
-                    
-                    // Parse JSON to extract test information
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> testResult = objectMapper.readValue(content, Map.class);
-                    
-                    String status = (String) testResult.get("status");
-                    if ("failed".equals(status)) {
-                        String testCaseId = (String) testResult.get("testCaseId");
-                        if (testCaseId != null) {
-                            failedTestIds.add(testCaseId);
-                        }
-                    }
-                } catch (IOException e) {
-                    logger.warn("Failed to parse result file: {}", resultFile, e);
-                }
-            }
-        }
+        ExecutionSummary summary = summarizeResults(metadata.getExecutionId(), resultsDir);
+        List<String> failedTestIds = rerunTestIds(summary);
         
         logger.info("Found {} failed tests in report: {}", failedTestIds.size(), reportId);
         return failedTestIds;
     }
     
+    /**
+     * Generates a report from a results directory, reading history from a separate
+     * history directory if given, or from history copied into the results.
+     * Journaled results are expanded into a temporary directory first, so result
+     * files only exist while the report is generated.
+     */
+    private void generateFromResults(Path resultsDir, Path reportDir, Path historyDir,
+                                     Consumer<Path> historyCopier) throws Exception {
+        if (!ResultsJournal.exists(resultsDir)) {
+            historyCopier.accept(resultsDir);
+            executeAllureGenerate(resultsPaths(resultsDir, historyDir), reportDir);
+            return;
+        }
+        
+        Path inputDir = Files.createTempDirectory(resultsDir, "report-input-");
+        try {
+            ResultsJournal.materialize(resultsDir, inputDir);
+            historyCopier.accept(inputDir);
+            executeAllureGenerate(resultsPaths(inputDir, historyDir), reportDir);
+        } finally {
+            deleteRecursively(inputDir);
+        }
+    }
+    
+    private List<Path> resultsPaths(Path resultsDir, Path historyDir) {
+        return historyDir != null ? List.of(resultsDir, historyDir) : List.of(resultsDir);
+    }
+    
     /**
      * Executes Allure report generation using Java API.
      * Uses the Allure ReportGenerator to generate reports programmatically.
      */
-    private void executeAllureGenerate(Path resultsDir, Path reportDir) throws Exception {
-        logger.debug("Generating Allure report from {} to {}", resultsDir.toAbsolutePath(), reportDir.toAbsolutePath());
+    private void executeAllureGenerate(List<Path> resultsPaths, Path reportDir) throws Exception {
+        Path resultsDir = resultsPaths.get(0);
+        logger.debug("Generating Allure report from {} to {}", resultsPaths, reportDir.toAbsolutePath());
 
         try {
             // Create configuration for the report generator
@@ -224,7 +412,6 @@ public class ReportServiceImpl implements ReportService {
                 .useDefault().build();
             
             // Create the report generator instance and generate the report
-            List<Path> resultsPaths = java.util.Collections.singletonList(resultsDir);
             new ReportGenerator(configuration).generate(reportDir, resultsPaths);
             
             logger.info("Allure report generated successfully");
@@ -238,64 +425,56 @@ public class ReportServiceImpl implements ReportService {
     }
     
     /**
-     * Creates report metadata by parsing test results.
+     * Creates report metadata from the summary accumulated while the tests ran.
+     * Broken tests count towards the total only, as they do when parsing results.
      */
-    private ReportMetadata createReportMetadata(String reportId, String executionId, 
-                                               String timestamp, Path resultsDir) throws IOException {
+    private ReportMetadata createReportMetadata(String reportId, String executionId,
+                                               String timestamp, ExecutionSummary summary) {
         ReportMetadata metadata = new ReportMetadata();
         metadata.setReportId(reportId);
         metadata.setExecutionId(executionId);
         metadata.setTimestamp(timestamp);
         metadata.setReportPath(Paths.get(storageProperties.getReportsPath(), reportId).toString());
-        
-        // Parse test results from allure-results directory
-        // Count test result files
-        int totalTests = 0;
-        int passedTests = 0;
-        int failedTests = 0;
-        int skippedTests = 0;
-        
-        if (Files.exists(resultsDir)) {
-            try (Stream<Path> files = Files.list(resultsDir)) {
-                List<Path> resultFiles = files
-                    .filter(p -> p.getFileName().toString().endsWith("-result.json"))
-                    .collect(Collectors.toList());
-                
-                totalTests = resultFiles.size();
-                
-                // Parse each result file to get status
-                for (Path resultFile : resultFiles) {
-                    try {
-                        JsonNode root = objectMapper.readTree(resultFile.toFile());
-                        String status = root.path("status").asText();
-                        if ("passed".equals(status)) {
-                            passedTests++;
-                        } else if ("failed".equals(status)) {
-                            failedTests++;
-                        } else if ("skipped".equals(status)) {
-                            skippedTests++;
-                        }
-                    } catch (IOException e) {
-                        logger.warn("Failed to parse result file: {}", resultFile, e);
-                    }
-                }
-            }
-        }
-        
-        metadata.setTotalTests(totalTests);
-        metadata.setPassedTests(passedTests);
-        metadata.setFailedTests(failedTests);
-        metadata.setSkippedTests(skippedTests);
-        
+        metadata.setTotalTests(summary.getTotalTests());
+        metadata.setPassedTests(summary.getPassedTests());
+        metadata.setFailedTests(summary.getFailedTests());
+        metadata.setSkippedTests(summary.getSkippedTests());
+        metadata.setDurationMillis(summary.getDurationMillis());
         return metadata;
     }
     
+    /**
+     * Summarizes an execution by parsing its test results, for runs without an accumulated summary.
+     */
+    private ExecutionSummary summarizeResults(String executionId, Path resultsDir) throws IOException {
+        return resultsScanner.scan(executionId, resultsDir);
+    }
+    
+    /**
+     * Tests a rerun of the execution should select: failed ones first, then broken ones.
+     */
+    private List<String> rerunTestIds(ExecutionSummary summary) {
+        Set<String> testIds = new LinkedHashSet<>(summary.getFailedTestIds());
+        testIds.addAll(summary.getBrokenTestIds());
+        return new ArrayList<>(testIds);
+    }
+    
+    /**
+     * Saves the index of tests to rerun next to the report metadata.
+     */
+    private void saveFailedTests(Path reportDir, ExecutionSummary summary) throws IOException {
+        Path failedTestsFile = reportDir.resolve(FAILED_TESTS_FILE);
+        objectMapper.writeValue(failedTestsFile.toFile(), rerunTestIds(summary));
+        logger.debug("Failed test index saved to: {}", failedTestsFile);
+    }
+    
     /**
      * Saves metadata to JSON file.
      */
     private void saveMetadata(Path reportDir, ReportMetadata metadata) throws IOException {
         Path metadataFile = reportDir.resolve(METADATA_FILE);
         objectMapper.writerWithDefaultPrettyPrinter().writeValue(metadataFile.toFile(), metadata);
+        metadataIndex.put(metadata);
         logger.debug("Metadata saved to: {}", metadataFile);
     }
     
@@ -319,60 +498,89 @@ public class ReportServiceImpl implements ReportService {
     }
     
     /**
-     * Copies Allure result files from source to destination.
+     * Loads metadata for the index; a report directory still being generated has none yet.
+     */
+    private ReportMetadata loadIndexableMetadata(String reportId) {
+        Path reportDir = Paths.get(storageProperties.getReportsPath(), reportId);
+        return Files.exists(reportDir.resolve(METADATA_FILE)) ? loadMetadata(reportDir) : null;
+    }
+    
+    /**
+     * Brings a cold report and its results back before they are read.
+     */
+    private boolean rehydrate(ReportMetadata metadata) throws IOException {
+        if (!coldReportStore.isCold(metadata.getReportId())) {
+            return false;
+        }
+        return coldReportStore.rehydrate(metadata.getReportId(), Paths.get(metadata.getReportPath()),
+            allureConfigurationService.getResultsDirectory(metadata.getExecutionId()));
+    }
+    
+    /**
+     * Resolves a report to its directory for serving its files.
+     */
+    private Path reportDirectory(String reportId) {
+        ReportMetadata metadata = getReportMetadata(reportId);
+        return metadata != null ? Paths.get(metadata.getReportPath()) : null;
+    }
+    
+    /**
+     * Seeds the history store from the most recent report the first time it is used,
+     * so trends carry over from reports generated before the store existed.
      */
-    private void copyAllureResults(Path sourceDir, Path destDir) throws IOException {
-        if (!Files.exists(sourceDir)) {
+    private void seedHistoryStore() {
+        if (!historyStore.isEmpty()) {
             return;
         }
         
-        try (Stream<Path> files = Files.list(sourceDir)) {
-            files.forEach(source -> {
-                try {
-                    Path dest = destDir.resolve(source.getFileName());
-                    Files.copy(source, dest);
-                } catch (IOException e) {
-                    logger.warn("Failed to copy file: {}", source, e);
-                }
-            });
+        ReportMetadata mostRecentReport = metadataIndex.latest();
+        if (mostRecentReport == null) {
+            logger.debug("No previous reports found, starting with empty history");
+            return;
+        }
+        
+        try {
+            historyStore.update(Paths.get(storageProperties.getReportsPath(), mostRecentReport.getReportId(), "history"));
+            logger.info("Seeded history store from report {}", mostRecentReport.getReportId());
+        } catch (IOException e) {
+            // Don't fail report generation if history seeding fails
+            logger.warn("Failed to seed history store from report {}", mostRecentReport.getReportId(), e);
         }
     }
     
     /**
-     * Copies history folder from the most recent report to the current results directory.
-     * This enables Allure trend charts and historical comparison features.
+     * Stores the history the generator wrote into a new report for the next one.
      */
-    private void copyHistoryFromPreviousReport(Path currentResultsDir) {
+    private void updateHistoryStore(Path reportDir) {
         try {
-            // Get the most recent report
-            List<ReportMetadata> reports = listReports();
-            if (reports.isEmpty()) {
-                logger.debug("No previous reports found, skipping history copy");
-                return;
-            }
-            
-            // Get the most recent report (reports are sorted by timestamp descending)
-            ReportMetadata mostRecentReport = reports.get(0);
-            Path mostRecentReportDir = Paths.get(storageProperties.getReportsPath(), mostRecentReport.getReportId());
-            Path historyDir = mostRecentReportDir.resolve("history");
-            
-            if (!Files.exists(historyDir)) {
-                logger.debug("No history folder found in most recent report: {}", mostRecentReport.getReportId());
-                return;
-            }
-            
-            // Copy history folder to current results directory
-            Path targetHistoryDir = currentResultsDir.resolve("history");
-            Files.createDirectories(targetHistoryDir);
-            
-            copyDirectoryRecursively(historyDir, targetHistoryDir);
-            
-            logger.info("Copied history from report {} to current results directory", mostRecentReport.getReportId());
-            
-        } catch (Exception e) {
-            // Don't fail report generation if history copy fails
-            logger.warn("Failed to copy history from previous report", e);
+            historyStore.update(reportDir.resolve("history"));
+        } catch (IOException e) {
+            // Don't fail report generation if history cannot be stored
+            logger.warn("Failed to update history store from {}", reportDir, e);
+        }
+    }
+    
+    /**
+     * Deletes a directory and all its contents.
+     * 
+     * @return Bytes of the deleted files
+     */
+    private long deleteRecursively(Path directory) {
+        long[] deletedBytes = new long[1];
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    long size = Files.isRegularFile(path) ? Files.size(path) : 0;
+                    Files.delete(path);
+                    deletedBytes[0] += size;
+                } catch (IOException e) {
+                    logger.warn("Failed to delete path: {}", path, e);
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("Failed to delete directory: {}", directory, e);
         }
+        return deletedBytes[0];
     }
     
     /**
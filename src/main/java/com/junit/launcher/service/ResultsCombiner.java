@@ -0,0 +1,191 @@
+package com.junit.launcher.service;
+
+import com.junit.launcher.service.AllureResultsScanner.ResultRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Combines the Allure results of several executions into one results directory.
+ * <p>
+ * Files are hard-linked into the combined directory, so combining costs no extra
+ * disk space; where links are not possible (another file system, no support) they
+ * are copied instead. Each test appears once: results sharing a UUID are kept once,
+ * and of the results sharing a history ID only the one that finished last is kept.
+ * The complete records of each journal are appended to the combined journal.
+ */
+public class ResultsCombiner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResultsCombiner.class);
+
+    private final AllureResultsScanner scanner;
+    private final ForkJoinPool pool;
+
+    public ResultsCombiner(AllureResultsScanner scanner) {
+        this(scanner, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ResultsCombiner(AllureResultsScanner scanner, int parallelism) {
+        this.scanner = scanner;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Shuts down the linking pool. The scanner is left to its owner.
+     */
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Combines results directories into a destination directory.
+     *
+     * @param sourceDirs Results directories in order of precedence for equal results
+     * @param destDir The combined results directory
+     * @throws IOException if a directory cannot be read or a file cannot be linked or copied
+     */
+    public void combine(List<Path> sourceDirs, Path destDir) throws IOException {
+        Files.createDirectories(destDir);
+
+        // List all sources at once, keeping their order
+        List<List<Path>> listings = inPool(() -> sourceDirs.parallelStream()
+            .map(this::listFiles)
+            .collect(Collectors.toList()));
+
+        List<Path> resultFiles = new ArrayList<>();
+        Map<String, Path> otherFiles = new LinkedHashMap<>();
+        for (int i = 0; i < sourceDirs.size(); i++) {
+            Path sourceDir = sourceDirs.get(i);
+            if (ResultsJournal.exists(sourceDir)) {
+                ResultsJournal.append(ResultsJournal.journalFile(sourceDir), ResultsJournal.journalFile(destDir));
+            }
+            for (Path file : listings.get(i)) {
+                String name = file.getFileName().toString();
+                if (AllureResultsScanner.isResultFile(file)) {
+                    resultFiles.add(file);
+                } else if (!name.equals(ResultsJournal.FILE_NAME)) {
+                    // Containers and attachments have unique names; the first copy wins
+                    otherFiles.putIfAbsent(name, file);
+                }
+            }
+        }
+
+        List<Path> selectedResults = selectResults(scanner.parseAll(resultFiles));
+        List<Path> linkSources = new ArrayList<>(selectedResults);
+        linkSources.addAll(otherFiles.values());
+
+        AtomicInteger linked = new AtomicInteger();
+        AtomicInteger copied = new AtomicInteger();
+        inPool(() -> {
+            linkSources.parallelStream().forEach(source -> {
+                Outcome outcome = linkOrCopy(source, destDir.resolve(source.getFileName()));
+                if (outcome == Outcome.LINKED) {
+                    linked.incrementAndGet();
+                } else if (outcome == Outcome.COPIED) {
+                    copied.incrementAndGet();
+                }
+            });
+            return null;
+        });
+
+        logger.info("Combined {} results directories into {}: {} files linked, {} copied, {} results dropped",
+            sourceDirs.size(), destDir, linked.get(), copied.get(), resultFiles.size() - selectedResults.size());
+    }
+
+    /**
+     * Picks one result per test: the first of each UUID, then the last finished of each history ID.
+     */
+    private List<Path> selectResults(List<ResultRecord> records) {
+        Set<String> uuids = new HashSet<>();
+        Map<String, ResultRecord> selected = new LinkedHashMap<>();
+        for (ResultRecord record : records) {
+            if (record.uuid != null && !uuids.add(record.uuid)) {
+                continue;
+            }
+            String key = record.historyId != null
+                ? "history:" + record.historyId
+                : "file:" + record.file.getFileName();
+            selected.merge(key, record, (kept, candidate) -> candidate.stop >= kept.stop ? candidate : kept);
+        }
+        return selected.values().stream()
+            .map(record -> record.file)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Hard-links a file, falling back to a copy.
+     */
+    private Outcome linkOrCopy(Path source, Path target) {
+        try {
+            Files.createLink(target, source);
+            return Outcome.LINKED;
+        } catch (FileAlreadyExistsException e) {
+            logger.debug("Skipping file already in combined results: {}", target);
+            return Outcome.SKIPPED;
+        } catch (IOException | UnsupportedOperationException e) {
+            logger.debug("Cannot link {}, copying instead: {}", source, e.getMessage());
+        }
+
+        try {
+            Files.copy(source, target);
+            return Outcome.COPIED;
+        } catch (FileAlreadyExistsException e) {
+            logger.debug("Skipping file already in combined results: {}", target);
+            return Outcome.SKIPPED;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to copy file: " + source, e);
+        }
+    }
+
+    private List<Path> listFiles(Path sourceDir) {
+        if (!Files.isDirectory(sourceDir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(sourceDir)) {
+            return files
+                .filter(Files::isRegularFile)
+                .sorted()
+                .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list results directory: " + sourceDir, e);
+        }
+    }
+
+    private <T> T inPool(Callable<T> task) throws IOException {
+        try {
+            return pool.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while combining results", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            throw new IOException("Failed to combine results", cause);
+        }
+    }
+
+    private enum Outcome {
+        LINKED,
+        COPIED,
+        SKIPPED
+    }
+}
@@ -0,0 +1,151 @@
+package com.junit.launcher.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal holding all Allure results of an execution in one file.
+ * <p>
+ * Each record is a type byte, the name of the Allure file it stands for, a length
+ * and the file's exact content, so the journal can be turned back into a regular
+ * results directory byte for byte. Journals are self-delimiting and can be
+ * concatenated to combine executions.
+ */
+public final class ResultsJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResultsJournal.class);
+
+    public static final String FILE_NAME = "results.journal";
+
+    static final byte RESULT = 1;
+    static final byte CONTAINER = 2;
+    static final byte ATTACHMENT = 3;
+
+    private ResultsJournal() {
+    }
+
+    /**
+     * Consumer of journal records.
+     */
+    @FunctionalInterface
+    public interface RecordConsumer {
+        void accept(byte type, String name, byte[] content) throws IOException;
+    }
+
+    /**
+     * Gets the journal file of a results directory.
+     */
+    public static Path journalFile(Path resultsDir) {
+        return resultsDir.resolve(FILE_NAME);
+    }
+
+    /**
+     * Checks whether a results directory holds a journal.
+     */
+    public static boolean exists(Path resultsDir) {
+        return Files.exists(journalFile(resultsDir));
+    }
+
+    /**
+     * Reads the records of a journal in order. A record cut short by a crash, or one whose
+     * length cannot fit in the journal, ends the journal.
+     *
+     * @param journal The journal file
+     * @param consumer Receives each complete record
+     * @throws IOException if the journal cannot be read or the consumer fails
+     */
+    public static void forEachRecord(Path journal, RecordConsumer consumer) throws IOException {
+        long journalSize = Files.size(journal);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(journal)))) {
+            while (true) {
+                int type = in.read();
+                if (type < 0) {
+                    return;
+                }
+                String name;
+                byte[] content;
+                try {
+                    name = in.readUTF();
+                    int length = in.readInt();
+                    if (length < 0 || length > journalSize) {
+                        logger.warn("Ignoring corrupt record length {} in journal: {}", length, journal);
+                        return;
+                    }
+                    content = new byte[length];
+                    in.readFully(content);
+                } catch (EOFException e) {
+                    logger.warn("Ignoring truncated record at end of journal: {}", journal);
+                    return;
+                }
+                consumer.accept((byte) type, name, content);
+            }
+        }
+    }
+
+    /**
+     * Writes the Allure files recorded in a results directory's journal into a target
+     * directory, along with any regular result files kept next to the journal.
+     *
+     * @param resultsDir The results directory holding the journal
+     * @param targetDir The directory to write Allure files to
+     * @throws IOException if reading or writing fails
+     */
+    public static void materialize(Path resultsDir, Path targetDir) throws IOException {
+        Files.createDirectories(targetDir);
+        forEachRecord(journalFile(resultsDir), (type, name, content) ->
+            Files.write(targetDir.resolve(name), content));
+
+        // Results written outside the journal, e.g. by combining file-based executions
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(resultsDir)) {
+            files = listing
+                .filter(Files::isRegularFile)
+                .filter(file -> !file.getFileName().toString().equals(FILE_NAME))
+                .collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            Path target = targetDir.resolve(file.getFileName());
+            if (!Files.exists(target)) {
+                Files.copy(file, target);
+            }
+        }
+    }
+
+    /**
+     * Appends the complete records of one journal to another. A truncated tail in the
+     * source is left out so it cannot swallow records appended after it.
+     *
+     * @param source The journal to copy
+     * @param target The journal to append to; created if missing
+     * @throws IOException if copying fails
+     */
+    public static void append(Path source, Path target) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(target, StandardOpenOption.CREATE, StandardOpenOption.APPEND)))) {
+            forEachRecord(source, (type, name, content) -> writeRecord(out, type, name, content));
+        }
+    }
+
+    /**
+     * Writes one record to a journal stream.
+     */
+    static void writeRecord(DataOutputStream out, byte type, String name, byte[] content) throws IOException {
+        out.writeByte(type);
+        out.writeUTF(name);
+        out.writeInt(content.length);
+        out.write(content);
+    }
+}
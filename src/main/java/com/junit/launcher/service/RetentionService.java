@@ -0,0 +1,26 @@
+package com.junit.launcher.service;
+
+import com.junit.launcher.model.RetentionResult;
+
+/**
+ * Service for deleting old reports, results and logs according to the configured
+ * retention rules, so that storage does not grow without bound.
+ */
+public interface RetentionService {
+    
+    /**
+     * Runs one retention pass now. A pass deletes at most the configured batch of
+     * reports and logs, oldest first; the result tells whether more is due.
+     * 
+     * @return What the pass deleted and reclaimed
+     * @throws Exception if storage cannot be read
+     */
+    RetentionResult runRetention() throws Exception;
+    
+    /**
+     * Gets the result of the most recent retention pass.
+     * 
+     * @return The last result, or null if no pass has run yet
+     */
+    RetentionResult getLastResult();
+}
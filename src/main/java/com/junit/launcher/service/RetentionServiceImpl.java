@@ -0,0 +1,317 @@
+package com.junit.launcher.service;
+
+import com.junit.launcher.config.StorageProperties;
+import com.junit.launcher.model.LogFileMetadata;
+import com.junit.launcher.model.ReportMetadata;
+import com.junit.launcher.model.RetentionResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of RetentionService.
+ * <p>
+ * Reports and logs are considered newest first. The newest {@code keepLast} of each
+ * are always kept. Beyond those, reports and logs are due for deletion when they are
+ * older than the maximum age, when they are past the maximum count, and, oldest first,
+ * while everything together takes more than the maximum size. A report used by a
+ * combined report that is kept is kept as well. Deleting a report deletes the Allure
+ * results it was generated from. With what is left of the batch, reports that have
+ * gone unopened for the cold-after period are moved to cold storage. Each pass also
+ * prunes stale download archives, stored report files no report uses any more and
+ * Allure results left behind by executions that never got a report.
+ */
+@Service
+public class RetentionServiceImpl implements RetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetentionServiceImpl.class);
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+    private static final long FOLLOW_UP_DELAY_SECONDS = 10;
+
+    private final StorageProperties storageProperties;
+    private final ReportService reportService;
+    private final ArchiveService archiveService;
+    private final ReportFileStore reportFileStore;
+
+    private final ScheduledExecutorService scheduler;
+    private volatile RetentionResult lastResult;
+    private long totalBytesReclaimed;
+
+    public RetentionServiceImpl(StorageProperties storageProperties,
+                                ReportService reportService,
+                                ArchiveService archiveService,
+                                ReportFileStore reportFileStore) {
+        this.storageProperties = storageProperties;
+        this.reportService = reportService;
+        this.archiveService = archiveService;
+        this.reportFileStore = reportFileStore;
+
+        int intervalMinutes = storageProperties.getRetentionIntervalMinutes();
+        if (intervalMinutes > 0) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "storage-retention");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::runInBackground, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    @Override
+    public synchronized RetentionResult runRetention() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        RetentionResult result = new RetentionResult(now.format(TIMESTAMP_FORMATTER));
+        int maxAgeDays = storageProperties.getRetentionMaxAgeDays();
+        String cutoff = maxAgeDays > 0 ? now.minusDays(maxAgeDays).format(TIMESTAMP_FORMATTER) : null;
+
+        List<ReportMetadata> reports = reportService.listReports();
+        List<LogFileMetadata> logs = archiveService.listLogFiles();
+
+        List<Candidate> candidates = new ArrayList<>();
+        for (int i = 0; i < reports.size(); i++) {
+            ReportMetadata report = reports.get(i);
+            candidates.add(new Candidate(report, null, report.getTimestamp(), i));
+        }
+        for (int i = 0; i < logs.size(); i++) {
+            LogFileMetadata log = logs.get(i);
+            candidates.add(new Candidate(null, log, log.getTimestamp(), i));
+        }
+
+        // Age and count rules
+        Set<Candidate> due = new HashSet<>();
+        for (Candidate candidate : candidates) {
+            if (isProtectedByPosition(candidate)) {
+                continue;
+            }
+            boolean expired = cutoff != null && !candidate.timestamp.isEmpty() && candidate.timestamp.compareTo(cutoff) < 0;
+            boolean overCount = storageProperties.getRetentionMaxCount() > 0
+                && candidate.position >= storageProperties.getRetentionMaxCount();
+            if (expired || overCount) {
+                due.add(candidate);
+            }
+        }
+        keepCombinedReferences(candidates, due);
+
+        // Size rule, oldest first
+        long maxBytes = storageProperties.getRetentionMaxSizeMb() * 1024L * 1024L;
+        if (maxBytes > 0) {
+            long totalBytes = 0;
+            for (Candidate candidate : candidates) {
+                if (!due.contains(candidate)) {
+                    totalBytes += sizeOf(candidate);
+                }
+            }
+            List<Candidate> oldestFirst = new ArrayList<>(candidates);
+            oldestFirst.sort(Comparator.comparing((Candidate candidate) -> candidate.timestamp));
+            for (Candidate candidate : oldestFirst) {
+                if (totalBytes <= maxBytes) {
+                    break;
+                }
+                if (due.contains(candidate) || isProtectedByPosition(candidate)
+                        || referencedReportIds(candidates, due).contains(candidate.getReportId())) {
+                    continue;
+                }
+                due.add(candidate);
+                totalBytes -= sizeOf(candidate);
+            }
+        }
+
+        // Delete the oldest of what is due, up to one batch
+        List<Candidate> deletions = new ArrayList<>(due);
+        deletions.sort(Comparator.comparing((Candidate candidate) -> candidate.timestamp));
+        int batchSize = Math.max(1, storageProperties.getRetentionBatchSize());
+        for (Candidate candidate : deletions.subList(0, Math.min(batchSize, deletions.size()))) {
+            delete(candidate, result);
+        }
+        boolean pending = deletions.size() > batchSize;
+
+        // Move idle reports to cold storage with what is left of the batch
+        int demotions = Math.max(0, batchSize - deletions.size());
+        List<String> idleReportIds = new ArrayList<>(reportService.listIdleReports());
+        idleReportIds.removeAll(result.getDeletedReportIds());
+        for (String reportId : idleReportIds.subList(0, Math.min(demotions, idleReportIds.size()))) {
+            demote(reportId, result);
+        }
+        result.setPending(pending || idleReportIds.size() > demotions);
+
+        try {
+            result.setArchiveBytesReclaimed(archiveService.pruneReportArchives());
+        } catch (Exception e) {
+            logger.warn("Failed to prune report archives", e);
+        }
+        try {
+            result.setBlobBytesReclaimed(reportService.collectGarbage());
+        } catch (Exception e) {
+            logger.warn("Failed to collect unused report files", e);
+        }
+
+        totalBytesReclaimed += result.getBytesReclaimed();
+        result.setTotalBytesReclaimed(totalBytesReclaimed);
+        lastResult = result;
+
+        logger.info("Retention deleted {} reports and {} logs, demoted {} reports, reclaimed {} bytes{}",
+            result.getDeletedReportIds().size(), result.getDeletedLogIds().size(),
+            result.getDemotedReportIds().size(), result.getBytesReclaimed(),
+            result.isPending() ? ", more pending" : "");
+        return result;
+    }
+
+    @Override
+    public RetentionResult getLastResult() {
+        return lastResult;
+    }
+
+    private void runInBackground() {
+        try {
+            RetentionResult result = runRetention();
+            if (result.isPending()) {
+                scheduler.schedule(this::runInBackground, FOLLOW_UP_DELAY_SECONDS, TimeUnit.SECONDS);
+            }
+        } catch (Exception e) {
+            logger.error("Retention pass failed", e);
+        }
+    }
+
+    private boolean isProtectedByPosition(Candidate candidate) {
+        return candidate.position < storageProperties.getRetentionKeepLast();
+    }
+
+    /**
+     * Takes reports used by combined reports that are kept out of the deletions, until
+     * no kept combined report uses a report due for deletion.
+     */
+    private void keepCombinedReferences(List<Candidate> candidates, Set<Candidate> due) {
+        boolean changed = true;
+        while (changed) {
+            Set<String> referenced = referencedReportIds(candidates, due);
+            changed = due.removeIf(candidate -> referenced.contains(candidate.getReportId()));
+        }
+    }
+
+    private Set<String> referencedReportIds(List<Candidate> candidates, Set<Candidate> due) {
+        Set<String> referenced = new HashSet<>();
+        for (Candidate candidate : candidates) {
+            if (candidate.report != null && !due.contains(candidate) && candidate.report.getCombinedReportIds() != null) {
+                referenced.addAll(candidate.report.getCombinedReportIds());
+            }
+        }
+        return referenced;
+    }
+
+    private void delete(Candidate candidate, RetentionResult result) {
+        try {
+            if (candidate.report != null) {
+                String reportId = candidate.report.getReportId();
+                result.setReportBytesReclaimed(result.getReportBytesReclaimed() + reportService.deleteReport(reportId));
+                result.getDeletedReportIds().add(reportId);
+            } else {
+                String logId = candidate.log.getLogId();
+                result.setLogBytesReclaimed(result.getLogBytesReclaimed() + archiveService.deleteLogFile(logId));
+                result.getDeletedLogIds().add(logId);
+            }
+        } catch (Exception e) {
+            // Leave it for the next pass
+            logger.warn("Retention failed to delete {}", candidate.getId(), e);
+        }
+    }
+
+    private void demote(String reportId, RetentionResult result) {
+        try {
+            result.setColdBytesReclaimed(result.getColdBytesReclaimed() + reportService.demoteReport(reportId));
+            result.getDemotedReportIds().add(reportId);
+        } catch (Exception e) {
+            // Leave it for the next pass
+            logger.warn("Retention failed to demote {}", reportId, e);
+        }
+    }
+
+    private long sizeOf(Candidate candidate) {
+        if (candidate.log != null) {
+            return candidate.log.getFileSizeBytes();
+        }
+        ReportMetadata report = candidate.report;
+        Path coldArchive = ColdReportStore.archivePath(
+            ColdReportStore.resolveColdDirectory(storageProperties), report.getReportId());
+        return reportSize(Paths.get(report.getReportPath()))
+            + directorySize(Paths.get(storageProperties.getAllureResultsPath(), report.getExecutionId()))
+            + fileSize(coldArchive);
+    }
+
+    private long reportSize(Path reportDir) {
+        try {
+            return reportFileStore.size(reportDir);
+        } catch (IOException e) {
+            logger.warn("Failed to measure report: {}", reportDir, e);
+            return 0;
+        }
+    }
+
+    private long fileSize(Path file) {
+        try {
+            return Files.isRegularFile(file) ? Files.size(file) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private long directorySize(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter(Files::isRegularFile).mapToLong(path -> {
+                try {
+                    return Files.size(path);
+                } catch (IOException e) {
+                    return 0;
+                }
+            }).sum();
+        } catch (IOException e) {
+            logger.warn("Failed to measure directory: {}", directory, e);
+            return 0;
+        }
+    }
+
+    /**
+     * A report or log that retention may delete, with its position among its kind, newest first.
+     */
+    private static class Candidate {
+        final ReportMetadata report;
+        final LogFileMetadata log;
+        final String timestamp;
+        final int position;
+
+        Candidate(ReportMetadata report, LogFileMetadata log, String timestamp, int position) {
+            this.report = report;
+            this.log = log;
+            this.timestamp = timestamp != null ? timestamp : "";
+            this.position = position;
+        }
+
+        String getReportId() {
+            return report != null ? report.getReportId() : null;
+        }
+
+        String getId() {
+            return report != null ? report.getReportId() : log.getLogId();
+        }
+    }
+}
@@ -1,28 +1,38 @@
 package com.junit.launcher.service;
 
 import com.junit.launcher.model.ExecutionStatus;
+import com.junit.launcher.model.ExecutionSummary;
+import com.junit.launcher.model.ProgressEvent;
 import com.junit.launcher.model.ReportMetadata;
 import io.qameta.allure.AllureLifecycle;
 import io.qameta.allure.model.Label;
 import io.qameta.allure.model.Status;
+import io.qameta.allure.model.TestResult;
 import org.junit.platform.engine.TestExecutionResult;
 import org.junit.platform.launcher.Launcher;
 import org.junit.platform.launcher.LauncherDiscoveryRequest;
 import org.junit.platform.launcher.TestExecutionListener;
 import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
 import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
 import org.junit.platform.launcher.core.LauncherFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import static org.junit.platform.engine.discovery.DiscoverySelectors.selectUniqueId;
 
@@ -37,17 +47,20 @@ public class TestExecutionServiceImpl implements TestExecutionService {
     private final Map<String, ExecutionContext> activeExecutions = new ConcurrentHashMap<>();
     private final LogStreamingService logStreamingService;
     private final AllureConfigurationService allureConfigurationService;
-    private final ReportService reportService;
+    private final ReportGenerationService reportGenerationService;
     private final ThreadPoolTaskExecutor taskExecutor;
+    private final AsyncTaskExecutor orchestrationExecutor;
     
     public TestExecutionServiceImpl(LogStreamingService logStreamingService, 
                                    AllureConfigurationService allureConfigurationService,
-                                   ReportService reportService,
-                                   @Qualifier("testExecutionExecutor") ThreadPoolTaskExecutor taskExecutor) {
+                                   ReportGenerationService reportGenerationService,
+                                   @Qualifier("testExecutionExecutor") ThreadPoolTaskExecutor taskExecutor,
+                                   @Qualifier("orchestrationExecutor") AsyncTaskExecutor orchestrationExecutor) {
         this.logStreamingService = logStreamingService;
         this.allureConfigurationService = allureConfigurationService;
-        this.reportService = reportService;
+        this.reportGenerationService = reportGenerationService;
         this.taskExecutor = taskExecutor;
+        this.orchestrationExecutor = orchestrationExecutor;
     }
     
     @Override
@@ -64,9 +77,10 @@ public class TestExecutionServiceImpl implements TestExecutionService {
         // Create execution context
         ExecutionContext context = new ExecutionContext(executionId);
         activeExecutions.put(executionId, context);
+        logStreamingService.startStreaming(executionId);
         
-        // Start execution in background task executor
-        taskExecutor.execute(() -> {
+        // Orchestrate in the background; only the tests themselves take a test execution slot
+        orchestrationExecutor.execute(() -> {
             try {
                 MDC.put("executionId", executionId);
                 runTests(executionId, selectedTests, context);
@@ -113,6 +127,8 @@ public class TestExecutionServiceImpl implements TestExecutionService {
      */
     private void runTests(String executionId, List<String> selectedTests, ExecutionContext context) {
         AllureLifecycle allureLifecycle = null;
+        ProgressTracker progressTracker = new ProgressTracker(executionId);
+        CompletableFuture<ReportMetadata> report = null;
         try {
             // Send initial log message
             logStreamingService.publishLog(executionId, "=== Test Execution Started ===\n");
@@ -132,12 +148,15 @@ public class TestExecutionServiceImpl implements TestExecutionService {
             
             // Create launcher and register listeners
             Launcher launcher = LauncherFactory.create();
-            CustomTestExecutionListener listener = new CustomTestExecutionListener(executionId, context, logStreamingService, allureLifecycle);
+            CustomTestExecutionListener listener = new CustomTestExecutionListener(executionId, context, logStreamingService, allureLifecycle, progressTracker);
             launcher.registerTestExecutionListeners(listener);
             
             // Execute tests
             logger.info("Executing {} tests for execution ID: {}", selectedTests.size(), executionId);
-            launcher.execute(request);
+            executeOnTestExecutor(executionId, () -> launcher.execute(request));
+            
+            // Results are written in the background; the report needs all of them
+            allureConfigurationService.completeExecution(executionId);
             
             // Check if execution was cancelled
             if (context.getStatus() == ExecutionStatus.CANCELLED) {
@@ -148,17 +167,9 @@ public class TestExecutionServiceImpl implements TestExecutionService {
                 logger.info("Execution completed: {}", executionId);
                 logStreamingService.publishLog(executionId, "\n=== Execution Completed ===\n");
                 
-                // Auto-generate Allure report
-                try {
-                    logStreamingService.publishLog(executionId, "\n=== Generating Allure Report ===\n");
-                    ReportMetadata reportMetadata = reportService.generateReport(executionId);
-                    context.setReportId(reportMetadata.getReportId());
-                    logStreamingService.publishLog(executionId, String.format("Report generated: %s%n", reportMetadata.getReportId()));
-                    logger.info("Report generated for execution {}: {}", executionId, reportMetadata.getReportId());
-                } catch (Exception e) {
-                    logger.error("Failed to generate report for execution: {}", executionId, e);
-                    logStreamingService.publishLog(executionId, String.format("Warning: Failed to generate report: %s%n", e.getMessage()));
-                }
+                // Auto-generate Allure report; the execution slot is released meanwhile
+                logStreamingService.publishLog(executionId, "\n=== Generating Allure Report ===\n");
+                report = reportGenerationService.requestReport(executionId, progressTracker.toSummary());
             }
             
         } catch (Exception e) {
@@ -173,8 +184,73 @@ public class TestExecutionServiceImpl implements TestExecutionService {
                 logStreamingService.publishLog(executionId, String.format("%n=== Execution Failed: %s ===%n", e.getMessage()));
             }
         } finally {
-            // Complete streaming
-            logStreamingService.completeStreaming(executionId);
+            // Release the results writer if the run ended early
+            allureConfigurationService.completeExecution(executionId);
+            
+            // Publish the final state so clients can stop without polling
+            ProgressEvent finished = progressTracker.snapshot(ProgressEvent.Type.EXECUTION_FINISHED);
+            finished.setExecutionStatus(context.getStatus().name());
+            finished.setReportId(context.getReportId());
+            finished.setReportPending(report != null);
+            logStreamingService.publishProgress(executionId, finished);
+            
+            // Complete streaming, or once the report is done if one was requested
+            if (report != null) {
+                report.whenComplete((reportMetadata, error) -> onReportGenerated(executionId, context, progressTracker, reportMetadata, error));
+            } else {
+                logStreamingService.completeStreaming(executionId);
+            }
+        }
+    }
+    
+    /**
+     * Publishes the outcome of report generation and ends the execution's stream.
+     */
+    private void onReportGenerated(String executionId, ExecutionContext context, ProgressTracker progressTracker,
+                                   ReportMetadata reportMetadata, Throwable error) {
+        // Carry the final counts, so a client joining late still sees them on the last event
+        ProgressEvent event = progressTracker.snapshot(error == null ? ProgressEvent.Type.REPORT_READY : ProgressEvent.Type.REPORT_FAILED);
+        event.setExecutionStatus(context.getStatus().name());
+        
+        if (error == null) {
+            context.setReportId(reportMetadata.getReportId());
+            event.setReportId(reportMetadata.getReportId());
+            logStreamingService.publishLog(executionId, String.format("Report generated: %s%n", reportMetadata.getReportId()));
+            logger.info("Report generated for execution {}: {}", executionId, reportMetadata.getReportId());
+        } else {
+            logger.error("Failed to generate report for execution: {}", executionId, error);
+            logStreamingService.publishLog(executionId, String.format("Warning: Failed to generate report: %s%n", error.getMessage()));
+        }
+        
+        logStreamingService.publishProgress(executionId, event);
+        logStreamingService.completeStreaming(executionId);
+    }
+    
+    /**
+     * Runs test bodies on the bounded test execution pool and waits for them.
+     */
+    private void executeOnTestExecutor(String executionId, Runnable tests) throws Exception {
+        Future<?> future = taskExecutor.submit(() -> {
+            try {
+                MDC.put("executionId", executionId);
+                tests.run();
+            } finally {
+                MDC.remove("executionId");
+            }
+        });
+        
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
         }
     }
     
@@ -212,6 +288,101 @@ public class TestExecutionServiceImpl implements TestExecutionService {
         }
     }
     
+    /**
+     * Tracks test counters for an execution and turns them into progress events
+     * and, once the run is over, the summary the report metadata is built from.
+     */
+    private static class ProgressTracker {
+        private final String executionId;
+        private final long startNanos = System.nanoTime();
+        private final List<String> failedTestIds = new ArrayList<>();
+        private final List<String> abortedTestIds = new ArrayList<>();
+        private int totalTests;
+        private int startedTests;
+        private int passedTests;
+        private int failedTests;
+        private int abortedTests;
+        private int skippedTests;
+        
+        public ProgressTracker(String executionId) {
+            this.executionId = executionId;
+        }
+        
+        public synchronized void setTotalTests(int totalTests) {
+            this.totalTests = totalTests;
+        }
+        
+        public synchronized ProgressEvent testStarted(TestIdentifier testIdentifier) {
+            startedTests++;
+            return testEvent(ProgressEvent.Type.TEST_STARTED, testIdentifier, null);
+        }
+        
+        public synchronized ProgressEvent testFinished(TestIdentifier testIdentifier, TestExecutionResult.Status status) {
+            String outcome;
+            switch (status) {
+                case SUCCESSFUL:
+                    passedTests++;
+                    outcome = "PASSED";
+                    break;
+                case FAILED:
+                    failedTests++;
+                    failedTestIds.add(testIdentifier.getUniqueId());
+                    outcome = "FAILED";
+                    break;
+                default:
+                    abortedTests++;
+                    abortedTestIds.add(testIdentifier.getUniqueId());
+                    outcome = "ABORTED";
+                    break;
+            }
+            return testEvent(ProgressEvent.Type.TEST_FINISHED, testIdentifier, outcome);
+        }
+        
+        public synchronized ProgressEvent testSkipped(TestIdentifier testIdentifier) {
+            skippedTests++;
+            return testEvent(ProgressEvent.Type.TEST_SKIPPED, testIdentifier, "SKIPPED");
+        }
+        
+        public synchronized ProgressEvent snapshot(ProgressEvent.Type type) {
+            long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+            int completedTests = passedTests + failedTests + abortedTests + skippedTests;
+            
+            ProgressEvent event = new ProgressEvent(type, executionId);
+            event.setExecutionStatus(ExecutionStatus.RUNNING.name());
+            event.setTotalTests(totalTests);
+            event.setStartedTests(startedTests);
+            event.setPassedTests(passedTests);
+            event.setFailedTests(failedTests);
+            event.setAbortedTests(abortedTests);
+            event.setSkippedTests(skippedTests);
+            event.setElapsedMillis(elapsedMillis);
+            if (completedTests > 0 && totalTests >= completedTests) {
+                event.setEtaMillis(elapsedMillis * (totalTests - completedTests) / completedTests);
+            }
+            return event;
+        }
+        
+        public synchronized ExecutionSummary toSummary() {
+            ExecutionSummary summary = new ExecutionSummary(executionId);
+            summary.setPassedTests(passedTests);
+            summary.setFailedTests(failedTests);
+            summary.setBrokenTests(abortedTests);
+            summary.setSkippedTests(skippedTests);
+            summary.setDurationMillis((System.nanoTime() - startNanos) / 1_000_000);
+            summary.setFailedTestIds(failedTestIds);
+            summary.setBrokenTestIds(abortedTestIds);
+            return summary;
+        }
+        
+        private ProgressEvent testEvent(ProgressEvent.Type type, TestIdentifier testIdentifier, String outcome) {
+            ProgressEvent event = snapshot(type);
+            event.setTestId(testIdentifier.getUniqueId());
+            event.setTestName(testIdentifier.getDisplayName());
+            event.setStatus(outcome);
+            return event;
+        }
+    }
+    
     /**
      * Custom listener to capture test execution events and record to Allure.
      */
@@ -220,12 +391,25 @@ public class TestExecutionServiceImpl implements TestExecutionService {
         private final ExecutionContext context;
         private final LogStreamingService logStreamingService;
         private final AllureLifecycle allureLifecycle;
+        private final ProgressTracker progressTracker;
+        // Allure result UUIDs of running tests, keyed by JUnit unique ID
+        private final Map<String, String> allureUuids = new ConcurrentHashMap<>();
+        private TestPlan testPlan;
         
-        public CustomTestExecutionListener(String executionId, ExecutionContext context, LogStreamingService logStreamingService, AllureLifecycle allureLifecycle) {
+        public CustomTestExecutionListener(String executionId, ExecutionContext context, LogStreamingService logStreamingService,
+                                           AllureLifecycle allureLifecycle, ProgressTracker progressTracker) {
             this.executionId = executionId;
             this.context = context;
             this.logStreamingService = logStreamingService;
             this.allureLifecycle = allureLifecycle;
+            this.progressTracker = progressTracker;
+        }
+        
+        @Override
+        public void testPlanExecutionStarted(TestPlan testPlan) {
+            this.testPlan = testPlan;
+            progressTracker.setTotalTests((int) testPlan.countTestIdentifiers(TestIdentifier::isTest));
+            logStreamingService.publishProgress(executionId, progressTracker.snapshot(ProgressEvent.Type.EXECUTION_STARTED));
         }
         
         @Override
@@ -239,18 +423,13 @@ public class TestExecutionServiceImpl implements TestExecutionService {
                 String message = String.format("[TEST STARTED] %s%n", testIdentifier.getDisplayName());
                 // Publish directly to ensure it's sent
                 logStreamingService.publishLog(executionId, message);
+                logStreamingService.publishProgress(executionId, progressTracker.testStarted(testIdentifier));
                 logger.debug("Test started: {} [{}]}", testIdentifier.getDisplayName(), executionId);
 
                 // Record test start to Allure
-                String testCaseId = testIdentifier.getUniqueId();
-                allureLifecycle.startTestCase(testCaseId);
-                allureLifecycle.updateTestCase(testCaseId, result -> {
-                    result.setName(testIdentifier.getDisplayName());
-                    result.setFullName(testIdentifier.getDisplayName());
-                    // Add labels
-                    result.getLabels().add(new Label().setName("suite").setValue(testIdentifier.getSource().map(Object::toString).orElse("Unknown")));
-                    result.getLabels().add(new Label().setName("testId").setValue(testCaseId));
-                });
+                String uuid = scheduleAllureResult(testIdentifier);
+                allureUuids.put(testIdentifier.getUniqueId(), uuid);
+                allureLifecycle.startTestCase(uuid);
             }
         }
         
@@ -262,12 +441,17 @@ public class TestExecutionServiceImpl implements TestExecutionService {
                     testIdentifier.getDisplayName(), status);
                 // Publish directly to ensure it's sent
                 logStreamingService.publishLog(executionId, message);
+                logStreamingService.publishProgress(executionId,
+                    progressTracker.testFinished(testIdentifier, testExecutionResult.getStatus()));
                 logger.debug("Test finished: {} - Status: {} [{}]",
                     testIdentifier.getDisplayName(), status, executionId);
 
                 // Record test finish to Allure
-                String testCaseId = testIdentifier.getUniqueId();
-                allureLifecycle.updateTestCase(testCaseId, testResult -> {
+                String uuid = allureUuids.remove(testIdentifier.getUniqueId());
+                if (uuid == null) {
+                    return;
+                }
+                allureLifecycle.updateTestCase(uuid, testResult -> {
                     testResult.setStatus(convertToAllureStatus(testExecutionResult.getStatus()));
 
                     // Handle failure details
@@ -280,35 +464,67 @@ public class TestExecutionServiceImpl implements TestExecutionService {
                     }
                 });
 
-                allureLifecycle.stopTestCase(testCaseId);
-                allureLifecycle.writeTestCase(testCaseId);
+                allureLifecycle.stopTestCase(uuid);
+                allureLifecycle.writeTestCase(uuid);
             }
         }
         
         @Override
         public void executionSkipped(TestIdentifier testIdentifier, String reason) {
+            if (!testIdentifier.isTest() && testPlan != null) {
+                // Tests inside a skipped container are never reported individually
+                testPlan.getDescendants(testIdentifier).stream()
+                    .filter(TestIdentifier::isTest)
+                    .forEach(test -> {
+                        logStreamingService.publishProgress(executionId, progressTracker.testSkipped(test));
+                        writeSkippedAllureResult(test, reason);
+                    });
+            }
+            
             if (testIdentifier.isTest()) {
                 String message = String.format("[TEST SKIPPED] %s - Reason: %s%n",
                     testIdentifier.getDisplayName(), reason);
                 // Publish directly to ensure it's sent
                 logStreamingService.publishLog(executionId, message);
+                logStreamingService.publishProgress(executionId, progressTracker.testSkipped(testIdentifier));
                 logger.debug("Test skipped: {} - Reason: {} [{}]",
                     testIdentifier.getDisplayName(), reason, executionId);
 
                 // Record test skipped to Allure
-                String testCaseId = testIdentifier.getUniqueId();
-                allureLifecycle.startTestCase(testCaseId);
-                allureLifecycle.updateTestCase(testCaseId, result -> {
-                    result.setName(testIdentifier.getDisplayName());
-                    result.setFullName(testIdentifier.getDisplayName());
-                    result.setStatus(Status.SKIPPED);
-                    result.setStatusDetails(new io.qameta.allure.model.StatusDetails().setMessage(reason));
-                });
-                allureLifecycle.stopTestCase(testCaseId);
-                allureLifecycle.writeTestCase(testCaseId);
+                writeSkippedAllureResult(testIdentifier, reason);
             }
         }
         
+        /**
+         * Schedules an Allure result for a test. Unique IDs contain '/' and cannot name result
+         * files, so results get a random UUID and carry the unique ID as their testCaseId.
+         */
+        private String scheduleAllureResult(TestIdentifier testIdentifier) {
+            String uuid = UUID.randomUUID().toString();
+            String testCaseId = testIdentifier.getUniqueId();
+            TestResult result = new TestResult()
+                .setUuid(uuid)
+                .setName(testIdentifier.getDisplayName())
+                .setFullName(testIdentifier.getDisplayName())
+                .setTestCaseId(testCaseId)
+                .setHistoryId(UUID.nameUUIDFromBytes(testCaseId.getBytes(StandardCharsets.UTF_8)).toString());
+            result.getLabels().add(new Label().setName("suite").setValue(testIdentifier.getSource().map(Object::toString).orElse("Unknown")));
+            result.getLabels().add(new Label().setName("testId").setValue(testCaseId));
+            allureLifecycle.scheduleTestCase(result);
+            return uuid;
+        }
+        
+        private void writeSkippedAllureResult(TestIdentifier testIdentifier, String reason) {
+            String uuid = scheduleAllureResult(testIdentifier);
+            allureLifecycle.startTestCase(uuid);
+            allureLifecycle.updateTestCase(uuid, result -> {
+                result.setStatus(Status.SKIPPED);
+                result.setStatusDetails(new io.qameta.allure.model.StatusDetails().setMessage(reason));
+            });
+            allureLifecycle.stopTestCase(uuid);
+            allureLifecycle.writeTestCase(uuid);
+        }
+        
         private Status convertToAllureStatus(org.junit.platform.engine.TestExecutionResult.Status status) {
             switch (status) {
                 case SUCCESSFUL:
@@ -131,12 +131,9 @@ function testLauncher() {
                 const executionResponse = await response.json();
                 this.executionId = executionResponse.executionId;
                 
-                // Start streaming logs
+                // Start streaming logs and progress
                 this.streamLogs();
                 
-                // Poll for execution status
-                this.pollExecutionStatus();
-                
             } catch (error) {
                 this.executionStatus = 'FAILED';
                 this.logs.push(`ERROR: ${error.message}`);
@@ -187,6 +184,11 @@ function testLauncher() {
                 });
             });
             
+            // Listen for 'progress' events carrying execution state as JSON
+            this.eventSource.addEventListener('progress', (event) => {
+                this.handleProgress(JSON.parse(event.data));
+            });
+            
             // Also listen for default message events as fallback
             this.eventSource.onmessage = (event) => {
                 console.log('Received message event:', event.data);
@@ -218,45 +220,41 @@ function testLauncher() {
             };
         },
         
-        async pollExecutionStatus() {
-            const pollInterval = setInterval(async () => {
-                try {
-                    const response = await fetch(`/api/status/${this.executionId}`);
-                    
-                    if (!response.ok) {
-                        clearInterval(pollInterval);
-                        return;
-                    }
-                    
-                    const status = await response.json();
-                    this.executionStatus = status.status;
-                    
-                    // Update test results if available
-                    if (status.testResults) {
-                        this.testResults = status.testResults;
-                    }
-                    
-                    // Check if execution is complete
-                    if (status.status === 'COMPLETED' || status.status === 'CANCELLED' || status.status === 'FAILED') {
-                        clearInterval(pollInterval);
-                        this.executing = false;
-                        
-                        // Close SSE connection
-                        if (this.eventSource) {
-                            this.eventSource.close();
-                            this.eventSource = null;
-                        }
-                        
-                        // Get report ID if available
-                        if (status.reportId) {
-                            this.reportId = status.reportId;
-                        }
-                    }
-                } catch (error) {
-                    console.error('Status polling error:', error);
-                    clearInterval(pollInterval);
+        handleProgress(progress) {
+            this.executionStatus = progress.executionStatus;
+            
+            // Update test results from finished and skipped tests
+            if (progress.testId && progress.status) {
+                const result = {
+                    testId: progress.testId,
+                    testName: progress.testName,
+                    status: progress.status
+                };
+                const index = this.testResults.findIndex(r => r.testId === progress.testId);
+                if (index >= 0) {
+                    this.testResults.splice(index, 1, result);
+                } else {
+                    this.testResults.push(result);
                 }
-            }, 1000); // Poll every second
+            }
+            
+            if (progress.type === 'EXECUTION_FINISHED') {
+                this.executing = false;
+            }
+            
+            // Get report ID if available
+            if (progress.reportId) {
+                this.reportId = progress.reportId;
+            }
+            
+            // The stream ends with the execution, or with the report when one is being generated
+            const finished = (progress.type === 'EXECUTION_FINISHED' && !progress.reportPending)
+                || progress.type === 'REPORT_READY'
+                || progress.type === 'REPORT_FAILED';
+            if (finished && this.eventSource) {
+                this.eventSource.close();
+                this.eventSource = null;
+            }
         },
         
         async cancelExecution() {
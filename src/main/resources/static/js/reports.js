@@ -4,6 +4,13 @@ function reportsAndLogs() {
         reports: [],
         loadingReports: false,
         reportsError: null,
+        reportsCursor: null,
+        reportFilters: {
+            status: '',
+            combinedOnly: false,
+            from: '',
+            to: ''
+        },
         viewingReportId: null,
         rerunningReports: {},
         
@@ -38,18 +45,38 @@ function reportsAndLogs() {
         },
         
         // Reports methods
-        async loadReports() {
+        async loadReports(append = false) {
             this.loadingReports = true;
             this.reportsError = null;
             
             try {
-                const response = await fetch('/api/reports');
+                // Reports are fetched a page at a time, newest first
+                const params = new URLSearchParams({ limit: '50' });
+                if (this.reportFilters.status) {
+                    params.set('status', this.reportFilters.status);
+                }
+                if (this.reportFilters.combinedOnly) {
+                    params.set('combinedOnly', 'true');
+                }
+                if (this.reportFilters.from) {
+                    params.set('from', this.reportFilters.from);
+                }
+                if (this.reportFilters.to) {
+                    params.set('to', this.reportFilters.to);
+                }
+                if (append && this.reportsCursor) {
+                    params.set('cursor', this.reportsCursor);
+                }
+                
+                const response = await fetch(`/api/reports?${params}`);
                 
                 if (!response.ok) {
                     throw new Error(`Failed to load reports: ${response.statusText}`);
                 }
                 
-                this.reports = await response.json();
+                const page = await response.json();
+                this.reports = append ? this.reports.concat(page.reports) : page.reports;
+                this.reportsCursor = page.nextCursor;
             } catch (error) {
                 this.reportsError = error.message;
                 console.error('Reports loading error:', error);
@@ -0,0 +1,109 @@
+package com.junit.launcher.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Unit tests for AsyncConfig.
+ */
+class AsyncConfigTest {
+
+    @Test
+    void testOrchestrationExecutor_platformModeUsesPoolThatGrowsBeforeQueueing() {
+        ThreadPoolTaskExecutor executor = platformPool(createConfig("platform").orchestrationExecutor());
+
+        try {
+            assertEquals(AsyncConfig.ORCHESTRATION_THREADS, executor.getCorePoolSize());
+            assertEquals(AsyncConfig.ORCHESTRATION_THREADS, executor.getMaxPoolSize());
+            assertEquals(AsyncConfig.ORCHESTRATION_QUEUE_CAPACITY, executor.getQueueCapacity());
+            assertTrue(executor.getThreadPoolExecutor().allowsCoreThreadTimeOut());
+            assertEquals("orchestration-", executor.getThreadNamePrefix());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testStreamingExecutor_platformModeUsesItsOwnPool() {
+        ThreadPoolTaskExecutor executor = platformPool(createConfig("platform").streamingExecutor());
+
+        try {
+            assertEquals(AsyncConfig.STREAMING_THREADS, executor.getCorePoolSize());
+            assertEquals(AsyncConfig.STREAMING_THREADS, executor.getMaxPoolSize());
+            assertEquals(AsyncConfig.STREAMING_QUEUE_CAPACITY, executor.getQueueCapacity());
+            assertTrue(executor.getThreadPoolExecutor().allowsCoreThreadTimeOut());
+            assertEquals("streaming-", executor.getThreadNamePrefix());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testConfigureAsyncSupport_usesStreamingExecutor() {
+        CapturingAsyncSupportConfigurer configurer = new CapturingAsyncSupportConfigurer();
+
+        createConfig("platform").configureAsyncSupport(configurer);
+
+        ThreadPoolTaskExecutor executor = platformPool(configurer.taskExecutor());
+        try {
+            assertEquals("streaming-", executor.getThreadNamePrefix());
+            assertEquals(1800000L, configurer.timeout());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testExecutors_virtualModeFallsBackBeforeJava21() {
+        assumeTrue(!AsyncConfig.isVirtualThreadSupported());
+        AsyncConfig config = createConfig("virtual");
+
+        ThreadPoolTaskExecutor orchestration = platformPool(config.orchestrationExecutor());
+        ThreadPoolTaskExecutor streaming = platformPool(config.streamingExecutor());
+
+        assertEquals(AsyncConfig.ORCHESTRATION_THREADS, orchestration.getMaxPoolSize());
+        assertEquals(AsyncConfig.STREAMING_THREADS, streaming.getMaxPoolSize());
+        orchestration.shutdown();
+        streaming.shutdown();
+    }
+
+    @Test
+    void testExecutors_virtualModeUsesVirtualThreadPerTask() {
+        assumeTrue(AsyncConfig.isVirtualThreadSupported());
+        AsyncConfig config = createConfig("virtual");
+
+        assertTrue(config.orchestrationExecutor() instanceof SimpleAsyncTaskExecutor);
+        assertTrue(config.streamingExecutor() instanceof SimpleAsyncTaskExecutor);
+    }
+
+    private AsyncConfig createConfig(String threadMode) {
+        ExecutionProperties properties = new ExecutionProperties();
+        properties.setThreadMode(threadMode);
+        return new AsyncConfig(properties);
+    }
+
+    private ThreadPoolTaskExecutor platformPool(AsyncTaskExecutor executor) {
+        assertTrue(executor instanceof ThreadPoolTaskExecutor, "Platform threads should come from a bounded pool");
+        return (ThreadPoolTaskExecutor) executor;
+    }
+
+    /**
+     * Exposes what the configuration registered for MVC async handling.
+     */
+    private static class CapturingAsyncSupportConfigurer extends AsyncSupportConfigurer {
+
+        AsyncTaskExecutor taskExecutor() {
+            return getTaskExecutor();
+        }
+
+        Long timeout() {
+            return getTimeout();
+        }
+    }
+}
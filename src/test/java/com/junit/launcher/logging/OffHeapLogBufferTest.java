@@ -0,0 +1,83 @@
+package com.junit.launcher.logging;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for OffHeapLogBuffer.
+ */
+class OffHeapLogBufferTest {
+    
+    private DirectBufferPool pool;
+    
+    @BeforeEach
+    void setUp() {
+        // Tiny segments force multi-byte characters to land on segment boundaries
+        pool = new DirectBufferPool(16, 8);
+    }
+    
+    @Test
+    void testAppend_readsBackExactTextAcrossSegments() {
+        OffHeapLogBuffer buffer = new OffHeapLogBuffer(pool);
+        String first = "[TEST STARTED] café ✓\n";
+        String second = "emoji 😀 and more text spanning segments\n";
+        
+        buffer.append(first);
+        buffer.append(second);
+        
+        assertEquals(first + second, buffer.readAll());
+        assertEquals((first + second).getBytes(StandardCharsets.UTF_8).length, buffer.size());
+    }
+    
+    @Test
+    void testForEachChunk_yieldsIndependentlyDecodableSegments() {
+        OffHeapLogBuffer buffer = new OffHeapLogBuffer(pool);
+        String text = "éééééééééééé";
+        buffer.append(text);
+        
+        List<String> chunks = new ArrayList<>();
+        buffer.forEachChunk(chunks::add);
+        
+        assertTrue(chunks.size() > 1, "Text should span several segments");
+        chunks.forEach(chunk -> assertFalse(chunk.contains("�"), "No character may be split"));
+        assertEquals(text, String.join("", chunks));
+    }
+    
+    @Test
+    void testRelease_returnsSegmentsToPool() {
+        OffHeapLogBuffer buffer = new OffHeapLogBuffer(pool);
+        buffer.append("0123456789abcdefghijklmnopqrstuvwxyz");
+        int allocated = pool.getAllocatedSegments();
+        
+        buffer.release();
+        
+        assertEquals(allocated, pool.getPooledSegments(), "All segments should be back in the pool");
+        assertEquals("", buffer.readAll());
+        
+        // A new buffer reuses pooled segments instead of allocating
+        new OffHeapLogBuffer(pool).append("reuse");
+        assertEquals(allocated, pool.getAllocatedSegments());
+    }
+    
+    @Test
+    void testRelease_duringReadDefersReturnToPool() {
+        OffHeapLogBuffer buffer = new OffHeapLogBuffer(pool);
+        buffer.append("0123456789abcdefghijklmnopqrstuvwxyz");
+        
+        StringBuilder read = new StringBuilder();
+        buffer.forEachChunk(chunk -> {
+            buffer.release();
+            assertEquals(0, pool.getPooledSegments(), "Segments must stay reserved while being read");
+            read.append(chunk);
+        });
+        
+        assertEquals("0123456789abcdefghijklmnopqrstuvwxyz", read.toString());
+        assertTrue(pool.getPooledSegments() > 0);
+    }
+}
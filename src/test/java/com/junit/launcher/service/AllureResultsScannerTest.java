@@ -0,0 +1,169 @@
+package com.junit.launcher.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.junit.launcher.model.ExecutionSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AllureResultsScanner.
+ */
+class AllureResultsScannerTest {
+
+    private static final String[] STATUSES = {"passed", "failed", "broken", "skipped", "unknown"};
+    // Run with -Pbenchmark -Dscanner.benchmark.results=100000 to benchmark the larger scale
+    private static final int BENCHMARK_RESULTS = Integer.getInteger("scanner.benchmark.results", 10_000);
+
+    @TempDir
+    Path tempDir;
+
+    private final AllureResultsScanner scanner = new AllureResultsScanner(4);
+
+    @AfterEach
+    void tearDown() {
+        scanner.close();
+    }
+
+    @Test
+    void testClose_rejectsLaterScans() throws Exception {
+        Files.writeString(tempDir.resolve("a-result.json"), "{\"uuid\":\"a\",\"status\":\"passed\"}");
+
+        scanner.close();
+
+        assertThrows(RejectedExecutionException.class, () -> scanner.scan("exec", tempDir));
+    }
+
+    @Test
+    void testScan_ignoresStatusesNestedInSteps() throws Exception {
+        Files.writeString(tempDir.resolve("a-result.json"),
+            "{\"uuid\":\"a\",\"steps\":[{\"name\":\"step\",\"status\":\"failed\",\"steps\":[]}]," +
+            "\"labels\":[{\"name\":\"testId\",\"value\":\"x\"}],\"status\":\"passed\"," +
+            "\"testCaseId\":\"TestClass.test\",\"start\":1000,\"stop\":1250}");
+
+        ExecutionSummary summary = scanner.scan("exec", tempDir);
+
+        assertEquals(1, summary.getTotalTests());
+        assertEquals(1, summary.getPassedTests());
+        assertEquals(0, summary.getFailedTests());
+        assertEquals(250, summary.getDurationMillis());
+    }
+
+    @Test
+    void testScan_skipsUnreadableFilesAndOtherFiles() throws Exception {
+        Files.writeString(tempDir.resolve("a-result.json"), "{\"status\":\"failed\",\"testCaseId\":\"A\"}");
+        Files.writeString(tempDir.resolve("b-result.json"), "{\"status\":");
+        Files.writeString(tempDir.resolve("c-container.json"), "{\"status\":\"passed\"}");
+
+        ExecutionSummary summary = scanner.scan("exec", tempDir);
+
+        assertEquals(1, summary.getTotalTests());
+        assertEquals(List.of("A"), summary.getFailedTestIds());
+    }
+
+    @Test
+    void testScan_returnsEmptySummaryForMissingDirectory() throws Exception {
+        ExecutionSummary summary = scanner.scan("exec", tempDir.resolve("missing"));
+
+        assertEquals(0, summary.getTotalTests());
+    }
+
+    @Test
+    void testScan_matchesTreeParsingOnSyntheticResults() throws Exception {
+        writeSyntheticResults(2000);
+
+        ExecutionSummary summary = scanner.scan("exec", tempDir);
+
+        // Reference counts from full tree parsing, as report metadata used to be built
+        ObjectMapper objectMapper = new ObjectMapper();
+        int passed = 0;
+        int failed = 0;
+        int skipped = 0;
+        List<String> failedIds = new ArrayList<>();
+        List<String> brokenIds = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            JsonNode root = objectMapper.readTree(tempDir.resolve(String.format("%05d-result.json", i)).toFile());
+            String status = root.path("status").asText();
+            if ("passed".equals(status)) {
+                passed++;
+            } else if ("failed".equals(status)) {
+                failed++;
+                failedIds.add(root.path("testCaseId").asText());
+            } else if ("skipped".equals(status)) {
+                skipped++;
+            } else if ("broken".equals(status)) {
+                brokenIds.add(root.path("testCaseId").asText());
+            }
+        }
+
+        assertEquals(2000, summary.getTotalTests());
+        assertEquals(passed, summary.getPassedTests());
+        assertEquals(failed, summary.getFailedTests());
+        assertEquals(skipped, summary.getSkippedTests());
+        assertEquals(failedIds, summary.getFailedTestIds());
+        assertEquals(brokenIds, summary.getBrokenTestIds());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void testScan_keepsPaceWithTreeParsingAtScale() throws Exception {
+        writeSyntheticResults(BENCHMARK_RESULTS);
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        // Best of a few rounds, so the comparison is not skewed by warm-up
+        long scanMillis = Long.MAX_VALUE;
+        long treeMillis = Long.MAX_VALUE;
+        ExecutionSummary summary = null;
+        int treePassed = 0;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            summary = scanner.scan("exec", tempDir);
+            scanMillis = Math.min(scanMillis, (System.nanoTime() - start) / 1_000_000);
+
+            start = System.nanoTime();
+            treePassed = 0;
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(tempDir, "*-result.json")) {
+                for (Path file : files) {
+                    if ("passed".equals(objectMapper.readTree(file.toFile()).path("status").asText())) {
+                        treePassed++;
+                    }
+                }
+            }
+            treeMillis = Math.min(treeMillis, (System.nanoTime() - start) / 1_000_000);
+        }
+
+        assertEquals(BENCHMARK_RESULTS, summary.getTotalTests());
+        assertEquals(treePassed, summary.getPassedTests());
+        // Even without spare cores streaming should cost no more than building a tree per file
+        String timings = BENCHMARK_RESULTS + " results: scanner " + scanMillis + "ms, tree parsing " + treeMillis + "ms, "
+            + Runtime.getRuntime().availableProcessors() + " processors";
+        assertTrue(scanMillis <= treeMillis * 3 / 2 + 100, timings);
+        if (Runtime.getRuntime().availableProcessors() >= 4) {
+            assertTrue(scanMillis < treeMillis, timings);
+        }
+    }
+
+    private void writeSyntheticResults(int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            String status = STATUSES[i % STATUSES.length];
+            String json = String.format(
+                "{\"uuid\":\"%05d\",\"name\":\"test%d\",\"status\":\"%s\",\"statusDetails\":{\"message\":\"m\"}," +
+                "\"steps\":[{\"name\":\"s\",\"status\":\"passed\"}],\"testCaseId\":\"TestClass.test%d\"," +
+                "\"start\":%d,\"stop\":%d}",
+                i, i, status, i, 1000 + i, 1010 + i);
+            Files.writeString(tempDir.resolve(String.format("%05d-result.json", i)), json);
+        }
+    }
+}
@@ -1,17 +1,36 @@
 package com.junit.launcher.service;
 
 import com.junit.launcher.config.StorageProperties;
+import com.junit.launcher.model.ExecutionSummary;
+import com.junit.launcher.model.ExportRequest;
 import com.junit.launcher.model.LogFileMetadata;
+import com.junit.launcher.model.LogSearchResult;
+import com.junit.launcher.model.ReportAsset;
 import com.junit.launcher.model.ReportMetadata;
+import com.junit.launcher.model.ReportPage;
+import com.junit.launcher.model.ReportQuery;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -26,6 +45,9 @@ class ArchiveServiceImplTest {
     private ArchiveService archiveService;
     private StorageProperties storageProperties;
     private ReportService mockReportService;
+    private ReportFileStore reportFileStore;
+    private ColdReportStore coldReportStore;
+    private final List<ReportMetadata> reports = new ArrayList<>();
     
     @BeforeEach
     void setUp() {
@@ -41,9 +63,19 @@ class ArchiveServiceImplTest {
                 return null;
             }
             
+            @Override
+            public ReportMetadata generateReport(String executionId, ExecutionSummary summary) throws Exception {
+                return generateReport(executionId);
+            }
+            
             @Override
             public List<ReportMetadata> listReports() {
-                return List.of();
+                return reports;
+            }
+            
+            @Override
+            public ReportPage queryReports(ReportQuery query) {
+                return new ReportPage();
             }
             
             @Override
@@ -53,6 +85,14 @@ class ArchiveServiceImplTest {
             
             @Override
             public ReportMetadata getReportMetadata(String reportId) {
+                return reports.stream()
+                    .filter(report -> report.getReportId().equals(reportId))
+                    .findFirst()
+                    .orElse(null);
+            }
+            
+            @Override
+            public ReportAsset getReportAsset(String reportId, String filePath) {
                 return null;
             }
             
@@ -60,14 +100,47 @@ class ArchiveServiceImplTest {
             public List<String> getFailedTests(String reportId) throws Exception {
                 return List.of();
             }
+            
+            @Override
+            public long deleteReport(String reportId) {
+                return 0;
+            }
+            
+            @Override
+            public List<String> listIdleReports() {
+                return List.of();
+            }
+            
+            @Override
+            public long demoteReport(String reportId) {
+                return 0;
+            }
+            
+            @Override
+            public boolean rehydrateReport(String reportId) {
+                return false;
+            }
+            
+            @Override
+            public ZipFile openColdArchive(String reportId) throws Exception {
+                return coldReportStore != null ? coldReportStore.openArchive(reportId) : null;
+            }
+            
+            @Override
+            public long collectGarbage() {
+                return 0;
+            }
         };
         
-        archiveService = new ArchiveServiceImpl(storageProperties, mockReportService);
+        reportFileStore = ReportFileStore.create(storageProperties);
+        archiveService = new ArchiveServiceImpl(storageProperties, mockReportService,
+            new LogIndexServiceImpl(storageProperties), reportFileStore);
     }
     
     @AfterEach
     void tearDown() throws Exception {
-        // Cleanup is handled by @TempDir
+        // Files are cleaned up by @TempDir
+        ((ArchiveServiceImpl) archiveService).close();
     }
     
     @Test
@@ -153,6 +226,120 @@ class ArchiveServiceImplTest {
         assertNull(logs, "Should return null for non-existent file");
     }
     
+    @Test
+    void testArchiveLogs_TemplateFormatRoundTrips() throws Exception {
+        // Given
+        storageProperties.setLogFormat("template");
+        String logs = "[TEST STARTED] testOne()\n[TEST FINISHED] testOne() - Status: SUCCESSFUL\n";
+        
+        // When
+        archiveService.archiveLogs("exec-1", logs);
+        
+        // Then
+        List<LogFileMetadata> logFiles = archiveService.listLogFiles();
+        assertEquals(1, logFiles.size(), "Template-encoded logs should be listed");
+        assertTrue(logFiles.get(0).getLogId().endsWith(".logt"));
+        assertEquals(logs, archiveService.getLogFile(logFiles.get(0).getLogId()));
+    }
+    
+    @Test
+    void testSearchLogs_FindsArchivedLogLines() throws Exception {
+        // Given
+        archiveService.archiveLogs("exec-1", "Starting\njava.lang.NullPointerException: boom\nDone");
+        archiveService.archiveLogs("exec-2", "Starting\nDone");
+        
+        // When
+        List<LogSearchResult> results = archiveService.searchLogs("NullPointerException", 10);
+        
+        // Then
+        assertEquals(1, results.size(), "Only the log containing the exception should match");
+        assertEquals("exec-1", results.get(0).getExecutionId());
+        assertEquals(List.of(2), results.get(0).getLineNumbers());
+        assertFalse(results.get(0).getTimestamp().isEmpty(), "Timestamp should be derived from the log file name");
+    }
+    
+    @Test
+    void testSearchLogs_IndexesLogsArchivedBeforeIndexExistedInBackground() throws Exception {
+        // Given a log written directly to disk, bypassing the index, before the service starts
+        Path logsDir = Paths.get(storageProperties.getLogsPath());
+        Files.createDirectories(logsDir);
+        Files.writeString(logsDir.resolve("execution-2024-01-01_10-00-00_abcd1234.log"), "legacy failure line");
+        ((ArchiveServiceImpl) archiveService).close();
+        archiveService = new ArchiveServiceImpl(storageProperties, mockReportService,
+            new LogIndexServiceImpl(storageProperties), reportFileStore);
+        
+        // When
+        assertTrue(((ArchiveServiceImpl) archiveService).awaitLogIndexBackfill(10, TimeUnit.SECONDS));
+        List<LogSearchResult> results = archiveService.searchLogs("legacy failure", 10);
+        
+        // Then
+        assertEquals(1, results.size());
+        assertEquals("execution-2024-01-01_10-00-00_abcd1234.log", results.get(0).getLogId());
+        assertEquals("2024-01-01_10-00-00", results.get(0).getTimestamp());
+    }
+    
+    @Test
+    void testSearchLogs_BackfillIndexesLogsUnderTheirExecutionId() throws Exception {
+        // Given an archived log copied to a logs directory without an index
+        archiveService.archiveLogs("exec-1", "restored failure line");
+        Path restoredLogsDir = tempDir.resolve("restored-logs");
+        Files.createDirectories(restoredLogsDir);
+        try (Stream<Path> logFiles = Files.list(Paths.get(storageProperties.getLogsPath()))) {
+            for (Path logFile : logFiles.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                Files.copy(logFile, restoredLogsDir.resolve(logFile.getFileName()));
+            }
+        }
+        ((ArchiveServiceImpl) archiveService).close();
+        storageProperties.setLogsPath(restoredLogsDir.toString());
+        archiveService = new ArchiveServiceImpl(storageProperties, mockReportService,
+            new LogIndexServiceImpl(storageProperties), reportFileStore);
+
+        // When
+        assertTrue(((ArchiveServiceImpl) archiveService).awaitLogIndexBackfill(10, TimeUnit.SECONDS));
+        List<LogSearchResult> results = archiveService.searchLogs("restored failure", 10);
+
+        // Then
+        assertEquals(1, results.size());
+        assertEquals("exec-1", results.get(0).getExecutionId());
+        assertEquals("exec-1", archiveService.listLogFiles().get(0).getExecutionId());
+        assertFalse(results.get(0).getTimestamp().contains("exec-1"));
+    }
+
+    @Test
+    void testSearchLogs_doesNotWaitForRunningBackfill() throws Exception {
+        // Given a backfill held up on its first log
+        Path logsDir = Paths.get(storageProperties.getLogsPath());
+        Files.createDirectories(logsDir);
+        Files.writeString(logsDir.resolve("execution-2024-01-01_10-00-00_abcd1234.log"), "legacy failure line");
+        CountDownLatch backfillStarted = new CountDownLatch(1);
+        CountDownLatch releaseBackfill = new CountDownLatch(1);
+        LogIndexServiceImpl logIndexService = new LogIndexServiceImpl(storageProperties) {
+            @Override
+            public void indexLog(String logId, String executionId, String content) throws IOException {
+                backfillStarted.countDown();
+                try {
+                    releaseBackfill.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.indexLog(logId, executionId, content);
+            }
+        };
+        ((ArchiveServiceImpl) archiveService).close();
+        archiveService = new ArchiveServiceImpl(storageProperties, mockReportService, logIndexService, reportFileStore);
+        assertTrue(backfillStarted.await(10, TimeUnit.SECONDS));
+        
+        try {
+            // When/Then searches answer from what is indexed so far
+            assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> assertTrue(archiveService.searchLogs("legacy failure", 10).isEmpty()));
+        } finally {
+            releaseBackfill.countDown();
+        }
+        assertTrue(((ArchiveServiceImpl) archiveService).awaitLogIndexBackfill(10, TimeUnit.SECONDS));
+        assertEquals(1, archiveService.searchLogs("legacy failure", 10).size());
+    }
+    
     @Test
     void testCreateReportArchive_NonExistentReport() {
         // When/Then
@@ -188,6 +375,163 @@ class ArchiveServiceImplTest {
         assertTrue(Files.size(zipFile) > 0, "ZIP file should not be empty");
     }
     
+    @Test
+    void testWriteReportArchive_StreamsZipWithoutTempFiles() throws Exception {
+        // Given
+        String reportId = "test-report";
+        Path reportDir = writeTestReport(reportId);
+        
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        archiveService.writeReportArchive(reportId, out);
+        
+        // Then
+        assertEquals(List.of("assets/style.css", "data.json", "index.html"), zipEntryNames(out.toByteArray()));
+        try (Stream<Path> files = Files.list(reportDir.getParent())) {
+            assertEquals(List.of(reportDir), files.collect(Collectors.toList()), "No archive should be left behind");
+        }
+    }
+    
+    @Test
+    void testWriteReportArchive_ReusesCachedArchive() throws Exception {
+        // Given
+        storageProperties.setReportArchiveCache(true);
+        String reportId = "test-report";
+        writeTestReport(reportId);
+        
+        // When
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        archiveService.writeReportArchive(reportId, first);
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+        archiveService.writeReportArchive(reportId, second);
+        
+        // Then
+        assertArrayEquals(first.toByteArray(), second.toByteArray());
+        Path cachedArchive = archiveService.createReportArchive(reportId);
+        assertArrayEquals(first.toByteArray(), Files.readAllBytes(cachedArchive));
+        try (Stream<Path> files = Files.list(cachedArchive.getParent())) {
+            assertEquals(1, files.count(), "One archive should be cached");
+        }
+    }
+    
+    @Test
+    void testWriteReportArchive_KeepsCachedArchiveWhenBlobsAreShared() throws Exception {
+        // Given a blob-stored report whose archive is cached
+        storageProperties.setReportArchiveCache(true);
+        storageProperties.setReportFormat("blobs");
+        reportFileStore = ReportFileStore.create(storageProperties);
+        archiveService = new ArchiveServiceImpl(storageProperties, mockReportService,
+            new LogIndexServiceImpl(storageProperties), reportFileStore);
+        reportFileStore.store(writeTestReport("test-report"));
+        Path cachedArchive = archiveService.createReportArchive("test-report");
+        Files.setLastModifiedTime(reportFileStore.resolve(
+            tempDir.resolve("reports/test-report"), "index.html"), FileTime.fromMillis(0));
+        
+        // When another report stores the same files, touching the shared blobs
+        reportFileStore.store(writeTestReport("other-report"));
+        
+        // Then the cached archive is still used
+        assertEquals(cachedArchive, archiveService.createReportArchive("test-report"));
+    }
+    
+    @Test
+    void testWriteReportArchive_SeesReportMovedThroughSharedStore() throws Exception {
+        // Given a packed report whose archive the download opened
+        storageProperties.setReportFormat("zip");
+        reportFileStore = ReportFileStore.create(storageProperties);
+        archiveService = new ArchiveServiceImpl(storageProperties, mockReportService,
+            new LogIndexServiceImpl(storageProperties), reportFileStore);
+        String reportId = "test-report";
+        Path reportDir = writeTestReport(reportId);
+        reportFileStore.store(reportDir);
+        archiveService.writeReportArchive(reportId, new ByteArrayOutputStream());
+        
+        // When the report is moved to cold storage and back through the same store
+        ColdReportStore coldStore = new ColdReportStore(tempDir.resolve("cold"), reportFileStore, 1);
+        Path resultsDir = tempDir.resolve("allure-results/exec-1");
+        coldStore.demote(reportId, reportDir, resultsDir);
+        coldStore.rehydrate(reportId, reportDir, resultsDir);
+        
+        // Then the download lists each file once
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        archiveService.writeReportArchive(reportId, out);
+        assertEquals(List.of("assets/style.css", "data.json", "index.html"), zipEntryNames(out.toByteArray()));
+    }
+    
+    @Test
+    void testExportArchive_StreamsSelectedReportsResultsAndLogs() throws Exception {
+        // Given
+        Path januaryReport = writeTestReport("allure-report-2024-01-15_10-00-00");
+        writeTestReport("allure-report-2024-02-01_10-00-00");
+        reports.add(reportMetadata("allure-report-2024-01-15_10-00-00", "exec-1", "2024-01-15_10-00-00", januaryReport));
+        reports.add(reportMetadata("allure-report-2024-02-01_10-00-00", "exec-2", "2024-02-01_10-00-00",
+            Paths.get(storageProperties.getReportsPath(), "allure-report-2024-02-01_10-00-00")));
+        Path resultsDir = Paths.get(storageProperties.getAllureResultsPath(), "exec-1");
+        Files.createDirectories(resultsDir);
+        Files.writeString(resultsDir.resolve("a-result.json"), "{\"uuid\":\"a\"}");
+        Path logsDir = Paths.get(storageProperties.getLogsPath());
+        Files.createDirectories(logsDir);
+        Files.writeString(logsDir.resolve("execution-2024-01-20_09-00-00_abcd1234.log"), "january");
+        Files.writeString(logsDir.resolve("execution-2024-03-01_09-00-00_abcd1234.log"), "march");
+        
+        ExportRequest request = new ExportRequest();
+        request.setFrom("2024-01");
+        request.setTo("2024-02");
+        request.setLogIds(List.of("execution-2024-03-01_09-00-00_abcd1234.log", "../secret.log"));
+        
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        archiveService.exportArchive(request, out);
+        
+        // Then
+        assertEquals(List.of(
+            "reports/allure-report-2024-01-15_10-00-00/assets/style.css",
+            "reports/allure-report-2024-01-15_10-00-00/data.json",
+            "reports/allure-report-2024-01-15_10-00-00/index.html",
+            "results/exec-1/a-result.json",
+            "logs/execution-2024-01-20_09-00-00_abcd1234.log",
+            "logs/execution-2024-03-01_09-00-00_abcd1234.log"), zipEntryNames(out.toByteArray()));
+    }
+    
+    @Test
+    void testExportArchive_CopiesColdReportsFromTheirArchiveWithoutRehydrating() throws Exception {
+        // Given a cold report and its results
+        String reportId = "allure-report-2024-01-15_10-00-00";
+        Path reportDir = writeTestReport(reportId);
+        Files.writeString(reportDir.resolve("metadata.json"), "{}");
+        reports.add(reportMetadata(reportId, "exec-1", "2024-01-15_10-00-00", reportDir));
+        Path resultsDir = Paths.get(storageProperties.getAllureResultsPath(), "exec-1");
+        Files.createDirectories(resultsDir);
+        Files.writeString(resultsDir.resolve("a-result.json"), "{\"uuid\":\"a\"}");
+        coldReportStore = new ColdReportStore(tempDir.resolve("cold"), reportFileStore, 1);
+        coldReportStore.demote(reportId, reportDir, resultsDir);
+        
+        ExportRequest request = new ExportRequest();
+        request.setReportIds(List.of(reportId));
+        request.setIncludeLogs(false);
+        
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        archiveService.exportArchive(request, out);
+        
+        // Then the export holds all files while the report stays cold
+        assertEquals(List.of(
+            "reports/" + reportId + "/metadata.json",
+            "reports/" + reportId + "/assets/style.css",
+            "reports/" + reportId + "/data.json",
+            "reports/" + reportId + "/index.html",
+            "results/exec-1/a-result.json"), zipEntryNames(out.toByteArray()));
+        assertTrue(coldReportStore.isCold(reportId));
+        assertFalse(Files.exists(reportDir.resolve("index.html")));
+        assertFalse(Files.exists(resultsDir));
+    }
+    
+    @Test
+    void testExportArchive_RejectsEmptySelection() {
+        assertThrows(IllegalArgumentException.class,
+            () -> archiveService.exportArchive(new ExportRequest(), new ByteArrayOutputStream()));
+    }
+    
     @Test
     void testListReports_DelegatesToReportService() {
         // When
@@ -197,4 +541,33 @@ class ArchiveServiceImplTest {
         assertNotNull(reports);
         assertEquals(0, reports.size(), "Should delegate to ReportService");
     }
+    
+    private Path writeTestReport(String reportId) throws IOException {
+        Path reportDir = Paths.get(storageProperties.getReportsPath(), reportId);
+        Files.createDirectories(reportDir.resolve("assets"));
+        Files.writeString(reportDir.resolve("index.html"), "<html>Test Report</html>");
+        Files.writeString(reportDir.resolve("data.json"), "{\"test\": \"data\"}");
+        Files.writeString(reportDir.resolve("assets/style.css"), "body { color: black; }");
+        return reportDir;
+    }
+    
+    private ReportMetadata reportMetadata(String reportId, String executionId, String timestamp, Path reportDir) {
+        ReportMetadata metadata = new ReportMetadata();
+        metadata.setReportId(reportId);
+        metadata.setExecutionId(executionId);
+        metadata.setTimestamp(timestamp);
+        metadata.setReportPath(reportDir.toString());
+        return metadata;
+    }
+    
+    private List<String> zipEntryNames(byte[] zip) throws IOException {
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                names.add(entry.getName());
+            }
+        }
+        return names;
+    }
 }
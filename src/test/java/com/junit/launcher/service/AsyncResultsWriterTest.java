@@ -0,0 +1,151 @@
+package com.junit.launcher.service;
+
+import io.qameta.allure.AllureResultsWriter;
+import io.qameta.allure.FileSystemResultsWriter;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.model.TestResultContainer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AsyncResultsWriter.
+ */
+class AsyncResultsWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testClose_writesAllQueuedResults() throws Exception {
+        AsyncResultsWriter writer = new AsyncResultsWriter(new FileSystemResultsWriter(tempDir), "test-writer");
+
+        for (int i = 0; i < 500; i++) {
+            writer.write(new TestResult().setUuid("uuid-" + i).setName("test" + i).setStatus(Status.PASSED));
+        }
+        writer.write("log-attachment.txt", new ByteArrayInputStream("log".getBytes(StandardCharsets.UTF_8)));
+        writer.close();
+
+        for (int i = 0; i < 500; i++) {
+            assertTrue(Files.exists(tempDir.resolve("uuid-" + i + "-result.json")));
+        }
+        assertEquals("log", Files.readString(tempDir.resolve("log-attachment.txt")));
+    }
+
+    @Test
+    void testWrite_runsOffTheCallingThread() throws Exception {
+        Set<Thread> writingThreads = ConcurrentHashMap.newKeySet();
+        AsyncResultsWriter writer = new AsyncResultsWriter(recordingWriter(writingThreads), "test-writer");
+
+        writer.write(new TestResult().setUuid("uuid"));
+        writer.flush();
+
+        assertEquals(1, writingThreads.size());
+        assertFalse(writingThreads.contains(Thread.currentThread()));
+        writer.close();
+    }
+
+    @Test
+    void testWrite_afterCloseWritesOnCallingThread() throws Exception {
+        Set<Thread> writingThreads = ConcurrentHashMap.newKeySet();
+        AsyncResultsWriter writer = new AsyncResultsWriter(recordingWriter(writingThreads), "test-writer");
+        writer.close();
+
+        writer.write(new TestResult().setUuid("late"));
+
+        assertEquals(Set.of(Thread.currentThread()), writingThreads);
+    }
+
+    @Test
+    void testClose_writesEverythingWhenInterrupted() throws Exception {
+        AsyncResultsWriter writer = new AsyncResultsWriter(new FileSystemResultsWriter(tempDir), "test-writer");
+        for (int i = 0; i < 200; i++) {
+            writer.write(new TestResult().setUuid("uuid-" + i).setStatus(Status.PASSED));
+        }
+
+        Thread.currentThread().interrupt();
+        try {
+            writer.close();
+            assertTrue(Thread.currentThread().isInterrupted(), "The interrupt should be kept for the caller");
+        } finally {
+            Thread.interrupted();
+        }
+
+        for (int i = 0; i < 200; i++) {
+            assertTrue(Files.exists(tempDir.resolve("uuid-" + i + "-result.json")));
+        }
+    }
+
+    @Test
+    void testClose_writesResultsRacingWithClose() throws Exception {
+        Set<String> written = ConcurrentHashMap.newKeySet();
+        AsyncResultsWriter writer = new AsyncResultsWriter(new AllureResultsWriter() {
+            @Override
+            public void write(TestResult testResult) {
+                written.add(testResult.getUuid());
+            }
+
+            @Override
+            public void write(TestResultContainer testResultContainer) {
+            }
+
+            @Override
+            public void write(String source, InputStream attachment) {
+            }
+        }, "test-writer");
+
+        ExecutorService testThreads = Executors.newFixedThreadPool(4);
+        CountDownLatch started = new CountDownLatch(4);
+        try {
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                testThreads.execute(() -> {
+                    started.countDown();
+                    for (int i = 0; i < 2_000; i++) {
+                        writer.write(new TestResult().setUuid(thread + "-" + i));
+                    }
+                });
+            }
+            started.await();
+            writer.close();
+        } finally {
+            testThreads.shutdown();
+            assertTrue(testThreads.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        assertEquals(8_000, written.size());
+    }
+
+    private AllureResultsWriter recordingWriter(Set<Thread> writingThreads) {
+        return new AllureResultsWriter() {
+            @Override
+            public void write(TestResult testResult) {
+                writingThreads.add(Thread.currentThread());
+            }
+
+            @Override
+            public void write(TestResultContainer testResultContainer) {
+                writingThreads.add(Thread.currentThread());
+            }
+
+            @Override
+            public void write(String source, InputStream attachment) {
+                writingThreads.add(Thread.currentThread());
+            }
+        };
+    }
+}
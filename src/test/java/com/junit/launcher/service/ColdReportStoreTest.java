@@ -0,0 +1,161 @@
+package com.junit.launcher.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ColdReportStore.
+ */
+class ColdReportStoreTest {
+
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testDemote_packsReportAndResultsAndKeepsMetadata() throws Exception {
+        ReportFileStore reportFileStore = new ReportFileStore(tempDir.resolve("reports/.blobs"), "blobs");
+        ColdReportStore coldStore = new ColdReportStore(tempDir.resolve("cold"), reportFileStore, 2);
+        Path report = writeReport("allure-report-1");
+        reportFileStore.store(report);
+        writeMetadata(report);
+        Path results = writeResults("exec-1");
+
+        coldStore.demote("allure-report-1", report, results);
+
+        assertTrue(coldStore.isCold("allure-report-1"));
+        assertTrue(Files.isRegularFile(tempDir.resolve("cold/allure-report-1.zip")));
+        assertFalse(Files.exists(report.resolve(ReportFileStore.MANIFEST_FILE)));
+        assertFalse(Files.exists(results));
+        assertEquals(List.of("failed-tests.json", "history/history.json", "metadata.json"), reportFileStore.list(report));
+        assertTrue(new ColdReportStore(tempDir.resolve("cold"), reportFileStore, 2).isCold("allure-report-1"));
+    }
+
+    @Test
+    void testRehydrate_restoresReportAndResults() throws Exception {
+        ReportFileStore reportFileStore = new ReportFileStore(tempDir.resolve("reports/.blobs"), "zip");
+        ColdReportStore coldStore = new ColdReportStore(tempDir.resolve("cold"), reportFileStore, 2);
+        Path report = writeReport("allure-report-1");
+        reportFileStore.store(report);
+        writeMetadata(report);
+        Path results = writeResults("exec-1");
+        coldStore.demote("allure-report-1", report, results);
+
+        assertTrue(coldStore.rehydrate("allure-report-1", report, results));
+
+        assertFalse(coldStore.isCold("allure-report-1"));
+        assertFalse(Files.exists(tempDir.resolve("cold/allure-report-1.zip")));
+        assertEquals("{\"suites\":[]}", Files.readString(reportFileStore.resolve(report, "data/suites.json")));
+        assertEquals("<html></html>", Files.readString(reportFileStore.resolve(report, "index.html")));
+        assertEquals("{\"status\":\"passed\"}", Files.readString(results.resolve("1-result.json")));
+        assertFalse(coldStore.rehydrate("allure-report-1", report, results));
+    }
+
+    @Test
+    void testRehydrate_waitsForOneRehydrationUnderConcurrentRequests() throws Exception {
+        ReportFileStore reportFileStore = new ReportFileStore(tempDir.resolve("reports/.blobs"), "directory");
+        ColdReportStore coldStore = new ColdReportStore(tempDir.resolve("cold"), reportFileStore, 1);
+        Path report = writeReport("allure-report-1");
+        Path results = writeResults("exec-1");
+        coldStore.demote("allure-report-1", report, results);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> rehydrations = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                rehydrations.add(executor.submit(() -> coldStore.rehydrate("allure-report-1", report, results)));
+            }
+            for (Future<Boolean> rehydration : rehydrations) {
+                rehydration.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertFalse(coldStore.isCold("allure-report-1"));
+        assertEquals("console.log('allure');", Files.readString(report.resolve("app.js")));
+    }
+
+    @Test
+    void testIsIdle_followsGenerationAndAccess() throws Exception {
+        ReportFileStore reportFileStore = new ReportFileStore(tempDir.resolve("reports/.blobs"), "directory");
+        ColdReportStore coldStore = new ColdReportStore(tempDir.resolve("cold"), reportFileStore, 2);
+        Path report = writeReport("allure-report-1");
+
+        assertFalse(coldStore.isIdle("allure-report-1", report, DAY_MILLIS));
+
+        Files.setLastModifiedTime(report, FileTime.fromMillis(System.currentTimeMillis() - 3 * DAY_MILLIS));
+        assertTrue(coldStore.isIdle("allure-report-1", report, DAY_MILLIS));
+
+        coldStore.recordAccess("allure-report-1", report);
+        assertFalse(coldStore.isIdle("allure-report-1", report, DAY_MILLIS));
+    }
+
+    @Test
+    void testDelete_removesArchive() throws Exception {
+        ReportFileStore reportFileStore = new ReportFileStore(tempDir.resolve("reports/.blobs"), "directory");
+        ColdReportStore coldStore = new ColdReportStore(tempDir.resolve("cold"), reportFileStore, 2);
+        Path report = writeReport("allure-report-1");
+        coldStore.demote("allure-report-1", report, writeResults("exec-1"));
+        long archiveSize = Files.size(tempDir.resolve("cold/allure-report-1.zip"));
+
+        assertEquals(archiveSize, coldStore.delete("allure-report-1"));
+
+        assertFalse(coldStore.isCold("allure-report-1"));
+        assertFalse(Files.exists(tempDir.resolve("cold/allure-report-1.zip")));
+    }
+
+    @Test
+    void testDemote_doesNotArchiveReportDeletedWhilePacking() throws Exception {
+        ReportFileStore reportFileStore = new ReportFileStore(tempDir.resolve("reports/.blobs"), "directory");
+        ColdReportStore coldStore = new ColdReportStore(tempDir.resolve("cold"), reportFileStore, 2);
+        Path report = writeReport("allure-report-1");
+        Path results = writeResults("exec-1");
+
+        // The deletion takes the report lock before the demotion gets to it
+        coldStore.delete("allure-report-1");
+
+        assertEquals(0, coldStore.demote("allure-report-1", report, results));
+        assertFalse(coldStore.isCold("allure-report-1"));
+        try (Stream<Path> files = Files.list(tempDir.resolve("cold"))) {
+            assertEquals(0, files.count(), "No archive should be left for a deleted report");
+        }
+    }
+
+    private Path writeReport(String name) throws IOException {
+        Path report = tempDir.resolve("reports").resolve(name);
+        Files.createDirectories(report.resolve("data"));
+        Files.createDirectories(report.resolve("history"));
+        Files.writeString(report.resolve("index.html"), "<html></html>");
+        Files.writeString(report.resolve("app.js"), "console.log('allure');");
+        Files.writeString(report.resolve("data/suites.json"), "{\"suites\":[]}");
+        Files.writeString(report.resolve("history/history.json"), "{}");
+        return report;
+    }
+
+    private void writeMetadata(Path report) throws IOException {
+        Files.writeString(report.resolve("metadata.json"), "{}");
+        Files.writeString(report.resolve("failed-tests.json"), "[]");
+    }
+
+    private Path writeResults(String executionId) throws IOException {
+        Path results = tempDir.resolve("allure-results").resolve(executionId);
+        Files.createDirectories(results);
+        Files.writeString(results.resolve("1-result.json"), "{\"status\":\"passed\"}");
+        return results;
+    }
+}
@@ -0,0 +1,54 @@
+package com.junit.launcher.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for HistoryStore.
+ */
+class HistoryStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testUpdate_replacesStoredHistoryWithReportHistory() throws Exception {
+        HistoryStore store = new HistoryStore(() -> tempDir.resolve("store"));
+        assertTrue(store.isEmpty());
+
+        Path firstReport = Files.createDirectories(tempDir.resolve("report-1/history"));
+        Files.writeString(firstReport.resolve("history.json"), "{\"a\":1}");
+        Files.writeString(firstReport.resolve("history-trend.json"), "[1]");
+        store.update(firstReport);
+
+        Path secondReport = Files.createDirectories(tempDir.resolve("report-2/history"));
+        Files.writeString(secondReport.resolve("history-trend.json"), "[2,1]");
+        store.update(secondReport);
+
+        Path storedHistory = store.getDirectory().resolve("history");
+        assertFalse(store.isEmpty());
+        assertEquals("[2,1]", Files.readString(storedHistory.resolve("history-trend.json")));
+        assertEquals("{\"a\":1}", Files.readString(storedHistory.resolve("history.json")));
+        try (Stream<Path> files = Files.list(storedHistory)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    void testUpdate_keepsHistoryWhenReportHasNone() throws Exception {
+        HistoryStore store = new HistoryStore(() -> tempDir.resolve("store"));
+        Path report = Files.createDirectories(tempDir.resolve("report-1/history"));
+        Files.writeString(report.resolve("history.json"), "{}");
+        store.update(report);
+
+        store.update(tempDir.resolve("report-2/history"));
+
+        assertTrue(Files.exists(store.getDirectory().resolve("history/history.json")));
+    }
+}
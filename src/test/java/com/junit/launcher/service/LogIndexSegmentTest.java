@@ -0,0 +1,110 @@
+package com.junit.launcher.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LogIndexSegment.
+ */
+class LogIndexSegmentTest {
+
+    private static final int TERM_COUNT = 500;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testLookup_findsTermsAcrossDirectoryBlocks() throws Exception {
+        LogIndexSegment segment = writeSegment(tempDir.resolve("1.seg"));
+
+        assertEquals(2, segment.getLogCount());
+        assertEquals("log-b", segment.getLogId(1));
+        assertEquals("exec-b", segment.getExecutionId(1));
+        assertEquals(1, segment.ordinalOf("log-b"));
+        assertEquals(-1, segment.ordinalOf("log-c"));
+
+        for (int t = 0; t < TERM_COUNT; t += 37) {
+            LogIndexSegment.Postings postings = segment.lookup(term(t));
+            assertNotNull(postings, term(t));
+            assertArrayEquals(new int[] {t + 1, t + 300}, postings.linesOf(0));
+            assertArrayEquals(t % 2 == 0 ? new int[] {t + 2} : null, postings.linesOf(1));
+        }
+    }
+
+    @Test
+    void testLookup_returnsNullForMissingTerms() throws Exception {
+        LogIndexSegment segment = writeSegment(tempDir.resolve("1.seg"));
+
+        assertNull(segment.lookup("a"));
+        assertNull(segment.lookup("term00100x"));
+        assertNull(segment.lookup("zzz"));
+    }
+
+    @Test
+    void testCursor_readsAllTermsInOrder() throws Exception {
+        LogIndexSegment segment = writeSegment(tempDir.resolve("1.seg"));
+
+        List<String> terms = new ArrayList<>();
+        try (LogIndexSegment.Cursor cursor = segment.cursor()) {
+            while (cursor.next()) {
+                terms.add(cursor.current().term);
+            }
+        }
+
+        assertEquals(TERM_COUNT, terms.size());
+        assertEquals(term(0), terms.get(0));
+        assertEquals(term(TERM_COUNT - 1), terms.get(TERM_COUNT - 1));
+    }
+
+    @Test
+    void testWriter_rejectsTermsOutOfOrder() throws Exception {
+        Path file = tempDir.resolve("1.seg");
+        try (LogIndexSegment.Writer writer = new LogIndexSegment.Writer(file)) {
+            writer.addLog("log-a", "exec-a");
+            writer.addTerm("b", new int[] {0}, new int[][] {{1}}, 1);
+
+            assertThrows(IllegalArgumentException.class,
+                () -> writer.addTerm("a", new int[] {0}, new int[][] {{1}}, 1));
+        }
+        assertFalse(Files.exists(tempDir.resolve("1.seg.dir")));
+    }
+
+    @Test
+    void testOpen_rejectsTruncatedFile() throws Exception {
+        Path file = tempDir.resolve("1.seg");
+        writeSegment(file);
+        byte[] content = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(content, 12));
+
+        assertThrows(IOException.class, () -> LogIndexSegment.open(file, 1));
+    }
+
+    private LogIndexSegment writeSegment(Path file) throws IOException {
+        try (LogIndexSegment.Writer writer = new LogIndexSegment.Writer(file)) {
+            writer.addLog("log-a", "exec-a");
+            writer.addLog("log-b", "exec-b");
+            for (int t = 0; t < TERM_COUNT; t++) {
+                if (t % 2 == 0) {
+                    writer.addTerm(term(t), new int[] {0, 1}, new int[][] {{t + 1, t + 300}, {t + 2}}, 2);
+                } else {
+                    writer.addTerm(term(t), new int[] {0}, new int[][] {{t + 1, t + 300}}, 1);
+                }
+            }
+            writer.finish();
+        }
+        return LogIndexSegment.open(file, 1);
+    }
+
+    private static String term(int t) {
+        return String.format("term%05d", t);
+    }
+}
@@ -0,0 +1,176 @@
+package com.junit.launcher.service;
+
+import com.junit.launcher.config.StorageProperties;
+import com.junit.launcher.model.LogSearchResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LogIndexServiceImpl.
+ */
+class LogIndexServiceImplTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private StorageProperties storageProperties;
+    private LogIndexServiceImpl logIndexService;
+    
+    @BeforeEach
+    void setUp() {
+        storageProperties = new StorageProperties();
+        storageProperties.setLogsPath(tempDir.resolve("logs").toString());
+        logIndexService = new LogIndexServiceImpl(storageProperties);
+    }
+    
+    @Test
+    void testSearch_requiresAllTermsOnSameLine() throws Exception {
+        logIndexService.indexLog("execution-a.log", "exec-a",
+            "connection refused\ntimeout while connecting\nconnection timeout");
+        
+        List<LogSearchResult> results = logIndexService.search("Connection TIMEOUT", 10);
+        
+        assertEquals(1, results.size());
+        assertEquals("exec-a", results.get(0).getExecutionId());
+        assertEquals(List.of(3), results.get(0).getLineNumbers());
+    }
+    
+    @Test
+    void testSearch_returnsNewestLogsFirstUpToLimit() throws Exception {
+        logIndexService.indexLog("execution-2024-01-01_10-00-00_a.log", "exec-1", "AssertionFailedError");
+        logIndexService.indexLog("execution-2024-01-03_10-00-00_c.log", "exec-3", "AssertionFailedError");
+        logIndexService.indexLog("execution-2024-01-02_10-00-00_b.log", "exec-2", "AssertionFailedError");
+        
+        List<LogSearchResult> results = logIndexService.search("assertionfailederror", 2);
+        
+        assertEquals(2, results.size());
+        assertEquals("exec-3", results.get(0).getExecutionId());
+        assertEquals("exec-2", results.get(1).getExecutionId());
+    }
+    
+    @Test
+    void testSearch_returnsEmptyForUnknownOrBlankQuery() throws Exception {
+        logIndexService.indexLog("execution-a.log", "exec-a", "all tests passed");
+        
+        assertTrue(logIndexService.search("NullPointerException", 10).isEmpty());
+        assertTrue(logIndexService.search("  ", 10).isEmpty());
+    }
+    
+    @Test
+    void testSegments_areReloadedByNewInstance() throws Exception {
+        logIndexService.indexLog("execution-a.log", "exec-a", "first line\nsecond java.io.IOException");
+        
+        LogIndexServiceImpl reloaded = new LogIndexServiceImpl(storageProperties);
+        
+        assertTrue(reloaded.isIndexed("execution-a.log"));
+        List<LogSearchResult> results = reloaded.search("java.io.IOException", 10);
+        assertEquals(1, results.size());
+        assertEquals("exec-a", results.get(0).getExecutionId());
+        assertEquals(List.of(2), results.get(0).getLineNumbers());
+    }
+    
+    @Test
+    void testRemoveLog_dropsLogFromIndexAndDisk() throws Exception {
+        logIndexService.indexLog("execution-a.log", "exec-a", "NullPointerException");
+        logIndexService.indexLog("execution-b.log", "exec-b", "NullPointerException");
+        
+        logIndexService.removeLog("execution-a.log");
+        
+        assertFalse(logIndexService.isIndexed("execution-a.log"));
+        assertEquals(1, logIndexService.search("NullPointerException", 10).size());
+        assertFalse(new LogIndexServiceImpl(storageProperties).isIndexed("execution-a.log"));
+    }
+    
+    @Test
+    void testIndexLog_replacesPostingsOfReindexedLog() throws Exception {
+        logIndexService.indexLog("execution-a.log", "exec-a", "NullPointerException\nAssertionFailedError");
+        
+        logIndexService.indexLog("execution-a.log", "exec-a", "all tests passed\nAssertionFailedError");
+        
+        assertTrue(logIndexService.search("NullPointerException", 10).isEmpty());
+        assertEquals(List.of(2), logIndexService.search("AssertionFailedError", 10).get(0).getLineNumbers());
+        assertEquals(1, logIndexService.search("passed", 10).size());
+        assertTrue(new LogIndexServiceImpl(storageProperties).search("NullPointerException", 10).isEmpty());
+    }
+    
+    @Test
+    void testIndexLog_mergesSegmentsAndKeepsAllLogsSearchable() throws Exception {
+        for (int i = 0; i < 25; i++) {
+            logIndexService.indexLog(String.format("execution-%02d.log", i), "exec-" + i,
+                "common line\nunique" + i);
+        }
+        
+        // 25 single-log segments merge into two tiers of ten plus five
+        assertEquals(7, segmentFiles().size());
+        assertEquals(25, logIndexService.search("common", 100).size());
+        LogIndexServiceImpl reloaded = new LogIndexServiceImpl(storageProperties);
+        assertEquals(25, reloaded.search("common", 100).size());
+        List<LogSearchResult> results = reloaded.search("unique7", 10);
+        assertEquals(1, results.size());
+        assertEquals("exec-7", results.get(0).getExecutionId());
+        assertEquals(List.of(2), results.get(0).getLineNumbers());
+    }
+    
+    @Test
+    void testRemoveLog_staysRemovedAcrossMergesAndReloads() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            logIndexService.indexLog(String.format("execution-%02d.log", i), "exec-" + i, "common");
+        }
+        logIndexService.removeLog("execution-02.log");
+        for (int i = 5; i < 12; i++) {
+            logIndexService.indexLog(String.format("execution-%02d.log", i), "exec-" + i, "common");
+        }
+        logIndexService.removeLog("execution-10.log");
+        
+        assertEquals(10, logIndexService.search("common", 100).size());
+        LogIndexServiceImpl reloaded = new LogIndexServiceImpl(storageProperties);
+        assertFalse(reloaded.isIndexed("execution-02.log"));
+        assertFalse(reloaded.isIndexed("execution-10.log"));
+        assertEquals(10, reloaded.search("common", 100).size());
+    }
+    
+    @Test
+    void testIndexLog_newestCopyWinsAfterRemovalAndReindex() throws Exception {
+        logIndexService.indexLog("execution-a.log", "exec-a", "first");
+        logIndexService.indexLog("execution-a.log", "exec-a", "second");
+        logIndexService.removeLog("execution-a.log");
+        logIndexService.indexLog("execution-a.log", "exec-a", "third");
+        
+        LogIndexServiceImpl reloaded = new LogIndexServiceImpl(storageProperties);
+        assertTrue(reloaded.search("first", 10).isEmpty());
+        assertTrue(reloaded.search("second", 10).isEmpty());
+        assertEquals(1, reloaded.search("third", 10).size());
+    }
+    
+    @Test
+    void testSegments_ofOldFormatAreDiscardedOnLoad() throws Exception {
+        Path indexDir = tempDir.resolve("logs").resolve(".index");
+        Files.createDirectories(indexDir);
+        Files.write(indexDir.resolve("execution-old.log.seg"), new byte[] {0x4C, 0x49, 0x44, 0x58, 0, 0, 0, 1});
+        
+        assertFalse(logIndexService.isIndexed("execution-old.log"));
+        assertFalse(Files.exists(indexDir.resolve("execution-old.log.seg")));
+    }
+    
+    @Test
+    void testTokenize_splitsOnNonWordCharacters() {
+        assertEquals(List.of("org", "example", "footest", "test_one", "42"),
+            LogIndexServiceImpl.tokenize("org.example.FooTest#test_one(42)"));
+    }
+    
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir.resolve("logs").resolve(".index"))) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".seg")).collect(Collectors.toList());
+        }
+    }
+}
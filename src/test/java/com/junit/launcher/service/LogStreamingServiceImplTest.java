@@ -1,9 +1,15 @@
 package com.junit.launcher.service;
 
+import com.junit.launcher.model.LogStreamFilter;
+import com.junit.launcher.model.ProgressEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.slf4j.event.Level;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -31,6 +37,7 @@ class LogStreamingServiceImplTest {
     void testPublishLog_capturesLogMessage() {
         String executionId = "test-execution-2";
         String logMessage = "Test log message\n";
+        logStreamingService.startStreaming(executionId);
         
         logStreamingService.publishLog(executionId, logMessage);
         
@@ -43,6 +50,7 @@ class LogStreamingServiceImplTest {
         String executionId = "test-execution-3";
         String logMessage = "Test log message\n";
         
+        logStreamingService.startStreaming(executionId);
         SseEmitter emitter = logStreamingService.streamLogs(executionId);
         
         // Simulate receiving a message by checking if publish doesn't throw
@@ -76,4 +84,169 @@ class LogStreamingServiceImplTest {
         
         assertEquals("", capturedLogs, "Should return empty string for unknown execution");
     }
+    
+    @Test
+    void testCompleteStreaming_releasesLogsOfOldestCompletedExecutions() {
+        logStreamingService.startStreaming("oldest-execution");
+        logStreamingService.publishLog("oldest-execution", "Oldest log\n");
+        logStreamingService.completeStreaming("oldest-execution");
+        
+        for (int i = 0; i < 20; i++) {
+            logStreamingService.startStreaming("execution-" + i);
+            logStreamingService.publishLog("execution-" + i, "Log " + i + "\n");
+            logStreamingService.completeStreaming("execution-" + i);
+        }
+        
+        assertEquals("", logStreamingService.getCapturedLogs("oldest-execution"),
+            "Logs of the oldest completed execution should be released");
+        assertEquals("Log 19\n", logStreamingService.getCapturedLogs("execution-19"));
+    }
+    
+    @Test
+    void testPublishLog_doesNotCaptureLateLogsOfReleasedExecution() {
+        for (int i = 0; i <= 20; i++) {
+            logStreamingService.startStreaming("execution-" + i);
+            logStreamingService.completeStreaming("execution-" + i);
+        }
+        
+        // A logger still carrying the evicted execution's MDC
+        logStreamingService.publishLog("execution-0", "Late log\n");
+        logStreamingService.publishLog("never-started", "Stray log\n");
+        
+        assertEquals("", logStreamingService.getCapturedLogs("execution-0"));
+        assertEquals("", logStreamingService.getCapturedLogs("never-started"));
+        assertEquals(20, logStreamingService.getCapturedExecutionCount());
+    }
+    
+    @Test
+    void testStreamLogs_withFilterCreatesEmitter() {
+        logStreamingService.startStreaming("test-execution-5");
+        SseEmitter emitter = logStreamingService.streamLogs("test-execution-5",
+            new LogStreamFilter("WARN", "com.example", "Exception", true));
+        
+        assertNotNull(emitter, "Emitter should not be null");
+        
+        // Filtered lines are still captured in full
+        logStreamingService.publishLog("test-execution-5", "debug line\n", Level.DEBUG, "com.example.Foo");
+        assertEquals("debug line\n", logStreamingService.getCapturedLogs("test-execution-5"));
+    }
+    
+    @Test
+    void testStreamLogs_rejectsInvalidFilter() {
+        assertThrows(IllegalArgumentException.class, () ->
+            logStreamingService.streamLogs("test-execution-6", new LogStreamFilter("LOUD", null, null, false)));
+        assertThrows(IllegalArgumentException.class, () ->
+            logStreamingService.streamLogs("test-execution-6", new LogStreamFilter(null, null, "([unclosed", false)));
+    }
+    
+    @Test
+    void testPublishLog_givesUpOnBacktrackingRegex() {
+        logStreamingService.startStreaming("test-execution-7");
+        logStreamingService.streamLogs("test-execution-7", new LogStreamFilter(null, null, "(a+)+b", false));
+        
+        // Without a bound this would backtrack for far longer than the timeout
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+            logStreamingService.publishLog("test-execution-7", "a".repeat(40) + "\n"));
+        assertEquals("a".repeat(40) + "\n", logStreamingService.getCapturedLogs("test-execution-7"));
+    }
+    
+    @Test
+    void testBoundedCharSequence_subSequencesShareTheBudget() {
+        CharSequence text = new LogStreamingServiceImpl.BoundedCharSequence("abcdef", 3);
+        CharSequence sub = text.subSequence(1, 5);
+        
+        assertEquals('a', text.charAt(0));
+        assertEquals('b', sub.charAt(0));
+        assertEquals('d', sub.subSequence(2, 4).charAt(0));
+        assertThrows(LogStreamingServiceImpl.RegexBudgetExceededException.class, () -> sub.charAt(1));
+        assertThrows(LogStreamingServiceImpl.RegexBudgetExceededException.class, () -> text.charAt(1));
+    }
+    
+    @Test
+    void testStreamLogs_keepsMostRecentlyUsedFilters() {
+        for (int i = 0; i < 300; i++) {
+            logStreamingService.streamLogs("test-execution-8", new LogStreamFilter(null, null, "line " + i, false));
+        }
+        
+        assertEquals(256, logStreamingService.getCachedFilterCount());
+    }
+    
+    @Test
+    void testPublishProgress_keepsLatestEventForLateSubscribers() {
+        String executionId = "test-execution-progress";
+        
+        SseEmitter emitter = logStreamingService.streamLogs(executionId);
+        
+        ProgressEvent started = new ProgressEvent(ProgressEvent.Type.EXECUTION_STARTED, executionId);
+        started.setTotalTests(2);
+        logStreamingService.publishProgress(executionId, started);
+        
+        ProgressEvent finished = new ProgressEvent(ProgressEvent.Type.TEST_FINISHED, executionId);
+        finished.setTestId("[engine:junit-jupiter]/[method:test()]");
+        finished.setStatus("PASSED");
+        finished.setPassedTests(1);
+        logStreamingService.publishProgress(executionId, finished);
+        
+        assertEquals(finished, logStreamingService.getLatestProgress(executionId));
+        assertNotNull(logStreamingService.streamLogs(executionId), "Late subscriber should get an emitter");
+        assertNull(logStreamingService.getLatestProgress("unknown-execution"));
+        
+        logStreamingService.completeStreaming(executionId);
+    }
+    
+    @Test
+    void testStreamExecutions_completesWhenAllListedExecutionsComplete() {
+        logStreamingService.startStreaming("multiplex-1");
+        logStreamingService.startStreaming("multiplex-2");
+        logStreamingService.publishLog("multiplex-1", "first\n");
+        logStreamingService.publishLog("multiplex-2", "second\n");
+        
+        SseEmitter emitter = logStreamingService.streamExecutions(Set.of("multiplex-1", "multiplex-2"), null);
+        assertNotNull(emitter, "Emitter should not be null");
+        assertEquals(1, logStreamingService.getMultiplexSubscriptionCount());
+        
+        logStreamingService.completeStreaming("multiplex-1");
+        assertEquals(1, logStreamingService.getMultiplexSubscriptionCount(), "One execution is still running");
+        
+        logStreamingService.completeStreaming("multiplex-2");
+        assertEquals(0, logStreamingService.getMultiplexSubscriptionCount());
+    }
+    
+    @Test
+    void testStreamExecutions_followsExecutionsStartedLater() {
+        logStreamingService.streamExecutions(null, null);
+        logStreamingService.startStreaming("already-done");
+        SseEmitter completedOnly = logStreamingService.streamExecutions(Set.of("already-done"), null);
+        assertNotNull(completedOnly);
+        
+        logStreamingService.completeStreaming("already-done");
+        assertEquals(1, logStreamingService.getMultiplexSubscriptionCount(), "Only the all-executions stream remains");
+        
+        // A later execution reaches the open stream and does not close it
+        logStreamingService.publishLog("started-later", "hello\n");
+        logStreamingService.completeStreaming("started-later");
+        assertEquals(1, logStreamingService.getMultiplexSubscriptionCount());
+        
+        // Subscribing to an execution that already completed ends immediately
+        logStreamingService.streamExecutions(Set.of("started-later"), null);
+        assertEquals(1, logStreamingService.getMultiplexSubscriptionCount());
+    }
+    
+    @Test
+    void testStreamExecutions_completesUnknownAndEvictedExecutionsRightAway() {
+        logStreamingService.startStreaming("running");
+        for (int i = 0; i <= 20; i++) {
+            logStreamingService.publishLog("evicted-" + i, "done\n");
+            logStreamingService.completeStreaming("evicted-" + i);
+        }
+        
+        logStreamingService.streamExecutions(Set.of("never-started", "evicted-0"), null);
+        assertEquals(0, logStreamingService.getMultiplexSubscriptionCount());
+        
+        logStreamingService.streamExecutions(Set.of("never-started", "running"), null);
+        assertEquals(1, logStreamingService.getMultiplexSubscriptionCount(), "The running execution keeps the stream open");
+        
+        logStreamingService.completeStreaming("running");
+        assertEquals(0, logStreamingService.getMultiplexSubscriptionCount());
+    }
 }
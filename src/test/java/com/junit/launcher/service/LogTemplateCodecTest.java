@@ -0,0 +1,152 @@
+package com.junit.launcher.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LogTemplateCodec.
+ */
+class LogTemplateCodecTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void testRoundTrip_reconstructsExactText() throws Exception {
+        LogTemplateCodec codec = new LogTemplateCodec(tempDir.resolve("templates.dict"));
+        String content = "=== Test Execution Started ===\n"
+            + "Execution ID: 59fd6f16-c334-4401-9054-1ce78b90275e\n"
+            + "  leading  and   repeated spaces \t tabs\r\n"
+            + "\n"
+            + "unicode: caf\u00e9 \u2713 <*>\n"
+            + "trailing newline\n";
+        
+        String decoded = codec.decode(codec.encode(content));
+        
+        assertEquals(content, decoded);
+        assertEquals("", codec.decode(codec.encode("")));
+    }
+    
+    @Test
+    void testTemplates_areSharedAcrossExecutionsAndCodecInstances() throws Exception {
+        Path dictionary = tempDir.resolve("templates.dict");
+        LogTemplateCodec codec = new LogTemplateCodec(dictionary);
+        byte[] first = codec.encode(sampleLog(0, 200));
+        int templateCount = codec.getTemplateCount();
+        
+        // A new instance reads the dictionary and reuses the mined templates
+        LogTemplateCodec reloaded = new LogTemplateCodec(dictionary);
+        byte[] second = reloaded.encode(sampleLog(200, 200));
+        
+        assertEquals(templateCount, reloaded.getTemplateCount(), "Same-shaped logs should not mine new templates");
+        assertEquals(sampleLog(0, 200), reloaded.decode(first));
+        assertEquals(sampleLog(200, 200), reloaded.decode(second));
+    }
+    
+    @Test
+    void testEncode_compressesRepetitiveLogs() throws Exception {
+        LogTemplateCodec codec = new LogTemplateCodec(tempDir.resolve("templates.dict"));
+        String content = sampleLog(0, 2000);
+        
+        byte[] encoded = codec.encode(content);
+        
+        int rawSize = content.getBytes(StandardCharsets.UTF_8).length;
+        assertTrue(encoded.length * 10 < rawSize,
+            "Expected at least 10x reduction but got " + rawSize + " -> " + encoded.length);
+    }
+    
+    @Test
+    void testEncode_startsNewDictionaryVersionAtCap() throws Exception {
+        Path dictionary = tempDir.resolve("templates.dict");
+        LogTemplateCodec codec = new LogTemplateCodec(dictionary, 8);
+        List<String> logs = new ArrayList<>();
+        List<byte[]> encoded = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            logs.add(distinctLog(i));
+            encoded.add(codec.encode(logs.get(i)));
+        }
+        
+        assertTrue(codec.getDictionaryVersion() > 0, "Dictionary should have rolled over");
+        assertTrue(Files.exists(tempDir.resolve("templates-1.dict")));
+        assertTrue(codec.getTemplateCount() < 5 * 8, "Superseded templates should not be carried over");
+        assertEquals(dictionary, codec.getDictionaryFile(writeLog("first.logt", encoded.get(0))));
+        assertEquals(tempDir.resolve("templates-" + codec.getDictionaryVersion() + ".dict"),
+            codec.getDictionaryFile(writeLog("last.logt", encoded.get(5))));
+        
+        // Logs of every version still decode, also with a new instance
+        LogTemplateCodec reloaded = new LogTemplateCodec(dictionary, 8);
+        assertEquals(codec.getDictionaryVersion(), reloaded.getDictionaryVersion());
+        for (int i = 0; i < logs.size(); i++) {
+            assertEquals(logs.get(i), codec.decode(encoded.get(i)));
+            assertEquals(logs.get(i), reloaded.decode(encoded.get(i)));
+        }
+    }
+    
+    @Test
+    void testDecode_runsConcurrentlyWithEncode() throws Exception {
+        LogTemplateCodec codec = new LogTemplateCodec(tempDir.resolve("templates.dict"), 16);
+        byte[] first = codec.encode(sampleLog(0, 100));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 20; i++) {
+                        if (thread == 0) {
+                            String log = distinctLog(i);
+                            assertEquals(log, codec.decode(codec.encode(log)));
+                        } else {
+                            assertEquals(sampleLog(0, 100), codec.decode(first));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private Path writeLog(String name, byte[] content) throws Exception {
+        return Files.write(tempDir.resolve(name), content);
+    }
+    
+    /**
+     * Builds a log whose lines share no templates with logs of other seeds.
+     */
+    private String distinctLog(int seed) {
+        StringBuilder log = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            log.append("step").append((char) ('a' + seed)).append(" phase").append((char) ('a' + i))
+                .append(" value ").append(seed * 10 + i).append('\n');
+        }
+        return log.toString();
+    }
+    
+    private String sampleLog(int from, int count) {
+        StringBuilder log = new StringBuilder();
+        for (int i = from; i < from + count; i++) {
+            log.append("[TEST STARTED] testCase").append(i).append("()\n");
+            log.append("Connecting to service instance ").append(i % 7).append(" on port ").append(8000 + i % 3).append('\n');
+            log.append("[TEST FINISHED] testCase").append(i).append("() - Status: ")
+                .append(i % 10 == 0 ? "FAILED" : "SUCCESSFUL").append('\n');
+        }
+        return log.toString();
+    }
+}
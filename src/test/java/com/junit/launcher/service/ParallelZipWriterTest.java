@@ -0,0 +1,253 @@
+package com.junit.launcher.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ParallelZipWriter.
+ */
+class ParallelZipWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void testFinish_writesEntriesInOrderReadableByZipFile() throws Exception {
+        List<String> names = new ArrayList<>();
+        Path zip = tempDir.resolve("report.zip");
+        try (OutputStream out = Files.newOutputStream(zip);
+             ParallelZipWriter writer = new ParallelZipWriter(out, pool)) {
+            for (int i = 0; i < 50; i++) {
+                String name = "data/test-cases/case" + i + ".json";
+                Path file = tempDir.resolve("case" + i + ".json");
+                Files.writeString(file, ("{\"name\":\"case" + i + "\"}").repeat(100 - i));
+                writer.add(name, file);
+                names.add(name);
+            }
+            writer.add("summary.txt", "done".getBytes(StandardCharsets.UTF_8));
+            names.add("summary.txt");
+            writer.finish();
+        }
+
+        try (ZipFile zipFile = new ZipFile(zip.toFile())) {
+            assertEquals(names, Collections.list(zipFile.entries()).stream().map(ZipEntry::getName).collect(Collectors.toList()));
+            for (int i = 0; i < 50; i++) {
+                ZipEntry entry = zipFile.getEntry("data/test-cases/case" + i + ".json");
+                assertEquals(ZipEntry.DEFLATED, entry.getMethod());
+                assertEquals(Files.readString(tempDir.resolve("case" + i + ".json")),
+                    new String(zipFile.getInputStream(entry).readAllBytes(), StandardCharsets.UTF_8));
+            }
+            assertEquals("done", new String(zipFile.getInputStream(zipFile.getEntry("summary.txt")).readAllBytes(),
+                StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testFinish_storesCompressedAndIncompressibleFiles() throws Exception {
+        byte[] random = new byte[3 * 1024 * 1024];
+        new Random(42).nextBytes(random);
+        Path image = tempDir.resolve("screenshot.png");
+        Files.write(image, "not really a png, but compressible ".repeat(100).getBytes(StandardCharsets.UTF_8));
+        Path noise = tempDir.resolve("noise.bin");
+        Files.write(noise, random);
+        Path log = tempDir.resolve("large.log");
+        Files.writeString(log, "INFO line of a large log\n".repeat(200_000));
+
+        Path zip = tempDir.resolve("report.zip");
+        try (OutputStream out = Files.newOutputStream(zip);
+             ParallelZipWriter writer = new ParallelZipWriter(out, pool)) {
+            writer.add("screenshot.png", image);
+            writer.add("noise.bin", noise);
+            writer.add("large.log", log);
+            writer.finish();
+        }
+
+        try (ZipFile zipFile = new ZipFile(zip.toFile())) {
+            assertEquals(ZipEntry.STORED, zipFile.getEntry("screenshot.png").getMethod());
+            assertEquals(ZipEntry.STORED, zipFile.getEntry("noise.bin").getMethod());
+            assertEquals(ZipEntry.DEFLATED, zipFile.getEntry("large.log").getMethod());
+            assertArrayEquals(random, zipFile.getInputStream(zipFile.getEntry("noise.bin")).readAllBytes());
+            assertArrayEquals(Files.readAllBytes(log), zipFile.getInputStream(zipFile.getEntry("large.log")).readAllBytes());
+        }
+    }
+
+    @Test
+    void testFinish_writesZip64ForManyEntries() throws Exception {
+        Path zip = tempDir.resolve("many.zip");
+        try (OutputStream out = Files.newOutputStream(zip);
+             ParallelZipWriter writer = new ParallelZipWriter(out, pool)) {
+            for (int i = 0; i < 70_000; i++) {
+                writer.add("entry" + i + ".txt", new byte[] {(byte) i});
+            }
+            writer.finish();
+        }
+
+        try (ZipFile zipFile = new ZipFile(zip.toFile())) {
+            assertEquals(70_000, zipFile.size());
+            assertEquals(69_999 & 0xFF, zipFile.getInputStream(zipFile.getEntry("entry69999.txt")).read());
+        }
+    }
+
+    @Test
+    void testFinish_deletesTemporaryFilesOfLargeEntries() throws Exception {
+        Path log = tempDir.resolve("large.log");
+        Files.writeString(log, "INFO line of a large log\n".repeat(200_000));
+        long before = countSpills();
+
+        try (ParallelZipWriter writer = new ParallelZipWriter(OutputStream.nullOutputStream(), pool)) {
+            writer.add("first.log", log);
+            writer.add("second.log", log);
+            writer.finish();
+        }
+        assertEquals(before, countSpills(), "Written entries should leave no temporary files");
+
+        try (ParallelZipWriter writer = new ParallelZipWriter(OutputStream.nullOutputStream(), pool)) {
+            writer.add("unfinished.log", log);
+        }
+        pool.awaitQuiescence(10, TimeUnit.SECONDS);
+        assertEquals(before, countSpills(), "An unfinished archive should leave no temporary files");
+    }
+
+    @Test
+    void testFinish_roundTripsGeneratedReport() throws Exception {
+        Map<String, Path> report = generateReport(tempDir.resolve("report"));
+
+        try (OutputStream out = Files.newOutputStream(tempDir.resolve("report.zip"));
+             ParallelZipWriter writer = new ParallelZipWriter(out, pool)) {
+            for (Map.Entry<String, Path> file : report.entrySet()) {
+                writer.add(file.getKey(), file.getValue());
+            }
+            writer.finish();
+        }
+
+        try (ZipFile zipFile = new ZipFile(tempDir.resolve("report.zip").toFile())) {
+            assertEquals(report.size(), zipFile.size());
+            for (Map.Entry<String, Path> file : report.entrySet()) {
+                ZipEntry entry = zipFile.getEntry(file.getKey());
+                assertNotNull(entry, file.getKey());
+                assertArrayEquals(Files.readAllBytes(file.getValue()), zipFile.getInputStream(entry).readAllBytes(),
+                    file.getKey());
+            }
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void testFinish_keepsPaceWithZipOutputStreamOnGeneratedReport() throws Exception {
+        Map<String, Path> report = generateReport(tempDir.resolve("report"));
+
+        // Best of a few rounds, so the comparison is not skewed by warm-up
+        long parallelMillis = Long.MAX_VALUE;
+        long sequentialMillis = Long.MAX_VALUE;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            try (OutputStream out = Files.newOutputStream(tempDir.resolve("parallel.zip"));
+                 ParallelZipWriter writer = new ParallelZipWriter(out, pool)) {
+                for (Map.Entry<String, Path> file : report.entrySet()) {
+                    writer.add(file.getKey(), file.getValue());
+                }
+                writer.finish();
+            }
+            parallelMillis = Math.min(parallelMillis, (System.nanoTime() - start) / 1_000_000);
+
+            start = System.nanoTime();
+            try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(tempDir.resolve("sequential.zip")))) {
+                for (Map.Entry<String, Path> file : report.entrySet()) {
+                    zip.putNextEntry(new ZipEntry(file.getKey()));
+                    Files.copy(file.getValue(), zip);
+                    zip.closeEntry();
+                }
+            }
+            sequentialMillis = Math.min(sequentialMillis, (System.nanoTime() - start) / 1_000_000);
+        }
+
+        try (ZipFile zipFile = new ZipFile(tempDir.resolve("parallel.zip").toFile())) {
+            assertEquals(report.size(), zipFile.size());
+        }
+        // Even without spare cores the parallel writer should cost little more than ZipOutputStream
+        String timings = "ParallelZipWriter " + parallelMillis + "ms, ZipOutputStream " + sequentialMillis + "ms, "
+            + Runtime.getRuntime().availableProcessors() + " processors";
+        assertTrue(parallelMillis <= sequentialMillis * 2 + 100, timings);
+        if (Runtime.getRuntime().availableProcessors() >= 4) {
+            assertTrue(parallelMillis < sequentialMillis, timings);
+        }
+    }
+
+    @Test
+    void testFinish_failsForMissingFile() {
+        assertThrows(IOException.class, () -> {
+            try (ParallelZipWriter writer = new ParallelZipWriter(OutputStream.nullOutputStream(), pool)) {
+                writer.add("missing.txt", tempDir.resolve("missing.txt"));
+                writer.finish();
+            }
+        });
+    }
+
+    /**
+     * Writes files shaped like an Allure report: many small JSON files, some attachments
+     * and a couple of large logs.
+     */
+    private Map<String, Path> generateReport(Path reportDir) throws IOException {
+        Map<String, Path> files = new LinkedHashMap<>();
+        Random random = new Random(7);
+        Files.createDirectories(reportDir);
+        for (int i = 0; i < 400; i++) {
+            StringBuilder json = new StringBuilder("{\"uid\":\"case" + i + "\",\"steps\":[");
+            for (int step = 0; step < 20 + random.nextInt(80); step++) {
+                json.append("{\"name\":\"step ").append(step).append("\",\"status\":\"passed\",\"time\":")
+                    .append(random.nextInt(100_000)).append("},");
+            }
+            files.put("data/test-cases/case" + i + ".json", write(reportDir.resolve("case" + i + ".json"), json + "{}]}"));
+        }
+        for (int i = 0; i < 20; i++) {
+            files.put("data/attachments/" + i + ".txt",
+                write(reportDir.resolve("attachment" + i + ".txt"), ("attachment " + i + " line\n").repeat(10_000)));
+        }
+        for (int i = 0; i < 2; i++) {
+            files.put("data/attachments/large" + i + ".log",
+                write(reportDir.resolve("large" + i + ".log"), ("DEBUG large log " + i + " line\n").repeat(150_000)));
+        }
+        return files;
+    }
+
+    private static Path write(Path file, String content) throws IOException {
+        Files.writeString(file, content);
+        return file;
+    }
+
+    private static long countSpills() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(file -> file.getFileName().toString().startsWith("zip-entry")).count();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.junit.launcher.service;
+
+import com.junit.launcher.model.ReportAsset;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ReportAssetCache.
+ */
+class ReportAssetCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testGet_servesRepeatedRequestsFromMemory() throws Exception {
+        Path report = tempDir.resolve("allure-report-1");
+        Files.createDirectories(report);
+        Files.writeString(report.resolve("app.js"), "console.log('allure');\n".repeat(50));
+        AtomicInteger lookups = new AtomicInteger();
+        ReportAssetCache cache = new ReportAssetCache(reportId -> {
+            lookups.incrementAndGet();
+            return report;
+        }, new ReportFileStore(tempDir.resolve(".blobs"), "directory"), 1024 * 1024);
+
+        ReportAsset first = cache.get("allure-report-1", "app.js");
+        Files.delete(report.resolve("app.js"));
+        ReportAsset second = cache.get("allure-report-1", "app.js");
+        assertNull(cache.get("allure-report-1", "missing.js"));
+
+        assertSame(first, second);
+        assertEquals(1, lookups.get());
+        assertTrue(first.getEtag().matches("\"[0-9a-f]{64}\""));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(first.getGzipContent()))) {
+            assertArrayEquals(first.getContent(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    void testGet_evictsLeastRecentlyUsedFiles() throws Exception {
+        Path report = tempDir.resolve("allure-report-1");
+        Files.createDirectories(report);
+        for (int i = 0; i < 20; i++) {
+            Files.write(report.resolve("file" + i + ".png"), new byte[1000]);
+        }
+        ReportAssetCache cache = new ReportAssetCache(reportId -> report,
+            new ReportFileStore(tempDir.resolve(".blobs"), "directory"), 16 * 1024);
+
+        for (int i = 0; i < 20; i++) {
+            cache.get("allure-report-1", "file" + i + ".png");
+        }
+
+        assertTrue(cache.getCachedBytes() <= 16 * 1024);
+        assertTrue(cache.getCachedBytes() > 0);
+    }
+
+    @Test
+    void testGet_keepsOnlyTagOfLargeFiles() throws Exception {
+        Path report = tempDir.resolve("allure-report-1");
+        Files.createDirectories(report);
+        Files.write(report.resolve("large.png"), new byte[4096]);
+        ReportAssetCache cache = new ReportAssetCache(reportId -> report,
+            new ReportFileStore(tempDir.resolve(".blobs"), "directory"), 16 * 1024);
+
+        ReportAsset asset = cache.get("allure-report-1", "large.png");
+
+        assertNull(asset.getContent());
+        assertEquals(4096, asset.getLength());
+        assertNotNull(asset.getEtag());
+        assertEquals(report.resolve("large.png").toAbsolutePath().normalize(), asset.getPath());
+    }
+
+    @Test
+    void testGet_resolvesLargeFilesAgainAfterArchiveIsClosed() throws Exception {
+        Path report = tempDir.resolve("allure-report-1");
+        Files.createDirectories(report);
+        Files.write(report.resolve("large.png"), new byte[4096]);
+        ReportFileStore store = new ReportFileStore(tempDir.resolve(".blobs"), "zip");
+        store.store(report);
+        ReportAssetCache cache = new ReportAssetCache(reportId -> report, store, 16 * 1024);
+
+        ReportAsset first = cache.get("allure-report-1", "large.png");
+        store.evict(report);
+        ReportAsset second = cache.get("allure-report-1", "large.png");
+
+        assertEquals(first.getEtag(), second.getEtag());
+        assertEquals(4096, Files.readAllBytes(second.getPath()).length);
+    }
+
+    @Test
+    void testEvict_dropsCachedFilesOfReport() throws Exception {
+        Path report = tempDir.resolve("allure-report-1");
+        Files.createDirectories(report);
+        Files.writeString(report.resolve("index.html"), "<html></html>");
+        ReportAssetCache cache = new ReportAssetCache(reportId -> report,
+            new ReportFileStore(tempDir.resolve(".blobs"), "directory"), 1024 * 1024);
+
+        cache.get("allure-report-1", "index.html");
+        cache.evict("allure-report-1");
+        Files.delete(report.resolve("index.html"));
+
+        assertNull(cache.get("allure-report-1", "index.html"));
+        assertEquals(0, cache.getCachedBytes());
+    }
+}
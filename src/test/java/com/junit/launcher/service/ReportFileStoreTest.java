@@ -0,0 +1,134 @@
+package com.junit.launcher.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.ClosedFileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ReportFileStore.
+ */
+class ReportFileStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testStore_sharesIdenticalFilesBetweenReports() throws Exception {
+        ReportFileStore store = new ReportFileStore(tempDir.resolve(".blobs"), "blobs");
+        Path first = writeReport("allure-report-1", "first");
+        Path second = writeReport("allure-report-2", "second");
+
+        store.store(first);
+        store.store(second);
+
+        assertEquals(store.resolve(first, "app.js"), store.resolve(second, "app.js"));
+        assertNotEquals(store.resolve(first, "data/suites.json"), store.resolve(second, "data/suites.json"));
+        assertEquals("second", Files.readString(store.resolve(second, "data/suites.json")));
+        assertTrue(Files.exists(first.resolve(ReportFileStore.MANIFEST_FILE)));
+        assertFalse(Files.exists(first.resolve("app.js")));
+        assertFalse(Files.exists(first.resolve("data")));
+    }
+
+    @Test
+    void testStore_keepsHistoryAsRegularFiles() throws Exception {
+        ReportFileStore store = new ReportFileStore(tempDir.resolve(".blobs"), "blobs");
+        Path report = writeReport("allure-report-1", "first");
+
+        store.store(report);
+
+        Path history = report.resolve("history/history.json");
+        assertTrue(Files.isRegularFile(history));
+        assertEquals(history.toAbsolutePath().normalize(), store.resolve(report, "history/history.json"));
+        assertEquals(List.of("app.js", "data/suites.json", "history/history.json", "index.html"), store.list(report));
+    }
+
+    @Test
+    void testStore_packsReportIntoArchive() throws Exception {
+        ReportFileStore store = new ReportFileStore(tempDir.resolve(".blobs"), "zip");
+        Path report = writeReport("allure-report-1", "first");
+
+        store.store(report);
+
+        assertEquals(report.resolve(ReportFileStore.ARCHIVE_FILE), store.getArchive(report));
+        assertFalse(Files.exists(report.resolve("app.js")));
+        assertTrue(Files.isRegularFile(report.resolve("history/history.json")));
+        assertEquals("first", Files.readString(store.resolve(report, "data/suites.json")));
+        assertNull(store.resolve(report, "missing.js"));
+        assertNull(store.resolve(report, ReportFileStore.ARCHIVE_FILE));
+        assertEquals(List.of("app.js", "data/suites.json", "history/history.json", "index.html"), store.list(report));
+
+        store.evict(report);
+        assertEquals("<html></html>", Files.readString(store.resolve(report, "index.html")));
+    }
+
+    @Test
+    void testResolve_keepsPathsReadableWhenArchiveLeavesCache() throws Exception {
+        ReportFileStore store = new ReportFileStore(tempDir.resolve(".blobs"), "zip");
+        List<Path> reports = new ArrayList<>();
+        for (int i = 0; i < 70; i++) {
+            Path report = writeReport("allure-report-" + i, "report " + i);
+            store.store(report);
+            reports.add(report);
+        }
+
+        Path first = store.resolve(reports.get(0), "data/suites.json");
+        for (Path report : reports.subList(1, reports.size())) {
+            store.resolve(report, "app.js");
+        }
+
+        assertEquals("report 0", Files.readString(first));
+        store.close();
+        assertThrows(ClosedFileSystemException.class, () -> Files.readString(first));
+    }
+
+    @Test
+    void testResolve_readsPlainReportsAndRejectsTraversal() throws Exception {
+        ReportFileStore store = new ReportFileStore(tempDir.resolve(".blobs"), "directory");
+        Path report = writeReport("allure-report-1", "first");
+
+        store.store(report);
+
+        assertEquals(report.resolve("app.js").toAbsolutePath().normalize(), store.resolve(report, "app.js"));
+        assertNull(store.resolve(report, "missing.js"));
+        assertNull(store.resolve(report, "../allure-report-1/../secret.txt"));
+        assertFalse(Files.exists(tempDir.resolve(".blobs")));
+    }
+
+    @Test
+    void testCollectGarbage_deletesBlobsOfDeletedReportsOnly() throws Exception {
+        ReportFileStore store = new ReportFileStore(tempDir.resolve(".blobs"), "blobs");
+        Path first = writeReport("allure-report-1", "first");
+        Path second = writeReport("allure-report-2", "second");
+        store.store(first);
+        store.store(second);
+        Path sharedBlob = store.resolve(first, "app.js");
+        Path secondBlob = store.resolve(second, "data/suites.json");
+
+        assertEquals(0, store.collectGarbage(tempDir, 60_000));
+
+        Files.delete(second.resolve(ReportFileStore.MANIFEST_FILE));
+        assertEquals("second".length(), store.collectGarbage(tempDir, 0));
+        assertFalse(Files.exists(secondBlob));
+        assertTrue(Files.exists(sharedBlob));
+        assertEquals("first", Files.readString(store.resolve(first, "data/suites.json")));
+    }
+
+    private Path writeReport(String name, String data) throws IOException {
+        Path report = tempDir.resolve(name);
+        Files.createDirectories(report.resolve("data"));
+        Files.createDirectories(report.resolve("history"));
+        Files.writeString(report.resolve("index.html"), "<html></html>");
+        Files.writeString(report.resolve("app.js"), "console.log('allure');");
+        Files.writeString(report.resolve("data/suites.json"), data);
+        Files.writeString(report.resolve("history/history.json"), "{}");
+        return report;
+    }
+}
@@ -0,0 +1,165 @@
+package com.junit.launcher.service;
+
+import com.junit.launcher.model.ExecutionSummary;
+import com.junit.launcher.model.ReportAsset;
+import com.junit.launcher.model.ReportMetadata;
+import com.junit.launcher.model.ReportPage;
+import com.junit.launcher.model.ReportQuery;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipFile;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ReportGenerationServiceImpl.
+ */
+class ReportGenerationServiceImplTest {
+
+    private final AtomicInteger generations = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ThreadPoolTaskExecutor executor;
+    private ReportGenerationService reportGenerationService;
+
+    @BeforeEach
+    void setUp() {
+        // Report service that blocks until released and fails for one execution
+        ReportService reportService = new ReportService() {
+            @Override
+            public ReportMetadata generateReport(String executionId) throws Exception {
+                generations.incrementAndGet();
+                release.await(10, TimeUnit.SECONDS);
+                if (executionId.equals("broken")) {
+                    throw new IllegalStateException("No results");
+                }
+                ReportMetadata metadata = new ReportMetadata();
+                metadata.setReportId("report-" + executionId);
+                metadata.setExecutionId(executionId);
+                return metadata;
+            }
+
+            @Override
+            public ReportMetadata generateReport(String executionId, ExecutionSummary summary) throws Exception {
+                return generateReport(executionId);
+            }
+
+            @Override
+            public List<ReportMetadata> listReports() {
+                return List.of();
+            }
+
+            @Override
+            public ReportPage queryReports(ReportQuery query) {
+                return new ReportPage();
+            }
+
+            @Override
+            public ReportMetadata combineReports(List<String> reportIds) throws Exception {
+                return null;
+            }
+
+            @Override
+            public ReportMetadata getReportMetadata(String reportId) {
+                return null;
+            }
+            
+            @Override
+            public ReportAsset getReportAsset(String reportId, String filePath) {
+                return null;
+            }
+
+            @Override
+            public List<String> getFailedTests(String reportId) throws Exception {
+                return List.of();
+            }
+            
+            @Override
+            public long deleteReport(String reportId) {
+                return 0;
+            }
+            
+            @Override
+            public List<String> listIdleReports() {
+                return List.of();
+            }
+            
+            @Override
+            public long demoteReport(String reportId) {
+                return 0;
+            }
+            
+            @Override
+            public boolean rehydrateReport(String reportId) {
+                return false;
+            }
+            
+            @Override
+            public ZipFile openColdArchive(String reportId) {
+                return null;
+            }
+            
+            @Override
+            public long collectGarbage() {
+                return 0;
+            }
+        };
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.initialize();
+
+        reportGenerationService = new ReportGenerationServiceImpl(reportService, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void testRequestReport_coalescesDuplicateRequests() throws Exception {
+        CompletableFuture<ReportMetadata> first = reportGenerationService.requestReport("exec-1");
+        CompletableFuture<ReportMetadata> second = reportGenerationService.requestReport("exec-1");
+
+        assertSame(first, second, "Duplicate requests should share one generation");
+        assertTrue(reportGenerationService.isGenerating("exec-1"));
+
+        release.countDown();
+        assertEquals("report-exec-1", first.get(10, TimeUnit.SECONDS).getReportId());
+        assertEquals(1, generations.get(), "Report should be generated once");
+        assertFalse(reportGenerationService.isGenerating("exec-1"));
+    }
+
+    @Test
+    void testRequestReport_completesExceptionallyOnFailure() {
+        release.countDown();
+
+        CompletableFuture<ReportMetadata> generation = reportGenerationService.requestReport("broken");
+
+        ExecutionException exception = assertThrows(ExecutionException.class,
+            () -> generation.get(10, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    void testRequestReport_runsCallbacksWithExecutionInMdc() throws Exception {
+        CompletableFuture<ReportMetadata> generation = reportGenerationService.requestReport("exec-1");
+        CompletableFuture<String> callbackMdc = generation.thenApply(metadata -> MDC.get("executionId"));
+
+        release.countDown();
+
+        assertEquals("exec-1", callbackMdc.get(10, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,240 @@
+package com.junit.launcher.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.junit.launcher.model.ReportMetadata;
+import com.junit.launcher.model.ReportPage;
+import com.junit.launcher.model.ReportQuery;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ReportMetadataIndex.
+ */
+class ReportMetadataIndexTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path reportsDir;
+
+    private ReportMetadataIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ReportMetadataIndex(() -> reportsDir, this::load);
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.close();
+    }
+
+    @Test
+    void testList_returnsReportsNewestFirst() throws IOException {
+        writeReport("allure-report-2024-01-01_10-00-00", "2024-01-01_10-00-00");
+        writeReport("allure-report-2024-03-01_10-00-00", "2024-03-01_10-00-00");
+        writeReport("allure-report-2024-02-01_10-00-00", "2024-02-01_10-00-00");
+        Files.createDirectories(reportsDir.resolve("not-a-report"));
+
+        List<String> ids = index.list().stream().map(ReportMetadata::getReportId).collect(Collectors.toList());
+
+        assertEquals(List.of("allure-report-2024-03-01_10-00-00", "allure-report-2024-02-01_10-00-00",
+            "allure-report-2024-01-01_10-00-00"), ids);
+        assertEquals("allure-report-2024-03-01_10-00-00", index.latest().getReportId());
+    }
+
+    @Test
+    void testPut_replacesExistingEntryAndUpdatesLatest() {
+        assertNull(index.latest());
+
+        index.put(metadata("allure-report-a", "2024-01-01_10-00-00"));
+        index.put(metadata("allure-report-b", "2024-01-02_10-00-00"));
+        index.put(metadata("allure-report-a", "2024-01-03_10-00-00"));
+
+        assertEquals(2, index.list().size());
+        assertEquals("allure-report-a", index.latest().getReportId());
+    }
+
+    @Test
+    void testGet_fallsBackToDiskOnMiss() throws IOException {
+        index.list();
+        writeReport("allure-report-2024-01-01_10-00-00", "2024-01-01_10-00-00");
+
+        ReportMetadata metadata = index.get("allure-report-2024-01-01_10-00-00");
+
+        assertNotNull(metadata);
+        assertEquals("2024-01-01_10-00-00", metadata.getTimestamp());
+        assertNull(index.get("allure-report-missing"));
+    }
+
+    @Test
+    void testGet_doesNotReindexReportDeletedWhileLoading() throws IOException {
+        String reportId = "allure-report-2024-01-01_10-00-00";
+        ReportMetadataIndex[] racing = new ReportMetadataIndex[1];
+        racing[0] = new ReportMetadataIndex(() -> reportsDir, id -> {
+            ReportMetadata metadata = load(id);
+            // The report is deleted after its metadata was read but before it is indexed
+            racing[0].delete(id);
+            return metadata;
+        });
+        try {
+            racing[0].list();
+            writeReport(reportId, "2024-01-01_10-00-00");
+
+            assertNull(racing[0].get(reportId));
+            assertTrue(racing[0].list().isEmpty());
+
+            racing[0].put(metadata(reportId, "2024-01-01_10-00-00"));
+            assertEquals(1, racing[0].list().size());
+        } finally {
+            racing[0].close();
+        }
+    }
+
+    @Test
+    void testDelete_keepsReportOutOfIndexUntilWrittenAgain() throws IOException {
+        String reportId = "allure-report-2024-01-01_10-00-00";
+        writeReport(reportId, "2024-01-01_10-00-00");
+        assertNotNull(index.get(reportId));
+
+        index.delete(reportId);
+
+        assertNull(index.get(reportId), "Metadata still on disk should not bring the report back");
+        assertTrue(index.list().isEmpty());
+    }
+
+    @Test
+    void testWatch_picksUpExternalChanges() throws Exception {
+        writeReport("allure-report-2024-01-01_10-00-00", "2024-01-01_10-00-00");
+        assertEquals(1, index.list().size());
+
+        // Added and removed by another process
+        writeReport("allure-report-2024-01-02_10-00-00", "2024-01-02_10-00-00");
+        deleteDirectory(reportsDir.resolve("allure-report-2024-01-01_10-00-00"));
+
+        assertTrue(waitFor(() -> index.list().size() == 1
+            && index.latest().getReportId().equals("allure-report-2024-01-02_10-00-00")),
+            "Index should reflect directory changes: " + index.list());
+    }
+
+    @Test
+    void testQuery_pagesWithCursorUntilExhausted() {
+        for (int day = 1; day <= 5; day++) {
+            String timestamp = String.format("2024-01-%02d_10-00-00", day);
+            index.put(metadata("allure-report-" + timestamp, timestamp));
+        }
+
+        ReportQuery query = new ReportQuery();
+        query.setLimit(2);
+        ReportPage first = index.query(query);
+        query.setCursor(first.getNextCursor());
+        ReportPage second = index.query(query);
+        query.setCursor(second.getNextCursor());
+        ReportPage third = index.query(query);
+
+        assertEquals(List.of("2024-01-05_10-00-00", "2024-01-04_10-00-00"), timestamps(first));
+        assertEquals(List.of("2024-01-03_10-00-00", "2024-01-02_10-00-00"), timestamps(second));
+        assertEquals(List.of("2024-01-01_10-00-00"), timestamps(third));
+        assertNull(third.getNextCursor());
+    }
+
+    @Test
+    void testQuery_appliesTimeStatusAndCombinedFilters() {
+        for (int day = 1; day <= 6; day++) {
+            String timestamp = String.format("2024-01-%02d_10-00-00", day);
+            ReportMetadata metadata = metadata("allure-report-" + timestamp, timestamp);
+            metadata.setFailedTests(day % 2 == 0 ? 1 : 0);
+            metadata.setCombined(day == 4);
+            index.put(metadata);
+        }
+
+        ReportQuery range = new ReportQuery();
+        range.setFrom("2024-01-02");
+        range.setTo("2024-01-05");
+        assertEquals(List.of("2024-01-04_10-00-00", "2024-01-03_10-00-00", "2024-01-02_10-00-00"),
+            timestamps(index.query(range)));
+
+        ReportQuery failed = new ReportQuery();
+        failed.setStatus("failed");
+        assertEquals(List.of("2024-01-06_10-00-00", "2024-01-04_10-00-00", "2024-01-02_10-00-00"),
+            timestamps(index.query(failed)));
+
+        ReportQuery combined = new ReportQuery();
+        combined.setCombinedOnly(true);
+        assertEquals(List.of("2024-01-04_10-00-00"), timestamps(index.query(combined)));
+    }
+
+    @Test
+    void testQuery_rejectsInvalidCriteria() {
+        ReportQuery badCursor = new ReportQuery();
+        badCursor.setCursor("not a cursor!");
+        assertThrows(IllegalArgumentException.class, () -> index.query(badCursor));
+
+        ReportQuery badStatus = new ReportQuery();
+        badStatus.setStatus("broken");
+        assertThrows(IllegalArgumentException.class, () -> index.query(badStatus));
+
+        ReportQuery badLimit = new ReportQuery();
+        badLimit.setLimit(0);
+        assertThrows(IllegalArgumentException.class, () -> index.query(badLimit));
+    }
+
+    private List<String> timestamps(ReportPage page) {
+        return page.getReports().stream().map(ReportMetadata::getTimestamp).collect(Collectors.toList());
+    }
+
+    private ReportMetadata load(String reportId) {
+        Path metadataFile = reportsDir.resolve(reportId).resolve("metadata.json");
+        if (!Files.exists(metadataFile)) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(metadataFile.toFile(), ReportMetadata.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void writeReport(String reportId, String timestamp) throws IOException {
+        // Directory first, metadata last, as report generation does
+        Path reportDir = Files.createDirectories(reportsDir.resolve(reportId));
+        objectMapper.writeValue(reportDir.resolve("metadata.json").toFile(), metadata(reportId, timestamp));
+    }
+
+    private ReportMetadata metadata(String reportId, String timestamp) {
+        ReportMetadata metadata = new ReportMetadata();
+        metadata.setReportId(reportId);
+        metadata.setExecutionId("exec-" + reportId);
+        metadata.setTimestamp(timestamp);
+        return metadata;
+    }
+
+    private boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+        // Polling watch services can take several seconds to notice changes
+        for (int i = 0; i < 150; i++) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(100);
+        }
+        return condition.getAsBoolean();
+    }
+
+    private void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -2,7 +2,10 @@ package com.junit.launcher.service;
 
 import com.junit.launcher.config.AllureProperties;
 import com.junit.launcher.config.StorageProperties;
+import com.junit.launcher.model.ExecutionSummary;
 import com.junit.launcher.model.ReportMetadata;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.TestResult;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,7 +14,10 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -35,11 +41,14 @@ class ReportServiceImplTest {
         allureProperties.setPath("allure");
         
         allureConfigurationService = new AllureConfigurationService(storageProperties);
-        reportService = new ReportServiceImpl(allureProperties, storageProperties, allureConfigurationService);
+        reportService = new ReportServiceImpl(allureProperties, storageProperties, allureConfigurationService,
+            ReportFileStore.create(storageProperties));
     }
     
     @AfterEach
     void tearDown() throws IOException {
+        ((ReportServiceImpl) reportService).close();
+        
         // Clean up test directories
         Path testStorage = Paths.get("./test-storage");
         if (Files.exists(testStorage)) {
@@ -156,6 +165,70 @@ class ReportServiceImplTest {
         assertTrue(failedTests.contains("TestClass.testMethod4"));
     }
     
+    @Test
+    void testGetFailedTests_includesBrokenTestsWhenScanning() throws Exception {
+        String executionId = "test-execution-broken";
+        Path resultsDir = allureConfigurationService.getResultsDirectory(executionId);
+        Files.createDirectories(resultsDir);
+        createDummyAllureResultWithTestCaseId(resultsDir, "failed", "test1", "TestClass.testMethod1");
+        createDummyAllureResultWithTestCaseId(resultsDir, "broken", "test2", "TestClass.testMethod2");
+        
+        // Report without a failed test index, as generated by earlier versions
+        Path reportDir = Paths.get("./test-storage/reports/test-report");
+        Files.createDirectories(reportDir);
+        Files.writeString(reportDir.resolve("metadata.json"),
+            "{\"reportId\":\"test-report\",\"executionId\":\"" + executionId + "\",\"timestamp\":\"2024-01-01_12-00-00\"}");
+        
+        List<String> failedTests = reportService.getFailedTests("test-report");
+        
+        assertEquals(List.of("TestClass.testMethod1", "TestClass.testMethod2"), failedTests);
+    }
+    
+    @Test
+    void testGetFailedTests_readsIndexWrittenAtReportTime() throws Exception {
+        String executionId = "test-execution-index";
+        Path resultsDir = allureConfigurationService.getResultsDirectory(executionId);
+        Files.createDirectories(resultsDir);
+        createDummyAllureResult(resultsDir, "passed");
+        
+        ExecutionSummary summary = new ExecutionSummary(executionId);
+        summary.setFailedTests(1);
+        summary.setBrokenTests(1);
+        summary.setFailedTestIds(List.of("TestClass.testFailed"));
+        summary.setBrokenTestIds(List.of("TestClass.testBroken"));
+        ReportMetadata metadata = reportService.generateReport(executionId, summary);
+        
+        // The results are gone, so only the index can answer
+        deleteDirectory(resultsDir);
+        
+        List<String> failedTests = reportService.getFailedTests(metadata.getReportId());
+        
+        assertEquals(List.of("TestClass.testFailed", "TestClass.testBroken"), failedTests);
+    }
+    
+    @Test
+    void testGenerateReport_readsJournaledResults() throws Exception {
+        String executionId = "test-execution-journal";
+        Path resultsDir = allureConfigurationService.getResultsDirectory(executionId);
+        try (JournalResultsWriter writer = new JournalResultsWriter(resultsDir)) {
+            writer.write(new TestResult().setUuid("a").setName("a").setStatus(Status.PASSED).setTestCaseId("TestClass.a"));
+            writer.write(new TestResult().setUuid("b").setName("b").setStatus(Status.FAILED).setTestCaseId("TestClass.b"));
+        }
+        
+        ReportMetadata metadata = reportService.generateReport(executionId);
+        
+        assertEquals(2, metadata.getTotalTests());
+        assertEquals(1, metadata.getFailedTests());
+        assertEquals(List.of("TestClass.b"), reportService.getFailedTests(metadata.getReportId()));
+        
+        // Result files only existed while the report was generated
+        try (Stream<Path> files = Files.list(resultsDir)) {
+            assertEquals(List.of(ResultsJournal.FILE_NAME),
+                files.map(p -> p.getFileName().toString()).collect(Collectors.toList()));
+        }
+        assertTrue(Files.exists(Paths.get(metadata.getReportPath(), "index.html")));
+    }
+    
     @Test
     void testGetFailedTests_throwsExceptionForNonExistentReport() {
         Exception exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -210,29 +283,14 @@ class ReportServiceImplTest {
         Path secondHistoryDir = secondResultsDir.resolve("history");
         assertFalse(Files.exists(secondHistoryDir));
         
-        // Generate second report (this should copy history from first report)
-        try {
-            ReportMetadata secondMetadata = reportService.generateReport(secondExecutionId);
-            
-            // If Allure is installed, verify history was copied
-            assertTrue(Files.exists(secondHistoryDir));
-            assertTrue(Files.exists(secondHistoryDir.resolve("history.json")));
-            assertTrue(Files.exists(secondHistoryDir.resolve("trend.json")));
-            
-            // Verify content was copied correctly
-            String historyContent = Files.readString(secondHistoryDir.resolve("history.json"));
-            assertEquals("{\"history\":\"data1\"}", historyContent);
-            
-            String trendContent = Files.readString(secondHistoryDir.resolve("trend.json"));
-            assertEquals("{\"trend\":\"data1\"}", trendContent);
-            
-        } catch (RuntimeException e) {
-            // Expected if Allure CLI is not installed
-            // But history should still be copied to results directory
-            assertTrue(Files.exists(secondHistoryDir));
-            assertTrue(Files.exists(secondHistoryDir.resolve("history.json")));
-            assertTrue(Files.exists(secondHistoryDir.resolve("trend.json")));
-        }
+        // Generate second report (this should seed the history store from the first report)
+        reportService.generateReport(secondExecutionId);
+        
+        // History is read from the store instead of being copied into the results
+        assertFalse(Files.exists(secondHistoryDir));
+        Path storedHistoryDir = Paths.get(storageProperties.getReportsPath(), ".history", "history");
+        assertEquals("{\"history\":\"data1\"}", Files.readString(storedHistoryDir.resolve("history.json")));
+        assertEquals("{\"trend\":\"data1\"}", Files.readString(storedHistoryDir.resolve("trend.json")));
     }
     
     @Test
@@ -261,6 +319,59 @@ class ReportServiceImplTest {
         }
     }
     
+    @Test
+    void testGenerateReport_takesCountsFromExecutionSummary() throws Exception {
+        String executionId = "test-execution-summary";
+        Path resultsDir = allureConfigurationService.getResultsDirectory(executionId);
+        Files.createDirectories(resultsDir);
+        createDummyAllureResult(resultsDir, "passed");
+        
+        // The summary disagrees with the result file, so only it can be the source
+        ExecutionSummary summary = new ExecutionSummary(executionId);
+        summary.setPassedTests(3);
+        summary.setFailedTests(2);
+        summary.setBrokenTests(1);
+        summary.setSkippedTests(4);
+        summary.setDurationMillis(1500);
+        
+        ReportMetadata metadata = reportService.generateReport(executionId, summary);
+        
+        assertEquals(10, metadata.getTotalTests());
+        assertEquals(3, metadata.getPassedTests());
+        assertEquals(2, metadata.getFailedTests());
+        assertEquals(4, metadata.getSkippedTests());
+        assertEquals(1500, metadata.getDurationMillis());
+        assertEquals(metadata, reportService.getReportMetadata(metadata.getReportId()));
+    }
+    
+    @Test
+    void testCollectGarbage_deletesOldResultsWithoutReport() throws Exception {
+        // Given a report's results, old results without a report and a running execution's results
+        Path reportDir = Paths.get("./test-storage/reports/allure-report-2024-01-01_12-00-00");
+        Files.createDirectories(reportDir);
+        Files.writeString(reportDir.resolve("metadata.json"),
+            "{\"reportId\":\"allure-report-2024-01-01_12-00-00\",\"executionId\":\"reported\",\"timestamp\":\"2024-01-01_12-00-00\"}");
+        FileTime old = FileTime.fromMillis(System.currentTimeMillis() - 2 * 24 * 60 * 60 * 1000L);
+        for (String executionId : List.of("reported", "orphan", "running")) {
+            Path resultsDir = allureConfigurationService.getResultsDirectory(executionId);
+            Files.createDirectories(resultsDir);
+            Path journal = Files.writeString(resultsDir.resolve(ResultsJournal.FILE_NAME), "results");
+            if (!executionId.equals("running")) {
+                Files.setLastModifiedTime(journal, old);
+            }
+            Files.setLastModifiedTime(resultsDir, old);
+        }
+        
+        // When
+        long reclaimed = reportService.collectGarbage();
+        
+        // Then
+        assertEquals("results".length(), reclaimed);
+        assertFalse(Files.exists(allureConfigurationService.getResultsDirectory("orphan")));
+        assertTrue(Files.exists(allureConfigurationService.getResultsDirectory("reported")));
+        assertTrue(Files.exists(allureConfigurationService.getResultsDirectory("running")));
+    }
+    
     private void createDummyAllureResult(Path resultsDir, String status) throws IOException {
         String resultJson = String.format(
             "{\"uuid\":\"test-uuid\",\"name\":\"Test\",\"status\":\"%s\"}", status
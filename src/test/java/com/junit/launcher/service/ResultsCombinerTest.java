@@ -0,0 +1,88 @@
+package com.junit.launcher.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ResultsCombiner.
+ */
+class ResultsCombinerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final AllureResultsScanner scanner = new AllureResultsScanner(2);
+    private final ResultsCombiner combiner = new ResultsCombiner(scanner, 2);
+
+    @AfterEach
+    void tearDown() {
+        combiner.close();
+        scanner.close();
+    }
+
+    @Test
+    void testCombine_keepsLatestResultPerHistoryId() throws Exception {
+        Path monday = tempDir.resolve("monday");
+        Path tuesday = tempDir.resolve("tuesday");
+        writeResult(monday, "a1", "history-a", "failed", 2000);
+        writeResult(monday, "b1", "history-b", "passed", 2000);
+        writeResult(tuesday, "a2", "history-a", "passed", 3000);
+
+        Path combined = tempDir.resolve("combined");
+        combiner.combine(List.of(monday, tuesday), combined);
+
+        assertEquals(List.of("a2-result.json", "b1-result.json"), fileNames(combined));
+    }
+
+    @Test
+    void testCombine_keepsDuplicateUuidOnce() throws Exception {
+        Path first = tempDir.resolve("first");
+        Path second = tempDir.resolve("second");
+        writeResult(first, "same", "history-a", "passed", 1000);
+        writeResult(second, "same", "history-b", "passed", 1000);
+        Files.writeString(first.resolve("suite-container.json"), "{\"uuid\":\"suite\"}");
+        Files.writeString(second.resolve("suite-container.json"), "{\"uuid\":\"suite\"}");
+
+        Path combined = tempDir.resolve("combined");
+        combiner.combine(List.of(first, second), combined);
+
+        assertEquals(List.of("same-result.json", "suite-container.json"), fileNames(combined));
+        assertTrue(Files.isSameFile(first.resolve("same-result.json"), combined.resolve("same-result.json")));
+    }
+
+    @Test
+    void testCombine_linksInsteadOfCopying() throws Exception {
+        Path source = tempDir.resolve("source");
+        writeResult(source, "a", "history-a", "passed", 1000);
+        Files.writeString(source.resolve("log-attachment.txt"), "log");
+
+        Path combined = tempDir.resolve("combined");
+        combiner.combine(List.of(source, tempDir.resolve("missing")), combined);
+
+        assertTrue(Files.isSameFile(source.resolve("a-result.json"), combined.resolve("a-result.json")));
+        assertTrue(Files.isSameFile(source.resolve("log-attachment.txt"), combined.resolve("log-attachment.txt")));
+    }
+
+    private void writeResult(Path dir, String uuid, String historyId, String status, long stop) throws IOException {
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve(uuid + "-result.json"), String.format(
+            "{\"uuid\":\"%s\",\"historyId\":\"%s\",\"status\":\"%s\",\"start\":%d,\"stop\":%d}",
+            uuid, historyId, status, stop - 100, stop));
+    }
+
+    private List<String> fileNames(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(p -> p.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+}
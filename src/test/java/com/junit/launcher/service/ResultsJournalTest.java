@@ -0,0 +1,147 @@
+package com.junit.launcher.service;
+
+import com.junit.launcher.model.ExecutionSummary;
+import io.qameta.allure.FileSystemResultsWriter;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.model.TestResultContainer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ResultsJournal and JournalResultsWriter.
+ */
+class ResultsJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testMaterialize_matchesFileSystemWriterOutput() throws Exception {
+        Path journalDir = tempDir.resolve("journal");
+        Path filesDir = tempDir.resolve("files");
+        Files.createDirectories(filesDir);
+        FileSystemResultsWriter filesWriter = new FileSystemResultsWriter(filesDir);
+
+        try (JournalResultsWriter journalWriter = new JournalResultsWriter(journalDir)) {
+            for (int i = 0; i < 3; i++) {
+                TestResult result = new TestResult().setUuid("uuid-" + i).setName("test" + i)
+                    .setTestCaseId("TestClass.test" + i).setStatus(Status.PASSED);
+                journalWriter.write(result);
+                filesWriter.write(result);
+            }
+            TestResultContainer container = new TestResultContainer().setUuid("container").setName("suite");
+            journalWriter.write(container);
+            filesWriter.write(container);
+            journalWriter.write("a-attachment.txt", new ByteArrayInputStream("log".getBytes(StandardCharsets.UTF_8)));
+        }
+
+        // Only the journal is on disk until results are materialized
+        try (Stream<Path> files = Files.list(journalDir)) {
+            assertEquals(List.of(ResultsJournal.FILE_NAME),
+                files.map(p -> p.getFileName().toString()).collect(Collectors.toList()));
+        }
+
+        Path materializedDir = tempDir.resolve("materialized");
+        ResultsJournal.materialize(journalDir, materializedDir);
+
+        for (int i = 0; i < 3; i++) {
+            String name = "uuid-" + i + "-result.json";
+            assertEquals(Files.readString(filesDir.resolve(name)), Files.readString(materializedDir.resolve(name)));
+        }
+        assertEquals(Files.readString(filesDir.resolve("container-container.json")),
+            Files.readString(materializedDir.resolve("container-container.json")));
+        assertEquals("log", Files.readString(materializedDir.resolve("a-attachment.txt")));
+    }
+
+    @Test
+    void testForEachRecord_ignoresTruncatedTail() throws Exception {
+        try (JournalResultsWriter writer = new JournalResultsWriter(tempDir)) {
+            writer.write(new TestResult().setUuid("complete").setStatus(Status.FAILED).setTestCaseId("A"));
+        }
+        try (OutputStream out = Files.newOutputStream(ResultsJournal.journalFile(tempDir), StandardOpenOption.APPEND)) {
+            out.write(new byte[] {ResultsJournal.RESULT, 0, 20, 'p', 'a', 'r'});
+        }
+
+        ExecutionSummary summary = new AllureResultsScanner(2).scan("exec", tempDir);
+
+        assertEquals(1, summary.getTotalTests());
+        assertEquals(List.of("A"), summary.getFailedTestIds());
+    }
+
+    @Test
+    void testAppend_combinesJournals() throws Exception {
+        Path first = tempDir.resolve("first");
+        Path second = tempDir.resolve("second");
+        try (JournalResultsWriter writer = new JournalResultsWriter(first)) {
+            writer.write(new TestResult().setUuid("one").setStatus(Status.PASSED));
+        }
+        try (JournalResultsWriter writer = new JournalResultsWriter(second)) {
+            writer.write(new TestResult().setUuid("two").setStatus(Status.BROKEN).setTestCaseId("B"));
+        }
+
+        Path combined = tempDir.resolve("combined");
+        Files.createDirectories(combined);
+        ResultsJournal.append(ResultsJournal.journalFile(first), ResultsJournal.journalFile(combined));
+        ResultsJournal.append(ResultsJournal.journalFile(second), ResultsJournal.journalFile(combined));
+
+        ExecutionSummary summary = new AllureResultsScanner(2).scan("combined", combined);
+
+        assertEquals(2, summary.getTotalTests());
+        assertEquals(1, summary.getPassedTests());
+        assertEquals(List.of("B"), summary.getBrokenTestIds());
+    }
+
+    @Test
+    void testForEachRecord_stopsAtCorruptLength() throws Exception {
+        try (JournalResultsWriter writer = new JournalResultsWriter(tempDir)) {
+            writer.write(new TestResult().setUuid("complete").setStatus(Status.PASSED));
+        }
+        try (OutputStream out = Files.newOutputStream(ResultsJournal.journalFile(tempDir), StandardOpenOption.APPEND)) {
+            out.write(new byte[] {ResultsJournal.RESULT, 0, 1, 'x', 0x7f, -1, -1, -1});
+        }
+
+        List<String> names = new ArrayList<>();
+        ResultsJournal.forEachRecord(ResultsJournal.journalFile(tempDir), (type, name, content) -> names.add(name));
+
+        assertEquals(List.of("complete-result.json"), names);
+    }
+
+    @Test
+    void testAppend_leavesOutTruncatedTailOfSource() throws Exception {
+        Path first = tempDir.resolve("first");
+        Path second = tempDir.resolve("second");
+        try (JournalResultsWriter writer = new JournalResultsWriter(first)) {
+            writer.write(new TestResult().setUuid("one").setStatus(Status.PASSED));
+        }
+        try (OutputStream out = Files.newOutputStream(ResultsJournal.journalFile(first), StandardOpenOption.APPEND)) {
+            out.write(new byte[] {ResultsJournal.RESULT, 0, 20, 'p', 'a', 'r'});
+        }
+        try (JournalResultsWriter writer = new JournalResultsWriter(second)) {
+            writer.write(new TestResult().setUuid("two").setStatus(Status.FAILED).setTestCaseId("B"));
+        }
+
+        Path combined = tempDir.resolve("combined");
+        Files.createDirectories(combined);
+        ResultsJournal.append(ResultsJournal.journalFile(first), ResultsJournal.journalFile(combined));
+        ResultsJournal.append(ResultsJournal.journalFile(second), ResultsJournal.journalFile(combined));
+
+        ExecutionSummary summary = new AllureResultsScanner(2).scan("combined", combined);
+
+        assertEquals(2, summary.getTotalTests());
+        assertEquals(List.of("B"), summary.getFailedTestIds());
+    }
+}
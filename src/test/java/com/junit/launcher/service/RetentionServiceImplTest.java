@@ -0,0 +1,258 @@
+package com.junit.launcher.service;
+
+import com.junit.launcher.config.StorageProperties;
+import com.junit.launcher.model.ExecutionSummary;
+import com.junit.launcher.model.ReportAsset;
+import com.junit.launcher.model.ReportMetadata;
+import com.junit.launcher.model.ReportPage;
+import com.junit.launcher.model.ReportQuery;
+import com.junit.launcher.model.RetentionResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.ZipFile;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RetentionServiceImpl.
+ */
+class RetentionServiceImplTest {
+
+    @TempDir
+    Path tempDir;
+
+    private StorageProperties storageProperties;
+    private ArchiveService archiveService;
+    private ReportService reportService;
+    private ReportFileStore reportFileStore;
+    private final List<ReportMetadata> reports = new ArrayList<>();
+    private final List<String> idleReportIds = new ArrayList<>();
+    private final List<String> demotedReportIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        storageProperties = new StorageProperties();
+        storageProperties.setLogsPath(tempDir.resolve("logs").toString());
+        storageProperties.setReportsPath(tempDir.resolve("reports").toString());
+        storageProperties.setAllureResultsPath(tempDir.resolve("allure-results").toString());
+        storageProperties.setRetentionIntervalMinutes(0);
+        storageProperties.setRetentionKeepLast(0);
+
+        // Reports are listed newest first and each frees 100 bytes when deleted
+        reportService = new ReportService() {
+            @Override
+            public ReportMetadata generateReport(String executionId) {
+                return null;
+            }
+
+            @Override
+            public ReportMetadata generateReport(String executionId, ExecutionSummary summary) {
+                return null;
+            }
+
+            @Override
+            public List<ReportMetadata> listReports() {
+                return new ArrayList<>(reports);
+            }
+
+            @Override
+            public ReportPage queryReports(ReportQuery query) {
+                return new ReportPage();
+            }
+
+            @Override
+            public ReportMetadata combineReports(List<String> reportIds) {
+                return null;
+            }
+
+            @Override
+            public ReportMetadata getReportMetadata(String reportId) {
+                return null;
+            }
+
+            @Override
+            public ReportAsset getReportAsset(String reportId, String filePath) {
+                return null;
+            }
+
+            @Override
+            public List<String> getFailedTests(String reportId) {
+                return List.of();
+            }
+
+            @Override
+            public long deleteReport(String reportId) {
+                if (!reports.removeIf(report -> report.getReportId().equals(reportId))) {
+                    throw new IllegalArgumentException("Report not found: " + reportId);
+                }
+                return 100;
+            }
+
+            @Override
+            public List<String> listIdleReports() {
+                return idleReportIds.stream()
+                    .filter(reportId -> reportIds().contains(reportId) && !demotedReportIds.contains(reportId))
+                    .collect(Collectors.toList());
+            }
+
+            @Override
+            public long demoteReport(String reportId) {
+                demotedReportIds.add(reportId);
+                return 50;
+            }
+
+            @Override
+            public boolean rehydrateReport(String reportId) {
+                return demotedReportIds.remove(reportId);
+            }
+
+            @Override
+            public ZipFile openColdArchive(String reportId) {
+                return null;
+            }
+
+            @Override
+            public long collectGarbage() {
+                return 0;
+            }
+        };
+
+        reportFileStore = ReportFileStore.create(storageProperties);
+        archiveService = new ArchiveServiceImpl(storageProperties, reportService,
+            new LogIndexServiceImpl(storageProperties), reportFileStore);
+    }
+
+    @Test
+    void testRunRetention_deletesReportsAndLogsOlderThanMaxAge() throws Exception {
+        storageProperties.setRetentionMaxAgeDays(30);
+        addReport("report-new", "2999-01-01_00-00-00");
+        addReport("report-old", "2020-01-01_00-00-00");
+        writeLog("execution-2999-01-01_00-00-00_aaaaaaaa.log");
+        writeLog("execution-2020-01-01_00-00-00_bbbbbbbb.log");
+
+        RetentionResult result = new RetentionServiceImpl(storageProperties, reportService, archiveService, reportFileStore).runRetention();
+
+        assertEquals(List.of("report-old"), result.getDeletedReportIds());
+        assertEquals(List.of("execution-2020-01-01_00-00-00_bbbbbbbb.log"), result.getDeletedLogIds());
+        assertEquals(List.of("report-new"), reportIds());
+        assertEquals(1, archiveService.listLogFiles().size());
+        assertEquals(100 + "old log".length(), result.getBytesReclaimed());
+        assertFalse(result.isPending());
+    }
+
+    @Test
+    void testRunRetention_keepsNewestReportsBeyondMaxCount() throws Exception {
+        storageProperties.setRetentionMaxCount(1);
+        storageProperties.setRetentionKeepLast(2);
+        addReport("report-3", "2024-01-03_00-00-00");
+        addReport("report-2", "2024-01-02_00-00-00");
+        addReport("report-1", "2024-01-01_00-00-00");
+
+        RetentionResult result = new RetentionServiceImpl(storageProperties, reportService, archiveService, reportFileStore).runRetention();
+
+        assertEquals(List.of("report-1"), result.getDeletedReportIds());
+        assertEquals(List.of("report-3", "report-2"), reportIds());
+    }
+
+    @Test
+    void testRunRetention_keepsReportsUsedByCombinedReports() throws Exception {
+        storageProperties.setRetentionMaxCount(1);
+        ReportMetadata combined = addReport("combined-1", "2024-01-03_00-00-00");
+        addReport("report-2", "2024-01-02_00-00-00");
+        addReport("report-1", "2024-01-01_00-00-00");
+        combined.setCombinedReportIds(List.of("report-1"));
+
+        RetentionResult result = new RetentionServiceImpl(storageProperties, reportService, archiveService, reportFileStore).runRetention();
+
+        assertEquals(List.of("report-2"), result.getDeletedReportIds());
+        assertEquals(List.of("combined-1", "report-1"), reportIds());
+    }
+
+    @Test
+    void testRunRetention_deletesOldestFirstInBatches() throws Exception {
+        storageProperties.setRetentionMaxCount(1);
+        storageProperties.setRetentionBatchSize(2);
+        for (int i = 5; i >= 1; i--) {
+            addReport("report-" + i, "2024-01-0" + i + "_00-00-00");
+        }
+        RetentionService retentionService = new RetentionServiceImpl(storageProperties, reportService, archiveService, reportFileStore);
+
+        RetentionResult first = retentionService.runRetention();
+        assertEquals(List.of("report-1", "report-2"), first.getDeletedReportIds());
+        assertTrue(first.isPending());
+
+        RetentionResult second = retentionService.runRetention();
+        assertEquals(List.of("report-3", "report-4"), second.getDeletedReportIds());
+        assertFalse(second.isPending());
+        assertEquals(400, second.getTotalBytesReclaimed());
+        assertSame(second, retentionService.getLastResult());
+        assertEquals(List.of("report-5"), reportIds());
+    }
+
+    @Test
+    void testRunRetention_demotesIdleReportsWithRestOfBatch() throws Exception {
+        storageProperties.setRetentionMaxCount(2);
+        storageProperties.setRetentionBatchSize(2);
+        addReport("report-3", "2024-01-03_00-00-00");
+        addReport("report-2", "2024-01-02_00-00-00");
+        addReport("report-1", "2024-01-01_00-00-00");
+        idleReportIds.addAll(List.of("report-1", "report-2", "report-3"));
+        RetentionService retentionService = new RetentionServiceImpl(storageProperties, reportService, archiveService, reportFileStore);
+
+        RetentionResult first = retentionService.runRetention();
+        assertEquals(List.of("report-1"), first.getDeletedReportIds());
+        assertEquals(List.of("report-2"), first.getDemotedReportIds());
+        assertEquals(150, first.getBytesReclaimed());
+        assertTrue(first.isPending());
+
+        RetentionResult second = retentionService.runRetention();
+        assertEquals(List.of("report-3"), second.getDemotedReportIds());
+        assertFalse(second.isPending());
+    }
+
+    @Test
+    void testRunRetention_countsStoredBlobsTowardsMaxSize() throws Exception {
+        storageProperties.setRetentionMaxSizeMb(1);
+        reportFileStore = new ReportFileStore(tempDir.resolve("reports/.blobs"), "blobs");
+        addReport("report-2", "2024-01-02_00-00-00");
+        addReport("report-1", "2024-01-01_00-00-00");
+        for (String reportId : List.of("report-1", "report-2")) {
+            Path reportDir = tempDir.resolve("reports").resolve(reportId);
+            Files.createDirectories(reportDir);
+            Files.writeString(reportDir.resolve("data.json"), reportId + " ".repeat(700 * 1024));
+            reportFileStore.store(reportDir);
+        }
+
+        RetentionResult result = new RetentionServiceImpl(storageProperties, reportService, archiveService, reportFileStore)
+            .runRetention();
+
+        assertEquals(List.of("report-1"), result.getDeletedReportIds());
+    }
+
+    private ReportMetadata addReport(String reportId, String timestamp) {
+        ReportMetadata metadata = new ReportMetadata();
+        metadata.setReportId(reportId);
+        metadata.setExecutionId(reportId);
+        metadata.setTimestamp(timestamp);
+        metadata.setReportPath(tempDir.resolve("reports").resolve(reportId).toString());
+        reports.add(metadata);
+        return metadata;
+    }
+
+    private void writeLog(String fileName) throws Exception {
+        Path logsDir = tempDir.resolve("logs");
+        Files.createDirectories(logsDir);
+        Files.writeString(logsDir.resolve(fileName), fileName.contains("2020") ? "old log" : "new log");
+    }
+
+    private List<String> reportIds() {
+        return reports.stream().map(ReportMetadata::getReportId).collect(Collectors.toList());
+    }
+}
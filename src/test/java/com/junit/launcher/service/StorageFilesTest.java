@@ -0,0 +1,58 @@
+package com.junit.launcher.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StorageFiles.
+ */
+class StorageFilesTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testAtomicMove_replacesExistingTarget() throws Exception {
+        Path source = Files.writeString(tempDir.resolve("source.tmp"), "new");
+        Path target = Files.writeString(tempDir.resolve("target.json"), "old");
+
+        StorageFiles.atomicMove(source, target);
+
+        assertFalse(Files.exists(source));
+        assertEquals("new", Files.readString(target));
+    }
+
+    @Test
+    void testDeleteEmptyDirectories_keepsRootAndDirectoriesWithFiles() throws Exception {
+        Files.createDirectories(tempDir.resolve("a/b/c"));
+        Files.createDirectories(tempDir.resolve("d"));
+        Files.writeString(tempDir.resolve("d/file.txt"), "kept");
+
+        StorageFiles.deleteEmptyDirectories(tempDir);
+
+        assertTrue(Files.isDirectory(tempDir));
+        assertFalse(Files.exists(tempDir.resolve("a")));
+        assertTrue(Files.isRegularFile(tempDir.resolve("d/file.txt")));
+    }
+
+    @Test
+    void testToEntryName_usesForwardSlashes() {
+        assertEquals("data/suites.json", StorageFiles.toEntryName(Path.of("data", "suites.json")));
+    }
+
+    @Test
+    void testSha256_hashesFilesAndBytesAlike() throws Exception {
+        byte[] content = "allure".getBytes(StandardCharsets.UTF_8);
+        Path file = Files.write(tempDir.resolve("file.bin"), content);
+
+        assertEquals(StorageFiles.sha256(content), StorageFiles.sha256(file));
+        assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855",
+            StorageFiles.sha256(new byte[0]));
+    }
+}
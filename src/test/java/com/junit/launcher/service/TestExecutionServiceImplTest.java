@@ -2,13 +2,28 @@ package com.junit.launcher.service;
 
 import com.junit.launcher.config.StorageProperties;
 import com.junit.launcher.model.ExecutionStatus;
+import com.junit.launcher.model.ExecutionSummary;
+import com.junit.launcher.model.ProgressEvent;
+import com.junit.launcher.model.ReportAsset;
 import com.junit.launcher.model.ReportMetadata;
+import com.junit.launcher.model.ReportPage;
+import com.junit.launcher.model.ReportQuery;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipFile;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -21,6 +36,7 @@ class TestExecutionServiceImplTest {
     private LogStreamingService logStreamingService;
     private AllureConfigurationService allureConfigurationService;
     private ReportService reportService;
+    private volatile ExecutionSummary lastSummary;
     
     @BeforeEach
     void setUp() {
@@ -37,11 +53,22 @@ class TestExecutionServiceImplTest {
                 return metadata;
             }
             
+            @Override
+            public ReportMetadata generateReport(String executionId, ExecutionSummary summary) throws Exception {
+                lastSummary = summary;
+                return generateReport(executionId);
+            }
+            
             @Override
             public List<ReportMetadata> listReports() {
                 return List.of();
             }
             
+            @Override
+            public ReportPage queryReports(ReportQuery query) {
+                return new ReportPage();
+            }
+            
             @Override
             public ReportMetadata combineReports(List<String> reportIds) throws Exception {
                 return null;
@@ -52,17 +79,61 @@ class TestExecutionServiceImplTest {
                 return null;
             }
             
+            @Override
+            public ReportAsset getReportAsset(String reportId, String filePath) {
+                return null;
+            }
+            
             @Override
             public List<String> getFailedTests(String reportId) throws Exception {
                 return List.of();
             }
+            
+            @Override
+            public long deleteReport(String reportId) {
+                return 0;
+            }
+            
+            @Override
+            public List<String> listIdleReports() {
+                return List.of();
+            }
+            
+            @Override
+            public long demoteReport(String reportId) {
+                return 0;
+            }
+            
+            @Override
+            public boolean rehydrateReport(String reportId) {
+                return false;
+            }
+            
+            @Override
+            public ZipFile openColdArchive(String reportId) {
+                return null;
+            }
+            
+            @Override
+            public long collectGarbage() {
+                return 0;
+            }
         };
         
         ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
         taskExecutor.setCorePoolSize(1);
         taskExecutor.initialize();
         
-        executionService = new TestExecutionServiceImpl(logStreamingService, allureConfigurationService, reportService, taskExecutor);
+        ThreadPoolTaskExecutor orchestrationExecutor = new ThreadPoolTaskExecutor();
+        orchestrationExecutor.setCorePoolSize(1);
+        orchestrationExecutor.initialize();
+        
+        ThreadPoolTaskExecutor reportExecutor = new ThreadPoolTaskExecutor();
+        reportExecutor.setCorePoolSize(1);
+        reportExecutor.initialize();
+        
+        executionService = new TestExecutionServiceImpl(logStreamingService, allureConfigurationService,
+            new ReportGenerationServiceImpl(reportService, reportExecutor), taskExecutor, orchestrationExecutor);
     }
     
     @Test
@@ -139,4 +210,106 @@ class TestExecutionServiceImplTest {
             executionService.cancelExecution("unknown-id");
         });
     }
+    
+    @Test
+    void testExecuteTests_publishesReportIdAfterCompletion() throws InterruptedException {
+        List<String> testIds = Arrays.asList(
+            "[engine:junit-jupiter]/[class:com.junit.launcher.service.LogIndexServiceImplTest]/[method:testTokenize_splitsOnNonWordCharacters()]"
+        );
+        
+        String executionId = executionService.executeTests(testIds);
+        
+        // The report is generated in the background after the tests complete
+        for (int i = 0; i < 100 && executionService.getReportId(executionId) == null; i++) {
+            Thread.sleep(100);
+        }
+        
+        assertEquals(ExecutionStatus.COMPLETED, executionService.getExecutionStatus(executionId));
+        assertEquals("test-report-" + executionId, executionService.getReportId(executionId));
+        ProgressEvent reportReady = logStreamingService.getLatestProgress(executionId);
+        assertEquals(ProgressEvent.Type.REPORT_READY, reportReady.getType());
+        assertEquals(executionId, reportReady.getExecutionId());
+        assertEquals(1, reportReady.getTotalTests());
+        assertEquals(1, reportReady.getPassedTests());
+    }
+    
+    @Test
+    void testExecuteTests_passesListenerSummaryToReportGeneration() throws Exception {
+        String testId = "[engine:junit-jupiter]/[class:com.junit.launcher.service.LogIndexServiceImplTest]/[method:testTokenize_splitsOnNonWordCharacters()]";
+        
+        String executionId = executionService.executeTests(List.of(testId));
+        
+        for (int i = 0; i < 100 && executionService.getReportId(executionId) == null; i++) {
+            Thread.sleep(100);
+        }
+        
+        // Counts come from the listener, not from the result files
+        assertNotNull(lastSummary);
+        assertEquals(executionId, lastSummary.getExecutionId());
+        assertEquals(1, lastSummary.getTotalTests());
+        assertEquals(1, lastSummary.getPassedTests());
+        assertTrue(lastSummary.getFailedTestIds().isEmpty());
+    }
+    
+    @Test
+    void testExecuteTests_writesAllureResultsUnderFileSafeUuids() throws Exception {
+        String testId = "[engine:junit-jupiter]/[class:com.junit.launcher.service.LogIndexServiceImplTest]/[method:testTokenize_splitsOnNonWordCharacters()]";
+        
+        String executionId = awaitReport(List.of(testId));
+        
+        // Unique IDs contain '/', so the file is named by a UUID and the unique ID is kept inside
+        List<Path> results = listResults(executionId);
+        assertEquals(1, results.size());
+        String fileName = results.get(0).getFileName().toString();
+        UUID.fromString(fileName.substring(0, fileName.length() - "-result.json".length()));
+        String result = Files.readString(results.get(0));
+        assertTrue(result.contains("\"testCaseId\":\"" + testId + "\""));
+        String historyId = UUID.nameUUIDFromBytes(testId.getBytes(StandardCharsets.UTF_8)).toString();
+        assertTrue(result.contains("\"historyId\":\"" + historyId + "\""));
+        assertTrue(result.contains("\"status\":\"passed\""));
+    }
+    
+    @Test
+    void testExecuteTests_writesSkippedResultsForTestsInSkippedContainers() throws Exception {
+        String containerId = "[engine:junit-jupiter]/[class:com.junit.launcher.service.TestExecutionServiceImplTest]/[nested-class:DisabledTests]";
+        
+        String executionId = awaitReport(List.of(containerId));
+        
+        List<Path> results = listResults(executionId);
+        assertEquals(1, results.size());
+        String result = Files.readString(results.get(0));
+        assertTrue(result.contains("\"status\":\"skipped\""));
+        assertTrue(result.contains(containerId + "/[method:testSkipped()]"));
+        assertEquals(1, lastSummary.getSkippedTests());
+    }
+    
+    private String awaitReport(List<String> testIds) throws InterruptedException {
+        String executionId = executionService.executeTests(testIds);
+        for (int i = 0; i < 100 && executionService.getReportId(executionId) == null; i++) {
+            Thread.sleep(100);
+        }
+        return executionId;
+    }
+    
+    private List<Path> listResults(String executionId) throws IOException {
+        Path resultsDir = allureConfigurationService.getResultsDirectory(executionId);
+        try (Stream<Path> files = Files.list(resultsDir)) {
+            return files
+                .filter(p -> p.getFileName().toString().endsWith("-result.json"))
+                .collect(Collectors.toList());
+        }
+    }
+    
+    /**
+     * Tests that are only ever skipped as a whole, through their container.
+     */
+    @Nested
+    @Disabled("Skipped container fixture")
+    class DisabledTests {
+        
+        @Test
+        void testSkipped() {
+            fail("Disabled tests must not run");
+        }
+    }
 }